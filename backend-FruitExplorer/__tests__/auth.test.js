@@ -1,4 +1,5 @@
 import request from 'supertest';
+import jwt from 'jsonwebtoken';
 import app from '../src/app.js';
 import pool from '../src/config/db.js';
 
@@ -69,4 +70,22 @@ describe('Auth API', () => {
     expect(res.statusCode).toEqual(404);
     expect(res.body).toHaveProperty('mensaje', 'Usuario no encontrado');
   });
+
+  it('should refresh a token keeping the original login time', async () => {
+    const res = await request(app)
+      .post('/api/auth/refresh')
+      .set('Authorization', `Bearer ${token}`);
+    expect(res.statusCode).toEqual(200);
+    expect(jwt.decode(res.body.token).auth_time).toEqual(jwt.decode(token).auth_time);
+  });
+
+  it('should not refresh a session older than 30 days', async () => {
+    const { id, email } = jwt.decode(token);
+    const authTime = Math.floor(Date.now() / 1000) - 31 * 24 * 60 * 60;
+    const chained = jwt.sign({ id, email, role: 'user', auth_time: authTime }, process.env.JWT_SECRET, { expiresIn: '1h' });
+    const res = await request(app)
+      .post('/api/auth/refresh')
+      .set('Authorization', `Bearer ${chained}`);
+    expect(res.statusCode).toEqual(401);
+  });
 });
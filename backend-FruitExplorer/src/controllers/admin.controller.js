@@ -103,6 +103,9 @@ export const bulkAssignRegion = async (req, res) => {
       }
     }
 
+    // La app sincroniza las relaciones junto con cada fruta
+    await pool.query('UPDATE fruits SET updated_at = NOW() WHERE id IN (?)', [fruitIds]);
+
     res.status(200).json({
       mensaje: `Región asignada a ${assigned} frutas`,
       assigned
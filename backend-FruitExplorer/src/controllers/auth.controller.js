@@ -1,4 +1,4 @@
-import { registerUser, loginUser } from '../services/auth.service.js';
+import { registerUser, loginUser, refreshSession } from '../services/auth.service.js';
 
 // Registrar nuevo usuario
 export const register = async (req, res) => {
@@ -38,3 +38,25 @@ export const login = async (req, res) => {
     res.status(500).json({ mensaje: 'Error al iniciar sesión' });
   }
 };
+
+// Renovar el token de una sesión (vigente o vencida hace poco)
+export const refresh = async (req, res) => {
+  const header = req.headers.authorization;
+  if (!header) {
+    return res.status(401).json({ mensaje: 'Token no proporcionado' });
+  }
+
+  try {
+    const result = await refreshSession(header.split(' ')[1]);
+    res.status(200).json({
+      mensaje: 'Sesión renovada',
+      ...result
+    });
+  } catch (err) {
+    if (err.name === 'JsonWebTokenError' || err.message === 'Sesión vencida' || err.message === 'Usuario no encontrado') {
+      return res.status(401).json({ mensaje: 'No se pudo renovar la sesión' });
+    }
+    console.error(err);
+    res.status(500).json({ mensaje: 'Error al renovar la sesión' });
+  }
+};
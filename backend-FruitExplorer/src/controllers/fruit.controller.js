@@ -1,15 +1,28 @@
 import pool from '../config/db.js';
+import { decodeCursor, encodeCursor, parsePageSize } from '../utils/cursor.js';
+import { FRUIT_DETAIL_INCLUDES, FRUIT_LIST_FIELDS, parseFields } from '../utils/fields.js';
 
-// Listar frutas con filtros: region, q (texto), page, limit
+// Listar frutas con filtros: region, q (texto), limit y cursor (o page, por compatibilidad).
+// Con cursor se pagina por (common_name, id): cada página cuesta lo mismo sin importar la posición.
+// next_cursor es null en la última página.
+// fields=id,slug,common_name,image_url limita las columnas (id y common_name van siempre, el cursor las usa).
 export const listFruits = async (req, res) => {
   try {
-    const { region, q, page = 1, limit = 20 } = req.query;
-    const offset = (page - 1) * limit;
+    const { region, q, cursor, page = 1 } = req.query;
+    const limit = parsePageSize(req.query.limit);
+    const offset = cursor ? 0 : (page - 1) * limit;
 
-    // CORRECCIÓN: Se añade f.nutritional a la consulta
-    let baseQuery = `SELECT f.id, f.slug, f.common_name, f.scientific_name,
-                            f.description, f.image_url, f.source_api_url, f.last_synced_at, f.created_at, f.nutritional
-                     FROM fruits f`;
+    const after = cursor ? decodeCursor(cursor) : null;
+    if (cursor && !after) {
+      return res.status(400).json({ mensaje: 'Cursor inválido' });
+    }
+
+    const { columns, invalid } = parseFields(req.query.fields, FRUIT_LIST_FIELDS, ['id', 'common_name']);
+    if (invalid) {
+      return res.status(400).json({ mensaje: `Campos desconocidos: ${invalid.join(', ')}` });
+    }
+
+    let baseQuery = `SELECT ${columns.map((column) => `f.${column}`).join(', ')} FROM fruits f`;
     const params = [];
 
     if (region) {
@@ -29,8 +42,13 @@ export const listFruits = async (req, res) => {
       params.push(region);
     }
 
-    const limitOffset = ' ORDER BY f.common_name ASC LIMIT ? OFFSET ?';
-    params.push(Number(limit), Number(offset));
+    if (after) {
+      where += (where ? ' AND' : ' WHERE') + ' (f.common_name > ? OR (f.common_name = ? AND f.id > ?))';
+      params.push(after.sortValue, after.sortValue, after.id);
+    }
+
+    const limitOffset = ' ORDER BY f.common_name ASC, f.id ASC LIMIT ? OFFSET ?';
+    params.push(limit, Number(offset));
 
     const [rows] = await pool.query(baseQuery + where + limitOffset, params);
 
@@ -47,7 +65,11 @@ export const listFruits = async (req, res) => {
       return fruit;
     });
 
-    res.status(200).json({ fruits: fruitsWithParsedNutritional });
+    const last = rows.length === limit ? rows[rows.length - 1] : null;
+    res.status(200).json({
+      fruits: fruitsWithParsedNutritional,
+      next_cursor: last ? encodeCursor(last.common_name, last.id) : null
+    });
   } catch (err) {
     console.error('Error listFruits', err);
     res.status(500).json({ mensaje: 'Error al obtener frutas' });
@@ -85,15 +107,46 @@ export const getFruitById = async (req, res) => {
 };
 
 // Obtener fruta por slug
+// include=recipes,regions agrega las relaciones en la misma respuesta: la ficha completa en un solo
+// viaje. Las consultas corren en paralelo, todas por slug.
 export const getFruitBySlug = async (req, res) => {
   try {
     const { slug } = req.params;
-    const [rows] = await pool.query(
-      `SELECT id, slug, common_name, scientific_name, description, nutritional,
-              image_url, source_api_url, last_synced_at, synced_by, created_at
-       FROM fruits WHERE slug = ?`,
-      [slug]
-    );
+    const { columns: includes, invalid } = parseFields(req.query.include, FRUIT_DETAIL_INCLUDES, [], []);
+    if (invalid) {
+      return res.status(400).json({ mensaje: `Relaciones desconocidas: ${invalid.join(', ')}` });
+    }
+
+    const [[rows], recipes, regions] = await Promise.all([
+      pool.query(
+        `SELECT id, slug, common_name, scientific_name, description, nutritional,
+                image_url, source_api_url, last_synced_at, synced_by, created_at
+         FROM fruits WHERE slug = ?`,
+        [slug]
+      ),
+      includes.includes('recipes')
+        ? pool.query(
+          `SELECT r.id, r.title, r.description, r.image_url
+           FROM recipes r
+           JOIN fruit_recipes fr ON r.id = fr.recipe_id
+           JOIN fruits f ON f.id = fr.fruit_id
+           WHERE f.slug = ?
+           ORDER BY r.title ASC`,
+          [slug]
+        ).then(([recipeRows]) => recipeRows)
+        : null,
+      includes.includes('regions')
+        ? pool.query(
+          `SELECT r.id, r.name, r.description, r.image_url
+           FROM regions r
+           JOIN fruit_regions fr ON r.id = fr.region_id
+           JOIN fruits f ON f.id = fr.fruit_id
+           WHERE f.slug = ?
+           ORDER BY r.name ASC`,
+          [slug]
+        ).then(([regionRows]) => regionRows)
+        : null
+    ]);
 
     if (rows.length === 0) return res.status(404).json({ mensaje: 'Fruta no encontrada' });
 
@@ -107,7 +160,10 @@ export const getFruitBySlug = async (req, res) => {
       }
     }
     // CORRECCIÓN: Se cambia la clave de "fruta" a "fruit"
-    res.status(200).json({ fruit: fruitData });
+    const body = { fruit: fruitData };
+    if (recipes) body.recipes = recipes;
+    if (regions) body.regions = regions;
+    res.status(200).json(body);
   } catch (err) {
     console.error('Error getFruitBySlug', err);
     res.status(500).json({ mensaje: 'Error al obtener la fruta' });
@@ -13,6 +13,8 @@ export const addFruitRecipe = async (req, res) => {
        VALUES (?, ?) ON DUPLICATE KEY UPDATE fruit_id = VALUES(fruit_id)`,
       [fruit_id, recipe_id]
     );
+    // La app sincroniza las relaciones junto con la fruta
+    await pool.query('UPDATE fruits SET updated_at = NOW() WHERE id = ?', [fruit_id]);
 
     res.status(201).json({ mensaje: 'Fruta asociada a receta correctamente' });
   } catch (err) {
@@ -76,6 +78,7 @@ export const removeFruitRecipe = async (req, res) => {
 
     if (result.affectedRows === 0)
       return res.status(404).json({ mensaje: 'No existía esa asociación' });
+    await pool.query('UPDATE fruits SET updated_at = NOW() WHERE id = ?', [fruit_id]);
 
     res.status(200).json({ mensaje: 'Asociación eliminada correctamente' });
   } catch (err) {
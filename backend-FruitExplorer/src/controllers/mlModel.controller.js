@@ -0,0 +1,40 @@
+import pool from '../config/db.js';
+
+/**
+ * Devuelve el modelo activo más reciente.
+ * Query params opcionales:
+ * - name: nombre del modelo
+ * - quantization: cuantización preferida (float32, int8) entre las de la versión más reciente;
+ *   si esa versión no la tiene se usa la que haya
+ */
+export const getLatestModel = async (req, res) => {
+  try {
+    const { name, quantization } = req.query;
+    const params = [];
+
+    let filter = "status = 'active'";
+    if (name) {
+      filter += ' AND name = ?';
+      params.push(name);
+    }
+
+    // Primero la versión más reciente (la del último modelo publicado); la cuantización preferida
+    // solo decide entre las filas de esa versión, para no quedarse con un int8 antiguo
+    let sql = `SELECT id, name, version, status, tflite_url, checksum_sha256, quantization, created_at
+               FROM ml_models
+               WHERE ${filter}
+                 AND (name, version) = (SELECT name, version FROM ml_models
+                                        WHERE ${filter} ORDER BY id DESC LIMIT 1)
+               ORDER BY (quantization = ?) DESC, id DESC LIMIT 1`;
+    params.push(...params, quantization || 'float32');
+
+    const [rows] = await pool.query(sql, params);
+
+    if (rows.length === 0) return res.status(404).json({ mensaje: 'No hay modelos activos' });
+
+    res.status(200).json({ model: rows[0] });
+  } catch (err) {
+    console.error('Error getLatestModel', err);
+    res.status(500).json({ mensaje: 'Error al obtener el modelo' });
+  }
+};
@@ -9,7 +9,9 @@ export const logQuery = async (req, res) => {
   // El ID del usuario lo inyecta el middleware requireAuth
   const userId = req.user.id;
   // CORRECCIÓN: Leemos los nuevos campos del cuerpo de la solicitud
-  const { fruit_name, location, confidence, modelId, device_info } = req.body;
+  const { fruit_name, location, confidence, device_info } = req.body;
+  // La app envía model_id (LogQueryRequest); se acepta modelId por compatibilidad
+  const modelId = req.body.model_id ?? req.body.modelId;
 
   if (!fruit_name) {
     return res.status(400).json({ mensaje: 'El nombre de la fruta (fruitName) es obligatorio.' });
@@ -69,4 +71,107 @@ export const updateQueryVoiceStatus = async (req, res) => {
     console.error('Error al actualizar la consulta:', err);
     res.status(500).json({ mensaje: 'Error interno del servidor al actualizar la consulta.' });
   }
-};
\ No newline at end of file
+};
+// Máximo de eventos por lote de POST /queries/events
+export const MAX_EVENTS_PER_BATCH = 100;
+
+const UUID_PATTERN = /^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$/i;
+
+const isClientId = (value) => typeof value === 'string' && UUID_PATTERN.test(value);
+
+// Hora del evento en el dispositivo (ms); si falta o es absurda, la de llegada
+const eventDate = (occurredAt) => {
+  const date = new Date(Number(occurredAt));
+  const now = Date.now();
+  if (Number.isNaN(date.getTime()) || date.getTime() > now + 60 * 60 * 1000) return new Date(now);
+  return date;
+};
+
+// device_info tiene CHECK json_valid: un valor inválido haría fallar el lote entero
+const deviceInfoJson = (deviceInfo) => {
+  if (typeof deviceInfo !== 'string') return null;
+  try {
+    JSON.parse(deviceInfo);
+    return deviceInfo;
+  } catch (e) {
+    return null;
+  }
+};
+
+/**
+ * Registra en bloque los eventos que la app acumula en su cola local (con o sin conexión).
+ * Cuerpo: { events: [...] } con hasta MAX_EVENTS_PER_BATCH eventos de dos tipos:
+ * - { type: 'query', client_id, fruit_name, location, confidence, model_id, device_info, occurred_at }
+ * - { type: 'voice', client_id }: marca voice_enabled en la consulta con ese client_id
+ *
+ * Es idempotente por client_id (la app reintenta el lote completo si no recibe respuesta).
+ * Los eventos inválidos o de frutas desconocidas se descartan sin rechazar el lote.
+ */
+export const logQueryEvents = async (req, res) => {
+  const userId = req.user.id;
+  const { events } = req.body;
+
+  if (!Array.isArray(events) || events.length === 0) {
+    return res.status(400).json({ mensaje: 'Se esperaba una lista de eventos (events).' });
+  }
+  if (events.length > MAX_EVENTS_PER_BATCH) {
+    return res.status(400).json({ mensaje: `Máximo ${MAX_EVENTS_PER_BATCH} eventos por lote.` });
+  }
+
+  const queryEvents = events.filter((e) => e && e.type === 'query' && isClientId(e.client_id)
+    && typeof e.fruit_name === 'string' && e.fruit_name !== '');
+  const voiceIds = [...new Set(events
+    .filter((e) => e && e.type === 'voice' && isClientId(e.client_id))
+    .map((e) => e.client_id))];
+
+  try {
+    let registered = 0;
+    if (queryEvents.length > 0) {
+      const slugs = [...new Set(queryEvents.map((e) => e.fruit_name))];
+      const [fruitRows] = await pool.query('SELECT id, slug FROM fruits WHERE slug IN (?)', [slugs]);
+      const fruitIds = new Map(fruitRows.map((row) => [row.slug, row.id]));
+
+      const rows = queryEvents
+        .filter((e) => fruitIds.has(e.fruit_name))
+        .map((e) => [
+          e.client_id,
+          userId,
+          fruitIds.get(e.fruit_name),
+          typeof e.confidence === 'number' && e.confidence >= 0 && e.confidence <= 1 ? e.confidence : null,
+          Number.isInteger(e.model_id) && e.model_id > 0 ? e.model_id : null,
+          e.fruit_name.slice(0, 150),
+          e.location || null,
+          deviceInfoJson(e.device_info),
+          false,
+          eventDate(e.occurred_at)
+        ]);
+
+      if (rows.length > 0) {
+        // Un reintento del mismo lote no duplica filas
+        const [result] = await pool.query(
+          `INSERT INTO queries (client_id, user_id, fruit_id, confidence, model_id, detected_name, location, device_info, voice_enabled, detected_at)
+           VALUES ? ON DUPLICATE KEY UPDATE client_id = client_id`,
+          [rows]
+        );
+        registered = result.affectedRows;
+      }
+    }
+
+    // Después de las inserciones: la voz puede venir en el mismo lote que su consulta
+    if (voiceIds.length > 0) {
+      await pool.query(
+        'UPDATE queries SET voice_enabled = true WHERE user_id = ? AND client_id IN (?)',
+        [userId, voiceIds]
+      );
+    }
+
+    res.status(200).json({
+      mensaje: 'Eventos registrados correctamente.',
+      recibidos: events.length,
+      registrados: registered
+    });
+  } catch (err) {
+    console.error('Error al registrar los eventos de consulta:', err);
+    res.status(500).json({ mensaje: 'Error interno del servidor al registrar los eventos.' });
+  }
+};
@@ -1,10 +1,18 @@
 import pool from '../config/db.js';
+import { decodeCursor, encodeCursor, parsePageSize } from '../utils/cursor.js';
 
 // Listar todas las recetas (público)
+// Igual que listFruits: con cursor pagina por (title, id) y devuelve next_cursor
 export const listRecipes = async (req, res) => {
   try {
-    const { q, page = 1, limit = 20 } = req.query;
-    const offset = (page - 1) * limit;
+    const { q, cursor, page = 1 } = req.query;
+    const limit = parsePageSize(req.query.limit);
+    const offset = cursor ? 0 : (page - 1) * limit;
+
+    const after = cursor ? decodeCursor(cursor) : null;
+    if (cursor && !after) {
+      return res.status(400).json({ mensaje: 'Cursor inválido' });
+    }
 
     // CORRECCIÓN: Hacemos la consulta más potente para buscar también por nombre de fruta.
     let query = `
@@ -12,6 +20,7 @@ export const listRecipes = async (req, res) => {
       FROM recipes r
     `;
     const params = [];
+    const conditions = [];
 
     if (q) {
       // Si hay un término de búsqueda, unimos las tablas para poder buscar en los nombres de las frutas.
@@ -19,16 +28,29 @@ export const listRecipes = async (req, res) => {
         LEFT JOIN fruit_recipes fr ON r.id = fr.recipe_id
         LEFT JOIN fruits f ON fr.fruit_id = f.id
       `;
-      query += ' WHERE r.title LIKE ? OR r.description LIKE ? OR f.common_name LIKE ?';
+      conditions.push('(r.title LIKE ? OR r.description LIKE ? OR f.common_name LIKE ?)');
       const like = `%${q}%`;
       params.push(like, like, like);
     }
 
-    query += ' ORDER BY r.title ASC LIMIT ? OFFSET ?';
-    params.push(Number(limit), Number(offset));
+    if (after) {
+      conditions.push('(r.title > ? OR (r.title = ? AND r.id > ?))');
+      params.push(after.sortValue, after.sortValue, after.id);
+    }
+
+    if (conditions.length > 0) {
+      query += ' WHERE ' + conditions.join(' AND ');
+    }
+
+    query += ' ORDER BY r.title ASC, r.id ASC LIMIT ? OFFSET ?';
+    params.push(limit, Number(offset));
 
     const [rows] = await pool.query(query, params);
-    res.status(200).json({ recipes: rows });
+    const last = rows.length === limit ? rows[rows.length - 1] : null;
+    res.status(200).json({
+      recipes: rows,
+      next_cursor: last ? encodeCursor(last.title, last.id) : null
+    });
   } catch (err) {
     console.error(err);
     res.status(500).json({ mensaje: 'Error al listar recetas' });
@@ -1,5 +1,12 @@
 import pool from '../config/db.js';
 
+// Marca la receta del paso como cambiada para la sincronización de la app
+const touchRecipeOfStep = (stepId) => pool.query(
+  `UPDATE recipes r JOIN recipe_steps s ON s.recipe_id = r.id
+   SET r.updated_at = NOW() WHERE s.id = ?`,
+  [stepId]
+);
+
 // Listar pasos de una receta
 export const listStepsByRecipe = async (req, res) => {
   try {
@@ -28,6 +35,8 @@ export const createStep = async (req, res) => {
       'INSERT INTO recipe_steps (recipe_id, step_number, description) VALUES (?, ?, ?)',
       [recipe_id, step_number, description]
     );
+    // La app sincroniza los pasos junto con la receta
+    await pool.query('UPDATE recipes SET updated_at = NOW() WHERE id = ?', [recipe_id]);
 
     res.status(201).json({ mensaje: 'Paso agregado correctamente' });
   } catch (err) {
@@ -48,6 +57,7 @@ export const updateStep = async (req, res) => {
     );
 
     if (result.affectedRows === 0) return res.status(404).json({ mensaje: 'Paso no encontrado' });
+    await touchRecipeOfStep(id);
     res.status(200).json({ mensaje: 'Paso actualizado correctamente' });
   } catch (err) {
     console.error(err);
@@ -59,6 +69,7 @@ export const updateStep = async (req, res) => {
 export const deleteStep = async (req, res) => {
   try {
     const { id } = req.params;
+    await touchRecipeOfStep(id);
     const [result] = await pool.query('DELETE FROM recipe_steps WHERE id = ?', [id]);
     if (result.affectedRows === 0) return res.status(404).json({ mensaje: 'Paso no encontrado' });
 
@@ -1,4 +1,5 @@
 import pool from '../config/db.js';
+import { FRUIT_LIST_FIELDS, parseFields } from '../utils/fields.js';
 
 // Crear una nueva región
 export const createRegion = async (req, res) => {
@@ -97,11 +98,18 @@ export const deleteRegion = async (req, res) => {
 };
 
 // Obtener todas las frutas de una región específica
+// Acepta fields=... como el listado de frutas
 export const getFruitsByRegion = async (req, res) => {
   try {
     const { id } = req.params;
+    const { columns, invalid } = parseFields(req.query.fields, FRUIT_LIST_FIELDS, ['id'],
+      ['id', 'slug', 'common_name', 'scientific_name', 'description', 'image_url', 'nutritional']);
+    if (invalid) {
+      return res.status(400).json({ mensaje: `Campos desconocidos: ${invalid.join(', ')}` });
+    }
+
     const [rows] = await pool.query(
-      `SELECT f.id, f.slug, f.common_name, f.scientific_name, f.description, f.image_url, f.nutritional
+      `SELECT ${columns.map((column) => `f.${column}`).join(', ')}
        FROM fruits f
        INNER JOIN fruit_regions fr ON f.id = fr.fruit_id
        WHERE fr.region_id = ?
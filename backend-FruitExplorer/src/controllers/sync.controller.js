@@ -0,0 +1,121 @@
+import { promisify } from 'node:util';
+import { gzip } from 'node:zlib';
+import pool from '../config/db.js';
+import { CATALOG_BINARY_TYPE, encodeCatalogChanges } from '../utils/catalogCodec.js';
+
+const gzipAsync = promisify(gzip);
+
+const parseNutritional = (fruit) => {
+  if (typeof fruit.nutritional === 'string') {
+    try {
+      fruit.nutritional = JSON.parse(fruit.nutritional);
+    } catch (e) {
+      console.error(`Error parsing nutritional data for fruit ID ${fruit.id}:`, e);
+      fruit.nutritional = null;
+    }
+  }
+  return fruit;
+};
+
+/**
+ * Cambios del catálogo para la base local de la app (sincronización incremental).
+ * Query params opcionales:
+ * - since: server_time de la sincronización anterior; sin él se devuelve el catálogo completo
+ *
+ * Devuelve las filas de fruits, regions y recipes con updated_at >= since, los pasos y
+ * relaciones completos de las frutas y recetas cambiadas, y los ids vigentes de cada tabla
+ * para que la app borre lo eliminado. El cliente guarda server_time como próxima marca.
+ *
+ * Con Accept: application/vnd.fruitexplorer.catalog.v1 se responde en el formato binario de
+ * utils/catalogCodec.js (comprimido con gzip si el cliente lo acepta); en cualquier otro caso, JSON.
+ */
+export const getCatalogChanges = async (req, res) => {
+  try {
+    const since = req.query.since ? new Date(req.query.since) : null;
+    if (since && Number.isNaN(since.getTime())) {
+      return res.status(400).json({ mensaje: 'Parámetro since inválido' });
+    }
+
+    // La marca se toma antes de leer: lo que cambie durante la lectura entra en la próxima
+    const [[{ serverTime }]] = await pool.query('SELECT NOW() AS serverTime');
+
+    const changedSince = since ? ' WHERE updated_at >= ?' : '';
+    const sinceParams = since ? [since] : [];
+
+    const [fruits] = await pool.query(
+      `SELECT id, slug, common_name, scientific_name, description, nutritional, image_url, updated_at
+       FROM fruits${changedSince}`,
+      sinceParams
+    );
+    const [regions] = await pool.query(
+      `SELECT id, name, description, image_url, updated_at FROM regions${changedSince}`,
+      sinceParams
+    );
+    const [recipes] = await pool.query(
+      `SELECT id, title, description, source, image_url, updated_at FROM recipes${changedSince}`,
+      sinceParams
+    );
+
+    const fruitIds = fruits.map(f => f.id);
+    const recipeIds = recipes.map(r => r.id);
+
+    let fruitRegions = [];
+    let fruitRecipes = [];
+    let recipeSteps = [];
+    if (fruitIds.length > 0) {
+      [fruitRegions] = await pool.query(
+        'SELECT fruit_id, region_id FROM fruit_regions WHERE fruit_id IN (?)',
+        [fruitIds]
+      );
+    }
+    if (fruitIds.length > 0 || recipeIds.length > 0) {
+      [fruitRecipes] = await pool.query(
+        'SELECT fruit_id, recipe_id FROM fruit_recipes WHERE fruit_id IN (?) OR recipe_id IN (?)',
+        [fruitIds.length > 0 ? fruitIds : [0], recipeIds.length > 0 ? recipeIds : [0]]
+      );
+    }
+    if (recipeIds.length > 0) {
+      [recipeSteps] = await pool.query(
+        `SELECT id, recipe_id, step_number, description FROM recipe_steps
+         WHERE recipe_id IN (?) ORDER BY recipe_id, step_number ASC`,
+        [recipeIds]
+      );
+    }
+
+    const [allFruitIds] = await pool.query('SELECT id FROM fruits');
+    const [allRegionIds] = await pool.query('SELECT id FROM regions');
+    const [allRecipeIds] = await pool.query('SELECT id FROM recipes');
+
+    const changes = {
+      server_time: serverTime,
+      full: !since,
+      fruits: fruits.map(parseNutritional),
+      regions,
+      recipes,
+      recipe_steps: recipeSteps,
+      fruit_regions: fruitRegions,
+      fruit_recipes: fruitRecipes,
+      ids: {
+        fruits: allFruitIds.map(row => row.id),
+        regions: allRegionIds.map(row => row.id),
+        recipes: allRecipeIds.map(row => row.id)
+      }
+    };
+
+    // La misma URL responde en dos formatos: las cachés deben separarlos por Accept
+    res.vary('Accept');
+    if (req.accepts(['application/json', CATALOG_BINARY_TYPE]) === CATALOG_BINARY_TYPE) {
+      const body = encodeCatalogChanges(changes);
+      res.status(200).type(CATALOG_BINARY_TYPE);
+      if (req.acceptsEncodings('gzip') === 'gzip') {
+        res.vary('Accept-Encoding').set('Content-Encoding', 'gzip');
+        return res.send(await gzipAsync(body));
+      }
+      return res.send(body);
+    }
+    res.status(200).json(changes);
+  } catch (err) {
+    console.error('Error getCatalogChanges', err);
+    res.status(500).json({ mensaje: 'Error al sincronizar el catálogo' });
+  }
+};
@@ -112,6 +112,17 @@ const openApiDocument = {
       },
     },
   },
+  '/auth/refresh': {
+    post: {
+      summary: 'Renovar el token de sesión',
+      description: 'Acepta el token actual en Authorization (Bearer), aunque haya vencido hace menos de 7 días. El token nuevo conserva auth_time (hora del login): pasados 30 días desde el login hay que volver a iniciar sesión',
+      tags: ['Autenticación'],
+      responses: {
+        200: { description: 'Token nuevo y datos del usuario' },
+        401: { description: 'Token inválido, vencido hace demasiado, sesión de más de 30 días o usuario inexistente' }
+      }
+    }
+  },
   '/fruits': {
     get: {
       summary: 'Listar frutas',
@@ -119,10 +130,12 @@ const openApiDocument = {
       parameters: [
         { name: 'region', in: 'query', schema: { type: 'string' } },
         { name: 'q', in: 'query', schema: { type: 'string' } },
-        { name: 'page', in: 'query', schema: { type: 'integer' } },
-        { name: 'limit', in: 'query', schema: { type: 'integer' } }
+        { name: 'cursor', in: 'query', schema: { type: 'string' }, description: 'next_cursor de la página anterior' },
+        { name: 'fields', in: 'query', schema: { type: 'string' }, description: 'Columnas separadas por coma, p. ej. id,slug,common_name,image_url' },
+        { name: 'page', in: 'query', schema: { type: 'integer' }, description: 'Solo sin cursor (compatibilidad)' },
+        { name: 'limit', in: 'query', schema: { type: 'integer' }, description: 'Máximo 100' }
       ],
-      responses: { 200: { description: 'Lista de frutas' } }
+      responses: { 200: { description: 'Lista de frutas y next_cursor (null en la última página)' } }
     },
     post: {
       summary: 'Crear fruta (admin)',
@@ -250,8 +263,11 @@ const openApiDocument = {
     get: {
       summary: 'Obtener fruta por slug',
       tags: ['Frutas'],
-      parameters: [{ name: 'slug', in: 'path', required: true, schema: { type: 'string' } }],
-      responses: { 200: { description: 'Fruta' }, 404: { description: 'No encontrada' } }
+      parameters: [
+        { name: 'slug', in: 'path', required: true, schema: { type: 'string' } },
+        { name: 'include', in: 'query', schema: { type: 'string' }, description: 'Relaciones en la misma respuesta: recipes, regions (separadas por coma)' }
+      ],
+      responses: { 200: { description: 'Fruta (con recipes y regions si se incluyeron)' }, 400: { description: 'Relación desconocida' }, 404: { description: 'No encontrada' } }
     }
   },
   '/fruits/{id}/sync': {
@@ -420,10 +436,11 @@ const openApiDocument = {
     security: [{ bearerAuth: [] }],
     parameters: [
       { name: 'q', in: 'query', schema: { type: 'string' }, description: 'Buscar por nombre o descripción' },
-      { name: 'page', in: 'query', schema: { type: 'integer' }, description: 'Página' },
-      { name: 'limit', in: 'query', schema: { type: 'integer' }, description: 'Resultados por página' }
+      { name: 'cursor', in: 'query', schema: { type: 'string' }, description: 'next_cursor de la página anterior' },
+      { name: 'page', in: 'query', schema: { type: 'integer' }, description: 'Página (solo sin cursor)' },
+      { name: 'limit', in: 'query', schema: { type: 'integer' }, description: 'Resultados por página (máximo 100)' }
     ],
-    responses: { 200: { description: 'Lista de recetas' } }
+    responses: { 200: { description: 'Lista de recetas y next_cursor (null en la última página)' } }
   },
   post: {
     summary: 'Crear una nueva receta (solo admin)',
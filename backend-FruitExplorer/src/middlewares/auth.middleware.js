@@ -17,6 +17,8 @@ export const requireAuth = (req, res, next) => {
     req.user = decoded;
     next();
   } catch (error) {
-    return res.status(403).json({ mensaje: 'Token inválido o expirado' });
+    // 401 y no 403: el cliente puede renovar el token (POST /auth/refresh) y reintentar;
+    // 403 queda para un usuario autenticado sin el rol necesario
+    return res.status(401).json({ mensaje: 'Token inválido o expirado' });
   }
 };
@@ -1,9 +1,10 @@
 import { Router } from 'express';
-import { register, login } from '../controllers/auth.controller.js';
+import { register, login, refresh } from '../controllers/auth.controller.js';
 
 const router = Router();
 
 router.post('/register', register);
 router.post('/login', login);
+router.post('/refresh', refresh);
 
 export default router;
@@ -8,6 +8,8 @@ import recipeStepRoutes from './recipeStep.routes.js';
 import regionRoutes from './region.routes.js';
 import fruitRecipeRoutes from './fruitRecipe.routes.js';
 import queryRoutes from './query.routes.js';
+import mlModelRoutes from './mlModel.routes.js';
+import syncRoutes from './sync.routes.js';
 
 import dashboardRoutes from './dashboard.routes.js';
 import analyticsRoutes from './analytics.routes.js';
@@ -27,6 +29,8 @@ router.use('/steps', recipeStepRoutes);
 router.use('/regions', regionRoutes);
 router.use('/fruit-recipes', fruitRecipeRoutes);
 router.use('/queries', queryRoutes);
+router.use('/ml-models', mlModelRoutes);
+router.use('/sync', syncRoutes);
 router.use('/dashboard', dashboardRoutes);
 router.use('/analytics', analyticsRoutes);
 router.use('/admin', adminRoutes);
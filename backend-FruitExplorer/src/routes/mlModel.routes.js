@@ -0,0 +1,15 @@
+import { Router } from 'express';
+import { getLatestModel } from '../controllers/mlModel.controller.js';
+
+const router = Router();
+
+/**
+ * @swagger
+ * /api/ml-models/latest:
+ *   get:
+ *     summary: Devuelve el modelo activo más reciente para la app.
+ *     description: Filtra por nombre y prefiere la cuantización indicada (por ejemplo int8) si existe una versión activa.
+ */
+router.get('/latest', getLatestModel);
+
+export default router;
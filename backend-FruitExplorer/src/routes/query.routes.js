@@ -1,5 +1,5 @@
 import { Router } from 'express';
-import { logQuery, updateQueryVoiceStatus } from '../controllers/query.controller.js';
+import { logQuery, logQueryEvents, updateQueryVoiceStatus } from '../controllers/query.controller.js';
 import { requireAuth } from '../middlewares/auth.middleware.js';
 
 const router = Router();
@@ -13,6 +13,15 @@ const router = Router();
  */
 router.post('/log', requireAuth, logQuery);
 
+/**
+ * @swagger
+ * /api/queries/events:
+ *   post:
+ *     summary: Registra en bloque consultas y usos de voz acumulados por la app.
+ *     description: Eventos con client_id (UUID generado en el dispositivo); idempotente ante reintentos. Requiere autenticación.
+ */
+router.post('/events', requireAuth, logQueryEvents);
+
 /**
  * @swagger
  * /api/queries/{id}/voice:
@@ -0,0 +1,18 @@
+import { Router } from 'express';
+import { getCatalogChanges } from '../controllers/sync.controller.js';
+
+const router = Router();
+
+/**
+ * @swagger
+ * /api/sync/catalog:
+ *   get:
+ *     summary: Cambios del catálogo desde la última sincronización de la app.
+ *     description: Frutas, regiones y recetas con updated_at >= since, sus pasos y relaciones, y los ids vigentes para detectar eliminaciones.
+ *     produces:
+ *       - application/json
+ *       - application/vnd.fruitexplorer.catalog.v1
+ */
+router.get('/catalog', getCatalogChanges);
+
+export default router;
@@ -3,6 +3,21 @@ import bcrypt from 'bcrypt';
 import jwt from 'jsonwebtoken';
 import { v4 as uuidv4 } from 'uuid';
 
+// Un token vencido todavía puede renovarse durante este margen (la app renueva al recibir un 401)
+const REFRESH_GRACE_SECONDS = 7 * 24 * 60 * 60;
+// Límite absoluto de una sesión desde el login (auth_time), por más que se renueve el token
+const SESSION_MAX_AGE_SECONDS = 30 * 24 * 60 * 60;
+const TOKEN_TTL_SECONDS = 60 * 60;
+
+const nowSeconds = () => Math.floor(Date.now() / 1000);
+
+// auth_time viaja sin cambios en cada renovación; el token nunca vence después del límite de la sesión
+const signSessionToken = ({ id, email, role }, authTime) => jwt.sign(
+  { id, email, role, auth_time: authTime },
+  process.env.JWT_SECRET,
+  { expiresIn: Math.min(TOKEN_TTL_SECONDS, authTime + SESSION_MAX_AGE_SECONDS - nowSeconds()) }
+);
+
 export const registerUser = async (email, password, display_name) => {
 //Verificar si ya existe
   const [existing] = await pool.query('SELECT * FROM users WHERE email = ?', [email]);
@@ -39,7 +54,7 @@ export const registerUser = async (email, password, display_name) => {
   );
 
   // Crear token JWT con rol
-  const token = jwt.sign({ id: userId, email, role: 'user' }, process.env.JWT_SECRET, { expiresIn: '1h' });
+  const token = signSessionToken({ id: userId, email, role: 'user' }, nowSeconds());
 
   return {
     token,
@@ -78,11 +93,7 @@ export const loginUser = async (email, password) => {
 
   await pool.query('UPDATE users SET last_login = NOW() WHERE id = ?', [user.id]);
 
-  const token = jwt.sign(
-    { id: user.id, email: user.email, role },
-    process.env.JWT_SECRET,
-    { expiresIn: '1h' }
-  );
+  const token = signSessionToken({ id: user.id, email: user.email, role }, nowSeconds());
 
   return {
     token,
@@ -94,3 +105,45 @@ export const loginUser = async (email, password) => {
     }
   };
 };
+
+export const refreshSession = async (token) => {
+  // La firma debe ser válida; el vencimiento se revisa aparte para admitir el margen de renovación
+  const decoded = jwt.verify(token, process.env.JWT_SECRET, { ignoreExpiration: true });
+  if (decoded.exp && nowSeconds() - decoded.exp > REFRESH_GRACE_SECONDS) {
+    throw new Error('Sesión vencida');
+  }
+  // Tokens anteriores a auth_time: su emisión es la cota más antigua conocida del login
+  const authTime = decoded.auth_time ?? decoded.iat;
+  if (!authTime || nowSeconds() - authTime >= SESSION_MAX_AGE_SECONDS) {
+    throw new Error('Sesión vencida');
+  }
+
+  // El usuario y su rol se leen de nuevo: un usuario eliminado o con otro rol no conserva el anterior
+  const [users] = await pool.query('SELECT id, email, display_name FROM users WHERE id = ?', [decoded.id]);
+  if (users.length === 0) {
+    throw new Error('Usuario no encontrado');
+  }
+  const user = users[0];
+
+  const [userRoles] = await pool.query(
+    `SELECT r.name as role_name
+     FROM user_roles ur
+     JOIN roles r ON ur.role_id = r.id
+     WHERE ur.user_id = ?
+     LIMIT 1`,
+    [user.id]
+  );
+  const role = userRoles.length > 0 ? userRoles[0].role_name : 'user';
+
+  const newToken = signSessionToken({ id: user.id, email: user.email, role }, authTime);
+
+  return {
+    token: newToken,
+    usuario: {
+      id: user.id,
+      email: user.email,
+      display_name: user.display_name,
+      role
+    }
+  };
+};
@@ -0,0 +1,153 @@
+// Formato binario compacto para GET /sync/catalog (la app lo pide con Accept; si no, JSON).
+// Espejo de CatalogBinaryCodec.java en la app. Cualquier cambio de esquema sube la versión del media type.
+//
+// Mensaje: 'FXC' + versión (1 byte) y luego, en orden:
+//   server_time, full, fruits, regions, recipes, recipe_steps, fruit_regions, fruit_recipes, ids
+// - entero: varint sin signo (LEB128); null se envía como 0
+// - texto: varint (bytes UTF-8 + 1) y los bytes; 0 = null
+// - lista: varint (cantidad + 1) y los elementos; 0 = null
+// - nutritional: lista de pares (clave, valor); la clave es un índice a las ya enviadas
+//   (1..n) o 0 seguido del texto de una clave nueva
+
+export const CATALOG_BINARY_TYPE = 'application/vnd.fruitexplorer.catalog.v1';
+
+const MAGIC = [0x46, 0x58, 0x43]; // 'FXC'
+const VERSION = 1;
+
+class Writer {
+  constructor() {
+    this.buffer = Buffer.alloc(64 * 1024);
+    this.length = 0;
+    this.keys = new Map();
+  }
+
+  ensure(extra) {
+    if (this.length + extra <= this.buffer.length) return;
+    const grown = Buffer.alloc(Math.max(this.buffer.length * 2, this.length + extra));
+    this.buffer.copy(grown, 0, 0, this.length);
+    this.buffer = grown;
+  }
+
+  byte(value) {
+    this.ensure(1);
+    this.buffer[this.length++] = value;
+  }
+
+  varint(value) {
+    let n = Number.isInteger(value) && value > 0 ? value : 0;
+    while (n >= 0x80) {
+      this.byte((n % 0x80) | 0x80);
+      n = Math.floor(n / 0x80);
+    }
+    this.byte(n);
+  }
+
+  string(value) {
+    if (value === null || value === undefined) {
+      this.varint(0);
+      return;
+    }
+    const text = value instanceof Date ? value.toISOString() : String(value);
+    const size = Buffer.byteLength(text, 'utf8');
+    this.varint(size + 1);
+    this.ensure(size);
+    this.buffer.write(text, this.length, size, 'utf8');
+    this.length += size;
+  }
+
+  list(items, writeItem) {
+    if (!Array.isArray(items)) {
+      this.varint(0);
+      return;
+    }
+    this.varint(items.length + 1);
+    for (const item of items) writeItem(item);
+  }
+
+  nutritional(data) {
+    let parsed = data;
+    if (typeof parsed === 'string') {
+      try {
+        parsed = JSON.parse(parsed);
+      } catch (e) {
+        parsed = null;
+      }
+    }
+    if (!parsed || typeof parsed !== 'object' || Array.isArray(parsed)) {
+      this.varint(0);
+      return;
+    }
+    // Igual que la app con JSON: se envían solo los valores de texto, número o booleano
+    const entries = Object.entries(parsed).filter(([, value]) =>
+      ['string', 'number', 'boolean'].includes(typeof value));
+    this.varint(entries.length + 1);
+    for (const [key, value] of entries) {
+      const index = this.keys.get(key);
+      if (index !== undefined) {
+        this.varint(index);
+      } else {
+        this.keys.set(key, this.keys.size + 1);
+        this.varint(0);
+        this.string(key);
+      }
+      this.string(value);
+    }
+  }
+
+  toBuffer() {
+    return this.buffer.subarray(0, this.length);
+  }
+}
+
+/**
+ * Codifica la respuesta de getCatalogChanges (mismo objeto que se enviaría como JSON)
+ */
+export const encodeCatalogChanges = (changes) => {
+  const out = new Writer();
+  MAGIC.forEach((b) => out.byte(b));
+  out.byte(VERSION);
+
+  out.string(changes.server_time);
+  out.byte(changes.full ? 1 : 0);
+  out.list(changes.fruits, (f) => {
+    out.varint(f.id);
+    out.string(f.slug);
+    out.string(f.common_name);
+    out.string(f.scientific_name);
+    out.string(f.description);
+    out.string(f.image_url);
+    out.nutritional(f.nutritional);
+  });
+  out.list(changes.regions, (r) => {
+    out.varint(r.id);
+    out.string(r.name);
+    out.string(r.description);
+    out.string(r.image_url);
+  });
+  out.list(changes.recipes, (r) => {
+    out.varint(r.id);
+    out.string(r.title);
+    out.string(r.description);
+    out.string(r.image_url);
+    out.string(r.source);
+  });
+  out.list(changes.recipe_steps, (s) => {
+    out.varint(s.recipe_id);
+    out.varint(s.step_number);
+    out.string(s.description);
+  });
+  out.list(changes.fruit_regions, (link) => {
+    out.varint(link.fruit_id);
+    out.varint(link.region_id);
+  });
+  out.list(changes.fruit_recipes, (link) => {
+    out.varint(link.fruit_id);
+    out.varint(link.recipe_id);
+  });
+  const ids = changes.ids || {};
+  out.list(ids.fruits, (id) => out.varint(id));
+  out.list(ids.regions, (id) => out.varint(id));
+  out.list(ids.recipes, (id) => out.varint(id));
+
+  return out.toBuffer();
+};
@@ -0,0 +1,24 @@
+// Paginación por cursor (keyset) para los listados públicos.
+// El cursor es opaco para el cliente: base64url de [clave de orden, id] de la última fila entregada.
+
+export const MAX_PAGE_SIZE = 100;
+
+export const encodeCursor = (sortValue, id) =>
+  Buffer.from(JSON.stringify([sortValue, id])).toString('base64url');
+
+// Devuelve { sortValue, id } o null si el cursor no es válido
+export const decodeCursor = (cursor) => {
+  try {
+    const decoded = JSON.parse(Buffer.from(String(cursor), 'base64url').toString('utf8'));
+    if (!Array.isArray(decoded) || decoded.length !== 2 || !Number.isInteger(decoded[1])) return null;
+    return { sortValue: decoded[0], id: decoded[1] };
+  } catch (e) {
+    return null;
+  }
+};
+
+export const parsePageSize = (limit, fallback = 20) => {
+  const size = Number.parseInt(limit, 10);
+  if (!Number.isFinite(size) || size <= 0) return fallback;
+  return Math.min(size, MAX_PAGE_SIZE);
+};
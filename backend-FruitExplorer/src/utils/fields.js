@@ -0,0 +1,25 @@
+// Proyección de columnas con ?fields=a,b,c para que los listados envíen solo lo que la pantalla usa.
+
+// Columnas públicas de fruits que se pueden pedir en un listado
+export const FRUIT_LIST_FIELDS = [
+  'id', 'slug', 'common_name', 'scientific_name', 'description', 'image_url',
+  'source_api_url', 'last_synced_at', 'created_at', 'nutritional'
+];
+
+// Relaciones que GET /fruits/slug/:slug puede incluir con ?include=recipes,regions
+export const FRUIT_DETAIL_INCLUDES = ['recipes', 'regions'];
+
+/**
+ * Columnas pedidas en el orden de `allowed`, siempre con las de `required`.
+ * Devuelve { columns } o { invalid } con los nombres desconocidos. Sin fields devuelve `defaults`.
+ */
+export const parseFields = (fields, allowed, required = [], defaults = allowed) => {
+  if (fields === undefined || fields === null || String(fields).trim() === '') {
+    return { columns: defaults };
+  }
+  const requested = String(fields).split(',').map((name) => name.trim()).filter(Boolean);
+  const invalid = requested.filter((name) => !allowed.includes(name));
+  if (invalid.length > 0) return { invalid };
+  const wanted = new Set([...required, ...requested]);
+  return { columns: allowed.filter((name) => wanted.has(name)) };
+};
@@ -43,6 +43,12 @@ android {
     buildFeatures {
         buildConfig = true
     }
+    testOptions {
+        unitTests.all {
+            // Las mediciones de tiempo (*BenchmarkTest) solo corren con ./gradlew test -Pbenchmarks
+            it.systemProperty("fruitexplorer.benchmarks", project.hasProperty("benchmarks").toString())
+        }
+    }
 }
 
 dependencies {
@@ -53,8 +59,8 @@ dependencies {
     implementation("androidx.camera:camera-lifecycle:$cameraxVersion")
     implementation("androidx.camera:camera-view:$cameraxVersion")
 
-    // TensorFlow Lite Task Library para visión
-    implementation("org.tensorflow:tensorflow-lite-task-vision:0.4.3")
+    // TensorFlow Lite (intérprete con delegados XNNPACK y NNAPI)
+    implementation("org.tensorflow:tensorflow-lite:2.14.0")
 
     // Glide para la carga de imágenes desde URL
     implementation("com.github.bumptech.glide:glide:4.12.0")
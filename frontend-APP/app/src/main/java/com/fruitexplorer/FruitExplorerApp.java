@@ -0,0 +1,61 @@
+package com.fruitexplorer;
+
+import android.app.Application;
+import android.content.Intent;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+
+import com.fruitexplorer.activities.LoginActivity;
+import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.data.CatalogSync;
+import com.fruitexplorer.data.QueryEventQueue;
+import com.fruitexplorer.utils.SessionManager;
+
+/**
+ * Punto de arranque del proceso:
+ * - Inicia el núcleo de red compartido (ApiClient) antes de la primera pantalla
+ * - Sincroniza el catálogo local al arrancar y cada vez que vuelve la conexión
+ * - Sube en el mismo momento las consultas que quedaron en QueryEventQueue
+ * - Empieza a leer la sesión en segundo plano (SessionStore), antes de que la pida SplashActivity
+ * - Lleva al login cuando la sesión vence o el servidor la rechaza (un evento por sesión, desde AuthState)
+ */
+public class FruitExplorerApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // La sesión se lee en el hilo de SessionStore; aquí solo se registra el aviso de sesión vencida
+        SessionManager.init(this);
+        SessionManager.getAuthState(this).setListener(() ->
+                new Handler(Looper.getMainLooper()).post(this::showLoginAfterSessionExpired));
+        ApiClient.init(this);
+
+        CatalogSync catalogSync = CatalogSync.getInstance(this);
+        catalogSync.requestSync();
+        QueryEventQueue queryEventQueue = QueryEventQueue.getInstance(this);
+        queryEventQueue.requestFlush();
+
+        ConnectivityManager connectivityManager = getSystemService(ConnectivityManager.class);
+        if (connectivityManager != null) {
+            connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(@NonNull Network network) {
+                    catalogSync.requestSync();
+                    queryEventQueue.requestFlush();
+                }
+            });
+        }
+    }
+
+    private void showLoginAfterSessionExpired() {
+        Toast.makeText(this, "Tu sesión expiró. Inicia sesión nuevamente", Toast.LENGTH_LONG).show();
+        Intent intent = new Intent(this, LoginActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        startActivity(intent);
+    }
+}
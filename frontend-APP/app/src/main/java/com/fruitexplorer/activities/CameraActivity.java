@@ -3,6 +3,7 @@ package com.fruitexplorer.activities;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
@@ -15,6 +16,10 @@ import android.widget.TextView;
 import android.widget.Toast;
 import android.util.Log;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.PickVisualMediaRequest;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.camera.core.Camera;
 import androidx.core.app.ActivityCompat;
@@ -26,32 +31,52 @@ import androidx.camera.view.PreviewView;
 import android.widget.LinearLayout;
 import androidx.core.content.ContextCompat;
 
+import com.fruitexplorer.BuildConfig;
 import com.fruitexplorer.R;
 import com.fruitexplorer.api.ApiClient;
-import com.fruitexplorer.api.ApiService;
-import com.fruitexplorer.models.BaseResponse;
+import com.fruitexplorer.api.FruitDetailPrefetcher;
+import com.fruitexplorer.data.QueryEventQueue;
+import com.fruitexplorer.ml.BatchClassifier;
+import com.fruitexplorer.ml.ClassificationResult;
+import com.fruitexplorer.ml.DetectionConfirmer;
+import com.fruitexplorer.ml.DetectionController;
+import com.fruitexplorer.ml.FruitClassifierEngine;
+import com.fruitexplorer.ml.GalleryImageDecoder;
+import com.fruitexplorer.ml.InferenceScheduler;
+import com.fruitexplorer.ml.PipelineMetrics;
+import com.fruitexplorer.ml.RoiClassifier;
+import com.fruitexplorer.ml.StableCandidateTrigger;
 import com.fruitexplorer.models.Fruit;
-import com.fruitexplorer.models.LogQueryRequest;
-import com.fruitexplorer.models.FruitResponse;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.utils.MainThreadScheduler;
 import com.fruitexplorer.utils.SessionManager;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.common.util.concurrent.ListenableFuture;
 
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
-public class CameraActivity extends AppCompatActivity implements FruitAnalyzer.FruitDetectionListener {
+public class CameraActivity extends AppCompatActivity implements DetectionController.Listener {
 
     private static final String TAG = "CameraActivity";
-    private static final long DETECTION_CONFIRMATION_DELAY = 1500L;
+
+    // Máximo de fotos por lote desde la galería
+    private static final int MAX_GALLERY_IMAGES = 30;
+
+    // Refresco de la capa de métricas de depuración
+    private static final long METRICS_OVERLAY_REFRESH_MS = 500;
+
+    // Tiempo que el mismo candidato debe mantenerse antes de precargar su ficha
+    private static final long CANDIDATE_STABLE_MS = 300;
 
     private PreviewView viewFinder;
     private ListenableFuture<ProcessCameraProvider> cameraProviderFuture;
@@ -61,20 +86,39 @@ public class CameraActivity extends AppCompatActivity implements FruitAnalyzer.F
     private Button btnRetry;
     private ProgressBar detectionProgress;
     private ProgressBar loadingIndicator;
+    private ImageButton btnGallery;
+    private TextView metricsOverlay;
 
     private SessionManager sessionManager;
-    private ApiService apiService;
     private String lastDetectedFruit = "";
-    private String lockedFruit = null;
-    private float lockedConfidence = 0.0f;
-    private boolean isDetectionPaused = false;
-
-    private final Handler detectionHandler = new Handler(Looper.getMainLooper());
-    private Runnable confirmationRunnable;
 
-    private ExecutorService cameraExecutor;
+    // Ficha del candidato pedida antes de confirmar; FruitDetailActivity la toma de la misma caché
+    private FruitDetailPrefetcher detailPrefetcher;
+    private FruitDetailPrefetcher.Listener pendingDetails;
+    private StableCandidateTrigger candidatePrefetch;
+
+    // Estado de la detección y executor del analizador; la cámara se enlaza una sola vez
+    private DetectionController detectionController;
+    private FruitClassifierEngine classifierEngine;
+    private FruitAnalyzer fruitAnalyzer;
+    private final InferenceScheduler inferenceScheduler = new InferenceScheduler();
+    private final PipelineMetrics pipelineMetrics = new PipelineMetrics();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable metricsOverlayUpdater = new Runnable() {
+        @Override
+        public void run() {
+            metricsOverlay.setText(pipelineMetrics.toOverlayText());
+            handler.postDelayed(this, METRICS_OVERLAY_REFRESH_MS);
+        }
+    };
     private FusedLocationProviderClient fusedLocationClient;
 
+    private BatchClassifier<Uri> batchClassifier;
+    private BatchClassifier.Batch currentBatch;
+    private final ActivityResultLauncher<PickVisualMediaRequest> pickImagesLauncher =
+            registerForActivityResult(new ActivityResultContracts.PickMultipleVisualMedia(MAX_GALLERY_IMAGES),
+                    this::classifyGalleryImages);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -87,13 +131,28 @@ public class CameraActivity extends AppCompatActivity implements FruitAnalyzer.F
         btnRetry = findViewById(R.id.btnRetry);
         detectionProgress = findViewById(R.id.detectionProgress);
         loadingIndicator = findViewById(R.id.loadingIndicator);
+        btnGallery = findViewById(R.id.btnGallery);
+        metricsOverlay = findViewById(R.id.metricsOverlay);
 
         sessionManager = new SessionManager(this);
-        apiService = ApiClient.getApiService(this);
+        detailPrefetcher = ApiClient.getFruitDetailPrefetcher(this);
+        // Candidata estable: la ficha se pide mientras se termina de confirmar
+        candidatePrefetch = new StableCandidateTrigger(new MainThreadScheduler(), CANDIDATE_STABLE_MS,
+                detailPrefetcher::prefetch);
 
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
 
-        cameraExecutor = Executors.newSingleThreadExecutor();
+        detectionController = new DetectionController(ContextCompat.getMainExecutor(this), this,
+                pipelineMetrics, System::nanoTime);
+        classifierEngine = FruitClassifierEngine.getInstance(this);
+        // La retícula siempre; el frame en dos escalas solo si su puntaje no alcanza para bloquear, así
+        // una fruta clara cuesta una inferencia por frame muestreado y no anula el ahorro de InferenceScheduler
+        RoiClassifier roiClassifier = new RoiClassifier(classifierEngine::classify, pipelineMetrics,
+                System::nanoTime, FruitClassifierEngine.MODEL_INPUT_SIZE, FruitClassifierEngine.TOP_K,
+                RoiClassifier.DEFAULT_RETICLE_FRACTION, DetectionConfirmer.DEFAULT_LOCK_THRESHOLD,
+                RoiClassifier.DEFAULT_FRAME_BUDGET_NANOS);
+        fruitAnalyzer = new FruitAnalyzer(classifierEngine, inferenceScheduler, roiClassifier,
+                pipelineMetrics, detectionController);
 
         cameraProviderFuture = ProcessCameraProvider.getInstance(this);
 
@@ -108,14 +167,39 @@ public class CameraActivity extends AppCompatActivity implements FruitAnalyzer.F
 
         btnRetry.setOnClickListener(v -> resetDetection());
 
+        // Solo en builds de depuración: mantener presionada la vista previa muestra las métricas
+        // y tocar la capa comparte el snapshot JSON para adjuntarlo a un reporte
+        if (BuildConfig.DEBUG) {
+            viewFinder.setOnLongClickListener(v -> {
+                toggleMetricsOverlay();
+                return true;
+            });
+            metricsOverlay.setOnClickListener(v -> shareMetricsSnapshot());
+        }
+
+        btnGallery.setOnClickListener(v -> {
+            if (!classifierEngine.isReady()) {
+                Toast.makeText(this, "El modelo aún se está cargando", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            pickImagesLauncher.launch(new PickVisualMediaRequest.Builder()
+                    .setMediaType(ActivityResultContracts.PickVisualMedia.ImageOnly.INSTANCE)
+                    .build());
+        });
+
         btnSeeDetails.setOnClickListener(v -> {
-            if (lockedFruit != null) {
+            DetectionController.Snapshot snapshot = detectionController.getSnapshot();
+            if (snapshot.getState() == DetectionController.State.LOCKED) {
                 showLoadingUI(true);
-                fetchFruitDetails(lockedFruit, lockedConfidence);
+                fetchFruitDetails(snapshot.getLockedLabel(), snapshot.getLockedScore());
             }
         });
     }
 
+    /**
+     * Enlaza la vista previa y el análisis una sola vez. Pausar o reanudar la detección
+     * solo cambia el estado del controlador; la sesión de la cámara sigue abierta.
+     */
     private void startCamera(ProcessCameraProvider cameraProvider) {
         Preview preview = new Preview.Builder().build();
 
@@ -129,15 +213,10 @@ public class CameraActivity extends AppCompatActivity implements FruitAnalyzer.F
                 .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
                 .build();
 
-        imageAnalysis.setAnalyzer(cameraExecutor, new FruitAnalyzer(this, this));
+        imageAnalysis.setAnalyzer(detectionController.getAnalyzerExecutor(), fruitAnalyzer);
 
         cameraProvider.unbindAll();
-
-        if (!isDetectionPaused) {
-            cameraProvider.bindToLifecycle(this, cameraSelector, preview, imageAnalysis);
-        } else {
-            cameraProvider.bindToLifecycle(this, cameraSelector, preview);
-        }
+        cameraProvider.bindToLifecycle(this, cameraSelector, preview, imageAnalysis);
     }
 
     @Override
@@ -146,148 +225,234 @@ public class CameraActivity extends AppCompatActivity implements FruitAnalyzer.F
         resetDetection();
     }
 
-    private void resetDetection() {
-        isDetectionPaused = false;
-        lockedFruit = null;
-        lockedConfidence = 0.0f;
-        lastDetectedFruit = "";
-        confirmationGroup.setAlpha(0f);
-        confirmationGroup.setVisibility(View.GONE);
-        detectionProgress.setVisibility(View.GONE);
-        detectionResultTextView.setText("Apuntando a una fruta...");
-
-        if (cameraExecutor == null || cameraExecutor.isShutdown()) {
-            cameraExecutor = Executors.newSingleThreadExecutor();
-        }
+    @Override
+    protected void onPause() {
+        super.onPause();
+        detectionController.pause();
+    }
 
-        cameraProviderFuture.addListener(() -> {
-            try {
-                ProcessCameraProvider cameraProvider = cameraProviderFuture.get();
-                startCamera(cameraProvider);
-            } catch (Exception e) {
-                Log.e(TAG, "Error al reiniciar la detección.", e);
-            }
-        }, ContextCompat.getMainExecutor(this));
+    /**
+     * Escaneo nuevo: el analizador descarta los votos anteriores en su siguiente frame
+     */
+    private void resetDetection() {
+        detectionController.startScan();
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        cameraExecutor.shutdown();
+        Log.i(TAG, "Estadísticas de inferencia: " + inferenceScheduler);
+        Log.i(TAG, "Métricas del pipeline: " + buildMetricsSnapshot());
+        handler.removeCallbacks(metricsOverlayUpdater);
+        candidatePrefetch.cancel();
+        if (pendingDetails != null) {
+            detailPrefetcher.cancel(pendingDetails);
+        }
+        Log.i(TAG, "Precarga de fichas: " + detailPrefetcher.getStats());
+        detectionController.shutdown();
+        if (currentBatch != null) {
+            currentBatch.cancel();
+        }
+        if (batchClassifier != null) {
+            batchClassifier.shutdown();
+        }
     }
 
     @Override
-    public void onFruitDetected(String fruitName, float score) {
-        if (isDetectionPaused) return;
-
-        runOnUiThread(() -> {
-            if (!fruitName.equals(lastDetectedFruit)) {
-                detectionHandler.removeCallbacks(confirmationRunnable);
-
-                lastDetectedFruit = fruitName;
-                updateDetectionUI(fruitName, score, true);
-
-                confirmationRunnable = () -> {
-                    lockedFruit = fruitName;
-                    lockedConfidence = score;
-                    pauseDetection();
-                    showConfirmationUI();
-                };
-                detectionHandler.postDelayed(confirmationRunnable, DETECTION_CONFIRMATION_DELAY);
-            }
-        });
+    public void onDetectionStateChanged(DetectionController.Snapshot snapshot) {
+        candidatePrefetch.onSnapshot(snapshot);
+        switch (snapshot.getState()) {
+            case SCANNING:
+                if (!snapshot.hasCandidate()) {
+                    lastDetectedFruit = "";
+                    confirmationGroup.animate().cancel();
+                    confirmationGroup.setAlpha(0f);
+                    confirmationGroup.setVisibility(View.GONE);
+                    detectionProgress.setVisibility(View.GONE);
+                    detectionResultTextView.setText("Apuntando a una fruta...");
+                } else if (!snapshot.getCandidateLabel().equals(lastDetectedFruit)) {
+                    lastDetectedFruit = snapshot.getCandidateLabel();
+                    updateDetectionUI(lastDetectedFruit, snapshot.getCandidateScore(), true);
+                }
+                break;
+            case LOCKED:
+                detailPrefetcher.prefetch(snapshot.getLockedLabel());
+                updateDetectionUI(snapshot.getLockedLabel(), snapshot.getLockedScore(), false);
+                showConfirmationUI();
+                break;
+            case PAUSED:
+                // La vista conserva el último estado hasta reanudar
+                break;
+        }
     }
 
-    private void pauseDetection() {
-        isDetectionPaused = true;
-        cameraProviderFuture.addListener(() -> {
-            try {
-                startCamera(cameraProviderFuture.get());
-            } catch (Exception e) {
-                Log.e(TAG, "Error al pausar la cámara.", e);
+    private void fetchFruitDetails(String fruitName, float confidence) {
+        showLoadingUI(true);
+        if (pendingDetails != null) {
+            detailPrefetcher.cancel(pendingDetails);
+        }
+        // Normalmente la ficha ya está precargada y llega en esta misma llamada
+        pendingDetails = new FruitDetailPrefetcher.Listener() {
+            @Override
+            public void onFruit(Fruit fruit) {
+                detailPrefetcher.cancel(this);
+                pendingDetails = null;
+                resolveLocationAndLaunch(fruit, confidence);
             }
-        }, ContextCompat.getMainExecutor(this));
+
+            @Override
+            public void onRecipes(List<Recipe> recipes) {
+                // Las usa FruitDetailActivity
+            }
+
+            @Override
+            public void onFruitFailed(int code, Throwable error) {
+                detailPrefetcher.cancel(this);
+                pendingDetails = null;
+                showLoadingUI(false);
+                if (error == null) {
+                    Log.w(TAG, "No se encontró información para la fruta: " + fruitName + " Código: " + code);
+                } else {
+                    Log.e(TAG, "Error al obtener detalles de la fruta: ", error);
+                    Toast.makeText(CameraActivity.this, "Error de red", Toast.LENGTH_SHORT).show();
+                }
+            }
+        };
+        detailPrefetcher.load(fruitName, pendingDetails);
     }
 
-    private void fetchFruitDetails(String fruitName, float confidence) {
-        showLoadingUI(true);
-        if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
+    private void resolveLocationAndLaunch(Fruit fruit, float confidence) {
+        // La actividad puede haberse restaurado sin pasar por SplashActivity: sin esperar al disco aquí
+        if (!sessionManager.isLoaded()) {
+            sessionManager.whenLoaded(() -> resolveLocationAndLaunch(fruit, confidence));
+            return;
+        }
+        // La ubicación solo se usa para registrar la consulta
+        if (sessionManager.isLoggedIn()
+                && ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
             fusedLocationClient.getLastLocation()
                     .addOnSuccessListener(this, location -> {
                         String locationString = null;
                         if (location != null) {
                             locationString = location.getLatitude() + "," + location.getLongitude();
                         }
-                        fetchFruitDetailsApiCall(fruitName, locationString, confidence);
+                        logQueryAndLaunchDetails(fruit, locationString, confidence);
                     })
                     .addOnFailureListener(e -> {
-                        fetchFruitDetailsApiCall(fruitName, null, confidence);
+                        logQueryAndLaunchDetails(fruit, null, confidence);
                     });
         } else {
-            fetchFruitDetailsApiCall(fruitName, null, confidence);
+            logQueryAndLaunchDetails(fruit, null, confidence);
         }
     }
 
-    private void fetchFruitDetailsApiCall(String fruitName, String location, float confidence) {
-        apiService.getFruitBySlug(fruitName).enqueue(new Callback<FruitResponse>() {
-            @Override
-            public void onResponse(Call<FruitResponse> call, Response<FruitResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    Fruit fruit = response.body().getFruit();
+    private void logQueryAndLaunchDetails(Fruit fruit, String location, float confidence) {
+        if (!sessionManager.isLoggedIn()) {
+            launchFruitDetailActivity(fruit, null);
+            return;
+        }
+
+        String deviceInfo = getDeviceInfoJson();
+        // Modelo que produjo la detección bloqueada (queries.model_id)
+        int modelId = detectionController.getSnapshot().getLockedModelId();
+        if (modelId < 0) {
+            modelId = classifierEngine.getModelId();
+        }
+        // Se guarda en la cola local y se sube en segundo plano; el detalle se abre sin esperar a la red
+        String queryClientId = QueryEventQueue.getInstance(this)
+                .logQuery(fruit.getSlug(), location, confidence, modelId, deviceInfo);
+        launchFruitDetailActivity(fruit, queryClientId);
+    }
 
-                    logQueryAndLaunchDetails(fruit, location, confidence);
+    /**
+     * Clasifica varias fotos de la galería en segundo plano (por ejemplo, toda la compra del mercado)
+     */
+    private void classifyGalleryImages(List<Uri> uris) {
+        if (uris == null || uris.isEmpty()) {
+            return;
+        }
+        if (batchClassifier == null) {
+            batchClassifier = classifierEngine.newBatchClassifier(
+                    new GalleryImageDecoder(getContentResolver(), FruitClassifierEngine.MODEL_INPUT_SIZE));
+        }
 
-                } else {
-                    showLoadingUI(false);
-                    Log.w(TAG, "No se encontró información para la fruta: " + fruitName + " Código: " + response.code());
-                }
+        showLoadingUI(true);
+        btnGallery.setEnabled(false);
+        detectionResultTextView.setText("Clasificando " + uris.size() + " imágenes...");
+
+        String[] topLabels = new String[uris.size()];
+        float[] topScores = new float[uris.size()];
+        long start = System.currentTimeMillis();
+        currentBatch = batchClassifier.classifyAll(uris, new BatchClassifier.Callback<Uri>() {
+            @Override
+            public void onImageClassified(int index, Uri source, ClassificationResult result) {
+                // Cada índice lo escribe un solo hilo; onBatchFinished llega después de todas las escrituras
+                topLabels[index] = result.isEmpty() ? null : result.getLabel(0);
+                topScores[index] = result.isEmpty() ? 0f : result.getScore(0);
             }
 
             @Override
-            public void onFailure(Call<FruitResponse> call, Throwable t) {
-                showLoadingUI(false);
-                Log.e(TAG, "Error al obtener detalles de la fruta: ", t);
-                Toast.makeText(CameraActivity.this, "Error de red", Toast.LENGTH_SHORT).show();
+            public void onImageFailed(int index, Uri source, Exception error) {
+                Log.w(TAG, "No se pudo clasificar " + source, error);
+            }
+
+            @Override
+            public void onBatchFinished(int classified, int failed) {
+                Log.i(TAG, "Lote de " + uris.size() + " imágenes en "
+                        + (System.currentTimeMillis() - start) + " ms (" + failed + " fallidas)");
+                runOnUiThread(() -> showGalleryResults(topLabels, topScores));
             }
         });
     }
 
-    private void logQueryAndLaunchDetails(Fruit fruit, String location, float confidence) {
-        if (!sessionManager.isLoggedIn()) {
-            launchFruitDetailActivity(fruit, -1);
+    private void showGalleryResults(String[] topLabels, float[] topScores) {
+        if (isFinishing() || isDestroyed()) {
             return;
         }
-
-        String deviceInfo = getDeviceInfoJson();
-        LogQueryRequest request = new LogQueryRequest(fruit.getSlug(), location, confidence, 1, deviceInfo);
-        
-        apiService.logQuery(request).enqueue(new Callback<BaseResponse>() {
-            @Override
-            public void onResponse(Call<BaseResponse> call, Response<BaseResponse> response) {
-                long queryId = -1;
-                if (response.isSuccessful() && response.body() != null) {
-                    queryId = response.body().getQueryId();
-                    Log.i(TAG, "Consulta registrada con ID: " + queryId);
-                } else {
-                    showLoadingUI(false);
-                    Log.e(TAG, "Error al registrar la consulta. Código: " + response.code());
-                }
-                launchFruitDetailActivity(fruit, queryId);
+        showLoadingUI(false);
+        btnGallery.setEnabled(true);
+        String lockedFruit = detectionController.getSnapshot().getLockedLabel();
+        detectionResultTextView.setText(lockedFruit != null ? lockedFruit : "Apuntando a una fruta...");
+
+        // Frutas reconocidas con la misma confianza que exige la cámara para bloquear
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int unidentified = 0;
+        for (int i = 0; i < topLabels.length; i++) {
+            if (topLabels[i] != null && topScores[i] >= DetectionConfirmer.DEFAULT_LOCK_THRESHOLD) {
+                Integer count = counts.get(topLabels[i]);
+                counts.put(topLabels[i], count == null ? 1 : count + 1);
+            } else {
+                unidentified++;
             }
+        }
 
-            @Override
-            public void onFailure(Call<BaseResponse> call, Throwable t) {
-                showLoadingUI(false);
-                Log.e(TAG, "Fallo de red al registrar la consulta.", t);
-                launchFruitDetailActivity(fruit, -1);
-            }
-        });
+        List<String> slugs = new ArrayList<>(counts.keySet());
+        List<String> items = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            items.add(entry.getKey() + " x" + entry.getValue());
+        }
+        if (unidentified > 0) {
+            items.add("Sin identificar x" + unidentified);
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle("Frutas encontradas")
+                .setItems(items.toArray(new String[0]), (dialog, which) -> {
+                    if (which < slugs.size()) {
+                        Intent intent = new Intent(this, FruitDetailActivity.class);
+                        intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_SLUG, slugs.get(which));
+                        startActivity(intent);
+                    }
+                })
+                .setPositiveButton("Cerrar", null)
+                .show();
     }
 
-    private void launchFruitDetailActivity(Fruit fruit, long queryId) {
+    private void launchFruitDetailActivity(Fruit fruit, String queryClientId) {
         Intent intent = new Intent(this, FruitDetailActivity.class);
         intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_SLUG, fruit.getSlug());
-        intent.putExtra(FruitDetailActivity.EXTRA_QUERY_ID, queryId);
+        intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_IMAGE_URL, fruit.getImageUrl());
+        intent.putExtra(FruitDetailActivity.EXTRA_QUERY_CLIENT_ID, queryClientId);
         startActivity(intent);
     }
 
@@ -323,6 +488,37 @@ public class CameraActivity extends AppCompatActivity implements FruitAnalyzer.F
         }
     }
 
+    private void toggleMetricsOverlay() {
+        if (metricsOverlay.getVisibility() == View.VISIBLE) {
+            metricsOverlay.setVisibility(View.GONE);
+            handler.removeCallbacks(metricsOverlayUpdater);
+        } else {
+            metricsOverlay.setVisibility(View.VISIBLE);
+            handler.post(metricsOverlayUpdater);
+        }
+    }
+
+    /**
+     * Métricas del pipeline junto con el modelo, el delegado y el dispositivo
+     */
+    private String buildMetricsSnapshot() {
+        JsonObject snapshot = pipelineMetrics.toJson();
+        snapshot.addProperty("model_id", classifierEngine.getModelId());
+        snapshot.addProperty("delegate", String.valueOf(classifierEngine.getDelegateConfig()));
+        snapshot.addProperty("inference_fps", inferenceScheduler.getCurrentInferenceFps());
+        snapshot.addProperty("device", Build.MANUFACTURER + " " + Build.MODEL);
+        snapshot.addProperty("sdk_int", Build.VERSION.SDK_INT);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(snapshot);
+    }
+
+    private void shareMetricsSnapshot() {
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("application/json");
+        intent.putExtra(Intent.EXTRA_SUBJECT, "Métricas de la cámara de FruitExplorer");
+        intent.putExtra(Intent.EXTRA_TEXT, buildMetricsSnapshot());
+        startActivity(Intent.createChooser(intent, "Compartir métricas"));
+    }
+
     private String getDeviceInfoJson() {
         JSONObject deviceInfo = new JSONObject();
         try {
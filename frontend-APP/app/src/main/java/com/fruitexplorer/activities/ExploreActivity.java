@@ -2,8 +2,6 @@ package com.fruitexplorer.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -15,6 +13,7 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
@@ -25,9 +24,20 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.fruitexplorer.R;
 import com.fruitexplorer.adapters.FruitAdapter;
 import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.api.ApiPagingSource;
 import com.fruitexplorer.api.ApiService;
-import com.fruitexplorer.models.Fruit;
-import com.fruitexplorer.models.FruitListResponse;
+import com.fruitexplorer.api.SearchPipeline;
+import com.fruitexplorer.data.CatalogRepository;
+import com.fruitexplorer.data.CatalogSync;
+import com.fruitexplorer.data.FallbackPagingSource;
+import com.fruitexplorer.data.PagedList;
+import com.fruitexplorer.data.PagingSource;
+import com.fruitexplorer.ml.FruitClassifierEngine;
+import com.fruitexplorer.ml.ModelRegistry;
+import com.fruitexplorer.models.FruitSummary;
+import com.fruitexplorer.models.FruitSummaryListResponse;
+import com.fruitexplorer.utils.Constants;
+import com.fruitexplorer.utils.MainThreadScheduler;
 import com.fruitexplorer.utils.SessionManager;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
@@ -36,10 +46,6 @@ import com.facebook.shimmer.ShimmerFrameLayout;
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class ExploreActivity extends AppCompatActivity implements FruitAdapter.OnFruitClickListener {
     private static final String TAG = "ExploreActivity";
     private SessionManager sessionManager;
@@ -47,7 +53,7 @@ public class ExploreActivity extends AppCompatActivity implements FruitAdapter.O
 
     private RecyclerView fruitsRecyclerView;
     private FruitAdapter fruitAdapter;
-    private List<Fruit> currentFruits = new ArrayList<>();
+    private List<FruitSummary> currentFruits = new ArrayList<>();
     private FloatingActionButton fabCamera;
     private BottomNavigationView bottomNavigationView;
     private ShimmerFrameLayout shimmerLayout;
@@ -55,7 +61,18 @@ public class ExploreActivity extends AppCompatActivity implements FruitAdapter.O
     private ImageView emptyStateIcon;
     private TextView emptyStateTextView;
 
-    private final Handler handler = new Handler(Looper.getMainLooper());
+    private CatalogRepository catalogRepository;
+    private CatalogSync catalogSync;
+    // Listado completo por páginas; null mientras se muestran resultados de búsqueda
+    private PagedList<FruitSummary> fruitPages;
+    private final SearchPipeline searchPipeline =
+            new SearchPipeline(new MainThreadScheduler(), Constants.SEARCH_DEBOUNCE_MS, this::fetchFruits);
+    // Al terminar una sincronización con cambios se vuelve a leer el catálogo local
+    private final CatalogSync.Listener catalogListener = changed -> {
+        if (changed) {
+            searchPipeline.refresh();
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -67,6 +84,13 @@ public class ExploreActivity extends AppCompatActivity implements FruitAdapter.O
 
         sessionManager = new SessionManager(this);
         apiService = ApiClient.getApiService(this);
+        catalogRepository = CatalogRepository.getInstance(this);
+        catalogSync = CatalogSync.getInstance(this);
+
+        // Carga el modelo en segundo plano antes de que el usuario abra la cámara
+        FruitClassifierEngine.getInstance(this);
+        // Y busca en ml_models una versión más nueva para activarla en caliente
+        ModelRegistry.getInstance(this).checkForUpdatesInBackground();
 
         fruitsRecyclerView = findViewById(R.id.fruitsRecyclerView);
         fabCamera = findViewById(R.id.fabCamera);
@@ -79,7 +103,18 @@ public class ExploreActivity extends AppCompatActivity implements FruitAdapter.O
         setupRecyclerView();
         setupBottomNavigation();
 
-        fetchFruits(null);
+        searchPipeline.submit(null);
+        catalogSync.addListener(catalogListener);
+        catalogSync.requestSync();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        catalogSync.removeListener(catalogListener);
+        searchPipeline.close();
+        closeFruitPages();
+        Log.i(TAG, "Búsqueda de frutas: " + searchPipeline.getStats());
     }
 
     @Override
@@ -92,16 +127,14 @@ public class ExploreActivity extends AppCompatActivity implements FruitAdapter.O
         searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
             @Override
             public boolean onQueryTextSubmit(String query) {
-                handler.removeCallbacksAndMessages(null);
-                fetchFruits(query);
+                searchPipeline.submit(query);
                 searchView.clearFocus();
                 return true;
             }
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                handler.removeCallbacksAndMessages(null);
-                handler.postDelayed(() -> fetchFruits(newText), 300);
+                searchPipeline.onQueryChanged(newText);
                 return true;
             }
         });
@@ -147,6 +180,16 @@ public class ExploreActivity extends AppCompatActivity implements FruitAdapter.O
         fruitsRecyclerView.setLayoutManager(new GridLayoutManager(this, 2));
         fruitAdapter = new FruitAdapter(this, new ArrayList<>(), this);
         fruitsRecyclerView.setAdapter(fruitAdapter);
+        fruitsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (fruitPages != null) {
+                    GridLayoutManager layoutManager = (GridLayoutManager) recyclerView.getLayoutManager();
+                    fruitPages.onVisibleRangeChanged(layoutManager.findFirstVisibleItemPosition(),
+                            layoutManager.findLastVisibleItemPosition());
+                }
+            }
+        });
         
         LayoutAnimationController animation = AnimationUtils.loadLayoutAnimation(this, R.anim.layout_animation_fall_down);
         fruitsRecyclerView.setLayoutAnimation(animation);
@@ -192,41 +235,92 @@ public class ExploreActivity extends AppCompatActivity implements FruitAdapter.O
     }
 
     
-    private void fetchFruits(String query) {
-        showLoading(true);
-        String actualQuery = (query != null && !query.trim().isEmpty()) ? query.trim() : null;
+    private void fetchFruits(String actualQuery, SearchPipeline.Ticket ticket) {
+        if (actualQuery == null) {
+            // Sin búsqueda: el catálogo completo por páginas, local o de la API si todavía no se sincronizó
+            showFruitPages(new FallbackPagingSource<>(catalogRepository.fruitPages(), apiFruitPages(null, ticket)));
+            return;
+        }
+        // Con búsqueda: el índice local responde al instante y funciona sin señal
+        catalogRepository.loadFruits(actualQuery, fruits -> {
+            if (!ticket.isCurrent()) {
+                return;
+            }
+            if (fruits != null) {
+                showFruits(fruits);
+            } else {
+                showFruitPages(apiFruitPages(actualQuery, ticket));
+            }
+        });
+    }
+
+    private void showFruits(List<FruitSummary> fruits) {
+        closeFruitPages();
+        showLoading(false);
+        currentFruits.clear();
+        currentFruits.addAll(fruits);
+        fruitAdapter.updateFruits(currentFruits);
+
+        if (currentFruits.isEmpty()) {
+            showEmptyState("No se encontraron frutas.", R.drawable.ic_public);
+        }
+    }
+
+    /**
+     * Las llamadas van por el ticket: una búsqueda nueva cancela las páginas pendientes
+     */
+    private PagingSource<FruitSummary> apiFruitPages(String actualQuery, SearchPipeline.Ticket ticket) {
+        return new ApiPagingSource<FruitSummary, FruitSummaryListResponse>(ticket::enqueue,
+                (cursor, limit) -> apiService.listFruitsPage(actualQuery, cursor, limit),
+                FruitSummaryListResponse::getFruits, FruitSummaryListResponse::getNextCursor);
+    }
 
-        apiService.listFruits(actualQuery).enqueue(new Callback<FruitListResponse>() {
+    private void showFruitPages(PagingSource<FruitSummary> source) {
+        closeFruitPages();
+        showLoading(true);
+        fruitPages = new PagedList<>(source, Constants.PAGE_SIZE, Constants.PAGING_PREFETCH_DISTANCE,
+                Constants.PAGING_MAX_PAGES, new PagedList.Listener() {
             @Override
-            public void onResponse(Call<FruitListResponse> call, Response<FruitListResponse> response) {
-                showLoading(false);
-                if (response.isSuccessful() && response.body() != null && response.body().getFruits() != null) {
-                    currentFruits.clear();
-                    currentFruits.addAll(response.body().getFruits());
-                    fruitAdapter.updateFruits(currentFruits);
-
-                    if (currentFruits.isEmpty()) {
+            public void onPageLoaded(int start, int count, boolean inserted) {
+                if (start == 0 && inserted) {
+                    showLoading(false);
+                    if (count == 0) {
                         showEmptyState("No se encontraron frutas.", R.drawable.ic_public);
+                        return;
                     }
+                }
+                if (inserted) {
+                    fruitAdapter.notifyItemRangeInserted(start, count);
                 } else {
-                    showEmptyState("Error al cargar frutas.", R.drawable.ic_public);
-                    Log.e(TAG, "Error al cargar frutas: " + response.code() + " - " + response.message());
+                    fruitAdapter.notifyItemRangeChanged(start, count);
                 }
             }
 
             @Override
-            public void onFailure(Call<FruitListResponse> call, Throwable t) {
-                showLoading(false);
-                showEmptyState("Error de conexión.", R.drawable.ic_public);
-                Log.e(TAG, "Error de red al cargar frutas: ", t);
+            public void onPageError(int page, Throwable t) {
+                Log.e(TAG, "Error al cargar la página " + page + " de frutas: ", t);
+                if (page == 0) {
+                    showLoading(false);
+                    showEmptyState("Error de conexión.", R.drawable.ic_public);
+                }
             }
         });
+        fruitAdapter.submitPagedList(fruitPages);
+        fruitPages.start();
+    }
+
+    private void closeFruitPages() {
+        if (fruitPages != null) {
+            fruitPages.close();
+            fruitPages = null;
+        }
     }
 
     @Override
-    public void onFruitClick(Fruit fruit, ImageView fruitImageView) {
+    public void onFruitClick(FruitSummary fruit, ImageView fruitImageView) {
         Intent intent = new Intent(this, FruitDetailActivity.class);
         intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_SLUG, fruit.getSlug());
+        intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_IMAGE_URL, fruit.getImageUrl());
 
         ActivityOptionsCompat options = ActivityOptionsCompat.makeSceneTransitionAnimation(
                 this,
@@ -1,94 +1,113 @@
 package com.fruitexplorer.activities;
 
 import android.annotation.SuppressLint;
-import android.content.Context;
-import android.graphics.Bitmap;
-import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.camera.core.ImageAnalysis;
 import androidx.camera.core.ImageProxy;
 
-import org.tensorflow.lite.support.image.TensorImage;
-import org.tensorflow.lite.task.vision.classifier.Classifications;
-import org.tensorflow.lite.task.vision.classifier.ImageClassifier;
-import org.tensorflow.lite.support.label.Category;
-
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
-
+import com.fruitexplorer.ml.CandidateReporter;
+import com.fruitexplorer.ml.DetectionConfirmer;
+import com.fruitexplorer.ml.DetectionController;
+import com.fruitexplorer.ml.FruitClassifierEngine;
+import com.fruitexplorer.ml.InferenceScheduler;
+import com.fruitexplorer.ml.PipelineMetrics;
+import com.fruitexplorer.ml.RoiClassifier;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analizador de CameraX. Corre en el executor del DetectionController y solo procesa frames
+ * mientras el controlador está escaneando; los resultados se reportan con el id del escaneo
+ * para que el controlador descarte los que llegan tarde.
+ */
 public class FruitAnalyzer implements ImageAnalysis.Analyzer {
 
-    public interface FruitDetectionListener {
-        void onFruitDetected(String fruitName, float score);
+    private final FruitClassifierEngine classifierEngine;
+    private final InferenceScheduler scheduler;
+    private final DetectionController controller;
+    private final PipelineMetrics metrics;
+    private final RoiClassifier roiClassifier;
+
+    // Top-k del frame actual, reutilizados entre frames
+    private final int[] topLabels = new int[FruitClassifierEngine.TOP_K];
+    private final float[] topScores = new float[FruitClassifierEngine.TOP_K];
+
+    private CandidateReporter reporter;
+    private long scanStartNanos = -1;
+
+    public FruitAnalyzer(FruitClassifierEngine classifierEngine, InferenceScheduler scheduler,
+                         RoiClassifier roiClassifier, PipelineMetrics metrics,
+                         DetectionController controller) {
+        this.classifierEngine = classifierEngine;
+        this.scheduler = scheduler;
+        this.roiClassifier = roiClassifier;
+        this.metrics = metrics;
+        this.controller = controller;
     }
 
-    private static final String TAG = "FruitAnalyzer";
-    private ImageClassifier imageClassifier;
-    private List<String> labels;
-    private final FruitDetectionListener listener;
-
-    public FruitAnalyzer(Context context, FruitDetectionListener listener) {
-        this.listener = listener;
+    @Override
+    public void analyze(@NonNull ImageProxy image) {
+        // Con KEEP_ONLY_LATEST, un frame sin cerrar detiene el análisis: se cierra aunque clasificar
+        // falle (por ejemplo, mientras ModelRegistry cambia el modelo del motor)
         try {
-            ImageClassifier.ImageClassifierOptions options = ImageClassifier.ImageClassifierOptions.builder()
-                    .setMaxResults(1)
-                    .setScoreThreshold(0.7f)
-                    .build();
-
-            imageClassifier = ImageClassifier.createFromFileAndOptions(
-                    context,
-                    "model.tflite",
-                    options
-            );
-        } catch (IOException e) {
-            Log.e(TAG, "Error al inicializar el ImageClassifier.", e);
-        }
-
-        loadLabels(context);
-    }
-
-    private void loadLabels(Context context) {
-        labels = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(context.getAssets().open("labels.txt")))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                labels.add(line);
-            }
-        } catch (IOException e) {
-            Log.e(TAG, "Error al cargar el archivo de etiquetas (labels.txt).", e);
+            process(image);
+        } finally {
+            image.close();
         }
     }
 
     @SuppressLint("UnsafeOptInUsageError")
-    @Override
-    public void analyze(@NonNull ImageProxy image) {
-        if (imageClassifier == null) {
-            image.close();
+    private void process(ImageProxy image) {
+        long timestampNanos = image.getImageInfo().getTimestamp();
+        metrics.onFrameReceived(timestampNanos);
+
+        // Pausado o con una fruta bloqueada: el frame se devuelve sin tocarlo
+        if (!controller.isAnalyzing()) {
+            metrics.onFrameGated();
+            return;
+        }
+        if (!classifierEngine.isReady()) {
+            metrics.onFrameDroppedWhileLoading();
             return;
         }
 
-        Bitmap bitmap = image.toBitmap();
-        TensorImage tensorImage = TensorImage.fromBitmap(bitmap);
-
-        List<Classifications> results = imageClassifier.classify(tensorImage);
-
-        if (results != null && !results.isEmpty() && !results.get(0).getCategories().isEmpty()) {
-            Category topCategory = results.get(0).getCategories().get(0);
-            float score = topCategory.getScore();
-
-            int categoryIndex = topCategory.getIndex();
+        if (reporter == null) {
+            reporter = new CandidateReporter(controller,
+                    new DetectionConfirmer(classifierEngine.getLabelCount()), classifierEngine::getLabel,
+                    classifierEngine::getModelId, FruitClassifierEngine.TOP_K);
+        }
+        if (reporter.startScanIfNew(controller.getScanId())) {
+            // Escaneo nuevo: los votos y el planificador empiezan de cero en este hilo
+            scheduler.reset();
+            scanStartNanos = System.nanoTime();
+        }
+        if (reporter.isLocked()) {
+            // El bloqueo ya se reportó pero el controlador aún no lo reflejaba al leer el estado
+            metrics.onFrameGated();
+            return;
+        }
 
-            if (labels != null && categoryIndex >= 0 && categoryIndex < labels.size()) {
-                String fruitName = labels.get(categoryIndex);
-                listener.onFruitDetected(fruitName, score);
-            }
+        ImageProxy.PlaneProxy[] planes = image.getPlanes();
+        if (!scheduler.shouldClassify(planes[0].getBuffer(), planes[0].getRowStride(),
+                image.getWidth(), image.getHeight(), timestampNanos)) {
+            metrics.onFrameSkipped();
+            return;
         }
 
-        image.close();
+        // Retícula central; si no alcanza el umbral de bloqueo y queda presupuesto, también el frame en dos
+        // escalas. Gana el mejor recorte
+        int count = roiClassifier.classify(
+                planes[0].getBuffer(), planes[0].getRowStride(),
+                planes[1].getBuffer(), planes[2].getBuffer(),
+                planes[1].getRowStride(), planes[1].getPixelStride(),
+                image.getWidth(), image.getHeight(),
+                image.getImageInfo().getRotationDegrees(),
+                topLabels, topScores);
+        metrics.onFrameClassified();
+
+        if (reporter.onClassified(topLabels, topScores, count, TimeUnit.NANOSECONDS.toMillis(timestampNanos))) {
+            metrics.recordTimeToLock(System.nanoTime() - scanStartNanos);
+        }
     }
-}
\ No newline at end of file
+}
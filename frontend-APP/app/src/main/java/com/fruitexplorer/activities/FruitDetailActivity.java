@@ -2,6 +2,7 @@ package com.fruitexplorer.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.speech.tts.TextToSpeech;
 import android.util.Log;
 import android.widget.GridLayout;
@@ -19,37 +20,73 @@ import com.bumptech.glide.Glide;
 import com.fruitexplorer.R;
 import com.fruitexplorer.adapters.RecipeAdapter;
 import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.api.FruitDetailPrefetcher;
+import com.fruitexplorer.data.QueryEventQueue;
 import com.fruitexplorer.models.Fruit;
-import com.fruitexplorer.models.LogQueryRequest;
 import com.fruitexplorer.utils.SessionManager;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.google.gson.JsonObject;
-import com.fruitexplorer.models.FruitResponse;
+import com.fruitexplorer.models.NutritionalData;
 import com.fruitexplorer.models.Recipe;
-import com.fruitexplorer.models.RecipeListResponse;
 import com.google.android.material.appbar.CollapsingToolbarLayout;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 import android.view.View;
 
 public class FruitDetailActivity extends AppCompatActivity implements TextToSpeech.OnInitListener {
 
     public static final String EXTRA_FRUIT_SLUG = "extra_fruit_slug";
-    public static final String EXTRA_QUERY_ID = "extra_query_id";
+    public static final String EXTRA_QUERY_CLIENT_ID = "extra_query_client_id";
+    // Imagen que ya mostraba la pantalla anterior: se pinta antes de que llegue la ficha
+    public static final String EXTRA_FRUIT_IMAGE_URL = "extra_fruit_image_url";
     private static final String TAG = "FruitDetailActivity";
 
     private TextToSpeech textToSpeech;
     private FloatingActionButton fabSpeak;
     private Fruit currentFruit;
-    private com.fruitexplorer.api.ApiService apiService;
+    // Ficha y recetas: en memoria si la cámara (u otra pantalla) ya las precargó
+    private FruitDetailPrefetcher detailPrefetcher;
+    private final FruitDetailPrefetcher.Listener detailListener = new FruitDetailPrefetcher.Listener() {
+        @Override
+        public void onFruit(Fruit fruit) {
+            currentFruit = fruit;
+            populateUi();
+            contentLayout.setVisibility(View.VISIBLE);
+            markFirstContent("ficha");
+        }
+
+        @Override
+        public void onRecipes(List<Recipe> recipes) {
+            if (!recipes.isEmpty()) {
+                recipesCard.setVisibility(View.VISIBLE);
+                recipeAdapter.updateRecipes(recipes);
+            } else {
+                recipesCard.setVisibility(View.GONE);
+            }
+            Log.i(TAG, "Ficha completa en " + (SystemClock.elapsedRealtime() - openedAtMs) + " ms");
+        }
+
+        @Override
+        public void onFruitFailed(int code, Throwable error) {
+            if (error == null) {
+                Log.e(TAG, "Error al obtener detalles de la fruta. Código: " + code);
+                Toast.makeText(FruitDetailActivity.this, "Error al cargar la fruta.", Toast.LENGTH_SHORT).show();
+            } else {
+                Log.e(TAG, "Fallo de red al obtener detalles de la fruta.", error);
+                Toast.makeText(FruitDetailActivity.this, "Error de conexión.", Toast.LENGTH_SHORT).show();
+            }
+            finish();
+        }
+    };
     private SessionManager sessionManager;
-    private long queryId = -1;
+    // Tiempos de carga: hasta la primera sección visible y hasta la ficha completa (con recetas)
+    private long openedAtMs;
+    private boolean firstContentShown = false;
+    private String heroImageUrl;
+    // UUID de la consulta en QueryEventQueue; null si la pantalla no viene de una detección
+    private String queryClientId;
 
     private ImageView fruitImageView;
     private TextView commonNameTextView;
@@ -75,20 +112,28 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         }
 
+        openedAtMs = SystemClock.elapsedRealtime();
         initViews();
         setupSharedElementTransition();
 
         contentLayout.setVisibility(View.INVISIBLE);
 
+        // Cada sección se muestra cuando llega: imagen, ficha y por último recetas
+        String previewImageUrl = getIntent().getStringExtra(EXTRA_FRUIT_IMAGE_URL);
+        if (previewImageUrl != null) {
+            loadHeroImage(previewImageUrl);
+            markFirstContent("imagen");
+        }
+
         String fruitSlug = getIntent().getStringExtra(EXTRA_FRUIT_SLUG);
-        queryId = getIntent().getLongExtra(EXTRA_QUERY_ID, -1);
+        queryClientId = getIntent().getStringExtra(EXTRA_QUERY_CLIENT_ID);
 
         textToSpeech = new TextToSpeech(this, this);
-        apiService = ApiClient.getApiService(this);
+        detailPrefetcher = ApiClient.getFruitDetailPrefetcher(this);
         sessionManager = new SessionManager(this);
 
         if (fruitSlug != null && !fruitSlug.isEmpty()) {
-            fetchFruitDetails(fruitSlug);
+            detailPrefetcher.load(fruitSlug, detailListener);
         } else {
             Toast.makeText(this, "No se pudo cargar la fruta.", Toast.LENGTH_SHORT).show();
             finish();
@@ -115,30 +160,6 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
         ViewCompat.setTransitionName(fruitImageView, "fruit_image");
     }
 
-    private void fetchFruitDetails(String slug) {
-        apiService.getFruitBySlug(slug).enqueue(new Callback<FruitResponse>() {
-            @Override
-            public void onResponse(Call<FruitResponse> call, Response<FruitResponse> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().getFruit() != null) {
-                    currentFruit = response.body().getFruit();
-                    populateUi();
-                    contentLayout.setVisibility(View.VISIBLE);
-                } else {
-                    Log.e(TAG, "Error al obtener detalles de la fruta. Código: " + response.code());
-                    Toast.makeText(FruitDetailActivity.this, "Error al cargar la fruta.", Toast.LENGTH_SHORT).show();
-                    finish();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<FruitResponse> call, Throwable t) {
-                Log.e(TAG, "Fallo de red al obtener detalles de la fruta.", t);
-                Toast.makeText(FruitDetailActivity.this, "Error de conexión.", Toast.LENGTH_SHORT).show();
-                finish();
-            }
-        });
-    }
-
     private void populateUi() {
         if (currentFruit == null) return;
 
@@ -146,11 +167,7 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
 
         commonNameTextView.setText(currentFruit.getCommonName());
         scientificNameTextView.setText(currentFruit.getScientificName());
-        Glide.with(this)
-                .load(currentFruit.getImageUrl())
-                .placeholder(R.drawable.ic_launcher_background)
-                .error(R.drawable.ic_launcher_background)
-                .into(fruitImageView);
+        loadHeroImage(currentFruit.getImageUrl());
 
         descriptionTextView.setText(currentFruit.getDescription());
         populateNutritionalData(currentFruit.getNutritionalData());
@@ -159,8 +176,26 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
         fabSpeak.setVisibility(View.VISIBLE);
 
         setupRecyclerView();
+    }
+
+    private void loadHeroImage(String imageUrl) {
+        // La misma imagen que ya se pintó desde la pantalla anterior no se vuelve a cargar
+        if (heroImageUrl != null && heroImageUrl.equals(imageUrl)) {
+            return;
+        }
+        heroImageUrl = imageUrl;
+        Glide.with(this)
+                .load(imageUrl)
+                .placeholder(R.drawable.ic_launcher_background)
+                .error(R.drawable.ic_launcher_background)
+                .into(fruitImageView);
+    }
 
-        fetchRecipesForFruit(currentFruit.getId());
+    private void markFirstContent(String section) {
+        if (!firstContentShown) {
+            firstContentShown = true;
+            Log.i(TAG, "Primer contenido (" + section + ") en " + (SystemClock.elapsedRealtime() - openedAtMs) + " ms");
+        }
     }
 
     private void setupRecyclerView() {
@@ -173,27 +208,8 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
         recipesRecyclerView.setAdapter(recipeAdapter);
     }
 
-    private void fetchRecipesForFruit(int fruitId) {
-        apiService.getRecipesByFruit(fruitId).enqueue(new Callback<RecipeListResponse>() {
-            @Override
-            public void onResponse(Call<RecipeListResponse> call, Response<RecipeListResponse> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().getRecipes() != null && !response.body().getRecipes().isEmpty()) {
-                    recipesCard.setVisibility(View.VISIBLE);
-                    recipeAdapter.updateRecipes(response.body().getRecipes());
-                } else {
-                    recipesCard.setVisibility(View.GONE);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<RecipeListResponse> call, Throwable t) {
-                Log.e(TAG, "Error al obtener las recetas para la fruta.", t);
-            }
-        });
-    }
-
-    private void populateNutritionalData(JsonObject nutritionalData) {
-        if (nutritionalData == null || nutritionalData.size() == 0) {
+    private void populateNutritionalData(NutritionalData nutritionalData) {
+        if (nutritionalData == null || nutritionalData.isEmpty()) {
             nutritionalCard.setVisibility(View.GONE);
             return;
         }
@@ -206,9 +222,9 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
         nutritionalTextView.setLineSpacing(8f, 1f);
 
         StringBuilder builder = new StringBuilder();
-        for (Map.Entry<String, com.google.gson.JsonElement> entry : nutritionalData.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue().getAsString();
+        for (int i = 0; i < nutritionalData.size(); i++) {
+            String key = nutritionalData.getKey(i);
+            String value = nutritionalData.getValue(i);
             String formattedKey = key.substring(0, 1).toUpperCase() + key.substring(1);
 
             builder.append("• ").append(formattedKey).append(": ").append(value).append("\n");
@@ -252,12 +268,13 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
         textToSpeak.append("Descripción. ").append(currentFruit.getDescription()).append(". ");
         textToSpeak.append("\n\n");
 
-        JsonObject nutritionalData = currentFruit.getNutritionalData();
-        if (nutritionalData != null && nutritionalData.size() > 0) {
+        NutritionalData nutritionalData = currentFruit.getNutritionalData();
+        if (!nutritionalData.isEmpty()) {
             textToSpeak.append("Datos nutricionales. ");
-            for (Map.Entry<String, com.google.gson.JsonElement> entry : nutritionalData.entrySet()) {
-                String formattedKey = entry.getKey().substring(0, 1).toUpperCase() + entry.getKey().substring(1);
-                textToSpeak.append(formattedKey).append(": ").append(entry.getValue().getAsString()).append(". ");
+            for (int i = 0; i < nutritionalData.size(); i++) {
+                String key = nutritionalData.getKey(i);
+                String formattedKey = key.substring(0, 1).toUpperCase() + key.substring(1);
+                textToSpeak.append(formattedKey).append(": ").append(nutritionalData.getValue(i)).append(". ");
             }
         }
 
@@ -268,27 +285,23 @@ public class FruitDetailActivity extends AppCompatActivity implements TextToSpee
     }
 
     private void logVoiceUsage() {
-        if (queryId == -1 || !sessionManager.isLoggedIn()) {
+        if (queryClientId != null && !sessionManager.isLoaded()) {
+            // Pantalla restaurada con la sesión todavía en carga: se registra cuando esté
+            sessionManager.whenLoaded(this::logVoiceUsage);
+            return;
+        }
+        if (queryClientId == null || !sessionManager.isLoggedIn()) {
             Log.w(TAG, "No hay ID de consulta válido para actualizar.");
             return;
         }
 
-        apiService.updateQueryVoiceStatus(queryId).enqueue(new Callback<Void>() {
-            @Override
-            public void onResponse(Call<Void> call, Response<Void> response) {
-                if (response.isSuccessful()) {
-                    Log.i(TAG, "Uso de voz registrado para: " + currentFruit.getCommonName());
-                } else {
-                    Log.e(TAG, "Error al actualizar el uso de voz. Código: " + response.code());
-                }
-            }
-            @Override
-            public void onFailure(Call<Void> call, Throwable t) { }
-        });
+        QueryEventQueue.getInstance(this).logVoiceUsage(queryClientId);
+        Log.i(TAG, "Uso de voz encolado para: " + currentFruit.getCommonName());
     }
 
     @Override
     protected void onDestroy() {
+        detailPrefetcher.cancel(detailListener);
         if (textToSpeech != null) {
             textToSpeech.stop();
             textToSpeech.shutdown();
@@ -87,6 +87,14 @@ public class LoginActivity extends AppCompatActivity {
     }
 
     private void goToNextActivity() {
+        // hasSeenWelcomeScreen necesita la sesión guardada, que puede seguir cargándose
+        if (!sessionManager.isLoaded()) {
+            sessionManager.whenLoaded(this::goToNextActivity);
+            return;
+        }
+        if (isFinishing()) {
+            return;
+        }
         Intent intent;
         if (sessionManager.hasSeenWelcomeScreen()) {
             intent = new Intent(LoginActivity.this, ExploreActivity.class);
@@ -17,6 +17,8 @@ import com.fruitexplorer.R;
 import com.fruitexplorer.adapters.RecipeStepAdapter;
 import com.fruitexplorer.api.ApiClient;
 import com.fruitexplorer.api.ApiService;
+import com.fruitexplorer.api.CallGroup;
+import com.fruitexplorer.data.CatalogRepository;
 import com.fruitexplorer.models.Recipe;
 import com.fruitexplorer.models.RecipeStep;
 import com.fruitexplorer.models.RecipeDetailResponse;
@@ -36,6 +38,7 @@ public class RecipeDetailActivity extends AppCompatActivity {
 
     private Recipe recipe;
     private ApiService apiService;
+    private final CallGroup calls = new CallGroup();
 
     private MaterialCardView sourceCard;
     private MaterialCardView stepsCard;
@@ -91,7 +94,33 @@ public class RecipeDetailActivity extends AppCompatActivity {
     }
 
     private void fetchRecipeDetails() {
-        apiService.getRecipeById(recipe.getId()).enqueue(new Callback<RecipeDetailResponse>() {
+        // Primero el catálogo local (la fuente ya viene en la receta); la API solo si todavía no se sincronizó
+        CatalogRepository.getInstance(this).loadRecipeSteps(recipe.getId(), steps -> {
+            if (steps != null) {
+                showSource(recipe);
+                showSteps(steps);
+            } else {
+                fetchRecipeDetailsFromApi();
+            }
+        });
+    }
+
+    private void showSource(Recipe detailedRecipe) {
+        if (detailedRecipe.getSource() != null && !detailedRecipe.getSource().isEmpty()) {
+            sourceCard.setVisibility(View.VISIBLE);
+            recipeSourceTextView.setText("Fuente: " + detailedRecipe.getSource());
+        }
+    }
+
+    private void showSteps(List<RecipeStep> steps) {
+        if (steps != null && !steps.isEmpty()) {
+            stepsCard.setVisibility(View.VISIBLE);
+            stepsAdapter.setSteps(steps);
+        }
+    }
+
+    private void fetchRecipeDetailsFromApi() {
+        calls.enqueue(apiService.getRecipeById(recipe.getId()), new Callback<RecipeDetailResponse>() {
             @Override
             public void onResponse(Call<RecipeDetailResponse> call, Response<RecipeDetailResponse> response) {
                 if (response.isSuccessful()) {
@@ -101,16 +130,8 @@ public class RecipeDetailActivity extends AppCompatActivity {
                         return;
                     }
 
-                    Recipe detailedRecipe = detailResponse.getRecipe();
-                    if (detailedRecipe.getSource() != null && !detailedRecipe.getSource().isEmpty()) {
-                        sourceCard.setVisibility(View.VISIBLE);
-                        recipeSourceTextView.setText("Fuente: " + detailedRecipe.getSource());
-                    }
-
-                    if (detailResponse.getSteps() != null && !detailResponse.getSteps().isEmpty()) {
-                        stepsCard.setVisibility(View.VISIBLE);
-                        stepsAdapter.setSteps(detailResponse.getSteps());
-                    }
+                    showSource(detailResponse.getRecipe());
+                    showSteps(detailResponse.getSteps());
                 }
             }
 
@@ -122,6 +143,12 @@ public class RecipeDetailActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        calls.close();
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
@@ -2,14 +2,14 @@ package com.fruitexplorer.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.ProgressBar;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SearchView;
 import androidx.appcompat.widget.Toolbar;
@@ -19,23 +19,32 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.fruitexplorer.R;
 import com.fruitexplorer.adapters.RecipeAdapter;
 import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.api.ApiPagingSource;
 import com.fruitexplorer.api.ApiService;
+import com.fruitexplorer.api.SearchPipeline;
+import com.fruitexplorer.data.CatalogRepository;
+import com.fruitexplorer.data.FallbackPagingSource;
+import com.fruitexplorer.data.PagedList;
+import com.fruitexplorer.data.PagingSource;
 import com.fruitexplorer.models.Recipe;
 import com.fruitexplorer.models.RecipeListResponse;
+import com.fruitexplorer.utils.Constants;
+import com.fruitexplorer.utils.MainThreadScheduler;
 
 import java.util.ArrayList;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class RecipesActivity extends AppCompatActivity {
 
+    private static final String TAG = "RecipesActivity";
+
     private RecyclerView recyclerView;
     private RecipeAdapter recipeAdapter;
     private ApiService apiService;
     private ProgressBar progressBar;
-    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Listado completo por páginas; null mientras se muestran resultados de búsqueda
+    private PagedList<Recipe> recipePages;
+    private final SearchPipeline searchPipeline =
+            new SearchPipeline(new MainThreadScheduler(), Constants.SEARCH_DEBOUNCE_MS, this::fetchRecipes);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -52,7 +61,15 @@ public class RecipesActivity extends AppCompatActivity {
         apiService = ApiClient.getApiService(this);
 
         setupRecyclerView();
-        fetchRecipes(null);
+        searchPipeline.submit(null);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        searchPipeline.close();
+        closeRecipePages();
+        Log.i(TAG, "Búsqueda de recetas: " + searchPipeline.getStats());
     }
 
     @Override
@@ -65,15 +82,13 @@ public class RecipesActivity extends AppCompatActivity {
         searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
             @Override
             public boolean onQueryTextSubmit(String query) {
-                handler.removeCallbacksAndMessages(null);
-                fetchRecipes(query);
+                searchPipeline.submit(query);
                 return true;
             }
 
             @Override
             public boolean onQueryTextChange(String newText) {
-                handler.removeCallbacksAndMessages(null);
-                handler.postDelayed(() -> fetchRecipes(newText), 300);
+                searchPipeline.onQueryChanged(newText);
                 return true;
             }
         });
@@ -89,28 +104,77 @@ public class RecipesActivity extends AppCompatActivity {
             startActivity(intent);
         });
         recyclerView.setAdapter(recipeAdapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (recipePages != null) {
+                    LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                    recipePages.onVisibleRangeChanged(layoutManager.findFirstVisibleItemPosition(),
+                            layoutManager.findLastVisibleItemPosition());
+                }
+            }
+        });
     }
 
-    private void fetchRecipes(String query) {
+    private void fetchRecipes(String actualQuery, SearchPipeline.Ticket ticket) {
+        CatalogRepository catalogRepository = CatalogRepository.getInstance(this);
+        if (actualQuery == null) {
+            // Sin búsqueda: todas las recetas por páginas, locales o de la API si todavía no se sincronizó
+            showRecipePages(new FallbackPagingSource<>(catalogRepository.recipePages(), apiRecipePages(null, ticket)));
+            return;
+        }
+        catalogRepository.loadRecipes(actualQuery, recipes -> {
+            if (!ticket.isCurrent()) {
+                return;
+            }
+            if (recipes != null) {
+                closeRecipePages();
+                recipeAdapter.updateRecipes(recipes);
+            } else {
+                showRecipePages(apiRecipePages(actualQuery, ticket));
+            }
+        });
+    }
+
+    private PagingSource<Recipe> apiRecipePages(String actualQuery, SearchPipeline.Ticket ticket) {
+        return new ApiPagingSource<Recipe, RecipeListResponse>(ticket::enqueue,
+                (cursor, limit) -> apiService.getRecipesPage(actualQuery, cursor, limit),
+                RecipeListResponse::getRecipes, RecipeListResponse::getNextCursor);
+    }
+
+    private void showRecipePages(PagingSource<Recipe> source) {
+        closeRecipePages();
         progressBar.setVisibility(View.VISIBLE);
-        String actualQuery = (query != null && !query.trim().isEmpty()) ? query.trim() : null;
-        apiService.getRecipes(actualQuery).enqueue(new Callback<RecipeListResponse>() {
+        recipePages = new PagedList<>(source, Constants.PAGE_SIZE, Constants.PAGING_PREFETCH_DISTANCE,
+                Constants.PAGING_MAX_PAGES, new PagedList.Listener() {
             @Override
-            public void onResponse(Call<RecipeListResponse> call, Response<RecipeListResponse> response) {
+            public void onPageLoaded(int start, int count, boolean inserted) {
                 progressBar.setVisibility(View.GONE);
-                if (response.isSuccessful() && response.body() != null && response.body().getRecipes() != null) {
-                    recipeAdapter.updateRecipes(response.body().getRecipes());
+                if (inserted) {
+                    recipeAdapter.notifyItemRangeInserted(start, count);
                 } else {
-                    Toast.makeText(RecipesActivity.this, "Error al cargar las recetas.", Toast.LENGTH_SHORT).show();
+                    recipeAdapter.notifyItemRangeChanged(start, count);
                 }
             }
 
             @Override
-            public void onFailure(Call<RecipeListResponse> call, Throwable t) {
+            public void onPageError(int page, Throwable t) {
                 progressBar.setVisibility(View.GONE);
-                Toast.makeText(RecipesActivity.this, "Fallo de conexión.", Toast.LENGTH_SHORT).show();
+                Log.e(TAG, "Error al cargar la página " + page + " de recetas", t);
+                if (page == 0) {
+                    Toast.makeText(RecipesActivity.this, "Fallo de conexión.", Toast.LENGTH_SHORT).show();
+                }
             }
         });
+        recipeAdapter.submitPagedList(recipePages);
+        recipePages.start();
+    }
+
+    private void closeRecipePages() {
+        if (recipePages != null) {
+            recipePages.close();
+            recipePages = null;
+        }
     }
 
     @Override
@@ -19,8 +19,9 @@ import com.fruitexplorer.R;
 import com.fruitexplorer.adapters.FruitAdapter;
 import com.fruitexplorer.api.ApiClient;
 import com.fruitexplorer.api.ApiService;
-import com.fruitexplorer.models.Fruit;
-import com.fruitexplorer.models.FruitListResponse;
+import com.fruitexplorer.api.CallGroup;
+import com.fruitexplorer.data.CatalogRepository;
+import com.fruitexplorer.models.FruitSummaryListResponse;
 import com.fruitexplorer.models.Region;
 import com.google.android.material.appbar.CollapsingToolbarLayout;
 
@@ -35,6 +36,7 @@ public class RegionDetailActivity extends AppCompatActivity {
     public static final String EXTRA_REGION = "extra_region";
 
     private ApiService apiService;
+    private final CallGroup calls = new CallGroup();
     private RecyclerView fruitsRecyclerView;
     private FruitAdapter fruitAdapter;
     private ProgressBar progressBar;
@@ -83,6 +85,7 @@ public class RegionDetailActivity extends AppCompatActivity {
         fruitAdapter = new FruitAdapter(this, new ArrayList<>(), (fruit, fruitImageView) -> {
             Intent intent = new Intent(this, FruitDetailActivity.class);
             intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_SLUG, fruit.getSlug());
+            intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_IMAGE_URL, fruit.getImageUrl());
 
             ActivityOptionsCompat options = ActivityOptionsCompat.makeSceneTransitionAnimation(
                     this,
@@ -95,10 +98,23 @@ public class RegionDetailActivity extends AppCompatActivity {
     }
 
     private void fetchFruitsForRegion() {
+        // Primero el catálogo local; la API solo si todavía no se sincronizó
+        CatalogRepository.getInstance(this).loadFruitsByRegion(region.getId(), fruits -> {
+            if (fruits != null && !fruits.isEmpty()) {
+                fruitAdapter.updateFruits(fruits);
+            } else if (fruits != null) {
+                Toast.makeText(this, "No se encontraron frutas para esta región.", Toast.LENGTH_LONG).show();
+            } else {
+                fetchFruitsForRegionFromApi();
+            }
+        });
+    }
+
+    private void fetchFruitsForRegionFromApi() {
         progressBar.setVisibility(View.VISIBLE);
-        apiService.getFruitsByRegion(region.getId()).enqueue(new Callback<FruitListResponse>() {
+        calls.enqueue(apiService.getFruitsByRegion(region.getId()), new Callback<FruitSummaryListResponse>() {
             @Override
-            public void onResponse(Call<FruitListResponse> call, Response<FruitListResponse> response) {
+            public void onResponse(Call<FruitSummaryListResponse> call, Response<FruitSummaryListResponse> response) {
                 progressBar.setVisibility(View.GONE);
                 if (response.isSuccessful() && response.body() != null) {
                     fruitAdapter.updateFruits(response.body().getFruits());
@@ -108,13 +124,19 @@ public class RegionDetailActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onFailure(Call<FruitListResponse> call, Throwable t) {
+            public void onFailure(Call<FruitSummaryListResponse> call, Throwable t) {
                 progressBar.setVisibility(View.GONE);
                 Toast.makeText(RegionDetailActivity.this, "Error de conexión.", Toast.LENGTH_SHORT).show();
             }
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        calls.close();
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
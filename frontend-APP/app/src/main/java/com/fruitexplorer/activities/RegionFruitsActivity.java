@@ -15,8 +15,9 @@ import com.fruitexplorer.R;
 import com.fruitexplorer.adapters.FruitAdapter;
 import com.fruitexplorer.api.ApiClient;
 import com.fruitexplorer.api.ApiService;
-import com.fruitexplorer.models.Fruit;
-import com.fruitexplorer.models.FruitListResponse;
+import com.fruitexplorer.api.CallGroup;
+import com.fruitexplorer.models.FruitSummary;
+import com.fruitexplorer.models.FruitSummaryListResponse;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,8 +30,9 @@ public class RegionFruitsActivity extends AppCompatActivity implements FruitAdap
     private static final String TAG = "RegionFruitsActivity";
     private RecyclerView fruitsRecyclerView;
     private FruitAdapter fruitAdapter;
-    private List<Fruit> fruitList = new ArrayList<>();
+    private List<FruitSummary> fruitList = new ArrayList<>();
     private ApiService apiService;
+    private final CallGroup calls = new CallGroup();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,9 +63,9 @@ public class RegionFruitsActivity extends AppCompatActivity implements FruitAdap
     }
 
     private void fetchFruits(int regionId) {
-        apiService.getFruitsByRegion(regionId).enqueue(new Callback<FruitListResponse>() {
+        calls.enqueue(apiService.getFruitsByRegion(regionId), new Callback<FruitSummaryListResponse>() {
             @Override
-            public void onResponse(Call<FruitListResponse> call, Response<FruitListResponse> response) {
+            public void onResponse(Call<FruitSummaryListResponse> call, Response<FruitSummaryListResponse> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().getFruits() != null) {
                     fruitAdapter.updateFruits(response.body().getFruits());
                 } else {
@@ -71,16 +73,17 @@ public class RegionFruitsActivity extends AppCompatActivity implements FruitAdap
                 }
             }
             @Override
-            public void onFailure(Call<FruitListResponse> call, Throwable t) {
+            public void onFailure(Call<FruitSummaryListResponse> call, Throwable t) {
                 Log.e(TAG, "Error de red al cargar frutas: ", t);
             }
         });
     }
 
     @Override
-    public void onFruitClick(Fruit fruit, ImageView fruitImageView) {
+    public void onFruitClick(FruitSummary fruit, ImageView fruitImageView) {
         Intent intent = new Intent(this, FruitDetailActivity.class);
         intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_SLUG, fruit.getSlug());
+        intent.putExtra(FruitDetailActivity.EXTRA_FRUIT_IMAGE_URL, fruit.getImageUrl());
 
         ActivityOptionsCompat options = ActivityOptionsCompat.makeSceneTransitionAnimation(
                 this,
@@ -91,6 +94,12 @@ public class RegionFruitsActivity extends AppCompatActivity implements FruitAdap
         startActivity(intent, options.toBundle());
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        calls.close();
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
@@ -16,6 +16,7 @@ import com.bumptech.glide.Glide;
 import com.fruitexplorer.R;
 import com.fruitexplorer.api.ApiClient;
 import com.fruitexplorer.api.ApiService;
+import com.fruitexplorer.data.CatalogRepository;
 import com.fruitexplorer.models.Region;
 import com.fruitexplorer.models.RegionResponse;
 
@@ -56,16 +57,30 @@ public class RegionsActivity extends AppCompatActivity {
     }
 
     private void fetchAndDisplayRegions() {
+        // Primero el catálogo local; la API solo si todavía no se sincronizó
+        CatalogRepository.getInstance(this).loadRegions(regions -> {
+            if (regions != null) {
+                displayRegions(regions);
+            } else {
+                fetchRegionsFromApi();
+            }
+        });
+    }
+
+    private void displayRegions(List<Region> regions) {
+        if (regions != null && regions.size() >= 3) {
+            setupRegionCard(regionCard1, regions.get(0), 0);
+            setupRegionCard(regionCard2, regions.get(1), 150);
+            setupRegionCard(regionCard3, regions.get(2), 300);
+        }
+    }
+
+    private void fetchRegionsFromApi() {
         apiService.getRegions().enqueue(new Callback<RegionResponse>() {
             @Override
             public void onResponse(Call<RegionResponse> call, Response<RegionResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    List<Region> regions = response.body().getRegions();
-                    if (regions != null && regions.size() >= 3) {
-                        setupRegionCard(regionCard1, regions.get(0), 0);
-                        setupRegionCard(regionCard2, regions.get(1), 150);
-                        setupRegionCard(regionCard3, regions.get(2), 300);
-                    }
+                    displayRegions(response.body().getRegions());
                 } else {
                     Toast.makeText(RegionsActivity.this, "Error al cargar las regiones.", Toast.LENGTH_SHORT).show();
                 }
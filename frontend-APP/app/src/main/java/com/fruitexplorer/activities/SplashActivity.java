@@ -19,20 +19,27 @@ public class SplashActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            SessionManager sessionManager = new SessionManager(getApplicationContext());
-
-            Intent intent;
-            if (sessionManager.isLoggedIn()) {
-                intent = sessionManager.hasSeenWelcomeScreen()
-                        ? new Intent(SplashActivity.this, ExploreActivity.class)
-                        : new Intent(SplashActivity.this, WelcomeActivity.class);
-            } else {
-                intent = new Intent(SplashActivity.this, LoginActivity.class);
-            }
-
-            startActivity(intent);
-            finish(); 
-        }, SPLASH_DELAY);
+        new Handler(Looper.getMainLooper()).postDelayed(() ->
+                // La sesión se lee en segundo plano desde FruitExplorerApp; aquí solo se espera a que esté
+                SessionManager.whenLoaded(getApplicationContext(), this::goToNextScreen), SPLASH_DELAY);
+    }
+
+    private void goToNextScreen() {
+        if (isFinishing()) {
+            return;
+        }
+        SessionManager sessionManager = new SessionManager(getApplicationContext());
+
+        Intent intent;
+        if (sessionManager.isLoggedIn()) {
+            intent = sessionManager.hasSeenWelcomeScreen()
+                    ? new Intent(SplashActivity.this, ExploreActivity.class)
+                    : new Intent(SplashActivity.this, WelcomeActivity.class);
+        } else {
+            intent = new Intent(SplashActivity.this, LoginActivity.class);
+        }
+
+        startActivity(intent);
+        finish();
     }
 }
\ No newline at end of file
@@ -12,32 +12,45 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.fruitexplorer.R;
-import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.data.PagedList;
+import com.fruitexplorer.models.FruitSummary;
 
 import java.util.List;
 
 public class FruitAdapter extends RecyclerView.Adapter<FruitAdapter.FruitViewHolder> {
 
-    private List<Fruit> fruitList;
+    private List<FruitSummary> fruitList;
+    // Si no es null, las filas salen de aquí (listado completo por páginas) en lugar de fruitList
+    private PagedList<FruitSummary> pagedList;
     private Context context;
     private OnFruitClickListener listener;
 
     public interface OnFruitClickListener {
-        void onFruitClick(Fruit fruit, ImageView fruitImageView);
+        void onFruitClick(FruitSummary fruit, ImageView fruitImageView);
     }
 
-    public FruitAdapter(Context context, List<Fruit> fruitList, OnFruitClickListener listener) {
+    public FruitAdapter(Context context, List<FruitSummary> fruitList, OnFruitClickListener listener) {
         this.context = context;
         this.fruitList = fruitList;
         this.listener = listener;
     }
 
-    public void updateFruits(List<Fruit> newFruitList) {
+    public void updateFruits(List<FruitSummary> newFruitList) {
+        this.pagedList = null;
         this.fruitList.clear();
         this.fruitList.addAll(newFruitList);
         notifyDataSetChanged();
     }
 
+    /**
+     * Muestra una lista paginada; las páginas que llegan se notifican con notifyItemRange*
+     */
+    public void submitPagedList(PagedList<FruitSummary> pagedList) {
+        this.pagedList = pagedList;
+        this.fruitList.clear();
+        notifyDataSetChanged();
+    }
+
     @NonNull
     @Override
     public FruitViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -47,14 +60,20 @@ public class FruitAdapter extends RecyclerView.Adapter<FruitAdapter.FruitViewHol
 
     @Override
     public void onBindViewHolder(@NonNull FruitViewHolder holder, int position) {
-        Fruit fruit = fruitList.get(position);
+        FruitSummary fruit = pagedList != null ? pagedList.get(position) : fruitList.get(position);
+        if (fruit == null) {
+            // Página liberada o en camino: se rellena cuando llegue
+            holder.bindPlaceholder();
+            holder.itemView.setOnClickListener(null);
+            return;
+        }
         holder.bind(fruit);
         holder.itemView.setOnClickListener(v -> listener.onFruitClick(fruit, holder.fruitImageView));
     }
 
     @Override
     public int getItemCount() {
-        return fruitList.size();
+        return pagedList != null ? pagedList.size() : fruitList.size();
     }
 
     static class FruitViewHolder extends RecyclerView.ViewHolder {
@@ -67,7 +86,7 @@ public class FruitAdapter extends RecyclerView.Adapter<FruitAdapter.FruitViewHol
             fruitNameTextView = itemView.findViewById(R.id.fruitNameTextView);
         }
 
-        public void bind(final Fruit fruit) {
+        public void bind(final FruitSummary fruit) {
             fruitNameTextView.setText(fruit.getCommonName());
 
             Glide.with(itemView.getContext())
@@ -77,5 +96,11 @@ public class FruitAdapter extends RecyclerView.Adapter<FruitAdapter.FruitViewHol
                     .into(fruitImageView);
 
         }
+
+        public void bindPlaceholder() {
+            fruitNameTextView.setText("");
+            Glide.with(itemView.getContext()).clear(fruitImageView);
+            fruitImageView.setImageResource(android.R.drawable.ic_menu_gallery);
+        }
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.bumptech.glide.Glide;
 import com.fruitexplorer.R;
+import com.fruitexplorer.data.PagedList;
 import com.fruitexplorer.models.Recipe;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +22,8 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
     }
 
     private List<Recipe> recipes;
+    // Si no es null, las filas salen de aquí (listado completo por páginas) en lugar de recipes
+    private PagedList<Recipe> pagedList;
     private final Context context;
     private final OnRecipeClickListener listener;
 
@@ -31,6 +34,7 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
     }
 
     public void updateRecipes(List<Recipe> recipes) {
+        this.pagedList = null;
         if (recipes != null) {
             this.recipes = recipes;
             notifyDataSetChanged();
@@ -40,6 +44,15 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
         }
     }
 
+    /**
+     * Muestra una lista paginada; las páginas que llegan se notifican con notifyItemRange*
+     */
+    public void submitPagedList(PagedList<Recipe> pagedList) {
+        this.pagedList = pagedList;
+        this.recipes = new ArrayList<>();
+        notifyDataSetChanged();
+    }
+
     @NonNull
     @Override
     public RecipeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -49,13 +62,18 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
 
     @Override
     public void onBindViewHolder(@NonNull RecipeViewHolder holder, int position) {
-        Recipe recipe = recipes.get(position);
+        Recipe recipe = pagedList != null ? pagedList.get(position) : recipes.get(position);
+        if (recipe == null) {
+            // Página liberada o en camino: se rellena cuando llegue
+            holder.bindPlaceholder();
+            return;
+        }
         holder.bind(recipe, listener);
     }
 
     @Override
     public int getItemCount() {
-        return recipes.size();
+        return pagedList != null ? pagedList.size() : recipes.size();
     }
 
     class RecipeViewHolder extends RecyclerView.ViewHolder {
@@ -76,5 +94,12 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
             Glide.with(context).load(recipe.getImageUrl()).into(recipeImageView);
             itemView.setOnClickListener(v -> listener.onRecipeClick(recipe));
         }
+
+        public void bindPlaceholder() {
+            recipeNameTextView.setText("");
+            recipeTimeTextView.setVisibility(View.GONE);
+            Glide.with(context).clear(recipeImageView);
+            itemView.setOnClickListener(null);
+        }
     }
 }
\ No newline at end of file
@@ -5,14 +5,36 @@ import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 import android.util.Log;
 
+import com.bumptech.glide.Glide;
+import com.fruitexplorer.data.CatalogRepository;
+import com.fruitexplorer.models.AuthResponse;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.FruitResponse;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.models.RecipeListResponse;
 import com.fruitexplorer.utils.AuthInterceptor;
+import com.fruitexplorer.utils.AuthState;
 import com.fruitexplorer.utils.Constants;
+import com.fruitexplorer.utils.SessionManager;
+import com.fruitexplorer.utils.TokenAuthenticator;
 import com.fruitexplorer.BuildConfig;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import okhttp3.Authenticator;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Call;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -21,26 +43,110 @@ import retrofit2.converter.gson.GsonConverterFactory;
  * - Configuración de timeouts personalizables
  * - Logging condicional según modo debug/release
  * - Verificación de conectividad
- * - Patrón Singleton para Retrofit
+ * - Núcleo de red único por proceso, iniciado desde FruitExplorerApp:
+ *   un solo ApiService, un dispatcher y un pool de conexiones compartidos, y Gson construido una vez
+ * - Caché HTTP en disco acotada, con revalidación por ETag (ver CachePolicyInterceptor)
+ * - Sincronización del catálogo en formato binario negociado por Accept, con JSON de respaldo
+ * - Precarga compartida de la ficha de fruta (FruitDetailPrefetcher) entre la cámara y el detalle
+ * - Token de la sesión desde AuthState en memoria; ante un 401 se renueva una vez y se reintenta
  */
 public class ApiClient {
     private static final String TAG = "ApiClient";
-    private static Retrofit retrofit = null;
+
+    // Conexiones keep-alive reutilizadas entre pantallas
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    // Gson con sus adaptadores, compartido por el convertidor de Retrofit y el resto de la app.
+    // Los modelos del catálogo se leen en streaming con ModelTypeAdapters, sin reflexión.
+    private static final Gson GSON = ModelTypeAdapters.register(new GsonBuilder()).create();
+
+    private static volatile Retrofit retrofit = null;
+    private static volatile ApiService apiService = null;
     private static OkHttpClient okHttpClient = null;
+    private static OkHttpClient downloadClient = null;
+    private static FruitDetailPrefetcher fruitDetailPrefetcher = null;
+
+    /**
+     * Inicia el núcleo de red al arrancar el proceso. La validación de los métodos del
+     * ApiService (reflexión de anotaciones) se hace en segundo plano, fuera del inicio de la primera pantalla.
+     */
+    public static void init(Context context) {
+        Context appContext = context.getApplicationContext();
+        new Thread(() -> {
+            long start = System.nanoTime();
+            // La sesión se lee del disco aquí, no en la primera petición ni en el hilo principal
+            SessionManager.getAuthState(appContext).current();
+            getApiService(appContext);
+            Log.d(TAG, "Núcleo de red listo en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }, "ApiClient-init").start();
+    }
 
     /**
-     * Obtiene una instancia del servicio API
-     * Implementa patrón Singleton para reutilizar la conexión
+     * Obtiene el servicio API compartido. El proxy se crea una sola vez por proceso,
+     * así que las pantallas no vuelven a pagar la reflexión de Retrofit en onCreate.
      */
     public static ApiService getApiService(Context context) {
-        if (retrofit == null) {
+        ApiService service = apiService;
+        if (service == null) {
             synchronized (ApiClient.class) {
-                if (retrofit == null) {
-                    retrofit = createRetrofit(context);
+                service = apiService;
+                if (service == null) {
+                    if (retrofit == null) {
+                        retrofit = createRetrofit(context.getApplicationContext());
+                    }
+                    service = retrofit.create(ApiService.class);
+                    apiService = service;
                 }
             }
         }
-        return retrofit.create(ApiService.class);
+        return service;
+    }
+
+    /**
+     * Precarga de fichas de fruta compartida por las pantallas; solo desde el hilo principal
+     */
+    public static FruitDetailPrefetcher getFruitDetailPrefetcher(Context context) {
+        if (fruitDetailPrefetcher == null) {
+            Context appContext = context.getApplicationContext();
+            ApiService service = getApiService(appContext);
+            CatalogRepository catalog = CatalogRepository.getInstance(appContext);
+            fruitDetailPrefetcher = new FruitDetailPrefetcher(new FruitDetailPrefetcher.Source() {
+                @Override
+                public void loadLocalFruit(String slug, Consumer<Fruit> callback) {
+                    catalog.loadFruitBySlug(slug, callback::accept);
+                }
+
+                @Override
+                public Call<FruitResponse> getFruitDetail(String slug) {
+                    return service.getFruitDetailBySlug(slug);
+                }
+
+                @Override
+                public void loadLocalRecipes(int fruitId, Consumer<List<Recipe>> callback) {
+                    catalog.loadRecipesByFruit(fruitId, callback::accept);
+                }
+
+                @Override
+                public Call<RecipeListResponse> getRecipesByFruit(int fruitId) {
+                    return service.getRecipesByFruit(fruitId);
+                }
+
+                @Override
+                public void preloadImage(String url) {
+                    // Queda en la caché en disco de Glide; el detalle la decodifica sin ir a la red
+                    Glide.with(appContext).load(url).preload();
+                }
+            }, catalog.getFruitStore(), System::currentTimeMillis);
+        }
+        return fruitDetailPrefetcher;
+    }
+
+    /**
+     * Gson compartido (los adaptadores se construyen una vez por proceso)
+     */
+    public static Gson getGson() {
+        return GSON;
     }
 
     /**
@@ -54,24 +160,40 @@ public class ApiClient {
         return new Retrofit.Builder()
                 .baseUrl(baseUrl)
                 .client(getOkHttpClient(context))
-                .addConverterFactory(GsonConverterFactory.create())
+                // CatalogChanges en binario cuando el servidor lo envía; todo lo demás en JSON
+                .addConverterFactory(CatalogBinaryConverterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create(GSON))
+                // Todos los métodos se validan al crear el servicio, una sola vez por proceso
+                .validateEagerly(true)
                 .build();
     }
 
     /**
-     * Crea y configura el cliente OkHttp con interceptores
+     * Cliente OkHttp compartido. Otros clientes deben derivarse con newBuilder()
+     * para reutilizar el mismo dispatcher y pool de conexiones.
      */
-    private static OkHttpClient getOkHttpClient(Context context) {
+    public static synchronized OkHttpClient getOkHttpClient(Context context) {
         if (okHttpClient == null) {
-            OkHttpClient.Builder builder = new OkHttpClient.Builder();
+            context = context.getApplicationContext();
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .dispatcher(new Dispatcher())
+                    .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES));
 
             // Configurar timeouts
             builder.connectTimeout(Constants.CONNECT_TIMEOUT, TimeUnit.SECONDS)
                    .readTimeout(Constants.READ_TIMEOUT, TimeUnit.SECONDS)
                    .writeTimeout(Constants.WRITE_TIMEOUT, TimeUnit.SECONDS);
 
-            // Agregar interceptor de autenticación
-            builder.addInterceptor(new AuthInterceptor(context));
+            // Caché en disco del catálogo; las respuestas vencidas se revalidan con If-None-Match
+            builder.cache(new Cache(new File(context.getCacheDir(), Constants.HTTP_CACHE_DIR),
+                    Constants.HTTP_CACHE_SIZE_BYTES));
+            builder.addNetworkInterceptor(new CachePolicyInterceptor());
+
+            // Agregar interceptor de autenticación y renovación del token ante un 401
+            AuthState authState = SessionManager.getAuthState(context);
+            builder.addInterceptor(new AuthInterceptor(authState));
+            Context refreshContext = context;
+            builder.authenticator(new TokenAuthenticator(authState, token -> refreshToken(refreshContext, token)));
 
             // Agregar logging solo en modo debug
             if (BuildConfig.DEBUG) {
@@ -82,8 +204,9 @@ public class ApiClient {
             }
 
             // Agregar interceptor de conectividad
+            Context appContext = context;
             builder.addInterceptor(chain -> {
-                if (!isNetworkAvailable(context)) {
+                if (!isNetworkAvailable(appContext)) {
                     Log.w(TAG, "Sin conexión a internet");
                 }
                 return chain.proceed(chain.request());
@@ -94,6 +217,40 @@ public class ApiClient {
         return okHttpClient;
     }
 
+    /**
+     * Cliente para descargas de archivos grandes (el .tflite), posiblemente en otro host (CDN, bucket).
+     * Comparte dispatcher y pool de conexiones, pero sin el token de la sesión (ni su renovación),
+     * sin el log BODY que leería el archivo entero en memoria y sin la caché HTTP del catálogo.
+     */
+    public static synchronized OkHttpClient getDownloadClient(Context context) {
+        if (downloadClient == null) {
+            OkHttpClient.Builder builder = getOkHttpClient(context).newBuilder()
+                    .cache(null)
+                    .authenticator(Authenticator.NONE);
+            builder.interceptors().clear();
+            builder.networkInterceptors().clear();
+            downloadClient = builder.build();
+        }
+        return downloadClient;
+    }
+
+    /**
+     * Pide un token nuevo (desde el hilo de OkHttp que recibió el 401)
+     *
+     * @return el token nuevo, o null si el servidor rechazó la sesión
+     */
+    private static String refreshToken(Context context, String token) throws IOException {
+        retrofit2.Response<AuthResponse> response = getApiService(context)
+                .refreshToken("Bearer " + token).execute();
+        if (response.isSuccessful() && response.body() != null) {
+            return response.body().getToken();
+        }
+        if (response.code() == 401 || response.code() == 403) {
+            return null;
+        }
+        throw new IOException("No se pudo renovar la sesión. Código: " + response.code());
+    }
+
     /**
      * Verifica si hay conexión a internet
      */
@@ -113,9 +270,16 @@ public class ApiClient {
     /**
      * Resetea la instancia de Retrofit (útil para testing o cambiar configuración)
      */
-    public static void resetInstance() {
+    public static synchronized void resetInstance() {
+        if (okHttpClient != null) {
+            okHttpClient.dispatcher().cancelAll();
+            okHttpClient.connectionPool().evictAll();
+        }
+        apiService = null;
         retrofit = null;
         okHttpClient = null;
+        downloadClient = null;
+        fruitDetailPrefetcher = null;
         Log.d(TAG, "ApiClient reiniciado");
     }
 
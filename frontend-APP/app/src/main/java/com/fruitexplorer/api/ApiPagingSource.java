@@ -0,0 +1,60 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.data.PagingSource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Páginas de un listado de la API (fruits, recipes) a partir de su next_cursor.
+ * Las llamadas se envían por un Enqueuer (CallGroup o el Ticket de SearchPipeline) para que
+ * se cancelen con la pantalla o con la búsqueda.
+ */
+public class ApiPagingSource<T, R> implements PagingSource<T> {
+
+    public interface PageCall<R> {
+        Call<R> create(String cursor, int limit);
+    }
+
+    public interface Enqueuer<R> {
+        void enqueue(Call<R> call, retrofit2.Callback<R> callback);
+    }
+
+    private final Enqueuer<R> enqueuer;
+    private final PageCall<R> pageCall;
+    private final Function<R, List<T>> items;
+    private final Function<R, String> nextCursor;
+
+    public ApiPagingSource(Enqueuer<R> enqueuer, PageCall<R> pageCall,
+                           Function<R, List<T>> items, Function<R, String> nextCursor) {
+        this.enqueuer = enqueuer;
+        this.pageCall = pageCall;
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public void load(String cursor, int limit, PagingSource.Callback<T> callback) {
+        // retrofit2.Callback con nombre completo: Callback a secas es el de PagingSource
+        enqueuer.enqueue(pageCall.create(cursor, limit), new retrofit2.Callback<R>() {
+            @Override
+            public void onResponse(Call<R> call, Response<R> response) {
+                R body = response.body();
+                if (response.isSuccessful() && body != null && items.apply(body) != null) {
+                    callback.onPage(items.apply(body), nextCursor.apply(body));
+                } else {
+                    callback.onError(new IOException("Código " + response.code()));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<R> call, Throwable t) {
+                callback.onError(t);
+            }
+        });
+    }
+}
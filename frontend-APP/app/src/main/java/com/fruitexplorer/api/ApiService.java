@@ -2,10 +2,14 @@ package com.fruitexplorer.api;
 
 import com.fruitexplorer.models.AuthResponse;
 import com.fruitexplorer.models.BaseResponse;
+import com.fruitexplorer.models.CatalogChanges;
 import com.fruitexplorer.models.FruitListResponse;
+import com.fruitexplorer.models.FruitSummary;
+import com.fruitexplorer.models.FruitSummaryListResponse;
 import com.fruitexplorer.models.LoginRequest;
+import com.fruitexplorer.models.MlModelResponse;
+import com.fruitexplorer.models.QueryEventBatch;
 import com.fruitexplorer.models.RegionResponse;
-import com.fruitexplorer.models.LogQueryRequest;
 import com.fruitexplorer.models.RecipeDetailResponse;
 import com.fruitexplorer.models.RegisterRequest;
 import com.fruitexplorer.models.RecipeListResponse;
@@ -14,8 +18,9 @@ import com.fruitexplorer.models.RecipeListResponse;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
-import retrofit2.http.PUT;
 import retrofit2.http.Query;
 import com.fruitexplorer.models.FruitResponse; // Mantener para getFruitBySlug
 import retrofit2.http.Path;
@@ -27,26 +32,38 @@ public interface ApiService {
     @POST("auth/login")
     Call<AuthResponse> loginUser(@Body LoginRequest loginRequest);
 
+    // Token nuevo a partir del actual, aunque haya vencido; lo usa TokenAuthenticator ante un 401
+    @POST("auth/refresh")
+    Call<AuthResponse> refreshToken(@Header("Authorization") String authorization);
+
     // ▼▼▼ ¡AQUÍ ESTÁ EL CAMBIO! ▼▼▼
     @GET("fruits/slug/{slug}") // Se añade "/slug" a la ruta
     Call<FruitResponse> getFruitBySlug(@Path("slug") String fruitSlug);
 
-    @POST("queries/log")
-    Call<BaseResponse> logQuery(@Body LogQueryRequest logQueryRequest);
+    // Ficha completa en un solo viaje: la fruta con las relaciones de FruitResponse.DETAIL_INCLUDES
+    @GET("fruits/slug/{slug}?include=" + FruitResponse.DETAIL_INCLUDES)
+    Call<FruitResponse> getFruitDetailBySlug(@Path("slug") String fruitSlug);
 
-    @PUT("queries/{id}/voice")
-    Call<Void> updateQueryVoiceStatus(@Path("id") long queryId);
+    // Lote de consultas y usos de voz de QueryEventQueue; idempotente por client_id
+    @POST("queries/events")
+    Call<BaseResponse> uploadQueryEvents(@Body QueryEventBatch batch);
 
     @GET("regions")
     Call<RegionResponse> getRegions();
 
-    @GET("regions/{id}/fruits")
-    Call<FruitListResponse> getFruitsByRegion(@Path("id") int regionId);
+    // Solo lo que muestra la grilla; la ficha completa se pide con getFruitDetailBySlug
+    @GET("regions/{id}/fruits?fields=" + FruitSummary.FIELDS)
+    Call<FruitSummaryListResponse> getFruitsByRegion(@Path("id") int regionId);
 
     // Nuevo método para listar/buscar todas las frutas
     @GET("fruits")
     Call<FruitListResponse> listFruits(@Query("q") String query);
 
+    // Página por cursor para la grilla: null en la primera, luego el next_cursor de la respuesta anterior
+    @GET("fruits?fields=" + FruitSummary.FIELDS)
+    Call<FruitSummaryListResponse> listFruitsPage(@Query("q") String query, @Query("cursor") String cursor,
+                                                  @Query("limit") int limit);
+
     // Nuevo método para obtener recetas por fruta
     @GET("fruits/{id}/recipes")
     Call<RecipeListResponse> getRecipesByFruit(@Path("id") int fruitId);
@@ -55,6 +72,10 @@ public interface ApiService {
     @GET("recipes")
     Call<RecipeListResponse> getRecipes(@Query("q") String query);
 
+    @GET("recipes")
+    Call<RecipeListResponse> getRecipesPage(@Query("q") String query, @Query("cursor") String cursor,
+                                            @Query("limit") int limit);
+
     // ▼▼▼ MÉTODO AÑADIDO ▼▼▼
     @GET("recipes/{id}")
     Call<RecipeDetailResponse> getRecipeById(@Path("id") int recipeId);
@@ -63,4 +84,14 @@ public interface ApiService {
     // Verifica que el servidor esté funcionando
     @GET("health")
     Call<Void> healthCheck();
+
+    // Modelo activo más reciente de ml_models (registro de modelos)
+    @GET("ml-models/latest")
+    Call<MlModelResponse> getLatestModel(@Query("name") String name, @Query("quantization") String quantization);
+
+    // Cambios del catálogo para la base local (since = server_time de la sincronización anterior).
+    // Pide el formato binario; si el servidor responde JSON, CatalogBinaryConverterFactory usa Gson.
+    @Headers("Accept: " + CatalogBinaryCodec.ACCEPT)
+    @GET("sync/catalog")
+    Call<CatalogChanges> getCatalogChanges(@Query("since") String since);
 }
@@ -0,0 +1,74 @@
+package com.fruitexplorer.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Interceptor de red que define cuánto tiempo se consideran frescas las respuestas del catálogo
+ * cuando el servidor no envía cabeceras de caché:
+ * - Regiones: 24 h; frutas por región: 6 h; listado de frutas y recetas: 1 h
+ * - Búsquedas (parámetro q): 10 min
+ *
+ * Al vencer, OkHttp revalida con If-None-Match usando el ETag de Express y el servidor
+ * responde 304 sin volver a enviar el JSON.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+
+    private static final Pattern REGION_FRUITS = Pattern.compile(".*/api/regions/\\d+/fruits/?");
+    private static final Pattern REGIONS = Pattern.compile(".*/api/regions/?");
+    private static final Pattern FRUITS = Pattern.compile(".*/api/fruits/?");
+    private static final Pattern RECIPES = Pattern.compile(".*/api/recipes/?");
+
+    private static final long REGIONS_MAX_AGE = TimeUnit.HOURS.toSeconds(24);
+    private static final long REGION_FRUITS_MAX_AGE = TimeUnit.HOURS.toSeconds(6);
+    private static final long CATALOG_MAX_AGE = TimeUnit.HOURS.toSeconds(1);
+    private static final long SEARCH_MAX_AGE = TimeUnit.MINUTES.toSeconds(10);
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        long maxAge = freshnessSeconds(request.method(), request.url().encodedPath(), request.url().query());
+        // Un 304 también pasa por aquí: sus cabeceras renuevan la frescura de la copia en disco
+        boolean cacheable = response.isSuccessful() || response.code() == 304;
+        if (maxAge <= 0 || !cacheable
+                || response.header("Cache-Control") != null || response.header("Expires") != null) {
+            return response;
+        }
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "public, max-age=" + maxAge)
+                .build();
+    }
+
+    /**
+     * Ventana de frescura de un endpoint del catálogo
+     *
+     * @return segundos, o 0 si el endpoint no se cachea
+     */
+    static long freshnessSeconds(String method, String encodedPath, String query) {
+        if (!"GET".equals(method)) {
+            return 0;
+        }
+        boolean search = query != null && query.matches("(.*&)?q=[^&]+.*");
+        if (REGION_FRUITS.matcher(encodedPath).matches()) {
+            return REGION_FRUITS_MAX_AGE;
+        }
+        if (REGIONS.matcher(encodedPath).matches()) {
+            return REGIONS_MAX_AGE;
+        }
+        if (FRUITS.matcher(encodedPath).matches() || RECIPES.matcher(encodedPath).matches()) {
+            return search ? SEARCH_MAX_AGE : CATALOG_MAX_AGE;
+        }
+        return 0;
+    }
+}
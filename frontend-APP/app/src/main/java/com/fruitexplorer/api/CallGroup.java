@@ -0,0 +1,73 @@
+package com.fruitexplorer.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Llamadas Retrofit en curso de una pantalla (o de una búsqueda), para cancelarlas juntas:
+ * - enqueue registra la llamada y la quita al terminar
+ * - Tras cancelAll no se entrega la respuesta de las llamadas canceladas, ni su onFailure("Canceled"),
+ *   así la pantalla no muestra errores falsos ni toca vistas destruidas
+ * - Tras close toda llamada nueva se cancela sin enviarse
+ *
+ * Solo desde el hilo principal, donde Retrofit entrega las respuestas en Android.
+ */
+public class CallGroup {
+
+    private final Set<Call<?>> inFlight = new LinkedHashSet<>();
+    private boolean closed = false;
+
+    public <T> void enqueue(Call<T> call, Callback<T> callback) {
+        if (closed) {
+            call.cancel();
+            return;
+        }
+        inFlight.add(call);
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> c, Response<T> response) {
+                if (inFlight.remove(call)) {
+                    callback.onResponse(c, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> c, Throwable t) {
+                if (inFlight.remove(call)) {
+                    callback.onFailure(c, t);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return cuántas llamadas seguían en curso
+     */
+    public int cancelAll() {
+        int cancelled = inFlight.size();
+        for (Call<?> call : new ArrayList<>(inFlight)) {
+            call.cancel();
+        }
+        inFlight.clear();
+        return cancelled;
+    }
+
+    /**
+     * Para onDestroy: cancela lo pendiente y rechaza llamadas nuevas
+     *
+     * @return cuántas llamadas seguían en curso
+     */
+    public int close() {
+        closed = true;
+        return cancelAll();
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
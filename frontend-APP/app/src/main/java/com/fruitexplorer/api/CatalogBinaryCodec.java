@@ -0,0 +1,334 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.models.CatalogChanges;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.NutritionalData;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.models.RecipeStep;
+import com.fruitexplorer.models.Region;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binario de GET sync/catalog, espejo de src/utils/catalogCodec.js del backend:
+ * - Cabecera 'FXC' + versión; los campos van en orden fijo, sin nombres
+ * - Enteros como varint; textos y listas con su largo + 1 delante (0 = null)
+ * - Las claves de nutritional se envían una vez y luego por índice
+ *
+ * La app lo pide con ACCEPT y CatalogBinaryConverterFactory lo decodifica; si el servidor responde
+ * JSON, se usa Gson. encode existe para las pruebas y mediciones.
+ */
+public final class CatalogBinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.fruitexplorer.catalog.v1";
+    public static final String ACCEPT = MEDIA_TYPE + ", application/json;q=0.9";
+
+    private static final byte[] MAGIC = {'F', 'X', 'C'};
+    private static final int VERSION = 1;
+
+    private CatalogBinaryCodec() {
+    }
+
+    // ------------------------------------------------------------------ Lectura
+
+    public static CatalogChanges decode(byte[] bytes) throws IOException {
+        Reader in = new Reader(bytes);
+        for (byte b : MAGIC) {
+            if (in.readByte() != b) {
+                throw new IOException("No es un catálogo binario");
+            }
+        }
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Versión de catálogo binario no soportada: " + version);
+        }
+
+        String serverTime = in.readString();
+        boolean full = in.readByte() != 0;
+
+        List<Fruit> fruits = null;
+        int count = in.readCount();
+        if (count >= 0) {
+            fruits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                fruits.add(new Fruit(in.readVarint(), in.readString(), in.readString(), in.readString(),
+                        in.readString(), in.readString(), in.readNutritional()));
+            }
+        }
+
+        List<Region> regions = null;
+        count = in.readCount();
+        if (count >= 0) {
+            regions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                regions.add(new Region(in.readVarint(), in.readString(), in.readString(), in.readString()));
+            }
+        }
+
+        List<Recipe> recipes = null;
+        count = in.readCount();
+        if (count >= 0) {
+            recipes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                recipes.add(new Recipe(in.readVarint(), in.readString(), in.readString(), in.readString(),
+                        in.readString()));
+            }
+        }
+
+        List<RecipeStep> steps = null;
+        count = in.readCount();
+        if (count >= 0) {
+            steps = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                steps.add(new RecipeStep(in.readVarint(), in.readVarint(), in.readString()));
+            }
+        }
+
+        List<CatalogChanges.FruitRegion> fruitRegions = null;
+        count = in.readCount();
+        if (count >= 0) {
+            fruitRegions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                fruitRegions.add(new CatalogChanges.FruitRegion(in.readVarint(), in.readVarint()));
+            }
+        }
+
+        List<CatalogChanges.FruitRecipe> fruitRecipes = null;
+        count = in.readCount();
+        if (count >= 0) {
+            fruitRecipes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                fruitRecipes.add(new CatalogChanges.FruitRecipe(in.readVarint(), in.readVarint()));
+            }
+        }
+
+        CatalogChanges.CatalogIds ids = new CatalogChanges.CatalogIds(in.readIds(), in.readIds(), in.readIds());
+        return new CatalogChanges(serverTime, full, fruits, regions, recipes, steps, fruitRegions, fruitRecipes, ids);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private final List<String> keys = new ArrayList<>();
+        private int position = 0;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() throws IOException {
+            if (position >= bytes.length) {
+                throw new IOException("Catálogo binario truncado");
+            }
+            return bytes[position++];
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Varint inválido en el catálogo binario");
+        }
+
+        /**
+         * @return cantidad de elementos, o -1 si la lista es null
+         */
+        int readCount() throws IOException {
+            return readVarint() - 1;
+        }
+
+        String readString() throws IOException {
+            int size = readVarint() - 1;
+            if (size < 0) {
+                return null;
+            }
+            if (size > bytes.length - position) {
+                throw new IOException("Catálogo binario truncado");
+            }
+            String value = new String(bytes, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        NutritionalData readNutritional() throws IOException {
+            int count = readCount();
+            if (count < 0) {
+                return null;
+            }
+            String[] entryKeys = new String[count];
+            String[] values = new String[count];
+            for (int i = 0; i < count; i++) {
+                int index = readVarint();
+                if (index == 0) {
+                    entryKeys[i] = readString();
+                    keys.add(entryKeys[i]);
+                } else if (index <= keys.size()) {
+                    entryKeys[i] = keys.get(index - 1);
+                } else {
+                    throw new IOException("Clave nutricional desconocida: " + index);
+                }
+                values[i] = readString();
+            }
+            return count == 0 ? NutritionalData.EMPTY : new NutritionalData(entryKeys, values);
+        }
+
+        List<Integer> readIds() throws IOException {
+            int count = readCount();
+            if (count < 0) {
+                return null;
+            }
+            List<Integer> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(readVarint());
+            }
+            return ids;
+        }
+    }
+
+    // ------------------------------------------------------------------ Escritura
+
+    public static byte[] encode(CatalogChanges changes) {
+        Writer out = new Writer();
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+
+        out.writeString(changes.getServerTime());
+        out.write(changes.isFull() ? 1 : 0);
+
+        List<Fruit> fruits = changes.getFruits();
+        out.writeCount(fruits);
+        if (fruits != null) {
+            for (Fruit fruit : fruits) {
+                out.writeVarint(fruit.getId());
+                out.writeString(fruit.getSlug());
+                out.writeString(fruit.getCommonName());
+                out.writeString(fruit.getScientificName());
+                out.writeString(fruit.getDescription());
+                out.writeString(fruit.getImageUrl());
+                out.writeNutritional(fruit.getNutritionalData());
+            }
+        }
+
+        List<Region> regions = changes.getRegions();
+        out.writeCount(regions);
+        if (regions != null) {
+            for (Region region : regions) {
+                out.writeVarint(region.getId());
+                out.writeString(region.getName());
+                out.writeString(region.getDescription());
+                out.writeString(region.getImageUrl());
+            }
+        }
+
+        List<Recipe> recipes = changes.getRecipes();
+        out.writeCount(recipes);
+        if (recipes != null) {
+            for (Recipe recipe : recipes) {
+                out.writeVarint(recipe.getId());
+                out.writeString(recipe.getTitle());
+                out.writeString(recipe.getDescription());
+                out.writeString(recipe.getImageUrl());
+                out.writeString(recipe.getSource());
+            }
+        }
+
+        List<RecipeStep> steps = changes.getRecipeSteps();
+        out.writeCount(steps);
+        if (steps != null) {
+            for (RecipeStep step : steps) {
+                out.writeVarint(step.getRecipeId());
+                out.writeVarint(step.getStepNumber());
+                out.writeString(step.getDescription());
+            }
+        }
+
+        List<CatalogChanges.FruitRegion> fruitRegions = changes.getFruitRegions();
+        out.writeCount(fruitRegions);
+        if (fruitRegions != null) {
+            for (CatalogChanges.FruitRegion link : fruitRegions) {
+                out.writeVarint(link.getFruitId());
+                out.writeVarint(link.getRegionId());
+            }
+        }
+
+        List<CatalogChanges.FruitRecipe> fruitRecipes = changes.getFruitRecipes();
+        out.writeCount(fruitRecipes);
+        if (fruitRecipes != null) {
+            for (CatalogChanges.FruitRecipe link : fruitRecipes) {
+                out.writeVarint(link.getFruitId());
+                out.writeVarint(link.getRecipeId());
+            }
+        }
+
+        CatalogChanges.CatalogIds ids = changes.getIds();
+        out.writeIds(ids != null ? ids.getFruits() : null);
+        out.writeIds(ids != null ? ids.getRegions() : null);
+        out.writeIds(ids != null ? ids.getRecipes() : null);
+        return out.toByteArray();
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+        private final Map<String, Integer> keys = new HashMap<>();
+
+        Writer() {
+            super(64 * 1024);
+        }
+
+        void writeVarint(int value) {
+            int n = Math.max(0, value);
+            while (n >= 0x80) {
+                write((n & 0x7F) | 0x80);
+                n >>>= 7;
+            }
+            write(n);
+        }
+
+        void writeCount(List<?> list) {
+            writeVarint(list == null ? 0 : list.size() + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1);
+            write(utf8, 0, utf8.length);
+        }
+
+        void writeNutritional(NutritionalData data) {
+            writeVarint(data.size() + 1);
+            for (int i = 0; i < data.size(); i++) {
+                Integer index = keys.get(data.getKey(i));
+                if (index != null) {
+                    writeVarint(index);
+                } else {
+                    keys.put(data.getKey(i), keys.size() + 1);
+                    writeVarint(0);
+                    writeString(data.getKey(i));
+                }
+                writeString(data.getValue(i));
+            }
+        }
+
+        void writeIds(List<Integer> ids) {
+            writeCount(ids);
+            if (ids != null) {
+                for (Integer id : ids) {
+                    writeVarint(id != null ? id : 0);
+                }
+            }
+        }
+    }
+}
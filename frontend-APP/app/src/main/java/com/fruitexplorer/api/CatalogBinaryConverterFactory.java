@@ -0,0 +1,46 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.models.CatalogChanges;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Convertidor de CatalogChanges que elige el formato según el Content-Type de la respuesta:
+ * - application/vnd.fruitexplorer.catalog.v1: CatalogBinaryCodec
+ * - Cualquier otro (servidor sin soporte binario): el siguiente convertidor, Gson
+ *
+ * Se registra antes de GsonConverterFactory; el resto de los tipos no pasa por aquí.
+ */
+public class CatalogBinaryConverterFactory extends Converter.Factory {
+
+    public static CatalogBinaryConverterFactory create() {
+        return new CatalogBinaryConverterFactory();
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        if (type != CatalogChanges.class) {
+            return null;
+        }
+        Converter<ResponseBody, CatalogChanges> json = retrofit.nextResponseBodyConverter(this, type, annotations);
+        return body -> {
+            if (isBinary(body.contentType())) {
+                try (ResponseBody binary = body) {
+                    return CatalogBinaryCodec.decode(binary.bytes());
+                }
+            }
+            return json.convert(body);
+        };
+    }
+
+    static boolean isBinary(MediaType contentType) {
+        return contentType != null
+                && CatalogBinaryCodec.MEDIA_TYPE.equalsIgnoreCase(contentType.type() + "/" + contentType.subtype());
+    }
+}
@@ -0,0 +1,371 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.data.EntityStore;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.FruitResponse;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.models.RecipeListResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Ficha de una fruta (la fruta, sus recetas y la imagen principal) pedida antes de que se abra
+ * FruitDetailActivity:
+ * - prefetch la pide de forma especulativa (la cámara, cuando el candidato se mantiene estable);
+ *   un candidato nuevo cancela la precarga anterior si nadie la está esperando
+ * - load entrega la ficha al instante si ya está en memoria, se engancha a la carga en curso si
+ *   la hay, o la pide en ese momento
+ * - La fruta se busca en el EntityStore compartido, luego en el catálogo local y por último en la
+ *   API; la descargada se guarda en el store para el resto de las pantallas
+ * - De la API la ficha llega en un solo viaje (fruits/slug/{slug}?include=recipes); con la fruta
+ *   ya en memoria o en el catálogo local, las recetas se leen del catálogo o se piden solas
+ * - Las recetas quedan en memoria FRESH_MS; hasta MAX_ENTRIES, descartando la menos usada
+ *
+ * Sin dependencias de Android: el catálogo local, la red y la precarga de imágenes llegan por Source.
+ * Todos los métodos se llaman desde el hilo principal, donde Retrofit entrega las respuestas.
+ */
+public class FruitDetailPrefetcher {
+
+    public static final long FRESH_MS = 5 * 60 * 1000;
+    public static final int MAX_ENTRIES = 8;
+
+    public interface Source {
+        /**
+         * Busca la fruta en el catálogo local; entrega null si no está o no hay catálogo
+         */
+        void loadLocalFruit(String slug, Consumer<Fruit> callback);
+
+        /**
+         * La fruta con sus recetas incluidas (un servidor anterior puede devolverla sin recetas)
+         */
+        Call<FruitResponse> getFruitDetail(String slug);
+
+        /**
+         * Recetas de la fruta en el catálogo local; entrega null si no hay catálogo
+         */
+        void loadLocalRecipes(int fruitId, Consumer<List<Recipe>> callback);
+
+        Call<RecipeListResponse> getRecipesByFruit(int fruitId);
+
+        /**
+         * Descarga la imagen a la caché del cargador de imágenes, sin mostrarla
+         */
+        void preloadImage(String url);
+    }
+
+    public interface Listener {
+        void onFruit(Fruit fruit);
+
+        /**
+         * @param recipes recetas de la fruta; vacía si no tiene o no se pudieron obtener
+         */
+        void onRecipes(List<Recipe> recipes);
+
+        /**
+         * @param code código HTTP, o -1 si falló la red
+         */
+        void onFruitFailed(int code, Throwable error);
+    }
+
+    private static final class Entry {
+        final String slug;
+        final boolean speculative;
+        final List<Listener> listeners = new ArrayList<>();
+        Call<?> inFlight;
+        boolean abandoned;
+        Fruit fruit;
+        List<Recipe> recipes;
+        long recipesLoadedAt;
+
+        Entry(String slug, boolean speculative) {
+            this.slug = slug;
+            this.speculative = speculative;
+        }
+    }
+
+    private final Source source;
+    private final EntityStore<Fruit> fruits;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            // Una entrada descartada con llamadas en curso igual avisa a quienes la esperan
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Stats stats = new Stats();
+
+    public FruitDetailPrefetcher(Source source, EntityStore<Fruit> fruits, LongSupplier clock) {
+        this.source = source;
+        this.fruits = fruits;
+        this.clock = clock;
+    }
+
+    /**
+     * Pide la ficha sin que nadie la espere todavía. No hace nada si ya está en memoria o en curso.
+     */
+    public void prefetch(String slug) {
+        if (slug == null || slug.isEmpty() || current(slug) != null) {
+            return;
+        }
+        cancelAbandonedSpeculation();
+        stats.speculative++;
+        start(new Entry(slug, true));
+    }
+
+    /**
+     * Entrega la ficha a listener: al instante lo que ya está en memoria, el resto cuando llegue.
+     * Llamar a cancel(listener) cuando la pantalla se destruye.
+     */
+    public void load(String slug, Listener listener) {
+        Entry entry = current(slug);
+        if (entry == null) {
+            entry = new Entry(slug, false);
+            entry.listeners.add(listener);
+            start(entry);
+            return;
+        }
+        if (entry.fruit != null) {
+            stats.hits++;
+        } else {
+            stats.joined++;
+        }
+        entry.listeners.add(listener);
+        if (entry.fruit != null) {
+            listener.onFruit(entry.fruit);
+        }
+        if (entry.recipes != null) {
+            listener.onRecipes(entry.recipes);
+        }
+    }
+
+    /**
+     * Deja de avisar a listener; las llamadas siguen y su resultado queda en memoria
+     */
+    public void cancel(Listener listener) {
+        for (Entry entry : entries.values()) {
+            entry.listeners.remove(listener);
+        }
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return la entrada vigente para slug, o null si no hay, sus recetas vencieron o la fruta salió
+     *         del store (vencida o cambiada por una sincronización)
+     */
+    private Entry current(String slug) {
+        Entry entry = entries.get(slug);
+        if (entry == null || entry.fruit == null) {
+            return entry;
+        }
+        boolean recipesStale = entry.recipes != null && clock.getAsLong() - entry.recipesLoadedAt > FRESH_MS;
+        if (recipesStale || fruits.getBySlug(slug) != entry.fruit) {
+            entries.remove(slug);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * El candidato cambió: la precarga que todavía nadie pidió ya no vale la pena
+     */
+    private void cancelAbandonedSpeculation() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.speculative && entry.fruit == null && entry.listeners.isEmpty()) {
+                entry.abandoned = true;
+                if (entry.inFlight != null) {
+                    entry.inFlight.cancel();
+                }
+                it.remove();
+                stats.abandoned++;
+            }
+        }
+    }
+
+    private void start(Entry entry) {
+        entries.put(entry.slug, entry);
+        Fruit stored = fruits.getBySlug(entry.slug);
+        if (stored != null) {
+            stats.hits++;
+            resolve(entry, stored, null);
+            return;
+        }
+        source.loadLocalFruit(entry.slug, local -> {
+            if (entry.abandoned) {
+                return;
+            }
+            if (local != null) {
+                stats.local++;
+                fruits.put(local);
+                resolve(entry, local, null);
+            } else {
+                stats.remote++;
+                fetchFruit(entry);
+            }
+        });
+    }
+
+    private void fetchFruit(Entry entry) {
+        Call<FruitResponse> call = source.getFruitDetail(entry.slug);
+        entry.inFlight = call;
+        call.enqueue(new Callback<FruitResponse>() {
+            @Override
+            public void onResponse(Call<FruitResponse> c, Response<FruitResponse> response) {
+                if (c.isCanceled()) {
+                    return;
+                }
+                entry.inFlight = null;
+                FruitResponse body = response.isSuccessful() ? response.body() : null;
+                Fruit fruit = body != null ? body.getFruit() : null;
+                if (fruit == null) {
+                    fail(entry, response.code(), null);
+                    return;
+                }
+                fruits.put(fruit);
+                resolve(entry, fruit, body.getRecipes());
+            }
+
+            @Override
+            public void onFailure(Call<FruitResponse> c, Throwable t) {
+                if (c.isCanceled()) {
+                    return;
+                }
+                entry.inFlight = null;
+                fail(entry, -1, t);
+            }
+        });
+    }
+
+    /**
+     * @param recipes recetas que llegaron con la fruta, o null si hay que buscarlas
+     */
+    private void resolve(Entry entry, Fruit fruit, List<Recipe> recipes) {
+        entry.fruit = fruit;
+        if (fruit.getImageUrl() != null) {
+            source.preloadImage(fruit.getImageUrl());
+        }
+        for (Listener listener : new ArrayList<>(entry.listeners)) {
+            listener.onFruit(fruit);
+        }
+        if (recipes != null) {
+            deliverRecipes(entry, recipes, true);
+        } else {
+            loadRecipes(entry);
+        }
+    }
+
+    private void loadRecipes(Entry entry) {
+        source.loadLocalRecipes(entry.fruit.getId(), local -> {
+            if (local != null) {
+                deliverRecipes(entry, local, true);
+            } else {
+                fetchRecipes(entry);
+            }
+        });
+    }
+
+    private void fetchRecipes(Entry entry) {
+        Call<RecipeListResponse> call = source.getRecipesByFruit(entry.fruit.getId());
+        entry.inFlight = call;
+        call.enqueue(new Callback<RecipeListResponse>() {
+            @Override
+            public void onResponse(Call<RecipeListResponse> c, Response<RecipeListResponse> response) {
+                if (c.isCanceled()) {
+                    return;
+                }
+                entry.inFlight = null;
+                List<Recipe> recipes = response.isSuccessful() && response.body() != null
+                        ? response.body().getRecipes() : null;
+                deliverRecipes(entry, recipes != null ? recipes : Collections.emptyList(), recipes != null);
+            }
+
+            @Override
+            public void onFailure(Call<RecipeListResponse> c, Throwable t) {
+                if (c.isCanceled()) {
+                    return;
+                }
+                entry.inFlight = null;
+                deliverRecipes(entry, Collections.emptyList(), false);
+            }
+        });
+    }
+
+    private void deliverRecipes(Entry entry, List<Recipe> recipes, boolean keep) {
+        if (keep) {
+            entry.recipes = recipes;
+            entry.recipesLoadedAt = clock.getAsLong();
+        } else {
+            // Sin recetas en memoria: la próxima pantalla vuelve a pedirlas (la fruta sigue en el store)
+            entries.remove(entry.slug, entry);
+        }
+        for (Listener listener : new ArrayList<>(entry.listeners)) {
+            listener.onRecipes(recipes);
+        }
+    }
+
+    private void fail(Entry entry, int code, Throwable error) {
+        entries.remove(entry.slug, entry);
+        for (Listener listener : new ArrayList<>(entry.listeners)) {
+            listener.onFruitFailed(code, error);
+        }
+    }
+
+    /**
+     * Cuánto aportó la precarga: fichas servidas desde memoria o desde el catálogo local, pantallas
+     * que se engancharon a una carga en curso, descargas y precargas abandonadas por un cambio de candidato
+     */
+    public static final class Stats {
+        private int speculative;
+        private int hits;
+        private int local;
+        private int joined;
+        private int remote;
+        private int abandoned;
+
+        public int getSpeculative() {
+            return speculative;
+        }
+
+        public int getHits() {
+            return hits;
+        }
+
+        public int getLocal() {
+            return local;
+        }
+
+        public int getJoined() {
+            return joined;
+        }
+
+        public int getRemote() {
+            return remote;
+        }
+
+        public int getAbandoned() {
+            return abandoned;
+        }
+
+        @Override
+        public String toString() {
+            return "precargas=" + speculative + " enMemoria=" + hits + " catálogoLocal=" + local
+                    + " enCurso=" + joined + " descargas=" + remote + " abandonadas=" + abandoned;
+        }
+    }
+}
@@ -0,0 +1,639 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.models.CatalogChanges;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.FruitListResponse;
+import com.fruitexplorer.models.FruitResponse;
+import com.fruitexplorer.models.FruitSummary;
+import com.fruitexplorer.models.FruitSummaryListResponse;
+import com.fruitexplorer.models.NutritionalData;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.models.RecipeDetailResponse;
+import com.fruitexplorer.models.RecipeListResponse;
+import com.fruitexplorer.models.RecipeStep;
+import com.fruitexplorer.models.Region;
+import com.fruitexplorer.models.RegionResponse;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptadores de Gson escritos a mano para los modelos del catálogo y sus respuestas:
+ * - Leen con JsonReader campo por campo, sin reflexión ni árbol intermedio
+ * - Los campos desconocidos se saltan y los null dejan el valor por defecto, igual que la reflexión
+ * - nutritional se lee directo a NutritionalData
+ *
+ * El resto de los modelos (auth, ml, requests) sigue por reflexión.
+ * Medición contra la reflexión en JsonParsingBenchmarkTest.
+ */
+public final class ModelTypeAdapters {
+
+    private ModelTypeAdapters() {
+    }
+
+    /**
+     * Registra los adaptadores; ApiClient lo usa al construir su Gson
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(NutritionalData.class, NUTRITIONAL)
+                .registerTypeAdapter(Fruit.class, FRUIT)
+                .registerTypeAdapter(FruitSummary.class, FRUIT_SUMMARY)
+                .registerTypeAdapter(Region.class, REGION)
+                .registerTypeAdapter(Recipe.class, RECIPE)
+                .registerTypeAdapter(RecipeStep.class, RECIPE_STEP)
+                .registerTypeAdapter(FruitResponse.class, FRUIT_RESPONSE)
+                .registerTypeAdapter(FruitListResponse.class, FRUIT_LIST)
+                .registerTypeAdapter(FruitSummaryListResponse.class, FRUIT_SUMMARY_LIST)
+                .registerTypeAdapter(RegionResponse.class, REGION_LIST)
+                .registerTypeAdapter(RecipeListResponse.class, RECIPE_LIST)
+                .registerTypeAdapter(RecipeDetailResponse.class, RECIPE_DETAIL)
+                .registerTypeAdapter(CatalogChanges.class, CATALOG_CHANGES);
+    }
+
+    // ------------------------------------------------------------------ Entidades
+
+    static final TypeAdapter<NutritionalData> NUTRITIONAL = new TypeAdapter<NutritionalData>() {
+        @Override
+        public void write(JsonWriter out, NutritionalData data) throws IOException {
+            out.beginObject();
+            for (int i = 0; i < data.size(); i++) {
+                out.name(data.getKey(i)).value(data.getValue(i));
+            }
+            out.endObject();
+        }
+
+        @Override
+        public NutritionalData read(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return NutritionalData.EMPTY;
+            }
+            List<String> keys = new ArrayList<>(8);
+            List<String> values = new ArrayList<>(8);
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                JsonToken token = in.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                    // nextString devuelve el número tal como viene ("60", "0.4")
+                    keys.add(key);
+                    values.add(in.nextString());
+                } else if (token == JsonToken.BOOLEAN) {
+                    keys.add(key);
+                    values.add(String.valueOf(in.nextBoolean()));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (keys.isEmpty()) {
+                return NutritionalData.EMPTY;
+            }
+            return new NutritionalData(keys.toArray(new String[0]), values.toArray(new String[0]));
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<Fruit> FRUIT = new TypeAdapter<Fruit>() {
+        @Override
+        public void write(JsonWriter out, Fruit fruit) throws IOException {
+            out.beginObject();
+            out.name("id").value(fruit.getId());
+            out.name("slug").value(fruit.getSlug());
+            out.name("common_name").value(fruit.getCommonName());
+            out.name("scientific_name").value(fruit.getScientificName());
+            out.name("description").value(fruit.getDescription());
+            out.name("image_url").value(fruit.getImageUrl());
+            out.name("nutritional");
+            NUTRITIONAL.write(out, fruit.getNutritionalData());
+            out.endObject();
+        }
+
+        @Override
+        public Fruit read(JsonReader in) throws IOException {
+            int id = 0;
+            String slug = null;
+            String commonName = null;
+            String scientificName = null;
+            String description = null;
+            String imageUrl = null;
+            NutritionalData nutritional = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": id = nextInt(in); break;
+                    case "slug": slug = nextString(in); break;
+                    case "common_name": commonName = nextString(in); break;
+                    case "scientific_name": scientificName = nextString(in); break;
+                    case "description": description = nextString(in); break;
+                    case "image_url": imageUrl = nextString(in); break;
+                    case "nutritional": nutritional = NUTRITIONAL.read(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Fruit(id, slug, commonName, scientificName, description, imageUrl, nutritional);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<FruitSummary> FRUIT_SUMMARY = new TypeAdapter<FruitSummary>() {
+        @Override
+        public void write(JsonWriter out, FruitSummary fruit) throws IOException {
+            out.beginObject();
+            out.name("id").value(fruit.getId());
+            out.name("slug").value(fruit.getSlug());
+            out.name("common_name").value(fruit.getCommonName());
+            out.name("image_url").value(fruit.getImageUrl());
+            out.endObject();
+        }
+
+        @Override
+        public FruitSummary read(JsonReader in) throws IOException {
+            int id = 0;
+            String slug = null;
+            String commonName = null;
+            String imageUrl = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": id = nextInt(in); break;
+                    case "slug": slug = nextString(in); break;
+                    case "common_name": commonName = nextString(in); break;
+                    case "image_url": imageUrl = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new FruitSummary(id, slug, commonName, imageUrl);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<Region> REGION = new TypeAdapter<Region>() {
+        @Override
+        public void write(JsonWriter out, Region region) throws IOException {
+            out.beginObject();
+            out.name("id").value(region.getId());
+            out.name("name").value(region.getName());
+            out.name("description").value(region.getDescription());
+            out.name("image_url").value(region.getImageUrl());
+            out.endObject();
+        }
+
+        @Override
+        public Region read(JsonReader in) throws IOException {
+            int id = 0;
+            String name = null;
+            String description = null;
+            String imageUrl = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": id = nextInt(in); break;
+                    case "name": name = nextString(in); break;
+                    case "description": description = nextString(in); break;
+                    case "image_url": imageUrl = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Region(id, name, description, imageUrl);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<Recipe> RECIPE = new TypeAdapter<Recipe>() {
+        @Override
+        public void write(JsonWriter out, Recipe recipe) throws IOException {
+            out.beginObject();
+            out.name("id").value(recipe.getId());
+            out.name("title").value(recipe.getTitle());
+            out.name("description").value(recipe.getDescription());
+            out.name("image_url").value(recipe.getImageUrl());
+            out.name("source").value(recipe.getSource());
+            out.endObject();
+        }
+
+        @Override
+        public Recipe read(JsonReader in) throws IOException {
+            int id = 0;
+            String title = null;
+            String description = null;
+            String imageUrl = null;
+            String source = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id": id = nextInt(in); break;
+                    case "title": title = nextString(in); break;
+                    case "description": description = nextString(in); break;
+                    case "image_url": imageUrl = nextString(in); break;
+                    case "source": source = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Recipe(id, title, description, imageUrl, source);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<RecipeStep> RECIPE_STEP = new TypeAdapter<RecipeStep>() {
+        @Override
+        public void write(JsonWriter out, RecipeStep step) throws IOException {
+            out.beginObject();
+            out.name("recipe_id").value(step.getRecipeId());
+            out.name("step_number").value(step.getStepNumber());
+            out.name("description").value(step.getDescription());
+            out.endObject();
+        }
+
+        @Override
+        public RecipeStep read(JsonReader in) throws IOException {
+            int recipeId = 0;
+            int stepNumber = 0;
+            String description = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "recipe_id": recipeId = nextInt(in); break;
+                    case "step_number": stepNumber = nextInt(in); break;
+                    case "description": description = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new RecipeStep(recipeId, stepNumber, description);
+        }
+    }.nullSafe();
+
+    // ------------------------------------------------------------------ Respuestas
+
+    static final TypeAdapter<FruitResponse> FRUIT_RESPONSE = new TypeAdapter<FruitResponse>() {
+        @Override
+        public void write(JsonWriter out, FruitResponse response) throws IOException {
+            out.beginObject();
+            out.name("fruit");
+            FRUIT.write(out, response.getFruit());
+            writeList(out.name("recipes"), response.getRecipes(), RECIPE);
+            writeList(out.name("regions"), response.getRegions(), REGION);
+            out.endObject();
+        }
+
+        @Override
+        public FruitResponse read(JsonReader in) throws IOException {
+            Fruit fruit = null;
+            List<Recipe> recipes = null;
+            List<Region> regions = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "fruit":
+                        fruit = FRUIT.read(in);
+                        break;
+                    case "recipes":
+                        recipes = readList(in, RECIPE);
+                        break;
+                    case "regions":
+                        regions = readList(in, REGION);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new FruitResponse(fruit, recipes, regions);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<FruitListResponse> FRUIT_LIST = new TypeAdapter<FruitListResponse>() {
+        @Override
+        public void write(JsonWriter out, FruitListResponse response) throws IOException {
+            out.beginObject();
+            writeList(out.name("fruits"), response.getFruits(), FRUIT);
+            out.name("next_cursor").value(response.getNextCursor());
+            out.endObject();
+        }
+
+        @Override
+        public FruitListResponse read(JsonReader in) throws IOException {
+            List<Fruit> fruits = null;
+            String nextCursor = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "fruits": fruits = readList(in, FRUIT); break;
+                    case "next_cursor": nextCursor = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new FruitListResponse(fruits, nextCursor);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<FruitSummaryListResponse> FRUIT_SUMMARY_LIST = new TypeAdapter<FruitSummaryListResponse>() {
+        @Override
+        public void write(JsonWriter out, FruitSummaryListResponse response) throws IOException {
+            out.beginObject();
+            writeList(out.name("fruits"), response.getFruits(), FRUIT_SUMMARY);
+            out.name("next_cursor").value(response.getNextCursor());
+            out.endObject();
+        }
+
+        @Override
+        public FruitSummaryListResponse read(JsonReader in) throws IOException {
+            List<FruitSummary> fruits = null;
+            String nextCursor = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "fruits": fruits = readList(in, FRUIT_SUMMARY); break;
+                    case "next_cursor": nextCursor = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new FruitSummaryListResponse(fruits, nextCursor);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<RegionResponse> REGION_LIST = new TypeAdapter<RegionResponse>() {
+        @Override
+        public void write(JsonWriter out, RegionResponse response) throws IOException {
+            out.beginObject();
+            writeList(out.name("regions"), response.getRegions(), REGION);
+            out.endObject();
+        }
+
+        @Override
+        public RegionResponse read(JsonReader in) throws IOException {
+            List<Region> regions = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("regions")) {
+                    regions = readList(in, REGION);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return new RegionResponse(regions);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<RecipeListResponse> RECIPE_LIST = new TypeAdapter<RecipeListResponse>() {
+        @Override
+        public void write(JsonWriter out, RecipeListResponse response) throws IOException {
+            out.beginObject();
+            writeList(out.name("recipes"), response.getRecipes(), RECIPE);
+            out.name("next_cursor").value(response.getNextCursor());
+            out.endObject();
+        }
+
+        @Override
+        public RecipeListResponse read(JsonReader in) throws IOException {
+            List<Recipe> recipes = null;
+            String nextCursor = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "recipes": recipes = readList(in, RECIPE); break;
+                    case "next_cursor": nextCursor = nextString(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new RecipeListResponse(recipes, nextCursor);
+        }
+    }.nullSafe();
+
+    static final TypeAdapter<RecipeDetailResponse> RECIPE_DETAIL = new TypeAdapter<RecipeDetailResponse>() {
+        @Override
+        public void write(JsonWriter out, RecipeDetailResponse response) throws IOException {
+            out.beginObject();
+            out.name("recipe");
+            RECIPE.write(out, response.getRecipe());
+            writeList(out.name("steps"), response.getSteps(), RECIPE_STEP);
+            out.endObject();
+        }
+
+        @Override
+        public RecipeDetailResponse read(JsonReader in) throws IOException {
+            Recipe recipe = null;
+            List<RecipeStep> steps = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "recipe": recipe = RECIPE.read(in); break;
+                    case "steps": steps = readList(in, RECIPE_STEP); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new RecipeDetailResponse(recipe, steps);
+        }
+    }.nullSafe();
+
+    // ------------------------------------------------------------------ Sincronización
+
+    private static final TypeAdapter<Integer> ID = new TypeAdapter<Integer>() {
+        @Override
+        public void write(JsonWriter out, Integer id) throws IOException {
+            out.value(id);
+        }
+
+        @Override
+        public Integer read(JsonReader in) throws IOException {
+            return in.nextInt();
+        }
+    }.nullSafe();
+
+    private static final TypeAdapter<CatalogChanges.FruitRegion> FRUIT_REGION =
+            new TypeAdapter<CatalogChanges.FruitRegion>() {
+                @Override
+                public void write(JsonWriter out, CatalogChanges.FruitRegion link) throws IOException {
+                    out.beginObject();
+                    out.name("fruit_id").value(link.getFruitId());
+                    out.name("region_id").value(link.getRegionId());
+                    out.endObject();
+                }
+
+                @Override
+                public CatalogChanges.FruitRegion read(JsonReader in) throws IOException {
+                    int fruitId = 0;
+                    int regionId = 0;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "fruit_id": fruitId = nextInt(in); break;
+                            case "region_id": regionId = nextInt(in); break;
+                            default: in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    return new CatalogChanges.FruitRegion(fruitId, regionId);
+                }
+            }.nullSafe();
+
+    private static final TypeAdapter<CatalogChanges.FruitRecipe> FRUIT_RECIPE =
+            new TypeAdapter<CatalogChanges.FruitRecipe>() {
+                @Override
+                public void write(JsonWriter out, CatalogChanges.FruitRecipe link) throws IOException {
+                    out.beginObject();
+                    out.name("fruit_id").value(link.getFruitId());
+                    out.name("recipe_id").value(link.getRecipeId());
+                    out.endObject();
+                }
+
+                @Override
+                public CatalogChanges.FruitRecipe read(JsonReader in) throws IOException {
+                    int fruitId = 0;
+                    int recipeId = 0;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "fruit_id": fruitId = nextInt(in); break;
+                            case "recipe_id": recipeId = nextInt(in); break;
+                            default: in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    return new CatalogChanges.FruitRecipe(fruitId, recipeId);
+                }
+            }.nullSafe();
+
+    private static final TypeAdapter<CatalogChanges.CatalogIds> CATALOG_IDS =
+            new TypeAdapter<CatalogChanges.CatalogIds>() {
+                @Override
+                public void write(JsonWriter out, CatalogChanges.CatalogIds ids) throws IOException {
+                    out.beginObject();
+                    writeList(out.name("fruits"), ids.getFruits(), ID);
+                    writeList(out.name("regions"), ids.getRegions(), ID);
+                    writeList(out.name("recipes"), ids.getRecipes(), ID);
+                    out.endObject();
+                }
+
+                @Override
+                public CatalogChanges.CatalogIds read(JsonReader in) throws IOException {
+                    List<Integer> fruits = null;
+                    List<Integer> regions = null;
+                    List<Integer> recipes = null;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "fruits": fruits = readList(in, ID); break;
+                            case "regions": regions = readList(in, ID); break;
+                            case "recipes": recipes = readList(in, ID); break;
+                            default: in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    return new CatalogChanges.CatalogIds(fruits, regions, recipes);
+                }
+            }.nullSafe();
+
+    static final TypeAdapter<CatalogChanges> CATALOG_CHANGES = new TypeAdapter<CatalogChanges>() {
+        @Override
+        public void write(JsonWriter out, CatalogChanges changes) throws IOException {
+            out.beginObject();
+            out.name("server_time").value(changes.getServerTime());
+            out.name("full").value(changes.isFull());
+            writeList(out.name("fruits"), changes.getFruits(), FRUIT);
+            writeList(out.name("regions"), changes.getRegions(), REGION);
+            writeList(out.name("recipes"), changes.getRecipes(), RECIPE);
+            writeList(out.name("recipe_steps"), changes.getRecipeSteps(), RECIPE_STEP);
+            writeList(out.name("fruit_regions"), changes.getFruitRegions(), FRUIT_REGION);
+            writeList(out.name("fruit_recipes"), changes.getFruitRecipes(), FRUIT_RECIPE);
+            out.name("ids");
+            CATALOG_IDS.write(out, changes.getIds());
+            out.endObject();
+        }
+
+        @Override
+        public CatalogChanges read(JsonReader in) throws IOException {
+            String serverTime = null;
+            boolean full = false;
+            List<Fruit> fruits = null;
+            List<Region> regions = null;
+            List<Recipe> recipes = null;
+            List<RecipeStep> recipeSteps = null;
+            List<CatalogChanges.FruitRegion> fruitRegions = null;
+            List<CatalogChanges.FruitRecipe> fruitRecipes = null;
+            CatalogChanges.CatalogIds ids = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "server_time": serverTime = nextString(in); break;
+                    case "full": full = nextBoolean(in); break;
+                    case "fruits": fruits = readList(in, FRUIT); break;
+                    case "regions": regions = readList(in, REGION); break;
+                    case "recipes": recipes = readList(in, RECIPE); break;
+                    case "recipe_steps": recipeSteps = readList(in, RECIPE_STEP); break;
+                    case "fruit_regions": fruitRegions = readList(in, FRUIT_REGION); break;
+                    case "fruit_recipes": fruitRecipes = readList(in, FRUIT_RECIPE); break;
+                    case "ids": ids = CATALOG_IDS.read(in); break;
+                    default: in.skipValue();
+                }
+            }
+            in.endObject();
+            return new CatalogChanges(serverTime, full, fruits, regions, recipes, recipeSteps,
+                    fruitRegions, fruitRecipes, ids);
+        }
+    }.nullSafe();
+
+    // ------------------------------------------------------------------ Lectura
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    private static boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return false;
+        }
+        return in.nextBoolean();
+    }
+
+    private static <T> List<T> readList(JsonReader in, TypeAdapter<T> element) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(element.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static <T> void writeList(JsonWriter out, List<T> list, TypeAdapter<T> element) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (T item : list) {
+            element.write(out, item);
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,292 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.utils.Scheduler;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Búsqueda mientras se escribe, reutilizable por cualquier pantalla con SearchView:
+ * - onQueryChanged espera DEBOUNCE antes de buscar; cada tecla reemplaza a la búsqueda pendiente
+ * - Una consulta nueva cancela las llamadas en curso de la anterior
+ * - Cada búsqueda lleva un número de secuencia (Ticket); una respuesta que no es de la búsqueda
+ *   actual se descarta aunque llegue después, así nunca gana una consulta vieja
+ * - La misma consulta que ya se mostró no se vuelve a pedir, salvo que haya fallado o con refresh
+ * - Stats cuenta las búsquedas y llamadas ahorradas y estima los bytes que no se descargaron
+ *
+ * Sin dependencias de Android: la pantalla pasa un Scheduler sobre el hilo principal.
+ * Todos los métodos se llaman desde ese hilo.
+ */
+public class SearchPipeline {
+
+    public interface Search {
+        /**
+         * @param query consulta sin espacios sobrantes, o null para "todo"
+         * @param ticket para enviar las llamadas y comprobar si el resultado sigue vigente
+         */
+        void run(String query, Ticket ticket);
+    }
+
+    private final Scheduler scheduler;
+    private final long debounceMillis;
+    private final Search search;
+    private final Stats stats = new Stats();
+
+    private long sequence = 0;
+    private Ticket current;
+    private Runnable pending;
+    private boolean closed = false;
+
+    public SearchPipeline(Scheduler scheduler, long debounceMillis, Search search) {
+        this.scheduler = scheduler;
+        this.debounceMillis = debounceMillis;
+        this.search = search;
+    }
+
+    /**
+     * Para onQueryTextChange: busca cuando el texto deja de cambiar
+     */
+    public void onQueryChanged(String text) {
+        if (closed) {
+            return;
+        }
+        String query = normalize(text);
+        if (cancelPending()) {
+            stats.debounced++;
+        }
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                if (pending == this) {
+                    pending = null;
+                    start(query, false);
+                }
+            }
+        };
+        pending = task;
+        scheduler.postDelayed(task, debounceMillis);
+    }
+
+    /**
+     * Para onQueryTextSubmit y la carga inicial: busca ya
+     */
+    public void submit(String text) {
+        if (closed) {
+            return;
+        }
+        cancelPending();
+        start(normalize(text), false);
+    }
+
+    /**
+     * Repite la consulta actual aunque no haya cambiado (por ejemplo, tras sincronizar el catálogo).
+     * Si hay una búsqueda esperando el debounce, esa ya leerá los datos nuevos.
+     */
+    public void refresh() {
+        if (closed || pending != null) {
+            return;
+        }
+        start(current != null ? current.query : null, true);
+    }
+
+    /**
+     * Para onDestroy: descarta lo pendiente y cancela lo que esté en curso
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        cancelPending();
+        if (current != null) {
+            stats.cancelledCalls += current.calls.close();
+        }
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    private boolean cancelPending() {
+        if (pending == null) {
+            return false;
+        }
+        scheduler.removeCallbacks(pending);
+        pending = null;
+        return true;
+    }
+
+    private void start(String query, boolean force) {
+        if (!force && current != null && !current.failed && Objects.equals(current.query, query)) {
+            stats.duplicates++;
+            return;
+        }
+        if (current != null) {
+            stats.cancelledCalls += current.calls.close();
+        }
+        current = new Ticket(++sequence, query);
+        stats.searches++;
+        search.run(query, current);
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Bytes que viajaron por la red para una respuesta: 0 si vino de la caché HTTP, -1 si no se sabe
+     * (sin Content-Length, por ejemplo en un 304 o con transferencia por partes)
+     */
+    static long networkBytes(okhttp3.Response raw) {
+        if (raw == null) {
+            return -1;
+        }
+        okhttp3.Response network = raw.networkResponse();
+        if (network == null) {
+            return 0;
+        }
+        String length = network.header("Content-Length");
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Una ejecución de la búsqueda. Deja de ser vigente en cuanto empieza otra o se cierra el pipeline.
+     */
+    public final class Ticket {
+        private final long sequence;
+        private final String query;
+        private final CallGroup calls = new CallGroup();
+        private boolean failed = false;
+
+        private Ticket(long sequence, String query) {
+            this.sequence = sequence;
+            this.query = query;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * Para resultados que no pasan por enqueue (por ejemplo, el catálogo local)
+         */
+        public boolean isCurrent() {
+            return !closed && current != null && current.sequence == sequence;
+        }
+
+        /**
+         * Envía la llamada ligada a esta búsqueda; el callback solo corre si la búsqueda sigue vigente
+         */
+        public <T> void enqueue(Call<T> call, Callback<T> callback) {
+            calls.enqueue(call, new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> c, Response<T> response) {
+                    if (!isCurrent()) {
+                        stats.staleResponses++;
+                        return;
+                    }
+                    stats.onNetworkResponse(networkBytes(response.raw()));
+                    failed = !response.isSuccessful();
+                    callback.onResponse(c, response);
+                }
+
+                @Override
+                public void onFailure(Call<T> c, Throwable t) {
+                    if (!isCurrent()) {
+                        stats.staleResponses++;
+                        return;
+                    }
+                    failed = true;
+                    callback.onFailure(c, t);
+                }
+            });
+        }
+    }
+
+    /**
+     * Contadores del pipeline desde que se creó la pantalla
+     */
+    public static final class Stats {
+        private int searches;
+        private int debounced;
+        private int duplicates;
+        private int cancelledCalls;
+        private int staleResponses;
+        private int measuredResponses;
+        private long measuredBytes;
+
+        private void onNetworkResponse(long bytes) {
+            if (bytes >= 0) {
+                measuredResponses++;
+                measuredBytes += bytes;
+            }
+        }
+
+        /** Búsquedas ejecutadas */
+        public int getSearches() {
+            return searches;
+        }
+
+        /** Búsquedas que el debounce reemplazó antes de ejecutarse */
+        public int getDebounced() {
+            return debounced;
+        }
+
+        /** Búsquedas evitadas por repetir la consulta ya mostrada */
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        /** Llamadas canceladas en vuelo por una consulta más nueva o al cerrar */
+        public int getCancelledCalls() {
+            return cancelledCalls;
+        }
+
+        /** Respuestas descartadas por llegar fuera de orden */
+        public int getStaleResponses() {
+            return staleResponses;
+        }
+
+        public int getRequestsSaved() {
+            return debounced + duplicates + cancelledCalls;
+        }
+
+        /**
+         * Estimación con el tamaño medio de las respuestas medidas; 0 si todavía no hubo ninguna
+         */
+        public long getEstimatedBytesSaved() {
+            if (measuredResponses == 0) {
+                return 0;
+            }
+            return getRequestsSaved() * (measuredBytes / measuredResponses);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d búsquedas; ahorradas %d (debounce %d, repetidas %d, canceladas %d), "
+                            + "%d respuestas fuera de orden descartadas, ~%d bytes ahorrados",
+                    searches, getRequestsSaved(), debounced, duplicates, cancelledCalls,
+                    staleResponses, getEstimatedBytesSaved());
+        }
+    }
+}
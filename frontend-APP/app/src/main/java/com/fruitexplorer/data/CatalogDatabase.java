@@ -0,0 +1,109 @@
+package com.fruitexplorer.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * Copia local del catálogo con las mismas tablas del backend:
+ * - fruits, regions, recipes, recipe_steps y las relaciones fruit_regions y fruit_recipes
+ * - sync_state guarda la marca de la última sincronización (server_time)
+ *
+ * El esquema se recrea al cambiar de versión: todo se puede volver a descargar.
+ */
+public class CatalogDatabase extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "fruitexplorer_catalog.db";
+    private static final int DATABASE_VERSION = 1;
+
+    public static final String TABLE_FRUITS = "fruits";
+    public static final String TABLE_REGIONS = "regions";
+    public static final String TABLE_FRUIT_REGIONS = "fruit_regions";
+    public static final String TABLE_RECIPES = "recipes";
+    public static final String TABLE_RECIPE_STEPS = "recipe_steps";
+    public static final String TABLE_FRUIT_RECIPES = "fruit_recipes";
+    public static final String TABLE_SYNC_STATE = "sync_state";
+
+    private static volatile CatalogDatabase instance;
+
+    public static CatalogDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CatalogDatabase.class) {
+                if (instance == null) {
+                    instance = new CatalogDatabase(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private CatalogDatabase(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        // Lecturas de las pantallas en paralelo con la escritura de la sincronización
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        db.setForeignKeyConstraintsEnabled(false);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_FRUITS + " ("
+                + "id INTEGER PRIMARY KEY, "
+                + "slug TEXT NOT NULL UNIQUE, "
+                + "common_name TEXT NOT NULL, "
+                + "scientific_name TEXT, "
+                + "description TEXT, "
+                + "nutritional TEXT, "
+                + "image_url TEXT)");
+        db.execSQL("CREATE INDEX idx_fruits_name ON " + TABLE_FRUITS + " (common_name)");
+
+        db.execSQL("CREATE TABLE " + TABLE_REGIONS + " ("
+                + "id INTEGER PRIMARY KEY, "
+                + "name TEXT NOT NULL, "
+                + "description TEXT, "
+                + "image_url TEXT)");
+
+        db.execSQL("CREATE TABLE " + TABLE_FRUIT_REGIONS + " ("
+                + "fruit_id INTEGER NOT NULL, "
+                + "region_id INTEGER NOT NULL, "
+                + "PRIMARY KEY (fruit_id, region_id))");
+        db.execSQL("CREATE INDEX idx_fruit_regions_region ON " + TABLE_FRUIT_REGIONS + " (region_id)");
+
+        db.execSQL("CREATE TABLE " + TABLE_RECIPES + " ("
+                + "id INTEGER PRIMARY KEY, "
+                + "title TEXT NOT NULL, "
+                + "description TEXT, "
+                + "source TEXT, "
+                + "image_url TEXT)");
+
+        db.execSQL("CREATE TABLE " + TABLE_RECIPE_STEPS + " ("
+                + "id INTEGER PRIMARY KEY, "
+                + "recipe_id INTEGER NOT NULL, "
+                + "step_number INTEGER NOT NULL, "
+                + "description TEXT NOT NULL)");
+        db.execSQL("CREATE INDEX idx_recipe_steps_recipe ON " + TABLE_RECIPE_STEPS + " (recipe_id)");
+
+        db.execSQL("CREATE TABLE " + TABLE_FRUIT_RECIPES + " ("
+                + "fruit_id INTEGER NOT NULL, "
+                + "recipe_id INTEGER NOT NULL, "
+                + "PRIMARY KEY (fruit_id, recipe_id))");
+        db.execSQL("CREATE INDEX idx_fruit_recipes_recipe ON " + TABLE_FRUIT_RECIPES + " (recipe_id)");
+
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + "key TEXT PRIMARY KEY, "
+                + "value TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        String[] tables = {TABLE_FRUITS, TABLE_REGIONS, TABLE_FRUIT_REGIONS, TABLE_RECIPES,
+                TABLE_RECIPE_STEPS, TABLE_FRUIT_RECIPES, TABLE_SYNC_STATE};
+        for (String table : tables) {
+            db.execSQL("DROP TABLE IF EXISTS " + table);
+        }
+        onCreate(db);
+    }
+}
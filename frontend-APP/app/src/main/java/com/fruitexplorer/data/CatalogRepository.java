@@ -0,0 +1,612 @@
+package com.fruitexplorer.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.models.CatalogChanges;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.FruitSummary;
+import com.fruitexplorer.models.NutritionalData;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.models.RecipeStep;
+import com.fruitexplorer.models.Region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lecturas del catálogo local para las pantallas:
+ * - Las consultas corren en un hilo propio y el resultado llega en el hilo principal
+ * - Si el catálogo nunca se sincronizó el resultado es null y la pantalla consulta la API
+ * - applyChanges escribe una sincronización completa en una sola transacción
+ * - Las búsquedas con texto usan un índice invertido en memoria (SearchIndex), que se arma
+ *   la primera vez y luego se actualiza solo con las filas que trae cada sincronización
+ * - Las fichas completas de fruta ya cargadas quedan en memoria (getFruitStore), compartidas por
+ *   todas las pantallas; cada sincronización actualiza o quita las que cambió
+ */
+public class CatalogRepository {
+
+    private static final String TAG = "CatalogRepository";
+    private static final String KEY_WATERMARK = "catalog_server_time";
+
+    // Pesos de búsqueda: nombre común, nombre científico, slug, recetas y descripción
+    private static final int[] FRUIT_FIELD_WEIGHTS = {8, 4, 4, 2, 1};
+    // Título de la receta, nombres de sus frutas y descripción
+    private static final int[] RECIPE_FIELD_WEIGHTS = {8, 2, 1};
+    private static final int SEARCH_LIMIT = 200;
+    private static final long SEARCH_BUDGET_NANOS = 5_000_000L;
+
+    // Fichas en memoria: las que el usuario abrió o la cámara precargó
+    private static final int FRUIT_STORE_MAX_ENTRIES = 32;
+    private static final long FRUIT_STORE_TTL_MS = 10 * 60 * 1000;
+
+    // Las grillas solo leen estas columnas: sin descripción ni el JSON nutricional que habría que parsear
+    private static final String FRUIT_SUMMARY_COLUMNS = "f.id, f.slug, f.common_name, f.image_url";
+
+    private static final String FRUIT_DOCUMENTS = "SELECT " + FRUIT_SUMMARY_COLUMNS + ", f.scientific_name, "
+            + "f.description, (SELECT GROUP_CONCAT(r.title, ' ') FROM fruit_recipes fr "
+            + "JOIN recipes r ON r.id = fr.recipe_id WHERE fr.fruit_id = f.id) AS recipe_titles FROM fruits f";
+    private static final String RECIPE_DOCUMENTS = "SELECT r.id, r.title, r.description, r.image_url, r.source, "
+            + "(SELECT GROUP_CONCAT(f.common_name, ' ') FROM fruit_recipes fr JOIN fruits f ON f.id = fr.fruit_id "
+            + "WHERE fr.recipe_id = r.id) AS fruit_names FROM recipes r";
+
+    public interface Callback<T> {
+        /**
+         * @param data filas locales, o null si todavía no hay catálogo local
+         */
+        void onLoaded(T data);
+    }
+
+    private static volatile CatalogRepository instance;
+
+    private final CatalogDatabase database;
+    private final ExecutorService readExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile Boolean synced = null;
+
+    private final SearchIndex<FruitSummary> fruitIndex = new SearchIndex<>();
+    private final SearchIndex<Recipe> recipeIndex = new SearchIndex<>();
+    private final Object indexLock = new Object();
+    private boolean indexLoaded = false;
+
+    private final EntityStore<Fruit> fruitStore = new EntityStore<>(FRUIT_STORE_MAX_ENTRIES, FRUIT_STORE_TTL_MS,
+            Fruit::getId, Fruit::getSlug, System::currentTimeMillis);
+
+    public static CatalogRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CatalogRepository.class) {
+                if (instance == null) {
+                    instance = new CatalogRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private CatalogRepository(Context context) {
+        database = CatalogDatabase.getInstance(context);
+    }
+
+    // ------------------------------------------------------------------ Lecturas
+
+    /**
+     * Frutas ordenadas por nombre; con query, las más relevantes según el índice local
+     * (nombres, slug, descripción y títulos de sus recetas, sin tildes y por prefijo)
+     */
+    public void loadFruits(String query, Callback<List<FruitSummary>> callback) {
+        read(callback, db -> {
+            if (query == null) {
+                return queryFruitSummaries(db, "SELECT " + FRUIT_SUMMARY_COLUMNS + " FROM fruits f "
+                        + "ORDER BY f.common_name ASC", null);
+            }
+            ensureIndexLoaded(db);
+            long start = System.nanoTime();
+            List<FruitSummary> results = fruitIndex.search(query, SEARCH_LIMIT);
+            logSlowSearch(query, System.nanoTime() - start);
+            return results;
+        });
+    }
+
+    public void loadFruitsByRegion(int regionId, Callback<List<FruitSummary>> callback) {
+        read(callback, db -> queryFruitSummaries(db, "SELECT " + FRUIT_SUMMARY_COLUMNS + " FROM fruits f "
+                + "JOIN fruit_regions fr ON fr.fruit_id = f.id WHERE fr.region_id = ? "
+                + "ORDER BY f.common_name ASC", new String[]{String.valueOf(regionId)}));
+    }
+
+    /**
+     * Ficha completa: desde memoria en la misma llamada si ya se cargó, si no desde el catálogo local
+     * (y queda en memoria). Llamar desde el hilo principal.
+     */
+    public void loadFruitBySlug(String slug, Callback<Fruit> callback) {
+        Fruit stored = fruitStore.getBySlug(slug);
+        if (stored != null) {
+            callback.onLoaded(stored);
+            return;
+        }
+        read(callback, db -> {
+            List<Fruit> fruits = queryFruits(db, "SELECT * FROM fruits WHERE slug = ?", new String[]{slug});
+            Fruit fruit = fruits.isEmpty() ? null : fruits.get(0);
+            fruitStore.put(fruit);
+            return fruit;
+        });
+    }
+
+    /**
+     * Fichas completas en memoria, por id y por slug; quien descarga una de la API la guarda aquí
+     */
+    public EntityStore<Fruit> getFruitStore() {
+        return fruitStore;
+    }
+
+    public void loadRegions(Callback<List<Region>> callback) {
+        read(callback, db -> {
+            List<Region> regions = new ArrayList<>();
+            try (Cursor cursor = db.rawQuery("SELECT id, name, description, image_url FROM regions "
+                    + "ORDER BY name ASC", null)) {
+                while (cursor.moveToNext()) {
+                    regions.add(new Region(cursor.getInt(0), cursor.getString(1),
+                            cursor.getString(2), cursor.getString(3)));
+                }
+            }
+            return regions;
+        });
+    }
+
+    /**
+     * Recetas ordenadas por título; con query busca también por el nombre de sus frutas, como el backend
+     */
+    public void loadRecipes(String query, Callback<List<Recipe>> callback) {
+        read(callback, db -> {
+            if (query != null) {
+                ensureIndexLoaded(db);
+                long start = System.nanoTime();
+                List<Recipe> results = recipeIndex.search(query, SEARCH_LIMIT);
+                logSlowSearch(query, System.nanoTime() - start);
+                return results;
+            }
+            List<Recipe> recipes = new ArrayList<>();
+            try (Cursor cursor = db.rawQuery("SELECT id, title, description, image_url, source FROM recipes "
+                    + "ORDER BY title ASC", null)) {
+                while (cursor.moveToNext()) {
+                    recipes.add(new Recipe(cursor.getInt(0), cursor.getString(1), cursor.getString(2),
+                            cursor.getString(3), cursor.getString(4)));
+                }
+            }
+            return recipes;
+        });
+    }
+
+    /**
+     * Recetas de una fruta ordenadas por título, como fruits/:id/recipes
+     */
+    public void loadRecipesByFruit(int fruitId, Callback<List<Recipe>> callback) {
+        read(callback, db -> {
+            List<Recipe> recipes = new ArrayList<>();
+            try (Cursor cursor = db.rawQuery("SELECT r.id, r.title, r.description, r.image_url, r.source "
+                    + "FROM recipes r JOIN fruit_recipes fr ON fr.recipe_id = r.id WHERE fr.fruit_id = ? "
+                    + "ORDER BY r.title ASC", new String[]{String.valueOf(fruitId)})) {
+                while (cursor.moveToNext()) {
+                    recipes.add(new Recipe(cursor.getInt(0), cursor.getString(1), cursor.getString(2),
+                            cursor.getString(3), cursor.getString(4)));
+                }
+            }
+            return recipes;
+        });
+    }
+
+    public void loadRecipeSteps(int recipeId, Callback<List<RecipeStep>> callback) {
+        read(callback, db -> {
+            List<RecipeStep> steps = new ArrayList<>();
+            try (Cursor cursor = db.rawQuery("SELECT recipe_id, step_number, description FROM recipe_steps "
+                    + "WHERE recipe_id = ? ORDER BY step_number ASC", new String[]{String.valueOf(recipeId)})) {
+                while (cursor.moveToNext()) {
+                    steps.add(new RecipeStep(cursor.getInt(0), cursor.getInt(1), cursor.getString(2)));
+                }
+            }
+            return steps;
+        });
+    }
+
+    // ------------------------------------------------------------------ Páginas
+
+    /**
+     * Todas las frutas por páginas, en el orden de loadFruits; páginas null si no hay catálogo local
+     */
+    public PagingSource<FruitSummary> fruitPages() {
+        return (cursor, limit, callback) -> read(
+                fruits -> callback.onPage(fruits, fruits != null && fruits.size() == limit
+                        ? pageCursor(fruits.get(limit - 1).getId(), fruits.get(limit - 1).getCommonName()) : null),
+                db -> {
+                    String sql = "SELECT " + FRUIT_SUMMARY_COLUMNS + " FROM fruits f";
+                    String[] args = {String.valueOf(limit)};
+                    if (cursor != null) {
+                        String[] after = parsePageCursor(cursor);
+                        sql += " WHERE f.common_name > ? OR (f.common_name = ? AND f.id > ?)";
+                        args = new String[]{after[1], after[1], after[0], String.valueOf(limit)};
+                    }
+                    return queryFruitSummaries(db, sql + " ORDER BY f.common_name ASC, f.id ASC LIMIT ?", args);
+                });
+    }
+
+    /**
+     * Todas las recetas por páginas, en el orden de loadRecipes
+     */
+    public PagingSource<Recipe> recipePages() {
+        return (cursor, limit, callback) -> read(
+                recipes -> callback.onPage(recipes, recipes != null && recipes.size() == limit
+                        ? pageCursor(recipes.get(limit - 1).getId(), recipes.get(limit - 1).getTitle()) : null),
+                db -> {
+                    String sql = "SELECT id, title, description, image_url, source FROM recipes";
+                    String[] args = {String.valueOf(limit)};
+                    if (cursor != null) {
+                        String[] after = parsePageCursor(cursor);
+                        sql += " WHERE title > ? OR (title = ? AND id > ?)";
+                        args = new String[]{after[1], after[1], after[0], String.valueOf(limit)};
+                    }
+                    List<Recipe> recipes = new ArrayList<>();
+                    try (Cursor rows = db.rawQuery(sql + " ORDER BY title ASC, id ASC LIMIT ?", args)) {
+                        while (rows.moveToNext()) {
+                            recipes.add(new Recipe(rows.getInt(0), rows.getString(1), rows.getString(2),
+                                    rows.getString(3), rows.getString(4)));
+                        }
+                    }
+                    return recipes;
+                });
+    }
+
+    // Cursor local "id:clave de orden"; el id va primero porque la clave puede contener ':'
+    private static String pageCursor(int id, String sortKey) {
+        return id + ":" + sortKey;
+    }
+
+    private static String[] parsePageCursor(String cursor) {
+        int separator = cursor.indexOf(':');
+        return new String[]{cursor.substring(0, separator), cursor.substring(separator + 1)};
+    }
+
+    private interface Query<T> {
+        T run(SQLiteDatabase db);
+    }
+
+    private <T> void read(Callback<T> callback, Query<T> query) {
+        readExecutor.execute(() -> {
+            T result = null;
+            try {
+                if (isSynced()) {
+                    result = query.run(database.getReadableDatabase());
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error al leer el catálogo local", e);
+            }
+            T data = result;
+            mainHandler.post(() -> callback.onLoaded(data));
+        });
+    }
+
+    /**
+     * @param sql consulta que empieza con las columnas de FRUIT_SUMMARY_COLUMNS
+     */
+    private static List<FruitSummary> queryFruitSummaries(SQLiteDatabase db, String sql, String[] args) {
+        List<FruitSummary> fruits = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            while (cursor.moveToNext()) {
+                fruits.add(readFruitSummary(cursor));
+            }
+        }
+        return fruits;
+    }
+
+    private static FruitSummary readFruitSummary(Cursor cursor) {
+        return new FruitSummary(cursor.getInt(0), cursor.getString(1), cursor.getString(2), cursor.getString(3));
+    }
+
+    private static List<Fruit> queryFruits(SQLiteDatabase db, String sql, String[] args) {
+        List<Fruit> fruits = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery(sql, args)) {
+            int id = cursor.getColumnIndexOrThrow("id");
+            int slug = cursor.getColumnIndexOrThrow("slug");
+            int commonName = cursor.getColumnIndexOrThrow("common_name");
+            int scientificName = cursor.getColumnIndexOrThrow("scientific_name");
+            int description = cursor.getColumnIndexOrThrow("description");
+            int nutritional = cursor.getColumnIndexOrThrow("nutritional");
+            int imageUrl = cursor.getColumnIndexOrThrow("image_url");
+            while (cursor.moveToNext()) {
+                String nutritionalJson = cursor.getString(nutritional);
+                fruits.add(new Fruit(cursor.getInt(id), cursor.getString(slug), cursor.getString(commonName),
+                        cursor.getString(scientificName), cursor.getString(description),
+                        cursor.getString(imageUrl),
+                        nutritionalJson != null ? ApiClient.getGson().fromJson(nutritionalJson, NutritionalData.class) : null));
+            }
+        }
+        return fruits;
+    }
+
+    // ------------------------------------------------------------------ Índice de búsqueda
+
+    /**
+     * Arma el índice completo la primera vez que se busca
+     */
+    private void ensureIndexLoaded(SQLiteDatabase db) {
+        synchronized (indexLock) {
+            if (indexLoaded) {
+                return;
+            }
+            long start = System.nanoTime();
+            indexFruits(db, "", null);
+            indexRecipes(db, "", null);
+            indexLoaded = true;
+            Log.d(TAG, "Índice de búsqueda armado con " + fruitIndex.size() + " frutas y "
+                    + recipeIndex.size() + " recetas en " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    private void indexFruits(SQLiteDatabase db, String where, String[] args) {
+        try (Cursor cursor = db.rawQuery(FRUIT_DOCUMENTS + where, args)) {
+            while (cursor.moveToNext()) {
+                // Se indexa el texto completo pero se guarda solo el resumen que muestra la grilla
+                FruitSummary fruit = readFruitSummary(cursor);
+                fruitIndex.put(fruit.getId(), fruit, fruit.getCommonName(),
+                        new String[]{fruit.getCommonName(), cursor.getString(4), fruit.getSlug(),
+                                cursor.getString(6), cursor.getString(5)},
+                        FRUIT_FIELD_WEIGHTS);
+            }
+        }
+    }
+
+    private void indexRecipes(SQLiteDatabase db, String where, String[] args) {
+        try (Cursor cursor = db.rawQuery(RECIPE_DOCUMENTS + where, args)) {
+            while (cursor.moveToNext()) {
+                Recipe recipe = new Recipe(cursor.getInt(0), cursor.getString(1), cursor.getString(2),
+                        cursor.getString(3), cursor.getString(4));
+                recipeIndex.put(recipe.getId(), recipe, recipe.getTitle(),
+                        new String[]{recipe.getTitle(), cursor.getString(5), recipe.getDescription()},
+                        RECIPE_FIELD_WEIGHTS);
+            }
+        }
+    }
+
+    /**
+     * Reindexa solo lo que tocó una sincronización. Un cambio de receta afecta a sus frutas
+     * (títulos de recetas) y un cambio de fruta a sus recetas (nombres de frutas).
+     */
+    private void updateIndex(SQLiteDatabase db, Set<Integer> changedFruits, Set<Integer> changedRecipes,
+                             List<Integer> deletedFruits, List<Integer> deletedRecipes) {
+        synchronized (indexLock) {
+            if (!indexLoaded) {
+                return;
+            }
+            for (int id : deletedFruits) {
+                fruitIndex.remove(id);
+            }
+            for (int id : deletedRecipes) {
+                recipeIndex.remove(id);
+            }
+
+            Set<Integer> fruitsToIndex = new HashSet<>(changedFruits);
+            Set<Integer> recipesToIndex = new HashSet<>(changedRecipes);
+            if (!changedRecipes.isEmpty()) {
+                fruitsToIndex.addAll(linkedIds(db, "SELECT fruit_id FROM fruit_recipes WHERE recipe_id IN ", changedRecipes));
+            }
+            if (!changedFruits.isEmpty()) {
+                recipesToIndex.addAll(linkedIds(db, "SELECT recipe_id FROM fruit_recipes WHERE fruit_id IN ", changedFruits));
+            }
+            // Tras un borrado ya no quedan los enlaces para saber a quién afectaba; es raro y se
+            // reindexa el otro lado completo
+            if (!deletedRecipes.isEmpty()) {
+                indexFruits(db, "", null);
+            } else if (!fruitsToIndex.isEmpty()) {
+                indexFruits(db, " WHERE f.id IN " + idList(fruitsToIndex), null);
+            }
+            if (!deletedFruits.isEmpty()) {
+                indexRecipes(db, "", null);
+            } else if (!recipesToIndex.isEmpty()) {
+                indexRecipes(db, " WHERE r.id IN " + idList(recipesToIndex), null);
+            }
+        }
+    }
+
+    private static Set<Integer> linkedIds(SQLiteDatabase db, String sql, Set<Integer> ids) {
+        Set<Integer> linked = new HashSet<>();
+        try (Cursor cursor = db.rawQuery(sql + idList(ids), null)) {
+            while (cursor.moveToNext()) {
+                linked.add(cursor.getInt(0));
+            }
+        }
+        return linked;
+    }
+
+    // Los ids son enteros del propio catálogo, se pueden concatenar sin riesgo
+    private static String idList(Set<Integer> ids) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int id : ids) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(id);
+        }
+        return builder.append(')').toString();
+    }
+
+    private static void logSlowSearch(String query, long nanos) {
+        if (nanos > SEARCH_BUDGET_NANOS) {
+            Log.w(TAG, "Búsqueda local lenta (" + nanos / 1_000 + " µs): " + query);
+        }
+    }
+
+    // ------------------------------------------------------------------ Sincronización
+
+    /**
+     * Hay catálogo local si alguna sincronización terminó. Se consulta una vez y luego queda en memoria.
+     */
+    public boolean isSynced() {
+        Boolean value = synced;
+        if (value == null) {
+            value = getSyncWatermark() != null;
+            synced = value;
+        }
+        return value;
+    }
+
+    /**
+     * server_time de la última sincronización, o null si nunca se sincronizó
+     */
+    public String getSyncWatermark() {
+        try (Cursor cursor = database.getReadableDatabase().rawQuery(
+                "SELECT value FROM sync_state WHERE key = ?", new String[]{KEY_WATERMARK})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    /**
+     * Aplica una respuesta de sync/catalog y guarda su marca en la misma transacción
+     *
+     * @return true si cambió alguna fila
+     */
+    public boolean applyChanges(CatalogChanges changes) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        int changedRows = 0;
+        Set<Integer> changedFruits = new HashSet<>();
+        Set<Integer> changedRecipes = new HashSet<>();
+        List<Integer> deletedFruits = Collections.emptyList();
+        List<Integer> deletedRecipes = Collections.emptyList();
+        db.beginTransaction();
+        try {
+            for (Fruit fruit : orEmpty(changes.getFruits())) {
+                ContentValues values = new ContentValues();
+                values.put("id", fruit.getId());
+                values.put("slug", fruit.getSlug());
+                values.put("common_name", fruit.getCommonName());
+                values.put("scientific_name", fruit.getScientificName());
+                values.put("description", fruit.getDescription());
+                values.put("nutritional", ApiClient.getGson().toJson(fruit.getNutritionalData()));
+                values.put("image_url", fruit.getImageUrl());
+                // Un slug puede haber pasado a otra fruta: se libera antes de reemplazar
+                db.delete(CatalogDatabase.TABLE_FRUITS, "slug = ? AND id != ?",
+                        new String[]{fruit.getSlug(), String.valueOf(fruit.getId())});
+                db.insertWithOnConflict(CatalogDatabase.TABLE_FRUITS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                changedFruits.add(fruit.getId());
+            }
+
+            for (Region region : orEmpty(changes.getRegions())) {
+                ContentValues values = new ContentValues();
+                values.put("id", region.getId());
+                values.put("name", region.getName());
+                values.put("description", region.getDescription());
+                values.put("image_url", region.getImageUrl());
+                db.insertWithOnConflict(CatalogDatabase.TABLE_REGIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+
+            for (Recipe recipe : orEmpty(changes.getRecipes())) {
+                ContentValues values = new ContentValues();
+                values.put("id", recipe.getId());
+                values.put("title", recipe.getTitle());
+                values.put("description", recipe.getDescription());
+                values.put("source", recipe.getSource());
+                values.put("image_url", recipe.getImageUrl());
+                db.insertWithOnConflict(CatalogDatabase.TABLE_RECIPES, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+                changedRecipes.add(recipe.getId());
+            }
+
+            // Pasos y relaciones llegan completos para cada fruta o receta cambiada
+            for (int fruitId : changedFruits) {
+                String[] args = {String.valueOf(fruitId)};
+                db.delete(CatalogDatabase.TABLE_FRUIT_REGIONS, "fruit_id = ?", args);
+                db.delete(CatalogDatabase.TABLE_FRUIT_RECIPES, "fruit_id = ?", args);
+            }
+            for (int recipeId : changedRecipes) {
+                String[] args = {String.valueOf(recipeId)};
+                db.delete(CatalogDatabase.TABLE_RECIPE_STEPS, "recipe_id = ?", args);
+                db.delete(CatalogDatabase.TABLE_FRUIT_RECIPES, "recipe_id = ?", args);
+            }
+            for (CatalogChanges.FruitRegion link : orEmpty(changes.getFruitRegions())) {
+                ContentValues values = new ContentValues();
+                values.put("fruit_id", link.getFruitId());
+                values.put("region_id", link.getRegionId());
+                db.insertWithOnConflict(CatalogDatabase.TABLE_FRUIT_REGIONS, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+            }
+            for (CatalogChanges.FruitRecipe link : orEmpty(changes.getFruitRecipes())) {
+                ContentValues values = new ContentValues();
+                values.put("fruit_id", link.getFruitId());
+                values.put("recipe_id", link.getRecipeId());
+                db.insertWithOnConflict(CatalogDatabase.TABLE_FRUIT_RECIPES, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+            }
+            for (RecipeStep step : orEmpty(changes.getRecipeSteps())) {
+                ContentValues values = new ContentValues();
+                values.put("recipe_id", step.getRecipeId());
+                values.put("step_number", step.getStepNumber());
+                values.put("description", step.getDescription());
+                db.insert(CatalogDatabase.TABLE_RECIPE_STEPS, null, values);
+            }
+            changedRows += changedFruits.size() + changedRecipes.size() + orEmpty(changes.getRegions()).size();
+
+            // Eliminaciones: lo que ya no está entre los ids vigentes del servidor
+            CatalogChanges.CatalogIds ids = changes.getIds();
+            if (ids != null) {
+                deletedFruits = deleteMissing(db, CatalogDatabase.TABLE_FRUITS, ids.getFruits());
+                deletedRecipes = deleteMissing(db, CatalogDatabase.TABLE_RECIPES, ids.getRecipes());
+                changedRows += deletedFruits.size() + deletedRecipes.size()
+                        + deleteMissing(db, CatalogDatabase.TABLE_REGIONS, ids.getRegions()).size();
+                db.execSQL("DELETE FROM fruit_regions WHERE fruit_id NOT IN (SELECT id FROM fruits) "
+                        + "OR region_id NOT IN (SELECT id FROM regions)");
+                db.execSQL("DELETE FROM fruit_recipes WHERE fruit_id NOT IN (SELECT id FROM fruits) "
+                        + "OR recipe_id NOT IN (SELECT id FROM recipes)");
+                db.execSQL("DELETE FROM recipe_steps WHERE recipe_id NOT IN (SELECT id FROM recipes)");
+            }
+
+            ContentValues watermark = new ContentValues();
+            watermark.put("key", KEY_WATERMARK);
+            watermark.put("value", changes.getServerTime());
+            db.insertWithOnConflict(CatalogDatabase.TABLE_SYNC_STATE, null, watermark, SQLiteDatabase.CONFLICT_REPLACE);
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        synced = true;
+        for (Fruit fruit : orEmpty(changes.getFruits())) {
+            fruitStore.replace(fruit);
+        }
+        for (int fruitId : deletedFruits) {
+            fruitStore.remove(fruitId);
+        }
+        updateIndex(db, changedFruits, changedRecipes, deletedFruits, deletedRecipes);
+        return changedRows > 0;
+    }
+
+    /**
+     * @return ids borrados
+     */
+    private static List<Integer> deleteMissing(SQLiteDatabase db, String table, List<Integer> currentIds) {
+        if (currentIds == null) {
+            return Collections.emptyList();
+        }
+        Set<Integer> keep = new HashSet<>(currentIds);
+        List<Integer> missing = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT id FROM " + table, null)) {
+            while (cursor.moveToNext()) {
+                if (!keep.contains(cursor.getInt(0))) {
+                    missing.add(cursor.getInt(0));
+                }
+            }
+        }
+        for (int id : missing) {
+            db.delete(table, "id = ?", new String[]{String.valueOf(id)});
+        }
+        return missing;
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : Collections.emptyList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.fruitexplorer.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.api.ApiService;
+import com.fruitexplorer.models.CatalogChanges;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import retrofit2.Response;
+
+/**
+ * Sincronización incremental del catálogo local en segundo plano:
+ * - Pide a sync/catalog solo lo cambiado desde la última marca (server_time)
+ * - Una sincronización a la vez y como máximo una cada MIN_SYNC_INTERVAL_MS
+ * - Sin señal se conserva el catálogo local y se reintenta en la próxima solicitud
+ * - Avisa en el hilo principal a las pantallas registradas para que vuelvan a leer
+ */
+public class CatalogSync {
+
+    private static final String TAG = "CatalogSync";
+    private static final long MIN_SYNC_INTERVAL_MS = TimeUnit.MINUTES.toMillis(15);
+
+    public interface Listener {
+        void onCatalogSynced(boolean changed);
+    }
+
+    private static volatile CatalogSync instance;
+
+    private final Context appContext;
+    private final CatalogRepository repository;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile long lastSuccessElapsed = -1;
+
+    public static CatalogSync getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CatalogSync.class) {
+                if (instance == null) {
+                    instance = new CatalogSync(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private CatalogSync(Context appContext) {
+        this.appContext = appContext;
+        this.repository = CatalogRepository.getInstance(appContext);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Encola una sincronización si no hay una en curso ni una reciente
+     */
+    public void requestSync() {
+        if (lastSuccessElapsed >= 0
+                && SystemClock.elapsedRealtime() - lastSuccessElapsed < MIN_SYNC_INTERVAL_MS) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                syncNow();
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    private void syncNow() {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            String since = repository.getSyncWatermark();
+            ApiService apiService = ApiClient.getApiService(appContext);
+            Response<CatalogChanges> response = apiService.getCatalogChanges(since).execute();
+            if (!response.isSuccessful() || response.body() == null) {
+                Log.w(TAG, "El servidor rechazó la sincronización. Código: " + response.code());
+                return;
+            }
+            boolean changed = repository.applyChanges(response.body());
+            lastSuccessElapsed = SystemClock.elapsedRealtime();
+            Log.i(TAG, "Catálogo sincronizado en " + (lastSuccessElapsed - start) + " ms"
+                    + (since == null ? " (completo)" : "") + (changed ? "" : ", sin cambios"));
+            mainHandler.post(() -> {
+                for (Listener listener : listeners) {
+                    listener.onCatalogSynced(changed);
+                }
+            });
+        } catch (IOException e) {
+            Log.w(TAG, "Sin conexión; se mantiene el catálogo local", e);
+        } catch (Exception e) {
+            Log.e(TAG, "Error al sincronizar el catálogo", e);
+        }
+    }
+}
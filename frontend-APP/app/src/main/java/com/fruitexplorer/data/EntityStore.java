@@ -0,0 +1,146 @@
+package com.fruitexplorer.data;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Entidades completas ya cargadas en el proceso, compartidas por todas las pantallas:
+ * - Se buscan por id o por slug; las dos claves apuntan a la misma instancia
+ * - Vencen a los ttlMs de guardarse; un get vencido cuenta como ausente y libera la entrada
+ * - Con más de maxEntries se descarta la menos usada (LRU por acceso)
+ * - CatalogRepository invalida las entradas que cambia cada sincronización
+ *
+ * Sin dependencias de Android; thread-safe (la sincronización escribe desde su propio hilo).
+ */
+public class EntityStore<T> {
+
+    private static final class Stored<T> {
+        final T entity;
+        final String slug;
+        final long storedAt;
+
+        Stored(T entity, String slug, long storedAt) {
+            this.entity = entity;
+            this.slug = slug;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final ToIntFunction<T> idOf;
+    private final Function<T, String> slugOf;
+    private final LongSupplier clock;
+
+    private final Map<Integer, Stored<T>> byId;
+    private final Map<String, Integer> idBySlug = new HashMap<>();
+    private int hits;
+    private int misses;
+
+    public EntityStore(int maxEntries, long ttlMs, ToIntFunction<T> idOf, Function<T, String> slugOf,
+                       LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.idOf = idOf;
+        this.slugOf = slugOf;
+        this.clock = clock;
+        this.byId = new LinkedHashMap<Integer, Stored<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Stored<T>> eldest) {
+                if (size() <= EntityStore.this.maxEntries) {
+                    return false;
+                }
+                unindex(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Guarda o reemplaza la entidad; reinicia su vencimiento
+     */
+    public synchronized void put(T entity) {
+        if (entity == null) {
+            return;
+        }
+        int id = idOf.applyAsInt(entity);
+        Stored<T> previous = byId.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+        Stored<T> stored = new Stored<>(entity, slugOf.apply(entity), clock.getAsLong());
+        if (stored.slug != null) {
+            // Un slug reasignado a otra entidad deja de apuntar a la anterior
+            Integer other = idBySlug.put(stored.slug, id);
+            if (other != null && other != id) {
+                byId.remove(other);
+            }
+        }
+        byId.put(id, stored);
+    }
+
+    /**
+     * Actualiza la entidad solo si ya estaba guardada (una sincronización no llena la memoria)
+     *
+     * @return true si estaba guardada
+     */
+    public synchronized boolean replace(T entity) {
+        if (!byId.containsKey(idOf.applyAsInt(entity))) {
+            return false;
+        }
+        put(entity);
+        return true;
+    }
+
+    public synchronized T getById(int id) {
+        return fresh(byId.get(id));
+    }
+
+    public synchronized T getBySlug(String slug) {
+        Integer id = slug != null ? idBySlug.get(slug) : null;
+        return fresh(id != null ? byId.get(id) : null);
+    }
+
+    public synchronized void remove(int id) {
+        Stored<T> stored = byId.remove(id);
+        if (stored != null) {
+            unindex(stored);
+        }
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    private T fresh(Stored<T> stored) {
+        if (stored == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() - stored.storedAt > ttlMs) {
+            remove(idOf.applyAsInt(stored.entity));
+            misses++;
+            return null;
+        }
+        hits++;
+        return stored.entity;
+    }
+
+    private void unindex(Stored<T> stored) {
+        if (stored.slug != null) {
+            idBySlug.remove(stored.slug, idOf.applyAsInt(stored.entity));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.fruitexplorer.data;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * Cola persistente de eventos de consulta pendientes de subir (ver QueryEventQueue):
+ * - pending_events guarda cada evento como el JSON que se envía, con el usuario que lo generó
+ * - (client_id, type) es único: repetir un uso de voz sobre la misma consulta no agrega filas
+ *
+ * Separada del catálogo: aquí hay datos que todavía no existen en el servidor.
+ */
+public class EventQueueDatabase extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "fruitexplorer_events.db";
+    private static final int DATABASE_VERSION = 2;
+
+    public static final String TABLE_PENDING_EVENTS = "pending_events";
+
+    private static volatile EventQueueDatabase instance;
+
+    public static EventQueueDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (EventQueueDatabase.class) {
+                if (instance == null) {
+                    instance = new EventQueueDatabase(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private EventQueueDatabase(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_PENDING_EVENTS + " ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "client_id TEXT NOT NULL, "
+                + "user_id TEXT NOT NULL, "
+                + "type TEXT NOT NULL, "
+                + "payload TEXT NOT NULL, "
+                + "UNIQUE (client_id, type))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            // Las filas de la versión 1 no dicen de qué usuario son: no se pueden subir sin riesgo
+            // de atribuirlas a otra cuenta, así que se descartan
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_PENDING_EVENTS);
+            onCreate(db);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.fruitexplorer.data;
+
+import java.util.List;
+
+/**
+ * Pagina desde el catálogo local y, si todavía no existe, desde la API.
+ * La decisión se toma en la primera página: los cursores de un origen no sirven en el otro.
+ */
+public class FallbackPagingSource<T> implements PagingSource<T> {
+
+    private final PagingSource<T> primary;
+    private final PagingSource<T> fallback;
+    private boolean useFallback = false;
+
+    public FallbackPagingSource(PagingSource<T> primary, PagingSource<T> fallback) {
+        this.primary = primary;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void load(String cursor, int limit, Callback<T> callback) {
+        if (useFallback) {
+            fallback.load(cursor, limit, callback);
+            return;
+        }
+        primary.load(cursor, limit, new Callback<T>() {
+            @Override
+            public void onPage(List<T> items, String nextCursor) {
+                if (items != null) {
+                    callback.onPage(items, nextCursor);
+                } else if (cursor == null) {
+                    useFallback = true;
+                    fallback.load(null, limit, callback);
+                } else {
+                    callback.onError(new IllegalStateException("El catálogo local dejó de estar disponible"));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                callback.onError(t);
+            }
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package com.fruitexplorer.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lista paginada por cursor para un RecyclerView, con memoria acotada:
+ * - start pide la primera página; las siguientes se piden cuando lo visible llega a
+ *   prefetchDistance elementos del final cargado
+ * - Solo se guardan maxPages páginas alrededor de lo visible; las demás se liberan y get devuelve
+ *   null (hueco) hasta que se vuelven a pedir con su cursor
+ * - De cada página fuera de memoria solo queda su cursor, así el costo no crece con el catálogo
+ *
+ * Sin dependencias de Android. Se usa desde el hilo principal y la fuente entrega ahí sus páginas.
+ */
+public class PagedList<T> {
+
+    public interface Listener {
+        /**
+         * @param inserted true si las filas son nuevas (crece size), false si se recargó un hueco
+         */
+        void onPageLoaded(int start, int count, boolean inserted);
+
+        void onPageError(int page, Throwable t);
+    }
+
+    private final PagingSource<T> source;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final int maxPages;
+    private final Listener listener;
+
+    // cursors.get(i) carga la página i; hay una entrada más que páginas conocidas mientras no se llegue al final
+    private final List<String> cursors = new ArrayList<>();
+    private final Map<Integer, List<T>> pages = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+    private int knownPages = 0;
+    private int size = 0;
+    private boolean endReached = false;
+    private boolean closed = false;
+    private int firstVisible = 0;
+    private int lastVisible = 0;
+
+    public PagedList(PagingSource<T> source, int pageSize, int prefetchDistance, int maxPages, Listener listener) {
+        if (pageSize <= 0 || maxPages < 2) {
+            throw new IllegalArgumentException("pageSize debe ser positivo y maxPages al menos 2");
+        }
+        this.source = source;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.maxPages = maxPages;
+        this.listener = listener;
+    }
+
+    public void start() {
+        if (cursors.isEmpty()) {
+            cursors.add(null);
+            prefetch();
+        }
+    }
+
+    /**
+     * Deja de pedir páginas e ignora las que lleguen (al cambiar de consulta o cerrar la pantalla)
+     */
+    public void close() {
+        closed = true;
+        pages.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    public int getPagesInMemory() {
+        return pages.size();
+    }
+
+    /**
+     * @return el elemento, o null si su página no está en memoria (se pide en ese momento)
+     */
+    public T get(int position) {
+        int page = position / pageSize;
+        List<T> items = pages.get(page);
+        if (items == null) {
+            loadPage(page);
+            return null;
+        }
+        int index = position % pageSize;
+        return index < items.size() ? items.get(index) : null;
+    }
+
+    /**
+     * Para el OnScrollListener del RecyclerView
+     */
+    public void onVisibleRangeChanged(int first, int last) {
+        if (first < 0 || last < first) {
+            return;
+        }
+        firstVisible = first;
+        lastVisible = last;
+        prefetch();
+        evict();
+    }
+
+    private void prefetch() {
+        if (closed) {
+            return;
+        }
+        if (!endReached && lastVisible + prefetchDistance >= size) {
+            loadPage(knownPages);
+        }
+        if (size == 0) {
+            return;
+        }
+        int fromPage = Math.max(0, firstVisible - prefetchDistance) / pageSize;
+        int toPage = Math.min(size - 1, lastVisible + prefetchDistance) / pageSize;
+        for (int page = fromPage; page <= toPage; page++) {
+            loadPage(page);
+        }
+    }
+
+    private void loadPage(int page) {
+        if (closed || page >= cursors.size() || pages.containsKey(page) || !loading.add(page)) {
+            return;
+        }
+        source.load(cursors.get(page), pageSize, new PagingSource.Callback<T>() {
+            @Override
+            public void onPage(List<T> items, String nextCursor) {
+                loading.remove(page);
+                if (!closed) {
+                    onPageLoaded(page, items != null ? items : Collections.emptyList(), nextCursor);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                loading.remove(page);
+                if (!closed) {
+                    listener.onPageError(page, t);
+                }
+            }
+        });
+    }
+
+    private void onPageLoaded(int page, List<T> items, String nextCursor) {
+        List<T> copy = new ArrayList<>(items.subList(0, Math.min(items.size(), pageSize)));
+        pages.put(page, copy);
+        int start = page * pageSize;
+
+        if (page == knownPages) {
+            knownPages++;
+            size += copy.size();
+            if (nextCursor == null || copy.size() < pageSize) {
+                endReached = true;
+            } else {
+                cursors.add(nextCursor);
+            }
+            listener.onPageLoaded(start, copy.size(), true);
+            // Si la distancia de prefetch abarca más de una página, se sigue cargando
+            prefetch();
+        } else {
+            listener.onPageLoaded(start, copy.size(), false);
+        }
+        evict();
+    }
+
+    /**
+     * Libera las páginas más lejanas a lo visible hasta quedar en maxPages
+     */
+    private void evict() {
+        if (pages.size() <= maxPages) {
+            return;
+        }
+        int firstPage = firstVisible / pageSize;
+        int lastPage = lastVisible / pageSize;
+        List<Integer> candidates = new ArrayList<>();
+        for (Integer page : pages.keySet()) {
+            if (page < firstPage || page > lastPage) {
+                candidates.add(page);
+            }
+        }
+        int center = (firstPage + lastPage) / 2;
+        candidates.sort((a, b) -> Integer.compare(Math.abs(b - center), Math.abs(a - center)));
+        Iterator<Integer> farthest = candidates.iterator();
+        while (pages.size() > maxPages && farthest.hasNext()) {
+            pages.remove(farthest.next());
+        }
+    }
+}
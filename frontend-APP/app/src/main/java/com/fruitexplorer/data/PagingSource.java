@@ -0,0 +1,24 @@
+package com.fruitexplorer.data;
+
+import java.util.List;
+
+/**
+ * Origen de páginas por cursor (API o catálogo local) para PagedList
+ */
+public interface PagingSource<T> {
+
+    interface Callback<T> {
+        /**
+         * @param items      filas de la página, o null si el origen no está disponible (catálogo sin sincronizar)
+         * @param nextCursor cursor de la página siguiente, o null si esta es la última
+         */
+        void onPage(List<T> items, String nextCursor);
+
+        void onError(Throwable t);
+    }
+
+    /**
+     * @param cursor null para la primera página
+     */
+    void load(String cursor, int limit, Callback<T> callback);
+}
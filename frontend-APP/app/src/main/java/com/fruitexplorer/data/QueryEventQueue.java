@@ -0,0 +1,228 @@
+package com.fruitexplorer.data;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.api.ApiService;
+import com.fruitexplorer.models.BaseResponse;
+import com.fruitexplorer.models.QueryEvent;
+import com.fruitexplorer.models.QueryEventBatch;
+import com.fruitexplorer.utils.AuthState;
+import com.fruitexplorer.utils.SessionManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Response;
+
+/**
+ * Registro de consultas y usos de voz sin esperar a la red:
+ * - logQuery genera el UUID de la consulta, la guarda en disco y vuelve enseguida; la pantalla de
+ *   detalle se abre con ese UUID en lugar del id del servidor
+ * - Los eventos se juntan durante COALESCE_DELAY_MS (consulta y voz suelen ir en el mismo envío) y
+ *   se suben en lotes a POST queries/events, que es idempotente por UUID
+ * - Sin conexión o con error del servidor se reintenta con RetryBackoff; la cola sobrevive al cierre
+ *   de la app y se vacía al arrancar, cuando vuelve la red y al iniciar sesión
+ * - Cada evento guarda el usuario de la sesión en que se generó y solo se sube con esa misma sesión:
+ *   tras un 401, un cierre de sesión o un cambio de cuenta, los eventos de otro usuario esperan a que
+ *   él vuelva a entrar (o a salir por la cota de MAX_PENDING_EVENTS)
+ *
+ * Todo el acceso a disco y red ocurre en un único hilo propio.
+ */
+public class QueryEventQueue {
+
+    private static final String TAG = "QueryEventQueue";
+
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_PENDING_EVENTS = 1_000;
+    private static final long COALESCE_DELAY_MS = TimeUnit.SECONDS.toMillis(5);
+    private static final long BACKOFF_BASE_MS = TimeUnit.SECONDS.toMillis(10);
+    private static final long BACKOFF_MAX_MS = TimeUnit.MINUTES.toMillis(15);
+
+    private static volatile QueryEventQueue instance;
+
+    private final Context appContext;
+    private final EventQueueDatabase database;
+    private final AuthState authState;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final RetryBackoff backoff = new RetryBackoff(BACKOFF_BASE_MS, BACKOFF_MAX_MS, new Random());
+    // Solo se usa desde el hilo del executor
+    private ScheduledFuture<?> scheduledFlush;
+
+    public static QueryEventQueue getInstance(Context context) {
+        if (instance == null) {
+            synchronized (QueryEventQueue.class) {
+                if (instance == null) {
+                    instance = new QueryEventQueue(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private QueryEventQueue(Context appContext) {
+        this.appContext = appContext;
+        this.database = EventQueueDatabase.getInstance(appContext);
+        this.authState = SessionManager.getAuthState(appContext);
+    }
+
+    /**
+     * Encola una consulta confirmada
+     *
+     * @return UUID de la consulta, para asociarle luego el uso de voz
+     */
+    public String logQuery(String fruitSlug, String location, float confidence, int modelId, String deviceInfo) {
+        String clientId = UUID.randomUUID().toString();
+        enqueue(QueryEvent.query(clientId, fruitSlug, location, confidence, modelId >= 0 ? modelId : null,
+                deviceInfo, System.currentTimeMillis()));
+        return clientId;
+    }
+
+    /**
+     * Encola el uso de texto a voz; varias pulsaciones sobre la misma consulta quedan en un evento
+     */
+    public void logVoiceUsage(String queryClientId) {
+        enqueue(QueryEvent.voice(queryClientId, System.currentTimeMillis()));
+    }
+
+    /**
+     * Intenta subir lo pendiente ya mismo (al arrancar la app o cuando vuelve la conexión)
+     */
+    public void requestFlush() {
+        executor.execute(() -> {
+            backoff.reset();
+            scheduleFlush(0);
+        });
+    }
+
+    private void enqueue(QueryEvent event) {
+        // El usuario se toma al generar el evento, no al guardarlo: un cambio de cuenta en medio no lo
+        // reasigna. AuthState ya está en memoria: ApiClient.init lo carga al arrancar y quien registra
+        // eventos lo hace dentro de SessionManager.whenLoaded.
+        AuthState.Session owner = authState.current();
+        if (owner == null || owner.getUserId() == null) {
+            Log.w(TAG, "Evento " + event.getType() + " sin sesión; se descarta");
+            return;
+        }
+        String userId = owner.getUserId();
+        executor.execute(() -> {
+            try {
+                store(event, userId);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "No se pudo guardar el evento " + event.getType(), e);
+                return;
+            }
+            // Durante el backoff se respeta la espera: el evento sale con el próximo reintento
+            if (backoff.getFailures() == 0) {
+                scheduleFlush(COALESCE_DELAY_MS);
+            }
+        });
+    }
+
+    private void store(QueryEvent event, String userId) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put("client_id", event.getClientId());
+        values.put("user_id", userId);
+        values.put("type", event.getType());
+        values.put("payload", ApiClient.getGson().toJson(event));
+        db.insertWithOnConflict(EventQueueDatabase.TABLE_PENDING_EVENTS, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+        // Cota de disco: si la cola nunca se vacía se descartan los eventos más viejos
+        db.execSQL("DELETE FROM " + EventQueueDatabase.TABLE_PENDING_EVENTS + " WHERE id <= (SELECT id FROM "
+                + EventQueueDatabase.TABLE_PENDING_EVENTS + " ORDER BY id DESC LIMIT 1 OFFSET " + MAX_PENDING_EVENTS + ")");
+    }
+
+    /**
+     * Programa un envío en delayMs, salvo que ya haya uno programado antes
+     */
+    private void scheduleFlush(long delayMs) {
+        if (scheduledFlush != null && !scheduledFlush.isDone()) {
+            if (scheduledFlush.getDelay(TimeUnit.MILLISECONDS) <= delayMs) {
+                return;
+            }
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = executor.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        scheduledFlush = null;
+        ApiService apiService = ApiClient.getApiService(appContext);
+        SQLiteDatabase db = database.getWritableDatabase();
+        while (true) {
+            // Se vuelve a mirar la sesión en cada lote: si cambió de cuenta, el siguiente lote es del nuevo usuario
+            AuthState.Session session = authState.current();
+            if (session == null || session.getUserId() == null) {
+                // Los eventos necesitan su usuario; se suben en el próximo requestFlush con sesión
+                return;
+            }
+            List<Long> rowIds = new ArrayList<>();
+            List<QueryEvent> events = readBatch(db, session.getUserId(), rowIds);
+            if (events.isEmpty()) {
+                backoff.reset();
+                return;
+            }
+            try {
+                Response<BaseResponse> response = apiService.uploadQueryEvents(new QueryEventBatch(events)).execute();
+                int code = response.code();
+                if (code == 401) {
+                    // TokenAuthenticator ya intentó renovar el token: la sesión se cerró. Los eventos
+                    // quedan a nombre de su usuario y no salen con la sesión de otro.
+                    Log.w(TAG, "Sesión vencida; " + events.size() + " eventos quedan en cola");
+                    return;
+                }
+                if (!response.isSuccessful() && (code >= 500 || code == 408 || code == 429)) {
+                    retryLater("Código " + code);
+                    return;
+                }
+                if (!response.isSuccessful()) {
+                    // Otro 4xx: el servidor no va a aceptar este lote; se descarta para no bloquear la cola
+                    Log.e(TAG, "Lote de " + events.size() + " eventos rechazado. Código: " + code);
+                }
+                delete(db, rowIds);
+                backoff.reset();
+            } catch (IOException e) {
+                retryLater(e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void retryLater(String reason) {
+        long delayMs = backoff.nextDelayMs();
+        Log.w(TAG, "No se pudieron subir los eventos (" + reason + "); reintento " + backoff.getFailures()
+                + " en " + delayMs / 1000 + " s");
+        scheduleFlush(delayMs);
+    }
+
+    private List<QueryEvent> readBatch(SQLiteDatabase db, String userId, List<Long> rowIds) {
+        List<QueryEvent> events = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT id, payload FROM " + EventQueueDatabase.TABLE_PENDING_EVENTS
+                + " WHERE user_id = ? ORDER BY id ASC LIMIT " + BATCH_SIZE, new String[]{userId})) {
+            while (cursor.moveToNext()) {
+                rowIds.add(cursor.getLong(0));
+                events.add(ApiClient.getGson().fromJson(cursor.getString(1), QueryEvent.class));
+            }
+        }
+        return events;
+    }
+
+    private void delete(SQLiteDatabase db, List<Long> rowIds) {
+        StringBuilder ids = new StringBuilder();
+        for (Long id : rowIds) {
+            ids.append(ids.length() > 0 ? "," : "").append(id);
+        }
+        db.execSQL("DELETE FROM " + EventQueueDatabase.TABLE_PENDING_EVENTS + " WHERE id IN (" + ids + ")");
+    }
+}
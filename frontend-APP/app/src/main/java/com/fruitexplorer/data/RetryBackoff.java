@@ -0,0 +1,50 @@
+package com.fruitexplorer.data;
+
+import java.util.Random;
+
+/**
+ * Espera entre reintentos de un envío:
+ * - Exponencial desde baseMs y acotada por maxMs
+ * - Con jitter (la mitad fija, la otra al azar) para que muchos dispositivos no reintenten a la vez
+ *   cuando el servidor vuelve
+ *
+ * Sin dependencias de Android; no es thread-safe (se usa desde un solo hilo).
+ */
+public class RetryBackoff {
+
+    private final long baseMs;
+    private final long maxMs;
+    private final Random random;
+    private int failures = 0;
+
+    public RetryBackoff(long baseMs, long maxMs, Random random) {
+        if (baseMs <= 0 || maxMs < baseMs) {
+            throw new IllegalArgumentException("Se requiere 0 < baseMs <= maxMs");
+        }
+        this.baseMs = baseMs;
+        this.maxMs = maxMs;
+        this.random = random;
+    }
+
+    /**
+     * Registra un fallo y devuelve cuánto esperar antes del próximo intento
+     */
+    public long nextDelayMs() {
+        failures++;
+        long ceiling = maxMs;
+        // A partir de 2^30 veces la base ya se pasó maxMs; evita el desborde del shift
+        if (failures - 1 < 30 && baseMs << (failures - 1) < maxMs) {
+            ceiling = baseMs << (failures - 1);
+        }
+        long half = ceiling / 2;
+        return ceiling - half + (long) (random.nextDouble() * half);
+    }
+
+    public void reset() {
+        failures = 0;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,229 @@
+package com.fruitexplorer.data;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para buscar en el catálogo sin red:
+ * - Sin distinción de tildes ni mayúsculas ("lúcuma" = "lucuma" = "LUCUMA")
+ * - Cada palabra de la consulta se busca como prefijo ("luc" encuentra "lúcuma") y deben coincidir todas
+ * - Cada campo tiene un peso (el nombre pesa más que la descripción); una palabra completa vale el doble
+ * - put/remove actualizan un solo documento, para reconstruir el índice de forma incremental
+ *
+ * Sin dependencias de Android. Las búsquedas pueden correr en paralelo con las actualizaciones.
+ */
+public class SearchIndex<T> {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Coincidencia exacta de la palabra frente a solo prefijo
+    private static final int EXACT_TERM_FACTOR = 2;
+
+    private static final class Document<T> {
+        final T item;
+        final String sortKey;
+        final Map<String, Integer> termWeights;
+
+        Document(T item, String sortKey, Map<String, Integer> termWeights) {
+            this.item = item;
+            this.sortKey = sortKey;
+            this.termWeights = termWeights;
+        }
+    }
+
+    // término normalizado -> (id del documento -> peso del mejor campo que lo contiene)
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Integer, Document<T>> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Agrega o reemplaza un documento
+     *
+     * @param sortKey desempate entre puntajes iguales (por ejemplo, el nombre)
+     * @param fields  textos a indexar; null se ignora
+     * @param weights peso de cada campo, en el mismo orden
+     */
+    public void put(int id, T item, String sortKey, String[] fields, int[] weights) {
+        if (fields.length != weights.length) {
+            throw new IllegalArgumentException("Cada campo necesita un peso");
+        }
+        Map<String, Integer> termWeights = new HashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            for (String term : tokenize(fields[i])) {
+                Integer current = termWeights.get(term);
+                if (current == null || current < weights[i]) {
+                    termWeights.put(term, weights[i]);
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            documents.put(id, new Document<>(item, normalize(sortKey), termWeights));
+            for (Map.Entry<String, Integer> entry : termWeights.entrySet()) {
+                Map<Integer, Integer> docs = postings.get(entry.getKey());
+                if (docs == null) {
+                    docs = new HashMap<>();
+                    postings.put(entry.getKey(), docs);
+                }
+                docs.put(id, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int id) {
+        Document<T> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.termWeights.keySet()) {
+            Map<Integer, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documentos que contienen todas las palabras de la consulta (como prefijo),
+     * de mayor a menor puntaje y luego por sortKey
+     *
+     * @param limit máximo de resultados
+     */
+    public List<T> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> scores = null;
+            for (String token : tokens) {
+                Map<Integer, Integer> tokenScores = scoreToken(token, scores == null ? null : scores.keySet());
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Integer, Integer> merged = new HashMap<>();
+                    for (Map.Entry<Integer, Integer> entry : tokenScores.entrySet()) {
+                        merged.put(entry.getKey(), entry.getValue() + scores.get(entry.getKey()));
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int byScore = Integer.compare(b.getValue(), a.getValue());
+                return byScore != 0 ? byScore
+                        : documents.get(a.getKey()).sortKey.compareTo(documents.get(b.getKey()).sortKey);
+            });
+            List<T> results = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                results.add(documents.get(ranked.get(i).getKey()).item);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mejor puntaje de cada documento para una palabra, entre los términos que empiezan con ella
+     *
+     * @param candidates si no es null, solo estos documentos (los que coincidieron con las palabras anteriores)
+     */
+    private Map<Integer, Integer> scoreToken(String token, Set<Integer> candidates) {
+        Map<Integer, Integer> tokenScores = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, Integer>> term
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            int factor = term.getKey().length() == token.length() ? EXACT_TERM_FACTOR : 1;
+            for (Map.Entry<Integer, Integer> doc : term.getValue().entrySet()) {
+                if (candidates != null && !candidates.contains(doc.getKey())) {
+                    continue;
+                }
+                int score = doc.getValue() * factor;
+                Integer best = tokenScores.get(doc.getKey());
+                if (best == null || best < score) {
+                    tokenScores.put(doc.getKey(), score);
+                }
+            }
+        }
+        return tokenScores;
+    }
+
+    /**
+     * Minúsculas sin tildes ni diéresis ("Lúcuma Pingüino" -> "lucuma pinguino")
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> seen = new HashSet<>();
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty() && seen.add(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
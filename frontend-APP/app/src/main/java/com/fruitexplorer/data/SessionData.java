@@ -0,0 +1,83 @@
+package com.fruitexplorer.data;
+
+/**
+ * Sesión guardada por SessionStore; inmutable. Cada cambio crea una copia con with.../signIn/signedOut.
+ * - Sin token no hay sesión (reemplaza a la bandera is_logged_in de las preferencias)
+ * - hasSeenWelcome sobrevive a clearSession, como antes en FruitExplorerPrefs
+ */
+public final class SessionData {
+
+    public static final SessionData EMPTY = new SessionData(null, null, null, null, 0, false);
+
+    private final String token;
+    private final String userId;
+    private final String email;
+    private final String displayName;
+    private final long loginTimestamp;
+    private final boolean hasSeenWelcome;
+
+    public SessionData(String token, String userId, String email, String displayName, long loginTimestamp,
+                       boolean hasSeenWelcome) {
+        this.token = token;
+        this.userId = userId;
+        this.email = email;
+        this.displayName = displayName;
+        this.loginTimestamp = loginTimestamp;
+        this.hasSeenWelcome = hasSeenWelcome;
+    }
+
+    public boolean isLoggedIn() {
+        return token != null && !token.isEmpty();
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public long getLoginTimestamp() {
+        return loginTimestamp;
+    }
+
+    public boolean hasSeenWelcome() {
+        return hasSeenWelcome;
+    }
+
+    public SessionData signIn(String token, String userId, String email, String displayName, long loginTimestamp) {
+        return new SessionData(token, userId, email, displayName, loginTimestamp, hasSeenWelcome);
+    }
+
+    public SessionData withToken(String token, long loginTimestamp) {
+        return new SessionData(token, userId, email, displayName, loginTimestamp, hasSeenWelcome);
+    }
+
+    /**
+     * Los valores null conservan el dato actual
+     */
+    public SessionData withUser(String userId, String email, String displayName) {
+        return new SessionData(token, userId != null ? userId : this.userId, email != null ? email : this.email,
+                displayName != null ? displayName : this.displayName, loginTimestamp, hasSeenWelcome);
+    }
+
+    public SessionData withWelcomeSeen() {
+        return new SessionData(token, userId, email, displayName, loginTimestamp, true);
+    }
+
+    /**
+     * Sin usuario ni token; conserva la bienvenida ya vista
+     */
+    public SessionData signedOut() {
+        return hasSeenWelcome ? new SessionData(null, null, null, null, 0, true) : EMPTY;
+    }
+}
@@ -0,0 +1,245 @@
+package com.fruitexplorer.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sesión del usuario en un archivo propio, con una copia inmutable (SessionData) en memoria:
+ * - load lee el archivo en el executor; hasta entonces peek devuelve null y whenLoaded espera
+ * - La primera vez migra las claves de FruitExplorerPrefs (Legacy) y las borra
+ * - update cambia la copia en memoria al instante y la escribe después; varios cambios seguidos
+ *   salen en una sola escritura
+ * - Cada escritura va a un temporal, se sincroniza a disco y reemplaza al archivo con un rename
+ *   atómico: un cierre a mitad de escritura deja la sesión anterior, nunca una a medias
+ *
+ * Sin dependencias de Android: el archivo, las preferencias anteriores y el hilo llegan por el
+ * constructor. Thread-safe; el disco solo se toca desde el executor.
+ */
+public class SessionStore {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Sesión guardada con el formato anterior a este archivo
+     */
+    public interface Legacy {
+        /**
+         * @return la sesión anterior, o null si no hay
+         */
+        SessionData read();
+
+        void clear();
+    }
+
+    private final Supplier<File> fileSupplier;
+    private final Legacy legacy;
+    private final Executor io;
+    private final Consumer<IOException> onWriteError;
+
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    // Lo que se pidió antes de terminar la carga; se aplica sobre lo leído
+    private final List<UnaryOperator<SessionData>> pendingChanges = new ArrayList<>();
+    private final List<Consumer<SessionData>> waiting = new ArrayList<>();
+    private volatile SessionData snapshot;
+    // Solo se usa desde el executor
+    private File file;
+
+    /**
+     * @param fileSupplier archivo de la sesión; se resuelve en el executor (getFilesDir toca disco)
+     */
+    public SessionStore(Supplier<File> fileSupplier, Legacy legacy, Executor io, Consumer<IOException> onWriteError) {
+        this.fileSupplier = fileSupplier;
+        this.legacy = legacy;
+        this.io = io;
+        this.onWriteError = onWriteError;
+    }
+
+    /**
+     * Empieza a leer la sesión; las llamadas siguientes no hacen nada
+     */
+    public void load() {
+        if (loadStarted.compareAndSet(false, true)) {
+            io.execute(this::loadNow);
+        }
+    }
+
+    /**
+     * @return la sesión en memoria, o null si todavía no terminó de cargarse
+     */
+    public SessionData peek() {
+        return snapshot;
+    }
+
+    /**
+     * Entrega la sesión en cuanto esté cargada: al instante si ya lo está, si no desde el executor
+     */
+    public void whenLoaded(Consumer<SessionData> callback) {
+        SessionData current;
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                waiting.add(callback);
+            }
+        }
+        if (current != null) {
+            callback.accept(current);
+        } else {
+            load();
+        }
+    }
+
+    /**
+     * Espera la carga; no llamar desde el hilo principal
+     */
+    public SessionData await() {
+        load();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                loaded.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Aplica change a la sesión en memoria y programa su escritura
+     */
+    public void update(UnaryOperator<SessionData> change) {
+        synchronized (this) {
+            if (snapshot == null) {
+                pendingChanges.add(change);
+                load();
+                return;
+            }
+            snapshot = change.apply(snapshot);
+        }
+        scheduleWrite();
+    }
+
+    private void loadNow() {
+        file = fileSupplier.get();
+        SessionData data;
+        boolean migrated = false;
+        try {
+            data = read(file);
+        } catch (FileNotFoundException e) {
+            data = legacy.read();
+            migrated = true;
+        } catch (IOException e) {
+            // Archivo ilegible: se empieza sin sesión antes que con datos a medias
+            data = null;
+        }
+        if (data == null) {
+            data = SessionData.EMPTY;
+        }
+
+        List<Consumer<SessionData>> callbacks;
+        boolean changed;
+        synchronized (this) {
+            changed = !pendingChanges.isEmpty();
+            for (UnaryOperator<SessionData> change : pendingChanges) {
+                data = change.apply(data);
+            }
+            pendingChanges.clear();
+            snapshot = data;
+            callbacks = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        loaded.countDown();
+        for (Consumer<SessionData> callback : callbacks) {
+            callback.accept(data);
+        }
+
+        boolean written = (migrated || changed) && writeLatest();
+        if (migrated && written) {
+            // Ya está en el archivo nuevo; las preferencias dejan de ser la fuente de la sesión
+            legacy.clear();
+        }
+    }
+
+    private void scheduleWrite() {
+        if (writeScheduled.compareAndSet(false, true)) {
+            io.execute(() -> writeLatest());
+        }
+    }
+
+    /**
+     * @return true si la sesión quedó en disco
+     */
+    private boolean writeLatest() {
+        // Antes de leer la copia: un cambio posterior programa su propia escritura
+        writeScheduled.set(false);
+        SessionData data = snapshot;
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            try (FileOutputStream stream = new FileOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, data.getToken());
+                writeString(out, data.getUserId());
+                writeString(out, data.getEmail());
+                writeString(out, data.getDisplayName());
+                out.writeLong(data.getLoginTimestamp());
+                out.writeBoolean(data.hasSeenWelcome());
+                out.flush();
+                stream.getFD().sync();
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            // La sesión sigue en memoria; se reintenta con el próximo cambio
+            tmp.delete();
+            onWriteError.accept(e);
+            return false;
+        }
+    }
+
+    private static SessionData read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Versión de sesión desconocida: " + version);
+            }
+            return new SessionData(readString(in), readString(in), readString(in), readString(in), in.readLong(),
+                    in.readBoolean());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
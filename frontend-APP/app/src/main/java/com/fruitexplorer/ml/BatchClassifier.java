@@ -0,0 +1,192 @@
+package com.fruitexplorer.ml;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Clasifica lotes de imágenes fijas (por ejemplo, de la galería) fuera del hilo principal:
+ * - Pool acotado de hilos; cada lote reparte las imágenes con un cursor compartido
+ * - Un intérprete por hilo, creado la primera vez y reutilizado entre lotes
+ * - Buffers de entrada y puntajes por hilo, sin asignaciones por imagen salvo el resultado entregado
+ *
+ * Sin dependencias de Android: el intérprete y el decodificador se inyectan.
+ */
+public class BatchClassifier<T> {
+
+    /**
+     * Convierte una imagen en la entrada RGB uint8 del modelo (inputSize x inputSize x 3)
+     */
+    public interface InputDecoder<T> {
+        void decode(T source, ByteBuffer input) throws Exception;
+    }
+
+    /**
+     * Se invoca desde los hilos del pool; la UI debe pasar los datos a su propio hilo
+     */
+    public interface Callback<T> {
+        void onImageClassified(int index, T source, ClassificationResult result);
+
+        void onImageFailed(int index, T source, Exception error);
+
+        void onBatchFinished(int classified, int failed);
+    }
+
+    /**
+     * Lote en curso
+     */
+    public static final class Batch {
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        /**
+         * Las imágenes que aún no empezaron se descartan; onBatchFinished se invoca igual
+         */
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    private final InferenceBackend.Factory factory;
+    private final DelegateConfig workerConfig;
+    private final InputDecoder<T> decoder;
+    private final IntFunction<String> labelNames;
+    private final int inputBytes;
+    private final int topK;
+    private final int threads;
+    private final ExecutorService pool;
+
+    private final ThreadLocal<Worker> workers = new ThreadLocal<>();
+    private final Queue<Worker> createdWorkers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param factory      crea el intérprete de cada hilo
+     * @param workerConfig delegado de cada intérprete (el paralelismo lo da el pool)
+     * @param inputSize    lado de la entrada del modelo en píxeles
+     * @param topK         posiciones por resultado
+     * @param threads      tamaño del pool
+     */
+    public BatchClassifier(InferenceBackend.Factory factory, DelegateConfig workerConfig,
+                           InputDecoder<T> decoder, IntFunction<String> labelNames,
+                           int inputSize, int topK, int threads) {
+        if (threads < 1 || topK < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un hilo y una posición");
+        }
+        this.factory = factory;
+        this.workerConfig = workerConfig;
+        this.decoder = decoder;
+        this.labelNames = labelNames;
+        this.inputBytes = inputSize * inputSize * 3;
+        this.topK = topK;
+        this.threads = threads;
+        this.pool = Executors.newFixedThreadPool(threads, newThreadFactory());
+    }
+
+    /**
+     * Encola un lote. Cada imagen se reporta una vez (clasificada o fallida) y al final
+     * se llama a onBatchFinished.
+     */
+    public Batch classifyAll(List<T> sources, Callback<T> callback) {
+        Batch batch = new Batch();
+        AtomicInteger cursor = new AtomicInteger(0);
+        AtomicInteger classified = new AtomicInteger(0);
+        AtomicInteger failed = new AtomicInteger(0);
+        int taskCount = Math.max(1, Math.min(threads, sources.size()));
+        AtomicInteger runningTasks = new AtomicInteger(taskCount);
+
+        Runnable task = () -> {
+            try {
+                int index;
+                while (!batch.isCancelled() && (index = cursor.getAndIncrement()) < sources.size()) {
+                    T source = sources.get(index);
+                    try {
+                        callback.onImageClassified(index, source, classify(source));
+                        classified.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        callback.onImageFailed(index, source, e);
+                    }
+                }
+            } finally {
+                if (runningTasks.decrementAndGet() == 0) {
+                    callback.onBatchFinished(classified.get(), failed.get());
+                }
+            }
+        };
+        for (int i = 0; i < taskCount; i++) {
+            pool.execute(task);
+        }
+        return batch;
+    }
+
+    private ClassificationResult classify(T source) throws Exception {
+        Worker worker = workers.get();
+        if (worker == null) {
+            worker = new Worker(factory.create(workerConfig));
+            workers.set(worker);
+            createdWorkers.add(worker);
+        }
+        worker.input.clear();
+        decoder.decode(source, worker.input);
+        worker.backend.run(worker.input, worker.scores);
+
+        // El resultado sale del hilo del pool, por eso es el único objeto nuevo por imagen
+        ClassificationResult result = new ClassificationResult(topK);
+        result.setTopK(worker.scores, labelNames);
+        return result;
+    }
+
+    /**
+     * Termina los lotes en curso y libera los intérpretes de cada hilo al salir
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Intérpretes creados hasta ahora (uno por hilo que llegó a clasificar)
+     */
+    public int getInterpreterCount() {
+        return createdWorkers.size();
+    }
+
+    private ThreadFactory newThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    Worker worker = workers.get();
+                    if (worker != null) {
+                        worker.backend.close();
+                    }
+                }
+            }, "BatchClassifier-" + threadNumber.getAndIncrement());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+
+    private final class Worker {
+        final InferenceBackend backend;
+        final ByteBuffer input = ByteBuffer.allocateDirect(inputBytes).order(ByteOrder.nativeOrder());
+        final float[] scores;
+
+        Worker(InferenceBackend backend) {
+            this.backend = backend;
+            this.scores = new float[backend.getClassCount()];
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.fruitexplorer.ml;
+
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Lleva los puntajes de cada frame clasificado al DetectionController (lo usa FruitAnalyzer):
+ * - Un DetectionConfirmer por escaneo; se reinicia cuando cambia el id del escaneo
+ * - La candidata se reporta solo cuando cambia, también cuando se pierde (ranking vacío): así la UI
+ *   deja de mostrarla y StableCandidateTrigger cancela su precarga
+ * - El bloqueo se reporta con el nombre de la etiqueta y el modelo que lo produjo
+ *
+ * Sin dependencias de Android. Se usa solo desde el hilo del analizador.
+ */
+public class CandidateReporter {
+
+    private final DetectionController controller;
+    private final DetectionConfirmer confirmer;
+    private final IntFunction<String> labelNames;
+    private final IntSupplier modelId;
+    private final ClassificationResult ranking;
+
+    private long scanId = -1;
+    private int reportedCandidate = -1;
+
+    public CandidateReporter(DetectionController controller, DetectionConfirmer confirmer,
+                             IntFunction<String> labelNames, IntSupplier modelId, int rankingSize) {
+        this.controller = controller;
+        this.confirmer = confirmer;
+        this.labelNames = labelNames;
+        this.modelId = modelId;
+        this.ranking = new ClassificationResult(rankingSize);
+    }
+
+    /**
+     * @return true si scanId es un escaneo nuevo; los votos anteriores se descartan
+     */
+    public boolean startScanIfNew(long scanId) {
+        if (scanId == this.scanId) {
+            return false;
+        }
+        this.scanId = scanId;
+        confirmer.reset();
+        reportedCandidate = -1;
+        return true;
+    }
+
+    /**
+     * El bloqueo ya se reportó aunque el controlador todavía no lo refleje
+     */
+    public boolean isLocked() {
+        return confirmer.isLocked();
+    }
+
+    /**
+     * Incorpora el top-k de un frame del escaneo actual
+     *
+     * @return true si este frame bloqueó una fruta y el controlador lo aceptó
+     */
+    public boolean onClassified(int[] labels, float[] scores, int count, long timestampMillis) {
+        boolean locked = confirmer.update(labels, scores, count, timestampMillis);
+
+        int candidate = confirmer.getCandidateLabel();
+        if (candidate != reportedCandidate) {
+            reportedCandidate = candidate;
+            if (candidate >= 0) {
+                confirmer.rankCandidates(ranking, labelNames);
+            } else {
+                ranking.clear();
+            }
+            controller.reportCandidate(scanId, ranking);
+        }
+
+        if (!locked) {
+            return false;
+        }
+        String fruitName = labelNames.apply(confirmer.getLockedLabel());
+        return fruitName != null
+                && controller.reportLock(scanId, fruitName, confirmer.getLockedScore(), modelId.getAsInt());
+    }
+}
@@ -0,0 +1,132 @@
+package com.fruitexplorer.ml;
+
+import java.util.function.IntFunction;
+
+/**
+ * Resultado top-k ordenado de mayor a menor puntaje.
+ * - Capacidad fija: se llena y se reutiliza sin asignar memoria por frame
+ * - Quien lo recibe en un callback no debe guardarlo; si lo necesita después, usa copy()
+ */
+public final class ClassificationResult {
+
+    private final int[] labelIndices;
+    private final String[] labels;
+    private final float[] scores;
+    private int size = 0;
+
+    public ClassificationResult(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        labelIndices = new int[capacity];
+        labels = new String[capacity];
+        scores = new float[capacity];
+    }
+
+    /**
+     * Vacía el resultado para volver a llenarlo
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Agrega la siguiente posición del ranking (el llamador la entrega ya ordenada).
+     *
+     * @return false si el resultado ya está lleno
+     */
+    public boolean add(int labelIndex, String label, float score) {
+        if (size == labelIndices.length) {
+            return false;
+        }
+        labelIndices[size] = labelIndex;
+        labels[size] = label;
+        scores[size] = score;
+        size++;
+        return true;
+    }
+
+    /**
+     * Llena el resultado con las mejores clases de un vector de puntajes, sin asignar memoria
+     *
+     * @param labelNames nombre de cada índice de clase
+     */
+    public void setTopK(float[] scores, IntFunction<String> labelNames) {
+        clear();
+        int count = Math.min(labelIndices.length, scores.length);
+        for (int k = 0; k < count; k++) {
+            int best = -1;
+            for (int i = 0; i < scores.length; i++) {
+                if (!containsLabel(i) && (best == -1 || scores[i] > scores[best])) {
+                    best = i;
+                }
+            }
+            add(best, labelNames.apply(best), scores[best]);
+        }
+    }
+
+    boolean containsLabel(int labelIndex) {
+        for (int i = 0; i < size; i++) {
+            if (labelIndices[i] == labelIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return labelIndices.length;
+    }
+
+    public int getLabelIndex(int rank) {
+        checkRank(rank);
+        return labelIndices[rank];
+    }
+
+    public String getLabel(int rank) {
+        checkRank(rank);
+        return labels[rank];
+    }
+
+    public float getScore(int rank) {
+        checkRank(rank);
+        return scores[rank];
+    }
+
+    /**
+     * Copia independiente, para entregar el resultado a otro hilo
+     */
+    public ClassificationResult copy() {
+        ClassificationResult copy = new ClassificationResult(labelIndices.length);
+        for (int i = 0; i < size; i++) {
+            copy.add(labelIndices[i], labels[i], scores[i]);
+        }
+        return copy;
+    }
+
+    private void checkRank(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("Posición " + rank + " de " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(labels[i]).append('=').append(scores[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
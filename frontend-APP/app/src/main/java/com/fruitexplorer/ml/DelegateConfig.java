@@ -0,0 +1,88 @@
+package com.fruitexplorer.ml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuración de ejecución del intérprete TFLite: tipo de delegado y número de hilos.
+ * Se serializa como "TIPO:hilos" (por ejemplo "XNNPACK:4") para guardarla por dispositivo.
+ */
+public final class DelegateConfig {
+
+    public enum Type {
+        CPU,      // Kernels de referencia de TFLite, sin XNNPACK
+        XNNPACK,  // Kernels optimizados de CPU
+        NNAPI     // Acelerador del dispositivo vía Android NNAPI
+    }
+
+    private final Type type;
+    private final int numThreads;
+
+    public DelegateConfig(Type type, int numThreads) {
+        if (type == null || numThreads < 1) {
+            throw new IllegalArgumentException("Configuración de delegado inválida");
+        }
+        this.type = type;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Candidatos que se comparan en la calibración, del más seguro al más agresivo.
+     * El primero (CPU con un hilo) es el último recurso si todos los demás fallan.
+     */
+    public static List<DelegateConfig> defaultCandidates(int availableCores) {
+        int threads = Math.max(1, Math.min(4, availableCores));
+        List<DelegateConfig> candidates = new ArrayList<>();
+        candidates.add(new DelegateConfig(Type.CPU, 1));
+        if (threads > 1) {
+            candidates.add(new DelegateConfig(Type.CPU, threads));
+        }
+        candidates.add(new DelegateConfig(Type.XNNPACK, threads));
+        candidates.add(new DelegateConfig(Type.NNAPI, 1));
+        return candidates;
+    }
+
+    /**
+     * Reconstruye una configuración guardada, o null si el texto no es válido
+     */
+    public static DelegateConfig parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(":");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            return new DelegateConfig(Type.valueOf(parts[0]), Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DelegateConfig)) return false;
+        DelegateConfig other = (DelegateConfig) o;
+        return type == other.type && numThreads == other.numThreads;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + numThreads;
+    }
+
+    @Override
+    public String toString() {
+        return type.name() + ":" + numThreads;
+    }
+}
@@ -0,0 +1,36 @@
+package com.fruitexplorer.ml;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.fruitexplorer.utils.Constants;
+
+/**
+ * Guarda el delegado elegido por modelo de dispositivo.
+ * Usa un archivo de preferencias propio para que cerrar sesión no borre la calibración.
+ */
+public class DelegatePreferences implements DelegateSelector.ConfigStore {
+
+    private static final String KEY_PREFIX = "delegate_";
+
+    private final SharedPreferences preferences;
+
+    public DelegatePreferences(Context context) {
+        this.preferences = context.getSharedPreferences(Constants.ML_PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    public DelegateConfig load(String deviceModel) {
+        return DelegateConfig.parse(preferences.getString(KEY_PREFIX + deviceModel, null));
+    }
+
+    @Override
+    public void save(String deviceModel, DelegateConfig config) {
+        preferences.edit().putString(KEY_PREFIX + deviceModel, config.toString()).apply();
+    }
+
+    @Override
+    public void clear(String deviceModel) {
+        preferences.edit().remove(KEY_PREFIX + deviceModel).apply();
+    }
+}
@@ -0,0 +1,172 @@
+package com.fruitexplorer.ml;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Elige el delegado TFLite más rápido para el dispositivo.
+ * - La primera vez ejecuta una calibración corta con cada candidato
+ * - Guarda la configuración ganadora por modelo de dispositivo
+ * - Si un delegado falla al inicializarse (o al ejecutar), lo descarta y sigue con el resto
+ *
+ * Sin dependencias de Android: el intérprete, el almacenamiento y el reloj se inyectan.
+ */
+public class DelegateSelector {
+
+    /**
+     * Persistencia de la configuración elegida por modelo de dispositivo
+     */
+    public interface ConfigStore {
+        DelegateConfig load(String deviceModel);
+
+        void save(String deviceModel, DelegateConfig config);
+
+        void clear(String deviceModel);
+    }
+
+    public static final int DEFAULT_WARMUP_RUNS = 2;
+    public static final int DEFAULT_TIMED_RUNS = 5;
+
+    private final InferenceBackend.Factory factory;
+    private final ConfigStore store;
+    private final LongSupplier nanoClock;
+    private final List<DelegateConfig> candidates;
+    private final int warmupRuns;
+    private final int timedRuns;
+
+    private final Map<DelegateConfig, Long> calibrationResults = new LinkedHashMap<>();
+    private DelegateConfig selectedConfig;
+
+    public DelegateSelector(InferenceBackend.Factory factory, ConfigStore store, LongSupplier nanoClock,
+                            List<DelegateConfig> candidates) {
+        this(factory, store, nanoClock, candidates, DEFAULT_WARMUP_RUNS, DEFAULT_TIMED_RUNS);
+    }
+
+    public DelegateSelector(InferenceBackend.Factory factory, ConfigStore store, LongSupplier nanoClock,
+                            List<DelegateConfig> candidates, int warmupRuns, int timedRuns) {
+        if (candidates.isEmpty() || timedRuns < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un candidato y una ejecución medida");
+        }
+        this.factory = factory;
+        this.store = store;
+        this.nanoClock = nanoClock;
+        this.candidates = candidates;
+        this.warmupRuns = warmupRuns;
+        this.timedRuns = timedRuns;
+    }
+
+    /**
+     * Devuelve un intérprete listo con la mejor configuración para el dispositivo.
+     *
+     * @param deviceModel  clave del dispositivo (Build.MODEL)
+     * @param sampleInput  entrada de ejemplo para la calibración
+     * @throws IllegalStateException si ningún candidato puede inicializarse
+     */
+    public InferenceBackend select(String deviceModel, ByteBuffer sampleInput) {
+        DelegateConfig cached = store.load(deviceModel);
+        if (cached != null) {
+            InferenceBackend backend = tryCreate(cached);
+            if (backend != null) {
+                selectedConfig = cached;
+                return backend;
+            }
+            // El delegado guardado dejó de funcionar (por ejemplo, tras una actualización del sistema)
+            store.clear(deviceModel);
+        }
+
+        DelegateConfig fastest = calibrate(sampleInput, cached);
+        if (fastest != null) {
+            InferenceBackend backend = tryCreate(fastest);
+            if (backend != null) {
+                store.save(deviceModel, fastest);
+                selectedConfig = fastest;
+                return backend;
+            }
+        }
+
+        // Último recurso: el candidato más seguro, sin guardarlo para volver a calibrar en el próximo arranque
+        DelegateConfig fallback = candidates.get(0);
+        InferenceBackend backend = tryCreate(fallback);
+        if (backend == null) {
+            throw new IllegalStateException("Ningún delegado de TFLite pudo inicializarse");
+        }
+        selectedConfig = fallback;
+        return backend;
+    }
+
+    /**
+     * Mide la mediana de cada candidato y devuelve el más rápido, o null si todos fallan
+     */
+    private DelegateConfig calibrate(ByteBuffer sampleInput, DelegateConfig excluded) {
+        calibrationResults.clear();
+        DelegateConfig fastest = null;
+        long fastestNanos = Long.MAX_VALUE;
+
+        for (DelegateConfig config : candidates) {
+            if (config.equals(excluded)) {
+                continue;
+            }
+            InferenceBackend backend = tryCreate(config);
+            if (backend == null) {
+                continue;
+            }
+            try {
+                long median = benchmark(backend, sampleInput);
+                calibrationResults.put(config, median);
+                if (median < fastestNanos) {
+                    fastestNanos = median;
+                    fastest = config;
+                }
+            } catch (RuntimeException e) {
+                // El delegado se creó pero falla al ejecutar: se descarta
+            } finally {
+                backend.close();
+            }
+        }
+        return fastest;
+    }
+
+    private long benchmark(InferenceBackend backend, ByteBuffer input) {
+        float[] scores = new float[backend.getClassCount()];
+        for (int i = 0; i < warmupRuns; i++) {
+            backend.run(input, scores);
+        }
+        long[] samples = new long[timedRuns];
+        for (int i = 0; i < timedRuns; i++) {
+            long start = nanoClock.getAsLong();
+            backend.run(input, scores);
+            samples[i] = nanoClock.getAsLong() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private InferenceBackend tryCreate(DelegateConfig config) {
+        try {
+            return factory.create(config);
+        } catch (Exception | LinkageError e) {
+            // LinkageError cubre librerías nativas ausentes en algunos dispositivos
+            return null;
+        }
+    }
+
+    /**
+     * Configuración del último intérprete entregado por select()
+     */
+    public DelegateConfig getSelectedConfig() {
+        return selectedConfig;
+    }
+
+    /**
+     * Mediana en nanosegundos de cada candidato medido en la última calibración
+     * (vacío si se usó la configuración guardada)
+     */
+    public Map<DelegateConfig, Long> getCalibrationResults() {
+        return Collections.unmodifiableMap(calibrationResults);
+    }
+}
@@ -0,0 +1,214 @@
+package com.fruitexplorer.ml;
+
+import java.util.function.IntFunction;
+
+/**
+ * Confirma una fruta a partir de los puntajes top-k de frames sucesivos.
+ * - Suaviza el puntaje de cada etiqueta con una media móvil exponencial (EMA)
+ * - Guarda en un buffer circular la etiqueta ganadora de los últimos frames
+ * - Bloquea la fruta cuando suficientes frames coinciden y su EMA supera el umbral
+ *
+ * Un frame ruidoso aislado solo resta un voto; no reinicia la confirmación como
+ * hacía el temporizador fijo. Sin asignaciones por frame y sin dependencias de Android.
+ * No es thread-safe: se alimenta desde el hilo del analizador.
+ */
+public class DetectionConfirmer {
+
+    public static final float DEFAULT_SMOOTHING = 0.5f;
+    public static final float DEFAULT_LOCK_THRESHOLD = 0.7f;
+    public static final int DEFAULT_WINDOW = 5;
+    public static final int DEFAULT_MIN_VOTES = 3;
+
+    // Puntaje suavizado mínimo para considerar una etiqueta como candidata
+    private static final float CANDIDATE_THRESHOLD = 0.3f;
+
+    private static final int NO_LABEL = -1;
+
+    private final float smoothing;
+    private final float lockThreshold;
+    private final int minVotes;
+
+    private final float[] smoothedScores;
+    private final int[] voteWindow;
+    private int windowPosition = 0;
+    private int framesSeen = 0;
+
+    private int candidateLabel = NO_LABEL;
+    private long candidateSinceMillis = -1;
+    private int lockedLabel = NO_LABEL;
+    private float lockedScore = 0f;
+    private long lockLatencyMillis = -1;
+
+    public DetectionConfirmer(int labelCount) {
+        this(labelCount, DEFAULT_SMOOTHING, DEFAULT_LOCK_THRESHOLD, DEFAULT_WINDOW, DEFAULT_MIN_VOTES);
+    }
+
+    /**
+     * @param labelCount    número de etiquetas del modelo
+     * @param smoothing     peso del frame nuevo en la EMA (0-1]
+     * @param lockThreshold puntaje suavizado necesario para bloquear
+     * @param window        frames que se recuerdan para la votación
+     * @param minVotes      frames de la ventana que deben coincidir para bloquear
+     */
+    public DetectionConfirmer(int labelCount, float smoothing, float lockThreshold, int window, int minVotes) {
+        if (labelCount <= 0 || smoothing <= 0f || smoothing > 1f || minVotes <= 0 || minVotes > window) {
+            throw new IllegalArgumentException("Parámetros de confirmación inválidos");
+        }
+        this.smoothing = smoothing;
+        this.lockThreshold = lockThreshold;
+        this.minVotes = minVotes;
+        this.smoothedScores = new float[labelCount];
+        this.voteWindow = new int[window];
+        reset();
+    }
+
+    /**
+     * Incorpora los resultados top-k de un frame.
+     *
+     * @param labelIndices   índices de las etiquetas devueltas por el clasificador
+     * @param scores         puntajes correspondientes
+     * @param count          cuántas posiciones de los arreglos son válidas
+     * @param timestampMillis marca de tiempo del frame
+     * @return true si este frame bloqueó una fruta
+     */
+    public boolean update(int[] labelIndices, float[] scores, int count, long timestampMillis) {
+        if (isLocked()) {
+            return false;
+        }
+
+        // Las etiquetas ausentes del top-k cuentan como puntaje 0 en este frame
+        float decay = 1f - smoothing;
+        for (int i = 0; i < smoothedScores.length; i++) {
+            smoothedScores[i] *= decay;
+        }
+        int frameTop = NO_LABEL;
+        float frameTopScore = 0f;
+        for (int i = 0; i < count; i++) {
+            int label = labelIndices[i];
+            if (label < 0 || label >= smoothedScores.length) {
+                continue;
+            }
+            smoothedScores[label] += smoothing * scores[i];
+            if (scores[i] > frameTopScore) {
+                frameTopScore = scores[i];
+                frameTop = label;
+            }
+        }
+
+        voteWindow[windowPosition] = frameTop;
+        windowPosition = (windowPosition + 1) % voteWindow.length;
+        framesSeen++;
+
+        int best = bestSmoothedLabel();
+        if (best != candidateLabel) {
+            candidateLabel = best;
+            candidateSinceMillis = best == NO_LABEL ? -1 : timestampMillis;
+        }
+
+        if (best != NO_LABEL && smoothedScores[best] >= lockThreshold && countVotes(best) >= minVotes) {
+            lockedLabel = best;
+            lockedScore = smoothedScores[best];
+            lockLatencyMillis = timestampMillis - candidateSinceMillis;
+            return true;
+        }
+        return false;
+    }
+
+    private int bestSmoothedLabel() {
+        int best = NO_LABEL;
+        float bestScore = CANDIDATE_THRESHOLD;
+        for (int i = 0; i < smoothedScores.length; i++) {
+            if (smoothedScores[i] >= bestScore) {
+                bestScore = smoothedScores[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Escribe en result el ranking de etiquetas por puntaje suavizado (las de puntaje 0 se omiten).
+     * Si hay candidata, ocupa la primera posición. No asigna memoria.
+     *
+     * @param labelNames nombre de cada índice de etiqueta
+     */
+    public void rankCandidates(ClassificationResult result, IntFunction<String> labelNames) {
+        result.clear();
+        int capacity = Math.min(result.capacity(), smoothedScores.length);
+        for (int rank = 0; rank < capacity; rank++) {
+            int best = NO_LABEL;
+            float bestScore = 0f;
+            for (int i = 0; i < smoothedScores.length; i++) {
+                // >= para desempatar igual que bestSmoothedLabel()
+                if (smoothedScores[i] > 0f && smoothedScores[i] >= bestScore && !result.containsLabel(i)) {
+                    bestScore = smoothedScores[i];
+                    best = i;
+                }
+            }
+            if (best == NO_LABEL) {
+                return;
+            }
+            result.add(best, labelNames.apply(best), bestScore);
+        }
+    }
+
+    private int countVotes(int label) {
+        int votes = 0;
+        int size = Math.min(framesSeen, voteWindow.length);
+        for (int i = 0; i < size; i++) {
+            if (voteWindow[i] == label) {
+                votes++;
+            }
+        }
+        return votes;
+    }
+
+    /**
+     * Vuelve al estado inicial para un nuevo escaneo
+     */
+    public void reset() {
+        for (int i = 0; i < smoothedScores.length; i++) {
+            smoothedScores[i] = 0f;
+        }
+        for (int i = 0; i < voteWindow.length; i++) {
+            voteWindow[i] = NO_LABEL;
+        }
+        windowPosition = 0;
+        framesSeen = 0;
+        candidateLabel = NO_LABEL;
+        candidateSinceMillis = -1;
+        lockedLabel = NO_LABEL;
+        lockedScore = 0f;
+        lockLatencyMillis = -1;
+    }
+
+    public boolean isLocked() {
+        return lockedLabel != NO_LABEL;
+    }
+
+    /**
+     * Etiqueta con mayor puntaje suavizado, o -1 si ninguna supera el mínimo
+     */
+    public int getCandidateLabel() {
+        return candidateLabel;
+    }
+
+    public float getCandidateScore() {
+        return candidateLabel == NO_LABEL ? 0f : smoothedScores[candidateLabel];
+    }
+
+    public int getLockedLabel() {
+        return lockedLabel;
+    }
+
+    public float getLockedScore() {
+        return lockedScore;
+    }
+
+    /**
+     * Tiempo desde que la etiqueta bloqueada pasó a ser candidata hasta el bloqueo, o -1
+     */
+    public long getLockLatencyMillis() {
+        return lockLatencyMillis;
+    }
+}
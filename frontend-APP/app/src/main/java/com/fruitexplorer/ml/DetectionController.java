@@ -0,0 +1,248 @@
+package com.fruitexplorer.ml;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Estado de la detección de la cámara con un modelo de hilos definido:
+ * - Un solo executor para el analizador (getAnalyzerExecutor)
+ * - Estado inmutable (Snapshot) publicado con compare-and-set; cualquier hilo puede leerlo
+ * - Pausar o bloquear solo apaga el analizador (isAnalyzing); la sesión de CameraX no se toca
+ * - Cada escaneo tiene un id: los resultados de un escaneo anterior que lleguen tarde se descartan
+ * - La UI recibe los cambios en su executor y solo el estado más reciente (los intermedios se omiten)
+ *
+ * Sin dependencias de Android: el executor de la UI y el reloj se inyectan.
+ */
+public class DetectionController {
+
+    public enum State {
+        SCANNING,
+        LOCKED,
+        PAUSED
+    }
+
+    /**
+     * Recibe el estado en el executor de la UI
+     */
+    public interface Listener {
+        void onDetectionStateChanged(Snapshot snapshot);
+    }
+
+    /**
+     * Estado inmutable de la detección
+     */
+    public static final class Snapshot {
+        private final State state;
+        private final long scanId;
+        private final ClassificationResult ranking;
+        private final String lockedLabel;
+        private final float lockedScore;
+        private final int lockedModelId;
+
+        private Snapshot(State state, long scanId, ClassificationResult ranking,
+                         String lockedLabel, float lockedScore, int lockedModelId) {
+            this.state = state;
+            this.scanId = scanId;
+            this.ranking = ranking;
+            this.lockedLabel = lockedLabel;
+            this.lockedScore = lockedScore;
+            this.lockedModelId = lockedModelId;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public long getScanId() {
+            return scanId;
+        }
+
+        public boolean hasCandidate() {
+            return ranking != null && !ranking.isEmpty();
+        }
+
+        /**
+         * Ranking top-k de la candidata actual (copia propia; no debe modificarse), o null
+         */
+        public ClassificationResult getRanking() {
+            return ranking;
+        }
+
+        public String getCandidateLabel() {
+            return hasCandidate() ? ranking.getLabel(0) : null;
+        }
+
+        public float getCandidateScore() {
+            return hasCandidate() ? ranking.getScore(0) : 0f;
+        }
+
+        public String getLockedLabel() {
+            return lockedLabel;
+        }
+
+        public float getLockedScore() {
+            return lockedScore;
+        }
+
+        /**
+         * Modelo (ml_models.id) que produjo la detección bloqueada
+         */
+        public int getLockedModelId() {
+            return lockedModelId;
+        }
+
+        private Snapshot with(State newState) {
+            return new Snapshot(newState, scanId, ranking, lockedLabel, lockedScore, lockedModelId);
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{" + state + ", scan=" + scanId + ", ranking=" + ranking
+                    + ", locked=" + lockedLabel + "}";
+        }
+    }
+
+    private final Executor uiExecutor;
+    private final Listener listener;
+    private final PipelineMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final ExecutorService analyzerExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicReference<Snapshot> current =
+            new AtomicReference<>(new Snapshot(State.PAUSED, 0, null, null, 0f, -1));
+
+    public DetectionController(Executor uiExecutor, Listener listener, PipelineMetrics metrics,
+                               LongSupplier nanoClock) {
+        this.uiExecutor = uiExecutor;
+        this.listener = listener;
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Executor único del analizador de CameraX
+     */
+    public ExecutorService getAnalyzerExecutor() {
+        return analyzerExecutor;
+    }
+
+    /**
+     * Empieza un escaneo nuevo desde cualquier estado (descarta candidata y bloqueo)
+     *
+     * @return id del escaneo
+     */
+    public long startScan() {
+        while (true) {
+            Snapshot previous = current.get();
+            Snapshot next = new Snapshot(State.SCANNING, previous.scanId + 1, null, null, 0f, -1);
+            if (current.compareAndSet(previous, next)) {
+                publish(next);
+                return next.scanId;
+            }
+        }
+    }
+
+    /**
+     * Apaga el analizador sin perder el escaneo en curso (por ejemplo, en onPause)
+     */
+    public void pause() {
+        transition(State.SCANNING, State.PAUSED);
+    }
+
+    /**
+     * Continúa el escaneo pausado con la misma candidata
+     */
+    public void resume() {
+        transition(State.PAUSED, State.SCANNING);
+    }
+
+    private void transition(State from, State to) {
+        while (true) {
+            Snapshot previous = current.get();
+            if (previous.state != from) {
+                return;
+            }
+            Snapshot next = previous.with(to);
+            if (current.compareAndSet(previous, next)) {
+                publish(next);
+                return;
+            }
+        }
+    }
+
+    /**
+     * El analizador solo procesa frames mientras se escanea
+     */
+    public boolean isAnalyzing() {
+        return current.get().state == State.SCANNING;
+    }
+
+    public long getScanId() {
+        return current.get().scanId;
+    }
+
+    public Snapshot getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * La candidata cambió (hilo del analizador). Se copia el ranking porque el analizador lo reutiliza.
+     *
+     * @return false si el escaneo ya no es el actual o no se está escaneando
+     */
+    public boolean reportCandidate(long scanId, ClassificationResult ranking) {
+        ClassificationResult copy = ranking.copy();
+        while (true) {
+            Snapshot previous = current.get();
+            if (previous.scanId != scanId || previous.state != State.SCANNING) {
+                return false;
+            }
+            Snapshot next = new Snapshot(State.SCANNING, scanId, copy, null, 0f, -1);
+            if (current.compareAndSet(previous, next)) {
+                publish(next);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Una fruta quedó confirmada (hilo del analizador); el analizador se apaga hasta el próximo escaneo
+     *
+     * @return false si el escaneo ya no es el actual o no se está escaneando
+     */
+    public boolean reportLock(long scanId, String label, float score, int modelId) {
+        while (true) {
+            Snapshot previous = current.get();
+            if (previous.scanId != scanId || previous.state != State.SCANNING) {
+                return false;
+            }
+            Snapshot next = new Snapshot(State.LOCKED, scanId, previous.ranking, label, score, modelId);
+            if (current.compareAndSet(previous, next)) {
+                publish(next);
+                return true;
+            }
+        }
+    }
+
+    private void publish(Snapshot snapshot) {
+        long postedAt = nanoClock.getAsLong();
+        uiExecutor.execute(() -> {
+            // Si ya hay un estado más nuevo, su propia publicación lo entregará
+            if (current.get() != snapshot) {
+                return;
+            }
+            metrics.recordDispatch(nanoClock.getAsLong() - postedAt);
+            listener.onDetectionStateChanged(snapshot);
+        });
+    }
+
+    /**
+     * Detiene el analizador; los frames en cola se descartan
+     */
+    public void shutdown() {
+        transition(State.SCANNING, State.PAUSED);
+        analyzerExecutor.shutdown();
+    }
+}
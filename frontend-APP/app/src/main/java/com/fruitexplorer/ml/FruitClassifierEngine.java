@@ -0,0 +1,389 @@
+package com.fruitexplorer.ml;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.os.Build;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+/**
+ * Motor de clasificación de frutas compartido por todo el proceso:
+ * - Mapea en memoria el modelo descargado instalado o, si no hay, model.tflite
+ * - Lee labels.txt una sola vez
+ * - Elige el delegado más rápido del dispositivo (calibración solo la primera vez)
+ * - Precalienta el intérprete en un hilo de fondo
+ * - Entrega el mismo intérprete a todos los FruitAnalyzer
+ * - Cambia de modelo en caliente (ModelRegistry) sin reiniciar la cámara
+ */
+public class FruitClassifierEngine {
+    private static final String TAG = "FruitClassifierEngine";
+
+    private static final String MODEL_FILE = "model.tflite";
+    private static final String LABELS_FILE = "labels.txt";
+    private static final String MODELS_DIR = "models";
+
+    // Id en ml_models del modelo incluido en assets
+    public static final int BUNDLED_MODEL_ID = 1;
+
+    // Hilos máximos para clasificar lotes de imágenes de la galería
+    private static final int MAX_BATCH_THREADS = 2;
+
+    // Resultados por frame; el umbral de confianza lo aplica DetectionConfirmer sobre puntajes suavizados
+    public static final int TOP_K = 3;
+
+    // Tamaño de entrada del modelo (1 x 224 x 224 x 3, uint8)
+    public static final int MODEL_INPUT_SIZE = 224;
+
+    private static volatile FruitClassifierEngine instance = null;
+
+    private final Context appContext;
+    private final CountDownLatch readyLatch = new CountDownLatch(1);
+    private final ExecutorService initExecutor = Executors.newSingleThreadExecutor();
+    private final ModelStore modelStore;
+    private final ModelPreferences modelPreferences;
+    private final IntFunction<String> labelNames = this::getLabel;
+
+    // Se reemplaza en swapModel(); volatile para que isReady() vea el cambio sin bloquear
+    private volatile InferenceBackend backend;
+    private volatile int modelId = BUNDLED_MODEL_ID;
+    private volatile MappedByteBuffer activeModel;
+    private DelegateConfig delegateConfig;
+    private float[] scores;
+    private List<String> labels = Collections.emptyList();
+
+    /**
+     * Obtiene la instancia del motor.
+     * La primera llamada dispara la carga y el precalentamiento en segundo plano.
+     */
+    public static FruitClassifierEngine getInstance(Context context) {
+        if (instance == null) {
+            synchronized (FruitClassifierEngine.class) {
+                if (instance == null) {
+                    instance = new FruitClassifierEngine(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private FruitClassifierEngine(Context appContext) {
+        this.appContext = appContext;
+        this.modelStore = new ModelStore(new File(appContext.getFilesDir(), MODELS_DIR));
+        this.modelPreferences = new ModelPreferences(appContext);
+        initExecutor.execute(this::initialize);
+    }
+
+    private void initialize() {
+        long start = System.currentTimeMillis();
+        try {
+            ByteBuffer sampleInput = createBlankInput();
+            labels = loadLabels();
+
+            InferenceBackend selected = selectInstalledModel(sampleInput);
+            if (selected == null) {
+                selected = selectBackend(loadModelFile(), sampleInput);
+                modelId = BUNDLED_MODEL_ID;
+            }
+
+            scores = new float[selected.getClassCount()];
+            selected.run(sampleInput, scores);
+            backend = selected;
+            Log.i(TAG, "Clasificador listo (modelo " + modelId + ") con " + delegateConfig + " en "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (IOException | IllegalStateException e) {
+            backend = null;
+            Log.e(TAG, "Error al inicializar el intérprete de TFLite.", e);
+        } finally {
+            readyLatch.countDown();
+            initExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Intenta abrir el modelo descargado que dejó instalado ModelRegistry.
+     * Si falta o ya no sirve, se descarta y se vuelve al modelo incluido.
+     */
+    private InferenceBackend selectInstalledModel(ByteBuffer sampleInput) {
+        int installedId = modelPreferences.getInstalledModelId();
+        if (installedId == ModelPreferences.NO_MODEL) {
+            return null;
+        }
+        File modelFile = modelStore.fileFor(installedId);
+        try {
+            InferenceBackend selected = selectBackend(ModelStore.map(modelFile), sampleInput);
+            if (selected.getClassCount() == labels.size()) {
+                modelId = installedId;
+                return selected;
+            }
+            selected.close();
+            Log.w(TAG, "El modelo " + installedId + " no coincide con labels.txt");
+        } catch (IOException | IllegalStateException e) {
+            Log.w(TAG, "No se pudo abrir el modelo descargado " + installedId, e);
+        }
+        modelPreferences.clear();
+        modelFile.delete();
+        return null;
+    }
+
+    private InferenceBackend selectBackend(MappedByteBuffer model, ByteBuffer sampleInput) {
+        DelegateSelector selector = new DelegateSelector(
+                config -> new TfliteBackend(model, config),
+                new DelegatePreferences(appContext),
+                System::nanoTime,
+                DelegateConfig.defaultCandidates(Runtime.getRuntime().availableProcessors()));
+        InferenceBackend selected = selector.select(Build.MODEL, sampleInput);
+        activeModel = model;
+        delegateConfig = selector.getSelectedConfig();
+        logCalibration(selector.getCalibrationResults());
+        return selected;
+    }
+
+    /**
+     * Mapea el modelo en memoria en lugar de copiarlo al heap
+     */
+    private MappedByteBuffer loadModelFile() throws IOException {
+        try (AssetFileDescriptor fileDescriptor = appContext.getAssets().openFd(MODEL_FILE);
+             FileInputStream inputStream = new FileInputStream(fileDescriptor.getFileDescriptor());
+             FileChannel fileChannel = inputStream.getChannel()) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY,
+                    fileDescriptor.getStartOffset(), fileDescriptor.getDeclaredLength());
+        }
+    }
+
+    private List<String> loadLabels() {
+        List<String> loaded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(appContext.getAssets().open(LABELS_FILE)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                loaded.add(line);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Error al cargar el archivo de etiquetas (labels.txt).", e);
+        }
+        return Collections.unmodifiableList(loaded);
+    }
+
+    private static ByteBuffer createBlankInput() {
+        return ByteBuffer.allocateDirect(MODEL_INPUT_SIZE * MODEL_INPUT_SIZE * 3)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    private void logCalibration(Map<DelegateConfig, Long> results) {
+        if (results.isEmpty()) {
+            Log.d(TAG, "Delegado tomado de la calibración guardada");
+            return;
+        }
+        for (Map.Entry<DelegateConfig, Long> entry : results.entrySet()) {
+            Log.d(TAG, "Calibración " + entry.getKey() + ": " + (entry.getValue() / 1000) + " µs");
+        }
+    }
+
+    /**
+     * Reemplaza el modelo en uso por uno descargado, sin detener el análisis:
+     * - El intérprete nuevo se crea y precalienta fuera del candado
+     * - El cambio de intérprete es atómico respecto a classify()
+     * - Usa el delegado ya calibrado; si no inicializa, prueba CPU con un hilo
+     * Debe llamarse desde un hilo de fondo (espera a que termine la carga inicial).
+     *
+     * @return true si el modelo quedó activo
+     */
+    public boolean swapModel(int newModelId, File modelFile) {
+        if (!awaitReady()) {
+            return false;
+        }
+
+        InferenceBackend candidate = null;
+        try {
+            MappedByteBuffer model = ModelStore.map(modelFile);
+            candidate = createSwapBackend(model);
+            if (candidate.getClassCount() != labels.size()) {
+                throw new IllegalStateException("El modelo tiene " + candidate.getClassCount()
+                        + " clases y labels.txt " + labels.size());
+            }
+            float[] candidateScores = new float[candidate.getClassCount()];
+            candidate.run(createBlankInput(), candidateScores);
+
+            InferenceBackend previous;
+            synchronized (this) {
+                previous = backend;
+                backend = candidate;
+                activeModel = model;
+                scores = candidateScores;
+                modelId = newModelId;
+            }
+            previous.close();
+            Log.i(TAG, "Modelo " + newModelId + " activo con " + delegateConfig);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            if (candidate != null) {
+                candidate.close();
+            }
+            Log.e(TAG, "No se pudo activar el modelo " + newModelId, e);
+            return false;
+        }
+    }
+
+    private InferenceBackend createSwapBackend(MappedByteBuffer model) {
+        try {
+            return new TfliteBackend(model, delegateConfig);
+        } catch (RuntimeException | LinkageError e) {
+            Log.w(TAG, "El delegado " + delegateConfig + " no acepta el modelo nuevo, se usa CPU", e);
+            return new TfliteBackend(model, new DelegateConfig(DelegateConfig.Type.CPU, 1));
+        }
+    }
+
+    /**
+     * Espera a que termine la carga inicial; hasta entonces getModelId() puede no ser el instalado.
+     * Solo desde un hilo de fondo.
+     *
+     * @return true si el modelo quedó listo (false si la carga falló o se interrumpió la espera)
+     */
+    public boolean awaitReady() {
+        try {
+            readyLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return isReady();
+    }
+
+    /**
+     * Indica si el modelo ya terminó de cargarse y precalentarse
+     */
+    public boolean isReady() {
+        return readyLatch.getCount() == 0 && backend != null;
+    }
+
+    /**
+     * Clasifica una entrada RGB uint8 de MODEL_INPUT_SIZE x MODEL_INPUT_SIZE y escribe
+     * las TOP_K mejores clases, ordenadas por puntaje, sin asignar memoria.
+     * Devuelve 0 mientras el motor no esté listo, para no bloquear el hilo del analizador.
+     * El intérprete no es thread-safe, por eso el acceso se serializa.
+     *
+     * @return cuántas posiciones de topLabels/topScores se llenaron
+     */
+    public synchronized int classify(ByteBuffer input, int[] topLabels, float[] topScores) {
+        if (!isReady()) {
+            return 0;
+        }
+        backend.run(input, scores);
+        return selectTopK(scores, topLabels, topScores);
+    }
+
+    static int selectTopK(float[] scores, int[] topLabels, float[] topScores) {
+        int count = Math.min(Math.min(topLabels.length, topScores.length), scores.length);
+        for (int k = 0; k < count; k++) {
+            int best = -1;
+            for (int i = 0; i < scores.length; i++) {
+                if (isTaken(topLabels, k, i)) {
+                    continue;
+                }
+                if (best == -1 || scores[i] > scores[best]) {
+                    best = i;
+                }
+            }
+            topLabels[k] = best;
+            topScores[k] = scores[best];
+        }
+        return count;
+    }
+
+    private static boolean isTaken(int[] topLabels, int filled, int label) {
+        for (int j = 0; j < filled; j++) {
+            if (topLabels[j] == label) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Clasifica una entrada y escribe el ranking top-k en result, sin asignar memoria.
+     *
+     * @return false si el motor aún no está listo (result queda vacío)
+     */
+    public synchronized boolean classify(ByteBuffer input, ClassificationResult result) {
+        if (!isReady()) {
+            result.clear();
+            return false;
+        }
+        backend.run(input, scores);
+        result.setTopK(scores, labelNames);
+        return true;
+    }
+
+    /**
+     * Crea un clasificador por lotes sobre el modelo activo, con su propio pool de hilos
+     * e intérpretes (no compite por el candado de classify() con la cámara).
+     * Cada intérprete usa XNNPACK con un hilo: el paralelismo lo da el pool.
+     *
+     * @throws IllegalStateException si el motor aún no está listo
+     */
+    public <T> BatchClassifier<T> newBatchClassifier(BatchClassifier.InputDecoder<T> decoder) {
+        MappedByteBuffer model = activeModel;
+        if (!isReady() || model == null) {
+            throw new IllegalStateException("El clasificador aún no está listo");
+        }
+        int threads = Math.max(1, Math.min(MAX_BATCH_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        return new BatchClassifier<>(
+                config -> new TfliteBackend(model, config),
+                new DelegateConfig(DelegateConfig.Type.XNNPACK, 1),
+                decoder,
+                labelNames,
+                MODEL_INPUT_SIZE,
+                TOP_K,
+                threads);
+    }
+
+    /**
+     * Id en ml_models del modelo que está clasificando (se reporta en queries.model_id)
+     */
+    public int getModelId() {
+        return modelId;
+    }
+
+    ModelStore getModelStore() {
+        return modelStore;
+    }
+
+    ModelPreferences getModelPreferences() {
+        return modelPreferences;
+    }
+
+    /**
+     * Delegado con el que se ejecuta el intérprete, o null si aún no está listo
+     */
+    public DelegateConfig getDelegateConfig() {
+        return delegateConfig;
+    }
+
+    public int getLabelCount() {
+        return labels.size();
+    }
+
+    /**
+     * Obtiene la etiqueta para un índice de categoría, o null si está fuera de rango
+     */
+    public String getLabel(int index) {
+        return (index >= 0 && index < labels.size()) ? labels.get(index) : null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.fruitexplorer.ml;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.ImageDecoder;
+import android.net.Uri;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodifica imágenes de la galería directamente al tamaño del modelo:
+ * - ImageDecoder reduce la imagen al decodificar y respeta la orientación EXIF
+ * - Los píxeles se copian a la entrada RGB uint8 con un arreglo reutilizado por hilo
+ */
+public class GalleryImageDecoder implements BatchClassifier.InputDecoder<Uri> {
+
+    private final ContentResolver contentResolver;
+    private final int size;
+    private final ThreadLocal<int[]> pixels;
+
+    public GalleryImageDecoder(ContentResolver contentResolver, int size) {
+        this.contentResolver = contentResolver;
+        this.size = size;
+        this.pixels = ThreadLocal.withInitial(() -> new int[size * size]);
+    }
+
+    @Override
+    public void decode(Uri source, ByteBuffer input) throws Exception {
+        Bitmap bitmap = ImageDecoder.decodeBitmap(
+                ImageDecoder.createSource(contentResolver, source),
+                (decoder, info, imageSource) -> {
+                    decoder.setTargetSize(size, size);
+                    // Los píxeles se leen desde la CPU, no sirve un bitmap de hardware
+                    decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+                });
+        try {
+            int[] argb = pixels.get();
+            bitmap.getPixels(argb, 0, size, 0, 0, size, size);
+            for (int pixel : argb) {
+                input.put((byte) (pixel >> 16));
+                input.put((byte) (pixel >> 8));
+                input.put((byte) pixel);
+            }
+            input.rewind();
+        } finally {
+            bitmap.recycle();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.fruitexplorer.ml;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Intérprete de clasificación ya configurado con un delegado.
+ * Permite probar la selección de delegados en la JVM con un intérprete falso.
+ */
+public interface InferenceBackend {
+
+    /**
+     * Crea un intérprete para la configuración dada.
+     * Debe lanzar una excepción si el delegado no puede inicializarse.
+     */
+    interface Factory {
+        InferenceBackend create(DelegateConfig config) throws Exception;
+    }
+
+    /**
+     * Número de clases que produce el modelo
+     */
+    int getClassCount();
+
+    /**
+     * Ejecuta una inferencia sobre la entrada RGB uint8 y escribe los puntajes
+     * (0-1) de cada clase en scores, sin asignar memoria.
+     */
+    void run(ByteBuffer input, float[] scores);
+
+    /**
+     * Libera el intérprete y su delegado
+     */
+    void close();
+}
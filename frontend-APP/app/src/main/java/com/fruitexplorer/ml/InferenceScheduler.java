@@ -0,0 +1,182 @@
+package com.fruitexplorer.ml;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decide qué frames de ImageAnalysis llegan al clasificador.
+ * - Limita la inferencia a un FPS objetivo
+ * - Compara una muestra de luminancia con la del último frame clasificado
+ *   (diferencia media absoluta), así también se detectan desplazamientos lentos
+ * - Si la escena sigue quieta tras unas inferencias, las espacia hasta el FPS de reposo
+ * - Ante movimiento, vuelve de inmediato al FPS objetivo
+ * - Lleva la cuenta de frames clasificados y omitidos
+ *
+ * Pensado para usarse desde el único hilo del analizador; los contadores
+ * pueden leerse desde cualquier hilo.
+ */
+public class InferenceScheduler {
+
+    public static final float DEFAULT_TARGET_FPS = 10f;
+    public static final float DEFAULT_IDLE_FPS = 2f;
+    public static final int DEFAULT_MOTION_THRESHOLD = 6;
+
+    // Rejilla de muestreo de luminancia (GRID x GRID puntos)
+    private static final int GRID = 16;
+
+    // Inferencias con la escena quieta a FPS completo antes de empezar a espaciarlas,
+    // para que DetectionConfirmer reúna sus votos sin esperar
+    private static final int STATIC_FRAMES_BEFORE_IDLE = 3;
+
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final int motionThreshold;
+
+    private int[] currentSignature = new int[GRID * GRID];
+    private int[] previousSignature = new int[GRID * GRID];
+    private boolean hasPrevious = false;
+    private int staticStreak = 0;
+
+    private volatile long currentIntervalNanos;
+    private long lastInferenceNanos = Long.MIN_VALUE;
+    private volatile int lastLumaDifference = 0;
+    private volatile boolean resetRequested = false;
+
+    private final AtomicLong classifiedFrames = new AtomicLong();
+    private final AtomicLong skippedFrames = new AtomicLong();
+
+    public InferenceScheduler() {
+        this(DEFAULT_TARGET_FPS, DEFAULT_IDLE_FPS, DEFAULT_MOTION_THRESHOLD);
+    }
+
+    /**
+     * @param targetFps       inferencias por segundo con la escena en movimiento
+     * @param idleFps         inferencias por segundo mínimas con la escena quieta
+     * @param motionThreshold diferencia media de luminancia (0-255) a partir de la cual hay movimiento
+     */
+    public InferenceScheduler(float targetFps, float idleFps, int motionThreshold) {
+        if (targetFps <= 0f || idleFps <= 0f || idleFps > targetFps) {
+            throw new IllegalArgumentException("FPS inválidos: objetivo=" + targetFps + ", reposo=" + idleFps);
+        }
+        this.minIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / targetFps);
+        this.maxIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / idleFps);
+        this.motionThreshold = motionThreshold;
+        this.currentIntervalNanos = minIntervalNanos;
+    }
+
+    /**
+     * Evalúa un frame y decide si debe clasificarse.
+     *
+     * @param yPlane          plano de luminancia (pixelStride 1)
+     * @param yRowStride      rowStride del plano Y
+     * @param width           ancho del frame
+     * @param height          alto del frame
+     * @param timestampNanos  marca de tiempo del frame
+     */
+    public boolean shouldClassify(ByteBuffer yPlane, int yRowStride, int width, int height, long timestampNanos) {
+        if (resetRequested) {
+            resetRequested = false;
+            hasPrevious = false;
+            staticStreak = 0;
+            lastInferenceNanos = Long.MIN_VALUE;
+            currentIntervalNanos = minIntervalNanos;
+        }
+
+        boolean motion = detectMotion(yPlane, yRowStride, width, height);
+
+        if (motion) {
+            staticStreak = 0;
+            currentIntervalNanos = minIntervalNanos;
+        }
+
+        if (lastInferenceNanos != Long.MIN_VALUE && timestampNanos - lastInferenceNanos < currentIntervalNanos) {
+            skippedFrames.incrementAndGet();
+            return false;
+        }
+
+        if (!motion && ++staticStreak >= STATIC_FRAMES_BEFORE_IDLE) {
+            // Escena quieta: cada inferencia sin cambios duplica la espera hasta el FPS de reposo
+            currentIntervalNanos = Math.min(currentIntervalNanos * 2, maxIntervalNanos);
+        }
+        keepSignature();
+        lastInferenceNanos = timestampNanos;
+        classifiedFrames.incrementAndGet();
+        return true;
+    }
+
+    private boolean detectMotion(ByteBuffer yPlane, int yRowStride, int width, int height) {
+        int[] signature = currentSignature;
+        int i = 0;
+        for (int gy = 0; gy < GRID; gy++) {
+            int row = ((2 * gy + 1) * height) / (2 * GRID);
+            for (int gx = 0; gx < GRID; gx++) {
+                int col = ((2 * gx + 1) * width) / (2 * GRID);
+                signature[i++] = yPlane.get(row * yRowStride + col) & 0xFF;
+            }
+        }
+
+        boolean motion;
+        if (!hasPrevious) {
+            motion = true;
+            lastLumaDifference = 255;
+        } else {
+            int total = 0;
+            for (int k = 0; k < signature.length; k++) {
+                total += Math.abs(signature[k] - previousSignature[k]);
+            }
+            lastLumaDifference = total / signature.length;
+            motion = lastLumaDifference >= motionThreshold;
+        }
+
+        return motion;
+    }
+
+    /**
+     * La firma del frame clasificado pasa a ser la referencia para los siguientes
+     */
+    private void keepSignature() {
+        int[] reference = previousSignature;
+        previousSignature = currentSignature;
+        currentSignature = reference;
+        hasPrevious = true;
+    }
+
+    /**
+     * Olvida el historial para que el siguiente frame se clasifique de inmediato
+     * (por ejemplo, al reanudar un escaneo). Los contadores se conservan.
+     * Puede llamarse desde cualquier hilo: se aplica en el siguiente frame.
+     */
+    public void reset() {
+        resetRequested = true;
+    }
+
+    public long getClassifiedFrames() {
+        return classifiedFrames.get();
+    }
+
+    public long getSkippedFrames() {
+        return skippedFrames.get();
+    }
+
+    /**
+     * Última diferencia media de luminancia medida (0-255)
+     */
+    public int getLastLumaDifference() {
+        return lastLumaDifference;
+    }
+
+    /**
+     * FPS de inferencia efectivos en este momento
+     */
+    public float getCurrentInferenceFps() {
+        return TimeUnit.SECONDS.toNanos(1) / (float) currentIntervalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "InferenceScheduler{clasificados=" + getClassifiedFrames()
+                + ", omitidos=" + getSkippedFrames()
+                + ", fps=" + String.format(java.util.Locale.US, "%.1f", getCurrentInferenceFps()) + "}";
+    }
+}
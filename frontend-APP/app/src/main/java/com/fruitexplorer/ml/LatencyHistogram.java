@@ -0,0 +1,106 @@
+package com.fruitexplorer.ml;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias sin candados:
+ * - Cubetas fijas en escala aproximadamente logarítmica (50 µs a ~2 s)
+ * - Cada registro es un par de incrementos atómicos; se puede alimentar desde cualquier hilo
+ * - Los percentiles se aproximan por el límite superior de la cubeta
+ */
+public class LatencyHistogram {
+
+    // Límites superiores de cada cubeta en microsegundos; la última cubeta es abierta
+    private static final long[] BUCKET_LIMITS_MICROS = {
+            50, 100, 250, 500, 1_000, 2_000, 4_000, 8_000, 16_000, 32_000,
+            64_000, 128_000, 256_000, 512_000, 1_024_000, 2_048_000
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_LIMITS_MICROS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public void recordMicros(long micros) {
+        if (micros < 0) {
+            return;
+        }
+        buckets.incrementAndGet(bucketFor(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private static int bucketFor(long micros) {
+        for (int i = 0; i < BUCKET_LIMITS_MICROS.length; i++) {
+            if (micros <= BUCKET_LIMITS_MICROS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_LIMITS_MICROS.length;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMeanMicros() {
+        long n = count.get();
+        return n == 0 ? 0 : totalMicros.get() / n;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Percentil aproximado (límite superior de su cubeta, acotado por el máximo observado)
+     *
+     * @param quantile entre 0 y 1, por ejemplo 0.95
+     */
+    public long getPercentileMicros(double quantile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                long limit = i < BUCKET_LIMITS_MICROS.length ? BUCKET_LIMITS_MICROS[i] : Long.MAX_VALUE;
+                return Math.min(limit, maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Conteos por cubeta, en el orden de getBucketLimitsMicros() más la cubeta abierta
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    public static long[] getBucketLimitsMicros() {
+        return BUCKET_LIMITS_MICROS.clone();
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalMicros.set(0);
+        maxMicros.set(0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.fruitexplorer.ml;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.fruitexplorer.utils.Constants;
+
+/**
+ * Recuerda qué modelo descargado está instalado.
+ * Comparte el archivo de preferencias del clasificador para sobrevivir al cierre de sesión.
+ */
+public class ModelPreferences {
+
+    private static final String KEY_INSTALLED_MODEL_ID = "installed_model_id";
+
+    public static final int NO_MODEL = -1;
+
+    private final SharedPreferences preferences;
+
+    public ModelPreferences(Context context) {
+        this.preferences = context.getSharedPreferences(Constants.ML_PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Id en ml_models del modelo descargado, o NO_MODEL si se usa el incluido en la app
+     */
+    public int getInstalledModelId() {
+        return preferences.getInt(KEY_INSTALLED_MODEL_ID, NO_MODEL);
+    }
+
+    public void setInstalledModelId(int modelId) {
+        preferences.edit().putInt(KEY_INSTALLED_MODEL_ID, modelId).apply();
+    }
+
+    public void clear() {
+        preferences.edit().remove(KEY_INSTALLED_MODEL_ID).apply();
+    }
+}
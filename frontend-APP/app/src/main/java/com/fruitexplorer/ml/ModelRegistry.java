@@ -0,0 +1,151 @@
+package com.fruitexplorer.ml;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.fruitexplorer.api.ApiClient;
+import com.fruitexplorer.api.ApiService;
+import com.fruitexplorer.models.MlModel;
+import com.fruitexplorer.models.MlModelResponse;
+import com.fruitexplorer.utils.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * Registro de modelos del lado del cliente, respaldado por la tabla ml_models:
+ * - Consulta el modelo activo más reciente (de esa versión, prefiere el int8)
+ * - Lo descarga en segundo plano y verifica su SHA-256 antes de instalarlo; tflite_url puede ser
+ *   otro host, así que la descarga usa ApiClient.getDownloadClient (sin el token de la sesión)
+ * - Lo activa en FruitClassifierEngine sin reiniciar la cámara
+ * - Recuerda el modelo instalado para los siguientes arranques
+ * La comprobación se hace una vez por proceso.
+ */
+public class ModelRegistry {
+    private static final String TAG = "ModelRegistry";
+
+    // Nombre del clasificador en ml_models
+    public static final String MODEL_NAME = "fruit-classifier";
+
+    // Más pequeño y rápido en CPU/NNAPI; el backend devuelve float32 si la última versión no tiene int8
+    private static final String PREFERRED_QUANTIZATION = "int8";
+
+    private static volatile ModelRegistry instance = null;
+
+    private final Context appContext;
+    private final FruitClassifierEngine engine;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean checkStarted = new AtomicBoolean(false);
+
+    public static ModelRegistry getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ModelRegistry.class) {
+                if (instance == null) {
+                    instance = new ModelRegistry(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private ModelRegistry(Context appContext) {
+        this.appContext = appContext;
+        this.engine = FruitClassifierEngine.getInstance(appContext);
+    }
+
+    /**
+     * Busca un modelo nuevo en segundo plano. Las llamadas siguientes no hacen nada.
+     */
+    public void checkForUpdatesInBackground() {
+        if (!checkStarted.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                checkForUpdates();
+            } finally {
+                executor.shutdown();
+            }
+        });
+    }
+
+    private void checkForUpdates() {
+        if (!ApiClient.isNetworkAvailable(appContext)) {
+            Log.d(TAG, "Sin conexión, se mantiene el modelo " + engine.getModelId());
+            return;
+        }
+
+        ApiService apiService = ApiClient.getApiService(appContext);
+        MlModel latest;
+        try {
+            Response<MlModelResponse> response =
+                    apiService.getLatestModel(MODEL_NAME, PREFERRED_QUANTIZATION).execute();
+            if (!response.isSuccessful() || response.body() == null || response.body().getModel() == null) {
+                Log.d(TAG, "No hay modelo publicado. Código: " + response.code());
+                return;
+            }
+            latest = response.body().getModel();
+        } catch (IOException e) {
+            Log.w(TAG, "Error al consultar ml_models", e);
+            return;
+        }
+
+        // Antes de terminar la carga, getModelId() aún es el del modelo incluido en el APK
+        if (!engine.awaitReady()) {
+            Log.w(TAG, "El clasificador no cargó, no se instala el modelo " + latest.getId());
+            return;
+        }
+        if (latest.getId() == engine.getModelId()) {
+            Log.d(TAG, "El modelo " + latest.getId() + " ya está activo");
+            return;
+        }
+
+        ModelStore store = engine.getModelStore();
+        File modelFile = store.fileFor(latest.getId());
+        if (!modelFile.exists()) {
+            try {
+                modelFile = download(store, latest);
+            } catch (IOException e) {
+                Log.e(TAG, "No se pudo instalar el modelo " + latest.getId(), e);
+                return;
+            }
+        }
+
+        if (engine.swapModel(latest.getId(), modelFile)) {
+            engine.getModelPreferences().setInstalledModelId(latest.getId());
+            store.deleteAllExcept(latest.getId());
+            Log.i(TAG, "Instalado " + latest.getName() + " " + latest.getVersion()
+                    + " (" + latest.getQuantization() + ")");
+        } else {
+            // Se vuelve a intentar en el próximo arranque con una descarga limpia
+            modelFile.delete();
+        }
+    }
+
+    private File download(ModelStore store, MlModel model) throws IOException {
+        // Una ruta relativa se resuelve contra la API, como hacía Retrofit con @Url
+        HttpUrl url = HttpUrl.get(Constants.API_BASE_URL).resolve(model.getTfliteUrl());
+        if (url == null) {
+            throw new IOException("URL de modelo inválida: " + model.getTfliteUrl());
+        }
+        Request request = new Request.Builder().url(url).build();
+        try (okhttp3.Response response = ApiClient.getDownloadClient(appContext).newCall(request).execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("Descarga fallida. Código: " + response.code());
+            }
+            try (InputStream source = body.byteStream()) {
+                return store.install(model.getId(), source, model.getChecksumSha256());
+            }
+        }
+    }
+}
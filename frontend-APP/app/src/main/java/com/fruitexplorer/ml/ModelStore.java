@@ -0,0 +1,130 @@
+package com.fruitexplorer.ml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Modelos descargados en el almacenamiento de la app:
+ * - Escribe la descarga en un archivo temporal calculando su SHA-256 al vuelo
+ * - Solo publica el archivo (renombrado atómico) si el checksum coincide
+ * - Mapea el modelo en memoria para el intérprete
+ *
+ * Sin dependencias de Android: el directorio se inyecta.
+ */
+public class ModelStore {
+
+    private static final String FILE_PREFIX = "model_";
+    private static final String FILE_SUFFIX = ".tflite";
+    private static final String TEMP_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final File directory;
+
+    public ModelStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Archivo donde vive (o vivirá) el modelo con ese id
+     */
+    public File fileFor(int modelId) {
+        return new File(directory, FILE_PREFIX + modelId + FILE_SUFFIX);
+    }
+
+    /**
+     * Copia el flujo a disco y verifica el checksum antes de publicarlo.
+     *
+     * @param expectedSha256 SHA-256 en hexadecimal publicado en ml_models
+     * @return el archivo instalado
+     * @throws IOException si falla la escritura o el checksum no coincide (no queda nada en disco)
+     */
+    public File install(int modelId, InputStream source, String expectedSha256) throws IOException {
+        if (expectedSha256 == null || expectedSha256.length() != 64) {
+            throw new IOException("El modelo " + modelId + " no tiene un checksum SHA-256 válido");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("No se pudo crear " + directory);
+        }
+
+        File target = fileFor(modelId);
+        File temp = new File(directory, target.getName() + TEMP_SUFFIX);
+        MessageDigest digest = newSha256();
+
+        try (OutputStream out = new FileOutputStream(temp)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = source.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        String actual = toHex(digest.digest());
+        if (!actual.equalsIgnoreCase(expectedSha256)) {
+            temp.delete();
+            throw new IOException("Checksum del modelo " + modelId + " no coincide: " + actual);
+        }
+
+        Files.move(temp.toPath(), target.toPath(),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    /**
+     * Mapea el modelo en memoria en lugar de copiarlo al heap
+     */
+    public static MappedByteBuffer map(File modelFile) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(modelFile);
+             FileChannel fileChannel = inputStream.getChannel()) {
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+        }
+    }
+
+    /**
+     * Borra los modelos y descargas a medias que no sean el activo.
+     * Un modelo ya mapeado sigue siendo válido aunque se borre su archivo.
+     */
+    public void deleteAllExcept(int activeModelId) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        String keep = fileFor(activeModelId).getName();
+        for (File file : files) {
+            if (file.getName().startsWith(FILE_PREFIX) && !file.getName().equals(keep)) {
+                file.delete();
+            }
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 es obligatorio en toda JVM y en Android
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            builder.append(String.format(Locale.US, "%02x", b));
+        }
+        return builder.toString();
+    }
+}
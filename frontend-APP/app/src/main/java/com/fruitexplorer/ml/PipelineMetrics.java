@@ -0,0 +1,220 @@
+package com.fruitexplorer.ml;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métricas del pipeline de la cámara, sin candados:
+ * - Histogramas por etapa: conversión YUV, inferencia, entrega a la UI y tiempo hasta bloquear
+ * - Contadores de frames: recibidos, clasificados, omitidos por el planificador,
+ *   descartados mientras carga el modelo, frenados por el controlador (pausa o fruta bloqueada)
+ *   y perdidos por la cámara
+ * - Snapshot JSON para adjuntar a reportes de errores
+ *
+ * Los frames perdidos por la cámara (backpressure KEEP_ONLY_LATEST) se estiman a partir de
+ * los saltos en las marcas de tiempo respecto al intervalo más corto observado.
+ */
+public class PipelineMetrics {
+
+    // Intervalos menores se consideran ruido del sensor y no definen la cadencia
+    private static final long MIN_FRAME_INTERVAL_NANOS = 1_000_000L;
+    // Un salto mayor a 1.5 intervalos implica al menos un frame perdido
+    private static final double DROP_GAP_FACTOR = 1.5;
+    // Saltos de más de un segundo son pausas o reinicios de la cámara, no pérdidas
+    private static final long SESSION_GAP_NANOS = 1_000_000_000L;
+
+    private final LatencyHistogram conversion = new LatencyHistogram();
+    private final LatencyHistogram inference = new LatencyHistogram();
+    private final LatencyHistogram dispatch = new LatencyHistogram();
+    private final LatencyHistogram timeToLock = new LatencyHistogram();
+
+    private final AtomicLong framesReceived = new AtomicLong();
+    private final AtomicLong framesClassified = new AtomicLong();
+    private final AtomicLong framesSkipped = new AtomicLong();
+    private final AtomicLong framesDroppedLoading = new AtomicLong();
+    private final AtomicLong framesGated = new AtomicLong();
+    private final AtomicLong framesDroppedByCamera = new AtomicLong();
+
+    private final AtomicLong lastFrameTimestamp = new AtomicLong(-1);
+    private final AtomicLong frameIntervalNanos = new AtomicLong(Long.MAX_VALUE);
+
+    /**
+     * Registra la llegada de un frame al analizador
+     *
+     * @param timestampNanos marca de tiempo del sensor
+     */
+    public void onFrameReceived(long timestampNanos) {
+        framesReceived.incrementAndGet();
+        long previous = lastFrameTimestamp.getAndSet(timestampNanos);
+        if (previous < 0) {
+            return;
+        }
+        long gap = timestampNanos - previous;
+        if (gap < MIN_FRAME_INTERVAL_NANOS || gap > SESSION_GAP_NANOS) {
+            return;
+        }
+        long interval = frameIntervalNanos.accumulateAndGet(gap, Math::min);
+        if (gap > interval * DROP_GAP_FACTOR) {
+            framesDroppedByCamera.addAndGet(Math.round((double) gap / interval) - 1);
+        }
+    }
+
+    public void onFrameSkipped() {
+        framesSkipped.incrementAndGet();
+    }
+
+    public void onFrameDroppedWhileLoading() {
+        framesDroppedLoading.incrementAndGet();
+    }
+
+    /**
+     * El controlador no estaba escaneando (pausa o fruta bloqueada)
+     */
+    public void onFrameGated() {
+        framesGated.incrementAndGet();
+    }
+
+    /**
+     * Un frame pasó por el clasificador (con uno o varios recortes)
+     */
+    public void onFrameClassified() {
+        framesClassified.incrementAndGet();
+    }
+
+    public void recordConversion(long nanos) {
+        conversion.recordNanos(nanos);
+    }
+
+    public void recordInference(long nanos) {
+        inference.recordNanos(nanos);
+    }
+
+    /**
+     * Tiempo entre que el analizador publica un resultado y la UI lo procesa
+     */
+    public void recordDispatch(long nanos) {
+        dispatch.recordNanos(nanos);
+    }
+
+    /**
+     * Tiempo desde el primer frame de un escaneo hasta que la fruta quedó bloqueada
+     */
+    public void recordTimeToLock(long nanos) {
+        timeToLock.recordNanos(nanos);
+    }
+
+    public LatencyHistogram getConversion() {
+        return conversion;
+    }
+
+    public LatencyHistogram getInference() {
+        return inference;
+    }
+
+    public LatencyHistogram getDispatch() {
+        return dispatch;
+    }
+
+    public LatencyHistogram getTimeToLock() {
+        return timeToLock;
+    }
+
+    public long getFramesReceived() {
+        return framesReceived.get();
+    }
+
+    public long getFramesClassified() {
+        return framesClassified.get();
+    }
+
+    public long getFramesSkipped() {
+        return framesSkipped.get();
+    }
+
+    public long getFramesDroppedByCamera() {
+        return framesDroppedByCamera.get();
+    }
+
+    /**
+     * Texto corto para la capa de depuración sobre la vista previa
+     */
+    public String toOverlayText() {
+        return String.format(Locale.US,
+                "conv   p50 %s  p95 %s%ninfer  p50 %s  p95 %s%nui     p50 %s  p95 %s%nlock   p50 %s  n=%d%n"
+                        + "frames %d  clasif %d  omit %d  perd %d",
+                millis(conversion.getPercentileMicros(0.5)), millis(conversion.getPercentileMicros(0.95)),
+                millis(inference.getPercentileMicros(0.5)), millis(inference.getPercentileMicros(0.95)),
+                millis(dispatch.getPercentileMicros(0.5)), millis(dispatch.getPercentileMicros(0.95)),
+                millis(timeToLock.getPercentileMicros(0.5)), timeToLock.getCount(),
+                framesReceived.get(), framesClassified.get(), framesSkipped.get(), framesDroppedByCamera.get());
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.US, "%.1fms", micros / 1000.0);
+    }
+
+    /**
+     * Snapshot de todas las métricas. Es una lectura sin candados: los valores pueden
+     * corresponder a instantes ligeramente distintos.
+     */
+    public JsonObject toJson() {
+        JsonObject stages = new JsonObject();
+        stages.add("conversion", histogramJson(conversion));
+        stages.add("inference", histogramJson(inference));
+        stages.add("dispatch", histogramJson(dispatch));
+        stages.add("time_to_lock", histogramJson(timeToLock));
+
+        JsonObject frames = new JsonObject();
+        frames.addProperty("received", framesReceived.get());
+        frames.addProperty("classified", framesClassified.get());
+        frames.addProperty("skipped_by_scheduler", framesSkipped.get());
+        frames.addProperty("dropped_while_loading", framesDroppedLoading.get());
+        frames.addProperty("gated_by_controller", framesGated.get());
+        frames.addProperty("dropped_by_camera", framesDroppedByCamera.get());
+
+        JsonObject json = new JsonObject();
+        json.add("stages", stages);
+        json.add("frames", frames);
+        return json;
+    }
+
+    private static JsonObject histogramJson(LatencyHistogram histogram) {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", histogram.getCount());
+        json.addProperty("mean_us", histogram.getMeanMicros());
+        json.addProperty("p50_us", histogram.getPercentileMicros(0.5));
+        json.addProperty("p95_us", histogram.getPercentileMicros(0.95));
+        json.addProperty("p99_us", histogram.getPercentileMicros(0.99));
+        json.addProperty("max_us", histogram.getMaxMicros());
+
+        JsonArray limits = new JsonArray();
+        for (long limit : LatencyHistogram.getBucketLimitsMicros()) {
+            limits.add(limit);
+        }
+        JsonArray counts = new JsonArray();
+        for (long count : histogram.getBucketCounts()) {
+            counts.add(count);
+        }
+        json.add("bucket_limits_us", limits);
+        json.add("bucket_counts", counts);
+        return json;
+    }
+
+    public void reset() {
+        conversion.reset();
+        inference.reset();
+        dispatch.reset();
+        timeToLock.reset();
+        framesReceived.set(0);
+        framesClassified.set(0);
+        framesSkipped.set(0);
+        framesDroppedLoading.set(0);
+        framesGated.set(0);
+        framesDroppedByCamera.set(0);
+        lastFrameTimestamp.set(-1);
+        frameIntervalNanos.set(Long.MAX_VALUE);
+    }
+}
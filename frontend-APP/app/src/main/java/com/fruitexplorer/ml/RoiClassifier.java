@@ -0,0 +1,205 @@
+package com.fruitexplorer.ml;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Clasifica regiones de interés del frame en lugar del frame completo, para que una fruta
+ * pequeña (un aguaje en un puesto del mercado) ocupe más píxeles de la entrada del modelo:
+ * - Primero el recorte cuadrado de la retícula central
+ * - Opcionalmente, el frame en dos escalas: completo y en 2x2 mosaicos solapados, solo cuando la
+ *   retícula no alcanza multiScaleBelowScore (por defecto no se usan: una inferencia por frame)
+ * - Gana el recorte con el mejor puntaje top-1
+ * - Se detiene antes de exceder el presupuesto de tiempo por frame (la retícula siempre se evalúa)
+ *
+ * Cada recorte tiene su propio preprocesador (tablas de muestreo precalculadas) y todos
+ * escriben en la misma entrada del modelo. Sin asignaciones por frame ni dependencias de Android.
+ * No es thread-safe: se usa desde el hilo del analizador.
+ */
+public class RoiClassifier {
+
+    /**
+     * Clasificador compartido (FruitClassifierEngine::classify)
+     */
+    public interface CropClassifier {
+        int classify(ByteBuffer input, int[] topLabels, float[] topScores);
+    }
+
+    // Lado de la retícula respecto al lado corto del frame
+    public static final float DEFAULT_RETICLE_FRACTION = 0.6f;
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 60_000_000L;
+
+    // Valores de multiScaleBelowScore: nunca evaluar otras escalas, o evaluarlas siempre
+    public static final float RETICLE_ONLY = 0f;
+    public static final float ALWAYS_MULTI_SCALE = Float.MAX_VALUE;
+
+    // Cada mosaico de la escala fina cubre este tanto de cada dimensión (se solapan al centro)
+    private static final float TILE_FRACTION = 0.6f;
+
+    // Peso de la última medición en el costo estimado por recorte
+    private static final float COST_SMOOTHING = 0.3f;
+
+    private final CropClassifier classifier;
+    private final PipelineMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final int inputSize;
+    private final float reticleFraction;
+    private final float multiScaleBelowScore;
+    private final long frameBudgetNanos;
+
+    private final ByteBuffer input;
+    private final List<YuvPreprocessor> crops = new ArrayList<>();
+    private final int[] cropLabels;
+    private final float[] cropScores;
+
+    private int configuredWidth = -1;
+    private int configuredHeight = -1;
+    private long estimatedCropNanos = 0;
+    private int lastCropsEvaluated = 0;
+    private int lastBestCrop = -1;
+
+    public RoiClassifier(CropClassifier classifier, PipelineMetrics metrics, LongSupplier nanoClock,
+                         int inputSize, int topK) {
+        this(classifier, metrics, nanoClock, inputSize, topK,
+                DEFAULT_RETICLE_FRACTION, RETICLE_ONLY, DEFAULT_FRAME_BUDGET_NANOS);
+    }
+
+    /**
+     * @param reticleFraction  lado de la retícula central respecto al lado corto del frame (0-1]
+     * @param multiScaleBelowScore evaluar también el frame completo y los mosaicos 2x2 cuando el top-1
+     *                         de la retícula queda por debajo (p. ej. el umbral de bloqueo de
+     *                         DetectionConfirmer); RETICLE_ONLY o ALWAYS_MULTI_SCALE
+     * @param frameBudgetNanos tiempo máximo de conversión + inferencia por frame
+     */
+    public RoiClassifier(CropClassifier classifier, PipelineMetrics metrics, LongSupplier nanoClock,
+                         int inputSize, int topK, float reticleFraction, float multiScaleBelowScore,
+                         long frameBudgetNanos) {
+        if (reticleFraction <= 0f || reticleFraction > 1f || frameBudgetNanos <= 0) {
+            throw new IllegalArgumentException("Configuración de ROI inválida");
+        }
+        this.classifier = classifier;
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+        this.inputSize = inputSize;
+        this.reticleFraction = reticleFraction;
+        this.multiScaleBelowScore = multiScaleBelowScore;
+        this.frameBudgetNanos = frameBudgetNanos;
+        this.input = ByteBuffer.allocateDirect(inputSize * inputSize * 3).order(ByteOrder.nativeOrder());
+        this.cropLabels = new int[topK];
+        this.cropScores = new float[topK];
+    }
+
+    /**
+     * Evalúa los recortes del frame y copia el top-k del mejor en topLabels/topScores.
+     *
+     * @return cuántas posiciones se llenaron (0 si el clasificador no está listo)
+     */
+    public int classify(ByteBuffer yPlane, int yRowStride, ByteBuffer uPlane, ByteBuffer vPlane,
+                        int uvRowStride, int uvPixelStride, int width, int height, int rotationDegrees,
+                        int[] topLabels, float[] topScores) {
+        if (width != configuredWidth || height != configuredHeight) {
+            configureCrops(width, height);
+        }
+
+        long frameStart = nanoClock.getAsLong();
+        int bestCount = 0;
+        float bestScore = -1f;
+        lastBestCrop = -1;
+        lastCropsEvaluated = 0;
+
+        for (int i = 0; i < crops.size(); i++) {
+            long cropStart = nanoClock.getAsLong();
+            if (i > 0 && (bestScore >= multiScaleBelowScore
+                    || cropStart - frameStart + estimatedCropNanos > frameBudgetNanos)) {
+                // La retícula ya es concluyente, o no queda presupuesto para otro recorte
+                break;
+            }
+
+            crops.get(i).process(yPlane, yRowStride, uPlane, vPlane, uvRowStride, uvPixelStride,
+                    width, height, rotationDegrees);
+            long inferenceStart = nanoClock.getAsLong();
+            int count = classifier.classify(input, cropLabels, cropScores);
+            long cropEnd = nanoClock.getAsLong();
+
+            metrics.recordConversion(inferenceStart - cropStart);
+            metrics.recordInference(cropEnd - inferenceStart);
+            updateCostEstimate(cropEnd - cropStart);
+            lastCropsEvaluated++;
+
+            if (count > 0 && cropScores[0] > bestScore) {
+                bestScore = cropScores[0];
+                bestCount = Math.min(count, Math.min(topLabels.length, topScores.length));
+                System.arraycopy(cropLabels, 0, topLabels, 0, bestCount);
+                System.arraycopy(cropScores, 0, topScores, 0, bestCount);
+                lastBestCrop = i;
+            }
+        }
+        return bestCount;
+    }
+
+    private void updateCostEstimate(long cropNanos) {
+        estimatedCropNanos = estimatedCropNanos == 0
+                ? cropNanos
+                : (long) (estimatedCropNanos + COST_SMOOTHING * (cropNanos - estimatedCropNanos));
+    }
+
+    /**
+     * Regiones en coordenadas normalizadas del frame sin rotar. Los recortes cuadrados se
+     * calculan en píxeles para no deformar la fruta al llevarla a la entrada cuadrada.
+     */
+    private void configureCrops(int width, int height) {
+        crops.clear();
+        int shortSide = Math.min(width, height);
+
+        float reticleSide = reticleFraction * shortSide;
+        addCrop(width, height, (width - reticleSide) / 2f, (height - reticleSide) / 2f, reticleSide, reticleSide);
+
+        if (multiScaleBelowScore > RETICLE_ONLY) {
+            // Escala gruesa: el frame completo (lo que se clasificaba antes)
+            addCrop(width, height, 0f, 0f, width, height);
+
+            // Escala fina: 2x2 mosaicos solapados
+            float tileWidth = TILE_FRACTION * width;
+            float tileHeight = TILE_FRACTION * height;
+            for (int row = 0; row < 2; row++) {
+                for (int column = 0; column < 2; column++) {
+                    addCrop(width, height, column * (width - tileWidth), row * (height - tileHeight),
+                            tileWidth, tileHeight);
+                }
+            }
+        }
+        configuredWidth = width;
+        configuredHeight = height;
+    }
+
+    private void addCrop(int width, int height, float left, float top, float cropWidth, float cropHeight) {
+        YuvPreprocessor preprocessor = new YuvPreprocessor(inputSize, input);
+        preprocessor.setCropRegion(left / width, top / height,
+                Math.min(1f, (left + cropWidth) / width), Math.min(1f, (top + cropHeight) / height));
+        crops.add(preprocessor);
+    }
+
+    /**
+     * Recortes configurados para la resolución actual (0 antes del primer frame)
+     */
+    public int getCropCount() {
+        return crops.size();
+    }
+
+    /**
+     * Recortes evaluados en el último frame antes de agotar el presupuesto
+     */
+    public int getLastCropsEvaluated() {
+        return lastCropsEvaluated;
+    }
+
+    /**
+     * Índice del recorte ganador del último frame (0 = retícula), o -1
+     */
+    public int getLastBestCrop() {
+        return lastBestCrop;
+    }
+}
@@ -0,0 +1,70 @@
+package com.fruitexplorer.ml;
+
+import com.fruitexplorer.utils.Scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * Avisa cuando la misma candidata se mantiene stableMillis durante el escaneo (CameraActivity precarga
+ * su ficha mientras DetectionConfirmer termina de confirmar):
+ * - DetectionController publica la candidata solo cuando cambia, así que la espera es un temporizador y
+ *   no una comparación en cada Snapshot
+ * - Otra candidata reinicia la espera; sin candidata, bloqueo o pausa la cancela
+ * - Avisa una sola vez por candidata; al reanudar una pausa la espera empieza de nuevo
+ *
+ * Sin dependencias de Android: la pantalla pasa un Scheduler sobre el hilo principal.
+ * Todos los métodos se llaman desde ese hilo.
+ */
+public class StableCandidateTrigger {
+
+    private final Scheduler scheduler;
+    private final long stableMillis;
+    private final Consumer<String> onStable;
+
+    private String candidate;
+    private Runnable pending;
+
+    public StableCandidateTrigger(Scheduler scheduler, long stableMillis, Consumer<String> onStable) {
+        this.scheduler = scheduler;
+        this.stableMillis = stableMillis;
+        this.onStable = onStable;
+    }
+
+    /**
+     * Para DetectionController.Listener, con cada estado que recibe la UI
+     */
+    public void onSnapshot(DetectionController.Snapshot snapshot) {
+        if (snapshot.getState() != DetectionController.State.SCANNING || !snapshot.hasCandidate()) {
+            cancel();
+            return;
+        }
+        String label = snapshot.getCandidateLabel();
+        if (label.equals(candidate)) {
+            return;
+        }
+        cancel();
+        candidate = label;
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                if (pending == this) {
+                    pending = null;
+                    onStable.accept(label);
+                }
+            }
+        };
+        pending = task;
+        scheduler.postDelayed(task, stableMillis);
+    }
+
+    /**
+     * Descarta la espera en curso (también desde onDestroy)
+     */
+    public void cancel() {
+        if (pending != null) {
+            scheduler.removeCallbacks(pending);
+            pending = null;
+        }
+        candidate = null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.fruitexplorer.ml;
+
+import org.tensorflow.lite.DataType;
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.Tensor;
+import org.tensorflow.lite.nnapi.NnApiDelegate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * InferenceBackend sobre el Interpreter de TFLite.
+ * - CPU: kernels de referencia con N hilos
+ * - XNNPACK: kernels optimizados de CPU con N hilos
+ * - NNAPI: delegado de aceleración del dispositivo
+ * El buffer del modelo (mapeado en memoria) se comparte entre intérpretes.
+ * Acepta modelos cuantizados uint8 (el incluido) e int8 (descargados desde ml_models).
+ */
+public class TfliteBackend implements InferenceBackend {
+
+    private final Interpreter interpreter;
+    private final NnApiDelegate nnApiDelegate;
+    private final ByteBuffer outputBuffer;
+    // Solo para entradas int8: copia de la entrada uint8 desplazada en -128
+    private final ByteBuffer signedInputBuffer;
+    private final DataType outputType;
+    private final int classCount;
+    private final float outputScale;
+    private final int outputZeroPoint;
+
+    public TfliteBackend(ByteBuffer model, DelegateConfig config) {
+        Interpreter.Options options = new Interpreter.Options()
+                .setNumThreads(config.getNumThreads());
+
+        NnApiDelegate delegate = null;
+        switch (config.getType()) {
+            case CPU:
+                options.setUseXNNPACK(false);
+                break;
+            case XNNPACK:
+                options.setUseXNNPACK(true);
+                break;
+            case NNAPI:
+                delegate = new NnApiDelegate();
+                options.setUseXNNPACK(false);
+                options.addDelegate(delegate);
+                break;
+        }
+
+        try {
+            interpreter = new Interpreter(model, options);
+        } catch (RuntimeException e) {
+            if (delegate != null) {
+                delegate.close();
+            }
+            throw e;
+        }
+        nnApiDelegate = delegate;
+
+        Tensor input = interpreter.getInputTensor(0);
+        signedInputBuffer = input.dataType() == DataType.INT8
+                ? ByteBuffer.allocateDirect(input.numBytes()).order(ByteOrder.nativeOrder())
+                : null;
+
+        Tensor output = interpreter.getOutputTensor(0);
+        int[] shape = output.shape();
+        classCount = shape[shape.length - 1];
+        outputType = output.dataType();
+        outputBuffer = ByteBuffer.allocateDirect(output.numBytes()).order(ByteOrder.nativeOrder());
+
+        // Modelo cuantizado: puntaje = (valor - zeroPoint) * scale
+        float scale = output.quantizationParams().getScale();
+        outputScale = scale > 0f ? scale : 1f / 255f;
+        outputZeroPoint = output.quantizationParams().getZeroPoint();
+    }
+
+    @Override
+    public int getClassCount() {
+        return classCount;
+    }
+
+    @Override
+    public void run(ByteBuffer input, float[] scores) {
+        input.rewind();
+        outputBuffer.rewind();
+        interpreter.run(signedInputBuffer != null ? toSigned(input) : input, outputBuffer);
+
+        for (int i = 0; i < classCount; i++) {
+            if (outputType == DataType.FLOAT32) {
+                scores[i] = outputBuffer.getFloat(i * 4);
+            } else if (outputType == DataType.INT8) {
+                scores[i] = (outputBuffer.get(i) - outputZeroPoint) * outputScale;
+            } else {
+                scores[i] = ((outputBuffer.get(i) & 0xFF) - outputZeroPoint) * outputScale;
+            }
+        }
+    }
+
+    /**
+     * uint8 -> int8 con el mismo punto cero desplazado (v - 128), sin asignar memoria
+     */
+    private ByteBuffer toSigned(ByteBuffer input) {
+        signedInputBuffer.rewind();
+        int length = Math.min(input.limit(), signedInputBuffer.capacity());
+        for (int i = 0; i < length; i++) {
+            signedInputBuffer.put(i, (byte) (input.get(i) ^ 0x80));
+        }
+        return signedInputBuffer;
+    }
+
+    @Override
+    public void close() {
+        interpreter.close();
+        if (nnApiDelegate != null) {
+            nnApiDelegate.close();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.fruitexplorer.ml;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Convierte los planos YUV_420_888 de la cámara directamente en la entrada RGB del modelo.
+ * - Recorta, redimensiona (bilineal) y rota en una sola pasada
+ * - Escribe en un ByteBuffer directo reutilizado (tamaño x tamaño x 3, uint8)
+ * - Sin asignaciones en el heap por frame: las tablas de muestreo solo se
+ *   recalculan cuando cambian la resolución, la rotación o el recorte
+ *
+ * No depende de clases de Android para poder probarse en la JVM.
+ */
+public class YuvPreprocessor {
+
+    private final int outputSize;
+    private final ByteBuffer outputBuffer;
+
+    // Región de recorte normalizada [0, 1] sobre el frame sin rotar
+    private float cropLeft = 0f;
+    private float cropTop = 0f;
+    private float cropRight = 1f;
+    private float cropBottom = 1f;
+
+    // Configuración para la que se calcularon las tablas
+    private int configuredWidth = -1;
+    private int configuredHeight = -1;
+    private int configuredRotation = -1;
+    private boolean tablesDirty = true;
+    private boolean swapAxes;
+
+    // Tablas de muestreo: vecinos y peso (0..256) por coordenada de salida
+    private final int[] srcX0;
+    private final int[] srcX1;
+    private final int[] weightX;
+    private final int[] srcY0;
+    private final int[] srcY1;
+    private final int[] weightY;
+
+    public YuvPreprocessor(int outputSize) {
+        this(outputSize, ByteBuffer.allocateDirect(outputSize * outputSize * 3).order(ByteOrder.nativeOrder()));
+    }
+
+    /**
+     * Escribe en un buffer compartido: varios preprocesadores (uno por recorte, cada uno con
+     * sus tablas) pueden usar la misma entrada del modelo si se procesan uno tras otro.
+     */
+    public YuvPreprocessor(int outputSize, ByteBuffer outputBuffer) {
+        if (outputBuffer.capacity() < outputSize * outputSize * 3) {
+            throw new IllegalArgumentException("Buffer de salida demasiado pequeño");
+        }
+        this.outputSize = outputSize;
+        this.outputBuffer = outputBuffer;
+        this.srcX0 = new int[outputSize];
+        this.srcX1 = new int[outputSize];
+        this.weightX = new int[outputSize];
+        this.srcY0 = new int[outputSize];
+        this.srcY1 = new int[outputSize];
+        this.weightY = new int[outputSize];
+    }
+
+    public int getOutputSize() {
+        return outputSize;
+    }
+
+    /**
+     * Buffer de salida reutilizado. Su contenido se sobrescribe en cada llamada a process()
+     */
+    public ByteBuffer getOutputBuffer() {
+        return outputBuffer;
+    }
+
+    /**
+     * Define la región de recorte en coordenadas normalizadas del frame sin rotar.
+     * Por defecto se usa el frame completo.
+     */
+    public void setCropRegion(float left, float top, float right, float bottom) {
+        if (left < 0f || top < 0f || right > 1f || bottom > 1f || left >= right || top >= bottom) {
+            throw new IllegalArgumentException("Región de recorte inválida");
+        }
+        if (left != cropLeft || top != cropTop || right != cropRight || bottom != cropBottom) {
+            cropLeft = left;
+            cropTop = top;
+            cropRight = right;
+            cropBottom = bottom;
+            tablesDirty = true;
+        }
+    }
+
+    /**
+     * Procesa un frame YUV_420_888.
+     *
+     * @param yPlane          plano Y (pixelStride 1)
+     * @param yRowStride      rowStride del plano Y
+     * @param uPlane          plano U
+     * @param vPlane          plano V
+     * @param uvRowStride     rowStride compartido por U y V
+     * @param uvPixelStride   pixelStride compartido por U y V
+     * @param width           ancho del frame sin rotar
+     * @param height          alto del frame sin rotar
+     * @param rotationDegrees rotación (0, 90, 180, 270) necesaria para dejar la imagen derecha
+     * @return el buffer de salida, rebobinado y listo para leer
+     */
+    public ByteBuffer process(ByteBuffer yPlane, int yRowStride,
+                              ByteBuffer uPlane, ByteBuffer vPlane,
+                              int uvRowStride, int uvPixelStride,
+                              int width, int height, int rotationDegrees) {
+        if (tablesDirty || width != configuredWidth || height != configuredHeight
+                || rotationDegrees != configuredRotation) {
+            buildTables(width, height, rotationDegrees);
+        }
+
+        int out = 0;
+        for (int oy = 0; oy < outputSize; oy++) {
+            for (int ox = 0; ox < outputSize; ox++) {
+                int a = swapAxes ? oy : ox;
+                int b = swapAxes ? ox : oy;
+                int x0 = srcX0[a], x1 = srcX1[a], wx = weightX[a];
+                int y0 = srcY0[b], y1 = srcY1[b], wy = weightY[b];
+
+                int p00 = sample(yPlane, yRowStride, uPlane, vPlane, uvRowStride, uvPixelStride, x0, y0);
+                int p10 = sample(yPlane, yRowStride, uPlane, vPlane, uvRowStride, uvPixelStride, x1, y0);
+                int p01 = sample(yPlane, yRowStride, uPlane, vPlane, uvRowStride, uvPixelStride, x0, y1);
+                int p11 = sample(yPlane, yRowStride, uPlane, vPlane, uvRowStride, uvPixelStride, x1, y1);
+
+                outputBuffer.put(out++, (byte) blend(p00 >> 16, p10 >> 16, p01 >> 16, p11 >> 16, wx, wy));
+                outputBuffer.put(out++, (byte) blend((p00 >> 8) & 0xFF, (p10 >> 8) & 0xFF,
+                        (p01 >> 8) & 0xFF, (p11 >> 8) & 0xFF, wx, wy));
+                outputBuffer.put(out++, (byte) blend(p00 & 0xFF, p10 & 0xFF, p01 & 0xFF, p11 & 0xFF, wx, wy));
+            }
+        }
+
+        outputBuffer.rewind();
+        return outputBuffer;
+    }
+
+    /**
+     * Precalcula vecinos y pesos bilineales. La rotación se resuelve aquí:
+     * con 90/270 grados la X de salida recorre la Y de origen y viceversa.
+     */
+    private void buildTables(int width, int height, int rotationDegrees) {
+        if (rotationDegrees != 0 && rotationDegrees != 90 && rotationDegrees != 180 && rotationDegrees != 270) {
+            throw new IllegalArgumentException("Rotación no soportada: " + rotationDegrees);
+        }
+        swapAxes = rotationDegrees == 90 || rotationDegrees == 270;
+        boolean flipX = rotationDegrees == 180 || rotationDegrees == 270;
+        boolean flipY = rotationDegrees == 90 || rotationDegrees == 180;
+
+        fillAxis(srcX0, srcX1, weightX, width, cropLeft, cropRight, flipX);
+        fillAxis(srcY0, srcY1, weightY, height, cropTop, cropBottom, flipY);
+
+        configuredWidth = width;
+        configuredHeight = height;
+        configuredRotation = rotationDegrees;
+        tablesDirty = false;
+    }
+
+    private void fillAxis(int[] lo, int[] hi, int[] weight, int length,
+                          float start, float end, boolean flip) {
+        float cropStart = start * length;
+        float cropLength = (end - start) * length;
+        for (int i = 0; i < outputSize; i++) {
+            float t = (i + 0.5f) / outputSize;
+            if (flip) {
+                t = 1f - t;
+            }
+            // Centro del píxel de salida en coordenadas de píxel de origen
+            float src = cropStart + t * cropLength - 0.5f;
+            if (src < 0f) {
+                src = 0f;
+            }
+            int i0 = (int) src;
+            if (i0 > length - 1) {
+                i0 = length - 1;
+            }
+            lo[i] = i0;
+            hi[i] = Math.min(i0 + 1, length - 1);
+            weight[i] = Math.round((src - i0) * 256f);
+        }
+    }
+
+    /**
+     * Convierte un píxel de origen a RGB empaquetado 0xRRGGBB (BT.601, rango limitado)
+     */
+    private static int sample(ByteBuffer yPlane, int yRowStride,
+                              ByteBuffer uPlane, ByteBuffer vPlane,
+                              int uvRowStride, int uvPixelStride, int x, int y) {
+        int uvIndex = (y >> 1) * uvRowStride + (x >> 1) * uvPixelStride;
+        return yuvToRgb(yPlane.get(y * yRowStride + x) & 0xFF,
+                uPlane.get(uvIndex) & 0xFF,
+                vPlane.get(uvIndex) & 0xFF);
+    }
+
+    static int yuvToRgb(int y, int u, int v) {
+        int yy = Math.max(0, y - 16) * 1192;
+        u -= 128;
+        v -= 128;
+        int r = clamp((yy + 1634 * v + 512) >> 10);
+        int g = clamp((yy - 833 * v - 400 * u + 512) >> 10);
+        int b = clamp((yy + 2066 * u + 512) >> 10);
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static int blend(int c00, int c10, int c01, int c11, int wx, int wy) {
+        int top = c00 * (256 - wx) + c10 * wx;
+        int bottom = c01 * (256 - wx) + c11 * wx;
+        return (top * (256 - wy) + bottom * wy + (1 << 15)) >> 16;
+    }
+
+    private static int clamp(int value) {
+        return value < 0 ? 0 : (value > 255 ? 255 : value);
+    }
+}
@@ -0,0 +1,162 @@
+package com.fruitexplorer.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Respuesta de GET sync/catalog: filas cambiadas desde la última sincronización
+ */
+public class CatalogChanges {
+
+    @SerializedName("server_time")
+    private String serverTime;
+
+    @SerializedName("full")
+    private boolean full;
+
+    @SerializedName("fruits")
+    private List<Fruit> fruits;
+
+    @SerializedName("regions")
+    private List<Region> regions;
+
+    @SerializedName("recipes")
+    private List<Recipe> recipes;
+
+    @SerializedName("recipe_steps")
+    private List<RecipeStep> recipeSteps;
+
+    @SerializedName("fruit_regions")
+    private List<FruitRegion> fruitRegions;
+
+    @SerializedName("fruit_recipes")
+    private List<FruitRecipe> fruitRecipes;
+
+    @SerializedName("ids")
+    private CatalogIds ids;
+
+    public CatalogChanges(String serverTime, boolean full, List<Fruit> fruits, List<Region> regions,
+                          List<Recipe> recipes, List<RecipeStep> recipeSteps, List<FruitRegion> fruitRegions,
+                          List<FruitRecipe> fruitRecipes, CatalogIds ids) {
+        this.serverTime = serverTime;
+        this.full = full;
+        this.fruits = fruits;
+        this.regions = regions;
+        this.recipes = recipes;
+        this.recipeSteps = recipeSteps;
+        this.fruitRegions = fruitRegions;
+        this.fruitRecipes = fruitRecipes;
+        this.ids = ids;
+    }
+
+    public static class FruitRegion {
+        @SerializedName("fruit_id")
+        private int fruitId;
+
+        @SerializedName("region_id")
+        private int regionId;
+
+        public FruitRegion(int fruitId, int regionId) {
+            this.fruitId = fruitId;
+            this.regionId = regionId;
+        }
+
+        public int getFruitId() {
+            return fruitId;
+        }
+
+        public int getRegionId() {
+            return regionId;
+        }
+    }
+
+    public static class FruitRecipe {
+        @SerializedName("fruit_id")
+        private int fruitId;
+
+        @SerializedName("recipe_id")
+        private int recipeId;
+
+        public FruitRecipe(int fruitId, int recipeId) {
+            this.fruitId = fruitId;
+            this.recipeId = recipeId;
+        }
+
+        public int getFruitId() {
+            return fruitId;
+        }
+
+        public int getRecipeId() {
+            return recipeId;
+        }
+    }
+
+    /**
+     * Ids vigentes en el servidor; lo que no esté aquí se borra de la base local
+     */
+    public static class CatalogIds {
+        @SerializedName("fruits")
+        private List<Integer> fruits;
+
+        @SerializedName("regions")
+        private List<Integer> regions;
+
+        @SerializedName("recipes")
+        private List<Integer> recipes;
+
+        public CatalogIds(List<Integer> fruits, List<Integer> regions, List<Integer> recipes) {
+            this.fruits = fruits;
+            this.regions = regions;
+            this.recipes = recipes;
+        }
+
+        public List<Integer> getFruits() {
+            return fruits;
+        }
+
+        public List<Integer> getRegions() {
+            return regions;
+        }
+
+        public List<Integer> getRecipes() {
+            return recipes;
+        }
+    }
+
+    public String getServerTime() {
+        return serverTime;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public List<Fruit> getFruits() {
+        return fruits;
+    }
+
+    public List<Region> getRegions() {
+        return regions;
+    }
+
+    public List<Recipe> getRecipes() {
+        return recipes;
+    }
+
+    public List<RecipeStep> getRecipeSteps() {
+        return recipeSteps;
+    }
+
+    public List<FruitRegion> getFruitRegions() {
+        return fruitRegions;
+    }
+
+    public List<FruitRecipe> getFruitRecipes() {
+        return fruitRecipes;
+    }
+
+    public CatalogIds getIds() {
+        return ids;
+    }
+}
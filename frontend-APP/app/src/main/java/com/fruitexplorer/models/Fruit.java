@@ -4,9 +4,10 @@ import android.os.Parcel;
 import android.os.Parcelable;
 
 import com.google.gson.annotations.SerializedName;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
+/**
+ * Ficha completa de una fruta. Gson la lee con ModelTypeAdapters (sin reflexión).
+ */
 public class Fruit implements Parcelable {
 
     @SerializedName("id")
@@ -28,7 +29,18 @@ public class Fruit implements Parcelable {
     private String imageUrl;
 
     @SerializedName("nutritional")
-    private JsonObject nutritional;
+    private NutritionalData nutritional;
+
+    public Fruit(int id, String slug, String commonName, String scientificName, String description,
+                 String imageUrl, NutritionalData nutritional) {
+        this.id = id;
+        this.slug = slug;
+        this.commonName = commonName;
+        this.scientificName = scientificName;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.nutritional = nutritional;
+    }
 
     protected Fruit(Parcel in) {
         id = in.readInt();
@@ -37,8 +49,14 @@ public class Fruit implements Parcelable {
         scientificName = in.readString();
         description = in.readString();
         imageUrl = in.readString();
-        String nutritionalString = in.readString();
-        nutritional = (nutritionalString != null) ? new JsonParser().parse(nutritionalString).getAsJsonObject() : null;
+        int nutritionalSize = in.readInt();
+        String[] keys = new String[nutritionalSize];
+        String[] values = new String[nutritionalSize];
+        for (int i = 0; i < nutritionalSize; i++) {
+            keys[i] = in.readString();
+            values[i] = in.readString();
+        }
+        nutritional = new NutritionalData(keys, values);
     }
 
     @Override
@@ -49,7 +67,12 @@ public class Fruit implements Parcelable {
         dest.writeString(scientificName);
         dest.writeString(description);
         dest.writeString(imageUrl);
-        dest.writeString(nutritional != null ? nutritional.toString() : null);
+        NutritionalData data = getNutritionalData();
+        dest.writeInt(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            dest.writeString(data.getKey(i));
+            dest.writeString(data.getValue(i));
+        }
     }
 
     @Override
@@ -90,11 +113,11 @@ public class Fruit implements Parcelable {
         return description;
     }
 
-    public com.google.gson.JsonObject getNutritionalData() {
+    public NutritionalData getNutritionalData() {
         if (nutritional == null) {
-            return new com.google.gson.JsonObject();
+            return NutritionalData.EMPTY;
         }
-        return nutritional; 
+        return nutritional;
     }
 
     public String getImageUrl() {
@@ -7,7 +7,20 @@ public class FruitListResponse {
     @SerializedName("fruits")
     private List<Fruit> fruits;
 
+    // Cursor de la página siguiente; null en la última
+    @SerializedName("next_cursor")
+    private String nextCursor;
+
+    public FruitListResponse(List<Fruit> fruits, String nextCursor) {
+        this.fruits = fruits;
+        this.nextCursor = nextCursor;
+    }
+
     public List<Fruit> getFruits() {
         return fruits;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
\ No newline at end of file
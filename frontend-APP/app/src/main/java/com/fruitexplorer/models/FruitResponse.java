@@ -2,11 +2,41 @@ package com.fruitexplorer.models;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.List;
+
 public class FruitResponse {
+    // Relaciones que pide la ficha (include=...); regions existe en el backend pero la ficha no la muestra
+    public static final String DETAIL_INCLUDES = "recipes";
+
     @SerializedName("fruit")
     private Fruit fruit;
 
+    // Solo llegan si se pidieron con include; null si no
+    @SerializedName("recipes")
+    private List<Recipe> recipes;
+
+    @SerializedName("regions")
+    private List<Region> regions;
+
+    public FruitResponse(Fruit fruit) {
+        this(fruit, null, null);
+    }
+
+    public FruitResponse(Fruit fruit, List<Recipe> recipes, List<Region> regions) {
+        this.fruit = fruit;
+        this.recipes = recipes;
+        this.regions = regions;
+    }
+
     public Fruit getFruit() {
         return fruit;
     }
-}
\ No newline at end of file
+
+    public List<Recipe> getRecipes() {
+        return recipes;
+    }
+
+    public List<Region> getRegions() {
+        return regions;
+    }
+}
@@ -0,0 +1,48 @@
+package com.fruitexplorer.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Fruta tal como la muestran las grillas (nombre e imagen), sin descripción ni datos nutricionales.
+ * La ficha completa (Fruit) se pide solo al abrir FruitDetailActivity.
+ */
+public class FruitSummary {
+
+    // Proyección que se pide a la API para llenar este modelo
+    public static final String FIELDS = "id,slug,common_name,image_url";
+
+    @SerializedName("id")
+    private int id;
+
+    @SerializedName("slug")
+    private String slug;
+
+    @SerializedName("common_name")
+    private String commonName;
+
+    @SerializedName("image_url")
+    private String imageUrl;
+
+    public FruitSummary(int id, String slug, String commonName, String imageUrl) {
+        this.id = id;
+        this.slug = slug;
+        this.commonName = commonName;
+        this.imageUrl = imageUrl;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getCommonName() {
+        return commonName;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
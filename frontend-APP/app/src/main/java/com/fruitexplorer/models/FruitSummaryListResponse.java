@@ -0,0 +1,26 @@
+package com.fruitexplorer.models;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+public class FruitSummaryListResponse {
+    @SerializedName("fruits")
+    private List<FruitSummary> fruits;
+
+    // Cursor de la página siguiente; null en la última
+    @SerializedName("next_cursor")
+    private String nextCursor;
+
+    public FruitSummaryListResponse(List<FruitSummary> fruits, String nextCursor) {
+        this.fruits = fruits;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<FruitSummary> getFruits() {
+        return fruits;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,58 @@
+package com.fruitexplorer.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Fila de la tabla ml_models publicada por el backend
+ */
+public class MlModel {
+
+    @SerializedName("id")
+    private int id;
+
+    @SerializedName("name")
+    private String name;
+
+    @SerializedName("version")
+    private String version;
+
+    @SerializedName("status")
+    private String status;
+
+    @SerializedName("tflite_url")
+    private String tfliteUrl;
+
+    @SerializedName("checksum_sha256")
+    private String checksumSha256;
+
+    @SerializedName("quantization")
+    private String quantization;
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getTfliteUrl() {
+        return tfliteUrl;
+    }
+
+    public String getChecksumSha256() {
+        return checksumSha256;
+    }
+
+    public String getQuantization() {
+        return quantization;
+    }
+}
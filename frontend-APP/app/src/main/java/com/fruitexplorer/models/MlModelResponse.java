@@ -0,0 +1,12 @@
+package com.fruitexplorer.models;
+
+import com.google.gson.annotations.SerializedName;
+
+public class MlModelResponse {
+    @SerializedName("model")
+    private MlModel model;
+
+    public MlModel getModel() {
+        return model;
+    }
+}
@@ -0,0 +1,75 @@
+package com.fruitexplorer.models;
+
+/**
+ * Datos nutricionales de una fruta ("calories": 60, "carbs": "15g", ...) en dos arreglos paralelos:
+ * - Reemplaza al JsonObject: sin nodos de árbol ni un JsonPrimitive por valor
+ * - Las claves conocidas se comparten entre todas las frutas en lugar de repetirse por fila
+ * - Los valores se guardan como el texto que envía la API (los números también, "60")
+ *
+ * Inmutable; se lee y escribe en streaming con ModelTypeAdapters.
+ */
+public final class NutritionalData {
+
+    public static final NutritionalData EMPTY = new NutritionalData(new String[0], new String[0]);
+
+    // Claves de seed_data.sql y de la API de origen
+    private static final String[] COMMON_KEYS = {
+            "calories", "carbs", "fiber", "sugar", "protein", "fat",
+            "vitaminA", "vitaminB6", "vitaminC", "vitaminE", "vitaminK",
+            "potassium", "folate", "manganese", "magnesium", "calcium", "iron"
+    };
+
+    private final String[] keys;
+    private final String[] values;
+
+    /**
+     * Toma posesión de los arreglos (no se copian)
+     */
+    public NutritionalData(String[] keys, String[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys y values deben tener el mismo largo");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = commonKey(keys[i]);
+        }
+        this.keys = keys;
+        this.values = values;
+    }
+
+    private static String commonKey(String key) {
+        for (String common : COMMON_KEYS) {
+            if (common.equals(key)) {
+                return common;
+            }
+        }
+        return key;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public String getKey(int index) {
+        return keys[index];
+    }
+
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return el valor de la clave, o null si la fruta no lo tiene
+     */
+    public String get(String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+}
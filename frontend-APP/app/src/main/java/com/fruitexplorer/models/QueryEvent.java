@@ -0,0 +1,68 @@
+package com.fruitexplorer.models;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Evento de la cola local de consultas (POST queries/events):
+ * - query: una detección confirmada, identificada por el UUID generado en el dispositivo
+ * - voice: uso de texto a voz sobre la consulta con ese UUID
+ */
+public class QueryEvent {
+
+    public static final String TYPE_QUERY = "query";
+    public static final String TYPE_VOICE = "voice";
+
+    @SerializedName("type")
+    private final String type;
+
+    @SerializedName("client_id")
+    private final String clientId;
+
+    @SerializedName("fruit_name")
+    private final String fruitName;
+
+    @SerializedName("location")
+    private final String location;
+
+    @SerializedName("confidence")
+    private final Float confidence;
+
+    @SerializedName("model_id")
+    private final Integer modelId;
+
+    @SerializedName("device_info")
+    private final String deviceInfo;
+
+    // Hora del evento en el dispositivo (ms); el envío puede llegar mucho después
+    @SerializedName("occurred_at")
+    private final long occurredAt;
+
+    private QueryEvent(String type, String clientId, String fruitName, String location, Float confidence,
+                       Integer modelId, String deviceInfo, long occurredAt) {
+        this.type = type;
+        this.clientId = clientId;
+        this.fruitName = fruitName;
+        this.location = location;
+        this.confidence = confidence;
+        this.modelId = modelId;
+        this.deviceInfo = deviceInfo;
+        this.occurredAt = occurredAt;
+    }
+
+    public static QueryEvent query(String clientId, String fruitName, String location, Float confidence,
+                                   Integer modelId, String deviceInfo, long occurredAt) {
+        return new QueryEvent(TYPE_QUERY, clientId, fruitName, location, confidence, modelId, deviceInfo, occurredAt);
+    }
+
+    public static QueryEvent voice(String clientId, long occurredAt) {
+        return new QueryEvent(TYPE_VOICE, clientId, null, null, null, null, null, occurredAt);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fruitexplorer.models;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+public class QueryEventBatch {
+
+    @SerializedName("events")
+    private final List<QueryEvent> events;
+
+    public QueryEventBatch(List<QueryEvent> events) {
+        this.events = events;
+    }
+
+    public List<QueryEvent> getEvents() {
+        return events;
+    }
+}
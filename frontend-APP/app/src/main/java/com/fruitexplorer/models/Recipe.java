@@ -13,6 +13,14 @@ public class Recipe implements Parcelable {
     private String imageUrl;
     private String source; 
 
+    public Recipe(int id, String title, String description, String imageUrl, String source) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.source = source;
+    }
+
     protected Recipe(Parcel in) {
         id = in.readInt();
         title = in.readString();
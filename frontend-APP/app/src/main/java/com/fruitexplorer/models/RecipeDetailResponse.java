@@ -12,6 +12,11 @@ public class RecipeDetailResponse {
     @SerializedName("steps")
     private List<RecipeStep> steps;
 
+    public RecipeDetailResponse(Recipe recipe, List<RecipeStep> steps) {
+        this.recipe = recipe;
+        this.steps = steps;
+    }
+
     public Recipe getRecipe() {
         return recipe;
     }
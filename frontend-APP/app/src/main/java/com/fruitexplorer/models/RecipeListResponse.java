@@ -8,7 +8,20 @@ public class RecipeListResponse {
     @SerializedName("recipes")
     private List<Recipe> recipes;
 
+    // Cursor de la página siguiente; null en la última
+    @SerializedName("next_cursor")
+    private String nextCursor;
+
+    public RecipeListResponse(List<Recipe> recipes, String nextCursor) {
+        this.recipes = recipes;
+        this.nextCursor = nextCursor;
+    }
+
     public List<Recipe> getRecipes() {
         return recipes;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
\ No newline at end of file
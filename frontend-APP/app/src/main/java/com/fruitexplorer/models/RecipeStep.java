@@ -4,12 +4,25 @@ import com.google.gson.annotations.SerializedName;
 
 public class RecipeStep {
 
+    @SerializedName("recipe_id")
+    private int recipeId;
+
     @SerializedName("step_number")
     private int stepNumber;
 
     @SerializedName("description")
     private String description;
 
+    public RecipeStep(int recipeId, int stepNumber, String description) {
+        this.recipeId = recipeId;
+        this.stepNumber = stepNumber;
+        this.description = description;
+    }
+
+    public int getRecipeId() {
+        return recipeId;
+    }
+
     public int getStepNumber() {
         return stepNumber;
     }
@@ -18,6 +18,13 @@ public class Region implements Parcelable {
     @SerializedName("image_url")
     private String imageUrl;
 
+    public Region(int id, String name, String description, String imageUrl) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.imageUrl = imageUrl;
+    }
+
     protected Region(Parcel in) {
         id = in.readInt();
         name = in.readString();
@@ -8,6 +8,10 @@ public class RegionResponse {
     @SerializedName("regions") 
     private List<Region> regions;
 
+    public RegionResponse(List<Region> regions) {
+        this.regions = regions;
+    }
+
     public List<Region> getRegions() {
         return regions;
     }
@@ -1,42 +1,42 @@
 package com.fruitexplorer.utils;
 
-import android.content.Context;
-import android.content.Intent;
 import androidx.annotation.NonNull;
 import java.io.IOException;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 
+/**
+ * Agrega el token de la sesión a cada petición, salvo las de autenticación:
+ * - Lee el AuthState en memoria (una referencia volátil): sin disco ni locks en el camino de la petición
+ * - Una sesión vencida por tiempo se cierra con AuthState.expire y la petición sale sin token
+ * - Los 401 los atiende TokenAuthenticator (renovación del token y reintento)
+ */
 public class AuthInterceptor implements Interceptor {
-    private final Context context;
-    private final SessionManager sessionManager;
+    private final AuthState authState;
 
-    public AuthInterceptor(Context context) {
-        this.context = context.getApplicationContext();
-        this.sessionManager = new SessionManager(context);
+    public AuthInterceptor(AuthState authState) {
+        this.authState = authState;
     }
 
     @NonNull
     @Override
     public Response intercept(@NonNull Chain chain) throws IOException {
         Request originalRequest = chain.request();
-        Request.Builder requestBuilder = originalRequest.newBuilder();
-        String path = originalRequest.url().encodedPath();
-        if (sessionManager.isLoggedIn() && !path.endsWith("/register") && !path.endsWith("/login")) {
-            String token = sessionManager.getToken();
-            if (token != null) {
-                requestBuilder.addHeader("Authorization", "Bearer " + token);
-            }
+        if (!TokenAuthenticator.needsToken(originalRequest)) {
+            return chain.proceed(originalRequest);
         }
 
-        Request request = requestBuilder.build();
-        Response response = chain.proceed(request);
-
-        if (response.code() == 401 || response.code() == 403) {
-            sessionManager.logoutUser();
+        AuthState.Session session = authState.current();
+        if (session != null && session.isExpiredAt(System.currentTimeMillis())) {
+            authState.expire(session);
+            session = null;
         }
-
-        return response;
+        if (session == null) {
+            return chain.proceed(originalRequest);
+        }
+        return chain.proceed(originalRequest.newBuilder()
+                .header("Authorization", TokenAuthenticator.bearer(session.getToken()))
+                .build());
     }
-}
\ No newline at end of file
+}
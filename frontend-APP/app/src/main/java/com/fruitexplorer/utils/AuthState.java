@@ -0,0 +1,198 @@
+package com.fruitexplorer.utils;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Estado de autenticación en memoria, uno por proceso (SessionManager.getAuthState):
+ * - Se llena una sola vez desde la sesión guardada (la primera consulta, desde ApiClient.init fuera del
+ *   hilo principal)
+ * - AuthInterceptor solo lee una referencia volátil por petición: sin SharedPreferences ni locks
+ * - SessionManager lo actualiza al iniciar y cerrar sesión
+ * - refresh renueva el token una sola vez aunque varias peticiones reciban 401 a la vez
+ *   (TokenAuthenticator); las demás reintentan con el token ya renovado
+ * - expire cierra la sesión una sola vez por token y avisa a la UI con un único evento
+ *
+ * Sin dependencias de Android: el disco llega por Storage y la red por Refresher. Thread-safe.
+ */
+public class AuthState {
+
+    public static final long SESSION_TIMEOUT_MS = 30 * 24 * 60 * 60 * 1000L; // 30 días
+
+    /**
+     * Sesión guardada; inmutable. Se reemplaza entera al iniciar sesión o renovar el token; la
+     * renovación conserva el usuario y la hora del login, así que SESSION_TIMEOUT_MS es absoluto
+     * (el backend aplica el mismo límite con auth_time).
+     */
+    public static final class Session {
+        private final String userId;
+        private final String token;
+        private final long loginTimestamp;
+
+        public Session(String userId, String token, long loginTimestamp) {
+            this.userId = userId;
+            this.token = token;
+            this.loginTimestamp = loginTimestamp;
+        }
+
+        /**
+         * Dueño de lo que se envía con este token (QueryEventQueue sube solo sus eventos)
+         */
+        public String getUserId() {
+            return userId;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public long getLoginTimestamp() {
+            return loginTimestamp;
+        }
+
+        /**
+         * Sin timestamp se asume una sesión anterior a su registro y no se vence
+         */
+        public boolean isExpiredAt(long nowMs) {
+            return loginTimestamp != 0 && nowMs - loginTimestamp > SESSION_TIMEOUT_MS;
+        }
+    }
+
+    public interface Storage {
+        /**
+         * @return la sesión guardada, o null si no hay
+         */
+        Session load();
+
+        void saveToken(String token, long loginTimestamp);
+
+        void clear();
+    }
+
+    public interface Refresher {
+        /**
+         * Pide un token nuevo a partir del actual (puede estar vencido)
+         *
+         * @return el token nuevo, o null si el servidor rechazó la sesión
+         * @throws IOException si no se pudo saber (sin red, error del servidor); la sesión se mantiene
+         */
+        String refresh(String token) throws IOException;
+    }
+
+    public interface Listener {
+        /**
+         * La sesión venció o el servidor la rechazó; se llama una vez por sesión, desde cualquier hilo
+         */
+        void onSessionExpired();
+    }
+
+    private static final Session NOT_LOADED = new Session(null, null, 0);
+    private static final Session SIGNED_OUT = new Session(null, null, 0);
+
+    private final Storage storage;
+    private final AtomicReference<Session> session = new AtomicReference<>(NOT_LOADED);
+    private final Object refreshLock = new Object();
+    private volatile Listener listener;
+
+    public AuthState(Storage storage) {
+        this.storage = storage;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return la sesión vigente, o null si no hay usuario. Solo lee memoria, salvo la primera vez.
+     */
+    public Session current() {
+        Session current = session.get();
+        if (current == NOT_LOADED) {
+            current = load();
+        }
+        return current == SIGNED_OUT ? null : current;
+    }
+
+    public boolean isSignedIn() {
+        return current() != null;
+    }
+
+    /**
+     * Sesión nueva (login o registro); SessionManager ya la guardó en disco
+     */
+    public void signIn(String userId, String token, long loginTimestamp) {
+        session.set(new Session(userId, token, loginTimestamp));
+    }
+
+    /**
+     * Token nuevo para la misma sesión (SessionManager.updateToken); sin sesión no hace nada
+     */
+    public void replaceToken(String token) {
+        Session current = current();
+        if (current != null) {
+            session.compareAndSet(current, new Session(current.getUserId(), token, current.getLoginTimestamp()));
+        }
+    }
+
+    /**
+     * Cierre de sesión pedido por el usuario; SessionManager ya limpió el disco y no hay evento
+     */
+    public void signOut() {
+        session.set(SIGNED_OUT);
+    }
+
+    /**
+     * Renueva el token con el que falló una petición. Si otro hilo ya lo renovó, devuelve el nuevo
+     * sin volver a pedirlo; si el servidor rechaza la sesión, la cierra (expire).
+     *
+     * @param failedToken token que llevaba la petición rechazada
+     * @return token con el que reintentar, o null si ya no hay sesión
+     */
+    public String refresh(String failedToken, Refresher refresher) throws IOException {
+        synchronized (refreshLock) {
+            Session current = current();
+            if (current == null) {
+                return null;
+            }
+            if (!current.getToken().equals(failedToken)) {
+                return current.getToken();
+            }
+            String token = refresher.refresh(current.getToken());
+            if (token == null || token.isEmpty()) {
+                expire(current);
+                return null;
+            }
+            Session renewed = new Session(current.getUserId(), token, current.getLoginTimestamp());
+            // Un cierre de sesión durante la renovación gana: no se revive la sesión
+            if (!session.compareAndSet(current, renewed)) {
+                return null;
+            }
+            storage.saveToken(renewed.getToken(), renewed.getLoginTimestamp());
+            return renewed.getToken();
+        }
+    }
+
+    /**
+     * Cierra la sesión si sigue siendo expired. Varias peticiones que fallan con la misma sesión
+     * producen un solo evento; una sesión iniciada después no se cierra.
+     */
+    public void expire(Session expired) {
+        if (expired == null || !session.compareAndSet(expired, SIGNED_OUT)) {
+            return;
+        }
+        storage.clear();
+        Listener current = listener;
+        if (current != null) {
+            current.onSessionExpired();
+        }
+    }
+
+    private synchronized Session load() {
+        if (session.get() != NOT_LOADED) {
+            return session.get();
+        }
+        Session loaded = storage.load();
+        session.compareAndSet(NOT_LOADED, loaded != null && loaded.getToken() != null ? loaded : SIGNED_OUT);
+        return session.get();
+    }
+}
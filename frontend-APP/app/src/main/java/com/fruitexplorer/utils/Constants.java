@@ -17,7 +17,20 @@ public class Constants {
     public static final int READ_TIMEOUT = 30; // segundos
     public static final int WRITE_TIMEOUT = 30; // segundos
 
-    // Claves de preferencias compartidas
+    // Caché HTTP en disco (dentro de getCacheDir, el sistema puede liberarla)
+    public static final String HTTP_CACHE_DIR = "http_cache";
+    public static final long HTTP_CACHE_SIZE_BYTES = 10L * 1024 * 1024; // 10 MB
+
+    // Espera tras la última tecla antes de buscar
+    public static final long SEARCH_DEBOUNCE_MS = 300;
+
+    // Listados por páginas: tamaño de página, cuántas filas antes del final se pide la siguiente
+    // y cuántas páginas se mantienen en memoria alrededor de lo visible
+    public static final int PAGE_SIZE = 20;
+    public static final int PAGING_PREFETCH_DISTANCE = 10;
+    public static final int PAGING_MAX_PAGES = 5;
+
+    // Claves de la sesión en preferencias compartidas; SessionStore las migra a su archivo y borra FruitExplorerPrefs
     public static final String PREF_NAME = "FruitExplorerPrefs";
     public static final String KEY_TOKEN = "token";
     public static final String KEY_USER_ID = "user_id";
@@ -25,6 +38,9 @@ public class Constants {
     public static final String KEY_USER_NAME = "user_name";
     public static final String KEY_IS_LOGGED_IN = "is_logged_in";
 
+    // Preferencias del clasificador (separadas para sobrevivir al cierre de sesión)
+    public static final String ML_PREF_NAME = "FruitExplorerMlPrefs";
+
     // Mensajes de error comunes
     public static final String ERROR_NETWORK = "Error de conexión. Verifica tu internet.";
     public static final String ERROR_SERVER = "Error del servidor. Intenta más tarde.";
@@ -0,0 +1,22 @@
+package com.fruitexplorer.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Scheduler sobre el hilo principal (SearchPipeline, StableCandidateTrigger)
+ */
+public class MainThreadScheduler implements Scheduler {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public void postDelayed(Runnable task, long delayMillis) {
+        handler.postDelayed(task, delayMillis);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable task) {
+        handler.removeCallbacks(task);
+    }
+}
@@ -0,0 +1,12 @@
+package com.fruitexplorer.utils;
+
+/**
+ * Tareas diferidas sobre un mismo hilo, con la forma de Handler.postDelayed/removeCallbacks.
+ * Lo reciben las clases sin dependencias de Android (SearchPipeline, StableCandidateTrigger); en la app
+ * es MainThreadScheduler y en los tests un reloj manual.
+ */
+public interface Scheduler {
+    void postDelayed(Runnable task, long delayMillis);
+
+    void removeCallbacks(Runnable task);
+}
@@ -3,50 +3,187 @@ package com.fruitexplorer.utils;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import com.fruitexplorer.activities.LoginActivity;
+import com.fruitexplorer.data.QueryEventQueue;
+import com.fruitexplorer.data.SessionData;
+import com.fruitexplorer.data.SessionStore;
 import com.fruitexplorer.models.User;
 
+import java.io.File;
+import java.util.concurrent.Executors;
+
 /**
  * SessionManager mejorado para manejar la sesión del usuario
  * Características:
- * - Almacenamiento seguro de token y datos de usuario
+ * - Almacenamiento de token y datos de usuario en SessionStore: se carga en segundo plano al
+ *   arrancar (FruitExplorerApp) y se escribe de forma atómica fuera del hilo principal
  * - Validación de sesión
- * - Métodos helper para acceder a datos del usuario
+ * - Métodos helper para acceder a datos del usuario; leen la copia inmutable en memoria
  * - Logging para debugging
- * - Optimización de performance con apply()
+ * - Mantiene al día el AuthState en memoria del proceso, que es lo que consulta la red
+ *
+ * Crear un SessionManager no toca disco; todas las instancias comparten el mismo SessionStore.
+ * Ningún método espera al disco: antes de terminar la carga se comportan como sin sesión, así que una
+ * pantalla restaurada que no pasó por SplashActivity consulta la sesión dentro de whenLoaded.
  */
 public class SessionManager {
     private static final String TAG = "SessionManager";
 
-    // Nombre de las SharedPreferences (usando constante de Constants)
-    private static final String PREF_NAME = Constants.PREF_NAME;
+    // Archivo de la sesión (en getFilesDir)
+    private static final String SESSION_FILE = "session.bin";
 
-    // Claves para SharedPreferences (usando constantes de Constants)
+    // Preferencias anteriores a SessionStore, solo para migrarlas (usando constantes de Constants)
+    private static final String PREF_NAME = Constants.PREF_NAME;
     private static final String KEY_IS_LOGGED_IN = Constants.KEY_IS_LOGGED_IN;
     private static final String KEY_AUTH_TOKEN = Constants.KEY_TOKEN;
     private static final String KEY_USER_ID = Constants.KEY_USER_ID;
     private static final String KEY_USER_EMAIL = Constants.KEY_USER_EMAIL;
     private static final String KEY_USER_NAME = Constants.KEY_USER_NAME;
     private static final String KEY_HAS_SEEN_WELCOME = "hasSeenWelcome";
-
-    // Nueva clave para timestamp de login
     private static final String KEY_LOGIN_TIMESTAMP = "loginTimestamp";
-    private static final long SESSION_TIMEOUT = 30 * 24 * 60 * 60 * 1000L; // 30 días en milisegundos
 
-    private SharedPreferences sharedPreferences;
-    private SharedPreferences.Editor editor;
-    private Context context;
+    private static final long SESSION_TIMEOUT = AuthState.SESSION_TIMEOUT_MS;
+
+    private static volatile SessionStore sessionStore;
+    private static volatile AuthState authState;
+
+    private final Context context;
 
     /**
      * Constructor del SessionManager
      */
     public SessionManager(Context context) {
-        this.context = context;
-        this.sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        this.editor = sharedPreferences.edit();
-        Log.d(TAG, "SessionManager inicializado");
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Empieza a leer la sesión en segundo plano; se llama al arrancar el proceso
+     */
+    public static void init(Context context) {
+        getStore(context);
+    }
+
+    /**
+     * Ejecuta action en el hilo principal cuando la sesión ya está en memoria (en seguida si ya lo está)
+     */
+    public static void whenLoaded(Context context, Runnable action) {
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        getStore(context).whenLoaded(session -> mainHandler.post(action));
+    }
+
+    private static SessionStore getStore(Context context) {
+        if (sessionStore == null) {
+            synchronized (SessionManager.class) {
+                if (sessionStore == null) {
+                    Context appContext = context.getApplicationContext();
+                    SessionStore store = new SessionStore(
+                            () -> new File(appContext.getFilesDir(), SESSION_FILE),
+                            legacyPreferences(appContext),
+                            Executors.newSingleThreadExecutor(),
+                            e -> Log.e(TAG, "No se pudo guardar la sesión", e));
+                    store.load();
+                    sessionStore = store;
+                }
+            }
+        }
+        return sessionStore;
+    }
+
+    /**
+     * Estado de autenticación del proceso; se llena desde SessionStore la primera vez que se consulta
+     */
+    public static AuthState getAuthState(Context context) {
+        if (authState == null) {
+            synchronized (SessionManager.class) {
+                if (authState == null) {
+                    SessionStore store = getStore(context);
+                    authState = new AuthState(new AuthState.Storage() {
+                        @Override
+                        public AuthState.Session load() {
+                            // Solo espera si se llega antes que la carga: la primera consulta es del hilo
+                            // ApiClient-init, y OkHttp corre los interceptores fuera del hilo principal
+                            SessionData session = store.await();
+                            if (!session.isLoggedIn()) {
+                                return null;
+                            }
+                            return new AuthState.Session(session.getUserId(), session.getToken(),
+                                    session.getLoginTimestamp());
+                        }
+
+                        @Override
+                        public void saveToken(String token, long loginTimestamp) {
+                            store.update(session -> session.withToken(token, loginTimestamp));
+                        }
+
+                        @Override
+                        public void clear() {
+                            store.update(SessionData::signedOut);
+                        }
+                    });
+                }
+            }
+        }
+        return authState;
+    }
+
+    /**
+     * Sesión de FruitExplorerPrefs; SessionStore la lee una vez en su hilo y después borra el archivo
+     */
+    private static SessionStore.Legacy legacyPreferences(Context appContext) {
+        return new SessionStore.Legacy() {
+            @Override
+            public SessionData read() {
+                SharedPreferences prefs = appContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+                boolean loggedIn = prefs.getBoolean(KEY_IS_LOGGED_IN, false);
+                if (!loggedIn && !prefs.contains(KEY_HAS_SEEN_WELCOME)) {
+                    return null;
+                }
+                Log.i(TAG, "Migrando la sesión de " + PREF_NAME);
+                return new SessionData(
+                        loggedIn ? prefs.getString(KEY_AUTH_TOKEN, null) : null,
+                        loggedIn ? prefs.getString(KEY_USER_ID, null) : null,
+                        loggedIn ? prefs.getString(KEY_USER_EMAIL, null) : null,
+                        loggedIn ? prefs.getString(KEY_USER_NAME, null) : null,
+                        loggedIn ? prefs.getLong(KEY_LOGIN_TIMESTAMP, 0) : 0,
+                        prefs.getBoolean(KEY_HAS_SEEN_WELCOME, false));
+            }
+
+            @Override
+            public void clear() {
+                appContext.deleteSharedPreferences(PREF_NAME);
+            }
+        };
+    }
+
+    /**
+     * Indica si la sesión ya está en memoria; hasta entonces los métodos responden como sin sesión
+     */
+    public boolean isLoaded() {
+        return getStore(context).peek() != null;
+    }
+
+    /**
+     * Desde el hilo principal: ejecuta action ya mismo si la sesión está en memoria, si no cuando termine
+     * de cargarse. Para pantallas restauradas y acciones del usuario que dependen de la sesión.
+     */
+    public void whenLoaded(Runnable action) {
+        if (isLoaded()) {
+            action.run();
+        } else {
+            whenLoaded(context, action);
+        }
+    }
+
+    /**
+     * Sesión en memoria, sin esperar al disco: vacía si todavía no terminó de cargarse
+     */
+    private SessionData session() {
+        SessionData session = getStore(context).peek();
+        return session != null ? session : SessionData.EMPTY;
     }
 
     /**
@@ -63,13 +200,12 @@ public class SessionManager {
             return;
         }
 
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.putString(KEY_AUTH_TOKEN, token);
-        editor.putString(KEY_USER_ID, user.getId());
-        editor.putString(KEY_USER_EMAIL, user.getEmail());
-        editor.putString(KEY_USER_NAME, user.getDisplayName());
-        editor.putLong(KEY_LOGIN_TIMESTAMP, System.currentTimeMillis());
-        editor.apply(); // Usar apply() en lugar de commit() para mejor performance
+        long loginTimestamp = System.currentTimeMillis();
+        getStore(context).update(session -> session.signIn(token, user.getId(), user.getEmail(),
+                user.getDisplayName(), loginTimestamp));
+        getAuthState(context).signIn(user.getId(), token, loginTimestamp);
+        // Sube las consultas que este usuario dejó en cola en una sesión anterior
+        QueryEventQueue.getInstance(context).requestFlush();
 
         Log.i(TAG, "✅ Sesión creada para usuario: " + user.getEmail());
         logSessionInfo();
@@ -79,7 +215,7 @@ public class SessionManager {
      * Obtiene el token de autenticación
      */
     public String getToken() {
-        String token = sharedPreferences.getString(KEY_AUTH_TOKEN, null);
+        String token = session().getToken();
         if (token == null) {
             Log.w(TAG, "⚠️ Token no encontrado");
         }
@@ -90,35 +226,36 @@ public class SessionManager {
      * Obtiene el ID del usuario
      */
     public String getUserId() {
-        return sharedPreferences.getString(KEY_USER_ID, null);
+        return session().getUserId();
     }
 
     /**
      * Obtiene el email del usuario
      */
     public String getUserEmail() {
-        return sharedPreferences.getString(KEY_USER_EMAIL, "");
+        return emailOf(session());
     }
 
     /**
      * Obtiene el nombre para mostrar del usuario
      */
     public String getUserDisplayName() {
-        return sharedPreferences.getString(KEY_USER_NAME, "Usuario");
+        return displayNameOf(session());
     }
 
     /**
-     * Obtiene un objeto User con los datos almacenados
+     * Obtiene un objeto User con los datos almacenados (una sola lectura de la sesión en memoria)
      */
     public User getUser() {
         if (!isLoggedIn()) {
             return null;
         }
 
+        SessionData session = session();
         User user = new User();
-        user.setId(getUserId());
-        user.setEmail(getUserEmail());
-        user.setDisplayName(getUserDisplayName());
+        user.setId(session.getUserId());
+        user.setEmail(emailOf(session));
+        user.setDisplayName(displayNameOf(session));
         return user;
     }
 
@@ -126,14 +263,13 @@ public class SessionManager {
      * Verifica si hay una sesión activa válida
      */
     public boolean isLoggedIn() {
-        boolean isLoggedIn = sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
-
-        if (!isLoggedIn) {
+        SessionData session = session();
+        if (!session.isLoggedIn()) {
             return false;
         }
 
         // Verificar si la sesión ha expirado
-        if (isSessionExpired()) {
+        if (isSessionExpired(session)) {
             Log.w(TAG, "⚠️ Sesión expirada");
             logoutUser();
             return false;
@@ -145,8 +281,8 @@ public class SessionManager {
     /**
      * Verifica si la sesión ha expirado
      */
-    private boolean isSessionExpired() {
-        long loginTimestamp = sharedPreferences.getLong(KEY_LOGIN_TIMESTAMP, 0);
+    private boolean isSessionExpired(SessionData session) {
+        long loginTimestamp = session.getLoginTimestamp();
         if (loginTimestamp == 0) {
             return false; // Si no hay timestamp, asumimos que es una sesión vieja, no expiramos
         }
@@ -163,8 +299,8 @@ public class SessionManager {
     public void logoutUser() {
         Log.i(TAG, "🚪 Cerrando sesión de usuario: " + getUserEmail());
 
-        editor.clear();
-        editor.apply();
+        getStore(context).update(session -> SessionData.EMPTY);
+        getAuthState(context).signOut();
 
         Intent intent = new Intent(context, LoginActivity.class);
         intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP);
@@ -177,9 +313,9 @@ public class SessionManager {
      */
     public void updateToken(String newToken) {
         if (newToken != null && !newToken.isEmpty()) {
-            editor.putString(KEY_AUTH_TOKEN, newToken);
-            editor.putLong(KEY_LOGIN_TIMESTAMP, System.currentTimeMillis()); // Resetear timestamp
-            editor.apply();
+            // Se conserva la hora del login: renovar el token no alarga la sesión
+            getStore(context).update(session -> session.withToken(newToken, session.getLoginTimestamp()));
+            getAuthState(context).replaceToken(newToken);
             Log.d(TAG, "Token actualizado");
         }
     }
@@ -189,16 +325,7 @@ public class SessionManager {
      */
     public void updateUserData(User user) {
         if (user != null) {
-            if (user.getId() != null) {
-                editor.putString(KEY_USER_ID, user.getId());
-            }
-            if (user.getEmail() != null) {
-                editor.putString(KEY_USER_EMAIL, user.getEmail());
-            }
-            if (user.getDisplayName() != null) {
-                editor.putString(KEY_USER_NAME, user.getDisplayName());
-            }
-            editor.apply();
+            getStore(context).update(session -> session.withUser(user.getId(), user.getEmail(), user.getDisplayName()));
             Log.d(TAG, "Datos de usuario actualizados");
         }
     }
@@ -207,8 +334,7 @@ public class SessionManager {
      * Marca que el usuario ya vio la pantalla de bienvenida
      */
     public void setWelcomeScreenSeen() {
-        editor.putBoolean(KEY_HAS_SEEN_WELCOME, true);
-        editor.apply();
+        getStore(context).update(SessionData::withWelcomeSeen);
         Log.d(TAG, "Pantalla de bienvenida marcada como vista");
     }
 
@@ -216,20 +342,15 @@ public class SessionManager {
      * Verifica si el usuario ya vio la pantalla de bienvenida
      */
     public boolean hasSeenWelcomeScreen() {
-        return sharedPreferences.getBoolean(KEY_HAS_SEEN_WELCOME, false);
+        return session().hasSeenWelcome();
     }
 
     /**
      * Limpia solo los datos de sesión pero mantiene preferencias
      */
     public void clearSession() {
-        editor.remove(KEY_IS_LOGGED_IN);
-        editor.remove(KEY_AUTH_TOKEN);
-        editor.remove(KEY_USER_ID);
-        editor.remove(KEY_USER_EMAIL);
-        editor.remove(KEY_USER_NAME);
-        editor.remove(KEY_LOGIN_TIMESTAMP);
-        editor.apply();
+        getStore(context).update(SessionData::signedOut);
+        getAuthState(context).signOut();
         Log.d(TAG, "Sesión limpiada (preferencias mantenidas)");
     }
 
@@ -237,8 +358,8 @@ public class SessionManager {
      * Limpia todas las preferencias (reset completo)
      */
     public void clearAll() {
-        editor.clear();
-        editor.apply();
+        getStore(context).update(session -> SessionData.EMPTY);
+        getAuthState(context).signOut();
         Log.d(TAG, "Todas las preferencias limpiadas");
     }
 
@@ -246,13 +367,14 @@ public class SessionManager {
      * Método helper para debugging - muestra info de la sesión
      */
     private void logSessionInfo() {
+        SessionData session = session();
         Log.d(TAG, "═══════════════════════════════════");
         Log.d(TAG, "Información de Sesión:");
-        Log.d(TAG, "  - Usuario ID: " + getUserId());
-        Log.d(TAG, "  - Email: " + getUserEmail());
-        Log.d(TAG, "  - Nombre: " + getUserDisplayName());
-        Log.d(TAG, "  - Token presente: " + (getToken() != null ? "Sí" : "No"));
-        Log.d(TAG, "  - Timestamp: " + sharedPreferences.getLong(KEY_LOGIN_TIMESTAMP, 0));
+        Log.d(TAG, "  - Usuario ID: " + session.getUserId());
+        Log.d(TAG, "  - Email: " + emailOf(session));
+        Log.d(TAG, "  - Nombre: " + displayNameOf(session));
+        Log.d(TAG, "  - Token presente: " + (session.getToken() != null ? "Sí" : "No"));
+        Log.d(TAG, "  - Timestamp: " + session.getLoginTimestamp());
         Log.d(TAG, "═══════════════════════════════════");
     }
 
@@ -268,7 +390,7 @@ public class SessionManager {
      * Obtiene el tiempo restante de sesión en milisegundos
      */
     public long getRemainingSessionTime() {
-        long loginTimestamp = sharedPreferences.getLong(KEY_LOGIN_TIMESTAMP, 0);
+        long loginTimestamp = session().getLoginTimestamp();
         if (loginTimestamp == 0) {
             return SESSION_TIMEOUT; // Sesión sin timestamp, retornar tiempo completo
         }
@@ -287,4 +409,12 @@ public class SessionManager {
         long remainingMs = getRemainingSessionTime();
         return (int) (remainingMs / (24 * 60 * 60 * 1000));
     }
+
+    private static String emailOf(SessionData session) {
+        return session.getEmail() != null ? session.getEmail() : "";
+    }
+
+    private static String displayNameOf(SessionData session) {
+        return session.getDisplayName() != null ? session.getDisplayName() : "Usuario";
+    }
 }
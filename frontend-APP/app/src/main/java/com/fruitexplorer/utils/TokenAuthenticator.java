@@ -0,0 +1,72 @@
+package com.fruitexplorer.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * Respuesta de OkHttp a un 401 de una petición que llevaba el token de la sesión:
+ * - Renueva el token con AuthState.refresh (una sola renovación aunque fallen varias peticiones a
+ *   la vez) y reintenta la petición con el token nuevo
+ * - Si el servidor rechaza la renovación, AuthState cierra la sesión y avisa a la UI una sola vez
+ * - Sin red o con error del servidor la petición falla con IOException y la sesión se mantiene
+ * - Un segundo 401 con el token recién renovado ya no se reintenta: la sesión se cierra
+ */
+public class TokenAuthenticator implements Authenticator {
+    private static final String TAG = "TokenAuthenticator";
+    private static final String BEARER = "Bearer ";
+
+    private final AuthState authState;
+    private final AuthState.Refresher refresher;
+
+    public TokenAuthenticator(AuthState authState, AuthState.Refresher refresher) {
+        this.authState = authState;
+        this.refresher = refresher;
+    }
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, @NonNull Response response) throws IOException {
+        Request request = response.request();
+        String header = request.header("Authorization");
+        if (header == null || !needsToken(request)) {
+            // Credenciales incorrectas en el login, o una petición que salió sin sesión
+            return null;
+        }
+        String failedToken = header.substring(BEARER.length());
+        AuthState.Session session = authState.current();
+        if (response.priorResponse() != null) {
+            if (session != null && session.getToken().equals(failedToken)) {
+                Log.w(TAG, "Token renovado rechazado; se cierra la sesión");
+                authState.expire(session);
+            }
+            return null;
+        }
+
+        String token = authState.refresh(failedToken, refresher);
+        if (token == null) {
+            return null;
+        }
+        return request.newBuilder().header("Authorization", bearer(token)).build();
+    }
+
+    static String bearer(String token) {
+        return BEARER + token;
+    }
+
+    /**
+     * Las peticiones de autenticación no llevan el token de la sesión (la renovación pone el suyo)
+     */
+    static boolean needsToken(Request request) {
+        String path = request.url().encodedPath();
+        return !path.endsWith("/register") && !path.endsWith("/login") && !path.endsWith("/auth/refresh");
+    }
+}
@@ -0,0 +1,73 @@
+package com.fruitexplorer.api;
+
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.Supplier;
+
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Costo de preparar la red al abrir una pantalla (obtener el servicio y crear sus primeras llamadas):
+ * - Antes: retrofit.create(ApiService.class) en cada onCreate (o un Retrofit nuevo tras resetInstance)
+ * - Después: el ApiService cacheado del proceso
+ *
+ * Solo informa tiempos, con -Pbenchmarks (Microbenchmark). Las llamadas no se ejecutan; no hace falta servidor.
+ */
+public class ApiServiceSetupBenchmarkTest {
+
+    private static final String BASE_URL = "http://localhost:4000/api/";
+    private static final int WARMUP_SCREENS = 200;
+    private static final int MEASURED_SCREENS = 2_000;
+
+    @Before
+    public void onlyWhenRequested() {
+        Microbenchmark.assumeEnabled();
+    }
+
+    private static Retrofit newRetrofit(OkHttpClient client, Gson gson, boolean validateEagerly) {
+        return new Retrofit.Builder()
+                .baseUrl(BASE_URL)
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .validateEagerly(validateEagerly)
+                .build();
+    }
+
+    /**
+     * Lo que hace una pantalla típica en onCreate: obtener el servicio y crear sus llamadas
+     */
+    private static int openScreen(Supplier<ApiService> serviceSupplier) {
+        ApiService service = serviceSupplier.get();
+        return service.listFruits(null).hashCode()
+                ^ service.getRegions().hashCode()
+                ^ service.getRecipes(null).hashCode();
+    }
+
+    private static double microsPerScreen(Supplier<ApiService> serviceSupplier) throws Exception {
+        return Microbenchmark.microsPerOp(() -> openScreen(serviceSupplier), WARMUP_SCREENS, MEASURED_SCREENS);
+    }
+
+    @Test
+    public void perScreenSetupCost_beforeAndAfter() throws Exception {
+        OkHttpClient client = new OkHttpClient();
+        Gson gson = new Gson();
+
+        double freshRetrofit = microsPerScreen(
+                () -> newRetrofit(client, new Gson(), false).create(ApiService.class));
+
+        Retrofit shared = newRetrofit(client, gson, false);
+        double createPerScreen = microsPerScreen(() -> shared.create(ApiService.class));
+
+        ApiService cached = newRetrofit(client, gson, true).create(ApiService.class);
+        double cachedService = microsPerScreen(() -> cached);
+
+        Microbenchmark.report("Preparación de red por pantalla: Retrofit nuevo %.1f µs, create() por pantalla %.1f µs, "
+                        + "ApiService cacheado %.1f µs",
+                freshRetrofit, createPerScreen, cachedService);
+    }
+}
@@ -0,0 +1,34 @@
+package com.fruitexplorer.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ventanas de frescura por endpoint del catálogo
+ */
+public class CachePolicyInterceptorTest {
+
+    @Test
+    public void catalogEndpoints_haveFreshnessWindows() {
+        assertEquals(24 * 3600, CachePolicyInterceptor.freshnessSeconds("GET", "/api/regions", null));
+        assertEquals(6 * 3600, CachePolicyInterceptor.freshnessSeconds("GET", "/api/regions/3/fruits", null));
+        assertEquals(3600, CachePolicyInterceptor.freshnessSeconds("GET", "/api/fruits", null));
+        assertEquals(3600, CachePolicyInterceptor.freshnessSeconds("GET", "/api/recipes", null));
+    }
+
+    @Test
+    public void searches_expireSooner() {
+        assertEquals(600, CachePolicyInterceptor.freshnessSeconds("GET", "/api/fruits", "q=lucuma"));
+        assertEquals(600, CachePolicyInterceptor.freshnessSeconds("GET", "/api/recipes", "page=1&q=jugo"));
+        assertEquals(3600, CachePolicyInterceptor.freshnessSeconds("GET", "/api/fruits", "q="));
+    }
+
+    @Test
+    public void otherRequests_areNotCached() {
+        assertEquals(0, CachePolicyInterceptor.freshnessSeconds("POST", "/api/queries/log", null));
+        assertEquals(0, CachePolicyInterceptor.freshnessSeconds("GET", "/api/fruits/slug/aguaje", null));
+        assertEquals(0, CachePolicyInterceptor.freshnessSeconds("GET", "/api/fruits/4/recipes", null));
+        assertEquals(0, CachePolicyInterceptor.freshnessSeconds("GET", "/api/ml-models/latest", "name=x"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.models.CatalogChanges;
+import com.fruitexplorer.models.Fruit;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.MediaType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Formato binario de sync/catalog contra lo que genera el backend
+ */
+public class CatalogBinaryCodecTest {
+
+    /**
+     * encodeCatalogChanges de src/utils/catalogCodec.js con dos frutas (una con nutritional en texto),
+     * una receta con su paso, una relación fruta-región y los ids vigentes
+     */
+    private static final String BACKEND_SAMPLE =
+            "RlhDARkyMDI1LTA2LTAxVDEwOjAwOjAwLjAwMFoAAwEKY2FtdS1jYW11CkNhbXUgY2FtdQAHw4FjaWRhBmMuanBnAwAJY2Fsb3JpZXMD"
+                    + "MjQACXZpdGFtaW5DBzIxNDVtZ6wCB2FndWFqZQdBZ3VhamUSTWF1cml0aWEgZmxleHVvc2EAAAIBBDI4MwECBwlSZWZyZXNj"
+                    + "bwZGcsOtbwZyLmpwZwACBwEHTGljdWFyAgECAQMBrAICAgIH";
+
+    @Test
+    public void decode_readsBackendEncoding() throws IOException {
+        CatalogChanges changes = CatalogBinaryCodec.decode(Base64.getDecoder().decode(BACKEND_SAMPLE));
+
+        assertEquals("2025-06-01T10:00:00.000Z", changes.getServerTime());
+        assertFalse(changes.isFull());
+        assertEquals(2, changes.getFruits().size());
+
+        Fruit camu = changes.getFruits().get(0);
+        assertEquals("camu-camu", camu.getSlug());
+        assertNull(camu.getScientificName());
+        assertEquals("Ácida", camu.getDescription());
+        assertEquals("2145mg", camu.getNutritionalData().get("vitaminC"));
+
+        Fruit aguaje = changes.getFruits().get(1);
+        assertEquals(300, aguaje.getId());
+        assertEquals("283", aguaje.getNutritionalData().get("calories"));
+        // La clave repetida llega por índice y se comparte
+        assertSame(camu.getNutritionalData().getKey(0), aguaje.getNutritionalData().getKey(0));
+
+        assertEquals(0, changes.getRegions().size());
+        assertEquals("Frío", changes.getRecipes().get(0).getDescription());
+        assertNull(changes.getRecipes().get(0).getSource());
+        assertEquals("Licuar", changes.getRecipeSteps().get(0).getDescription());
+        assertEquals(2, changes.getFruitRegions().get(0).getRegionId());
+        assertEquals(Integer.valueOf(300), changes.getIds().getFruits().get(1));
+        assertEquals(Integer.valueOf(7), changes.getIds().getRecipes().get(0));
+    }
+
+    @Test
+    public void encode_matchesBackendBytes() throws IOException {
+        byte[] backend = Base64.getDecoder().decode(BACKEND_SAMPLE);
+        assertArrayEquals(backend, CatalogBinaryCodec.encode(CatalogBinaryCodec.decode(backend)));
+    }
+
+    @Test(expected = IOException.class)
+    public void decode_rejectsTruncatedPayload() throws IOException {
+        byte[] backend = Base64.getDecoder().decode(BACKEND_SAMPLE);
+        CatalogBinaryCodec.decode(java.util.Arrays.copyOf(backend, backend.length / 2));
+    }
+
+    @Test
+    public void converter_onlyTakesTheBinaryContentType() {
+        assertTrue(CatalogBinaryConverterFactory.isBinary(MediaType.get(CatalogBinaryCodec.MEDIA_TYPE)));
+        assertFalse(CatalogBinaryConverterFactory.isBinary(MediaType.get("application/json; charset=utf-8")));
+        assertFalse(CatalogBinaryConverterFactory.isBinary(null));
+    }
+
+    @Test
+    public void seedCatalog_isSmallerThanJsonAndDecodesTheSame() throws IOException {
+        Gson gson = ModelTypeAdapters.register(new GsonBuilder()).create();
+        CatalogChanges catalog = SeedCatalog.load(gson);
+        Assume.assumeNotNull(catalog);
+
+        byte[] json = gson.toJson(catalog).getBytes(StandardCharsets.UTF_8);
+        byte[] binary = CatalogBinaryCodec.encode(catalog);
+
+        // JSON con gzip, binario y binario con gzip entregan el mismo catálogo
+        CatalogChanges fromGzipJson = gson.fromJson(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(gzip(json))), StandardCharsets.UTF_8), CatalogChanges.class);
+        assertArrayEquals(binary, CatalogBinaryCodec.encode(fromGzipJson));
+        assertArrayEquals(binary, CatalogBinaryCodec.encode(CatalogBinaryCodec.decode(gunzip(gzip(binary)))));
+
+        assertTrue(binary.length < json.length);
+        assertTrue(gzip(binary).length < gzip(json).length);
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,70 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.models.CatalogChanges;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Sincronización completa del catálogo de seed_data.sql en cada formato:
+ * - JSON con gzip (lo que llega hoy con Accept-Encoding): gunzip + Gson con ModelTypeAdapters
+ * - Binario (CatalogBinaryCodec), solo y con gzip
+ *
+ * Solo informa bytes en la red y tiempo de decodificación, con -Pbenchmarks (Microbenchmark); la
+ * equivalencia y los tamaños se verifican en CatalogBinaryCodecTest.
+ */
+public class CatalogWireFormatBenchmarkTest {
+
+    private static final int WARMUP_DECODES = 500;
+    private static final int MEASURED_DECODES = 2_000;
+
+    private interface Decoder {
+        CatalogChanges decode(byte[] payload) throws IOException;
+    }
+
+    @Before
+    public void onlyWhenRequested() {
+        Microbenchmark.assumeEnabled();
+    }
+
+    @Test
+    public void fullCatalog_gzipJsonVsBinary() throws Exception {
+        Gson gson = ModelTypeAdapters.register(new GsonBuilder()).create();
+        CatalogChanges catalog = SeedCatalog.load(gson);
+        Assume.assumeNotNull(catalog);
+
+        byte[] json = gson.toJson(catalog).getBytes(StandardCharsets.UTF_8);
+        byte[] gzipJson = CatalogBinaryCodecTest.gzip(json);
+        byte[] binary = CatalogBinaryCodec.encode(catalog);
+        byte[] gzipBinary = CatalogBinaryCodecTest.gzip(binary);
+
+        Decoder fromGzipJson = payload -> gson.fromJson(
+                new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(payload)), StandardCharsets.UTF_8),
+                CatalogChanges.class);
+        Decoder fromGzipBinary = payload -> CatalogBinaryCodec.decode(CatalogBinaryCodecTest.gunzip(payload));
+
+        double gzipJsonMicros = microsPerDecode(fromGzipJson, gzipJson);
+        double binaryMicros = microsPerDecode(CatalogBinaryCodec::decode, binary);
+        double gzipBinaryMicros = microsPerDecode(fromGzipBinary, gzipBinary);
+
+        Microbenchmark.report("Catálogo de seed_data.sql (%d frutas, %d recetas, %d pasos): JSON %d B, "
+                        + "JSON+gzip %d B (%.0f µs), binario %d B (%.0f µs), binario+gzip %d B (%.0f µs)",
+                catalog.getFruits().size(), catalog.getRecipes().size(), catalog.getRecipeSteps().size(),
+                json.length, gzipJson.length, gzipJsonMicros,
+                binary.length, binaryMicros, gzipBinary.length, gzipBinaryMicros);
+    }
+
+    private static double microsPerDecode(Decoder decoder, byte[] payload) throws Exception {
+        return Microbenchmark.microsPerOp(() -> decoder.decode(payload).getFruits().size(),
+                WARMUP_DECODES, MEASURED_DECODES);
+    }
+}
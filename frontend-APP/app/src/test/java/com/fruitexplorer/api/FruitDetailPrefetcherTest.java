@@ -0,0 +1,321 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.data.EntityStore;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.FruitResponse;
+import com.fruitexplorer.models.NutritionalData;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.models.RecipeListResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Precarga especulativa de la ficha: aciertos en memoria y en el catálogo local, enganche a la llamada
+ * en curso, abandono al cambiar de candidato y vencimiento, con llamadas falsas y un reloj manual
+ */
+public class FruitDetailPrefetcherTest {
+
+    /** Llamada que guarda el callback para responder cuando el test lo decida */
+    private static final class FakeCall<T> implements Call<T> {
+        Callback<T> callback;
+        boolean canceled;
+
+        @Override
+        public Response<T> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new FakeCall<>();
+        }
+
+        @Override
+        public Request request() {
+            return null;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        void respond(T body) {
+            callback.onResponse(this, Response.success(body));
+        }
+
+        void fail() {
+            callback.onFailure(this, new IOException("sin red"));
+        }
+    }
+
+    private final List<String> fruitRequests = new ArrayList<>();
+    private final List<FakeCall<FruitResponse>> fruitCalls = new ArrayList<>();
+    private final List<FakeCall<RecipeListResponse>> recipeCalls = new ArrayList<>();
+    private final List<String> preloadedImages = new ArrayList<>();
+    private final List<String> events = new ArrayList<>();
+    private final Map<String, Fruit> localCatalog = new HashMap<>();
+    private final Map<Integer, List<Recipe>> localRecipes = new HashMap<>();
+    private long now = 1_000;
+    private EntityStore<Fruit> store;
+    private FruitDetailPrefetcher prefetcher;
+
+    private final FruitDetailPrefetcher.Listener listener = new FruitDetailPrefetcher.Listener() {
+        @Override
+        public void onFruit(Fruit fruit) {
+            events.add("fruta " + fruit.getSlug());
+        }
+
+        @Override
+        public void onRecipes(List<Recipe> recipes) {
+            events.add("recetas " + recipes.size());
+        }
+
+        @Override
+        public void onFruitFailed(int code, Throwable error) {
+            events.add("error " + code);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        store = new EntityStore<>(16, 10 * 60 * 1000, Fruit::getId, Fruit::getSlug, () -> now);
+        prefetcher = new FruitDetailPrefetcher(new FruitDetailPrefetcher.Source() {
+            @Override
+            public void loadLocalFruit(String slug, Consumer<Fruit> callback) {
+                callback.accept(localCatalog.get(slug));
+            }
+
+            @Override
+            public Call<FruitResponse> getFruitDetail(String slug) {
+                fruitRequests.add(slug);
+                FakeCall<FruitResponse> call = new FakeCall<>();
+                fruitCalls.add(call);
+                return call;
+            }
+
+            @Override
+            public void loadLocalRecipes(int fruitId, Consumer<List<Recipe>> callback) {
+                callback.accept(localRecipes.get(fruitId));
+            }
+
+            @Override
+            public Call<RecipeListResponse> getRecipesByFruit(int fruitId) {
+                FakeCall<RecipeListResponse> call = new FakeCall<>();
+                recipeCalls.add(call);
+                return call;
+            }
+
+            @Override
+            public void preloadImage(String url) {
+                preloadedImages.add(url);
+            }
+        }, store, () -> now);
+    }
+
+    private static FruitResponse fruit(int id, String slug) {
+        return new FruitResponse(new Fruit(id, slug, slug, null, null, slug + ".jpg", NutritionalData.EMPTY));
+    }
+
+    private static RecipeListResponse recipes(int count) {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            recipes.add(new Recipe(i + 1, "Receta " + i, null, null, null));
+        }
+        return new RecipeListResponse(recipes, null);
+    }
+
+    @Test
+    public void prefetchedDetails_areDeliveredWithoutAnotherRequest() {
+        prefetcher.prefetch("aguaje");
+        fruitCalls.get(0).respond(fruit(3, "aguaje"));
+        recipeCalls.get(0).respond(recipes(2));
+
+        prefetcher.load("aguaje", listener);
+
+        assertEquals(Collections.singletonList("aguaje"), fruitRequests);
+        assertEquals(Collections.singletonList("aguaje.jpg"), preloadedImages);
+        assertEquals(List.of("fruta aguaje", "recetas 2"), events);
+        assertEquals(1, prefetcher.getStats().getHits());
+    }
+
+    @Test
+    public void loadDuringPrefetch_joinsTheCallInFlight() {
+        prefetcher.prefetch("aguaje");
+        prefetcher.load("aguaje", listener);
+        assertTrue(events.isEmpty());
+
+        fruitCalls.get(0).respond(fruit(3, "aguaje"));
+        recipeCalls.get(0).respond(recipes(0));
+
+        assertEquals(1, fruitRequests.size());
+        assertEquals(List.of("fruta aguaje", "recetas 0"), events);
+        assertEquals(1, prefetcher.getStats().getJoined());
+    }
+
+    @Test
+    public void newCandidate_cancelsTheAbandonedPrefetch() {
+        prefetcher.prefetch("aguaje");
+        prefetcher.prefetch("camu-camu");
+
+        assertTrue(fruitCalls.get(0).canceled);
+        assertFalse(fruitCalls.get(1).canceled);
+        assertEquals(1, prefetcher.getStats().getAbandoned());
+
+        // Repetir el candidato vigente no vuelve a pedirlo
+        prefetcher.prefetch("camu-camu");
+        assertEquals(2, fruitRequests.size());
+    }
+
+    @Test
+    public void awaitedPrefetch_isNotCancelledByANewCandidate() {
+        prefetcher.prefetch("aguaje");
+        prefetcher.load("aguaje", listener);
+        prefetcher.prefetch("camu-camu");
+
+        assertFalse(fruitCalls.get(0).canceled);
+        fruitCalls.get(0).respond(fruit(3, "aguaje"));
+        assertEquals(List.of("fruta aguaje"), events);
+    }
+
+    @Test
+    public void staleEntry_isRequestedAgain() {
+        prefetcher.prefetch("aguaje");
+        fruitCalls.get(0).respond(fruit(3, "aguaje"));
+        recipeCalls.get(0).respond(recipes(1));
+
+        // Recetas vencidas: se vuelven a pedir, la fruta sigue en el store
+        now += FruitDetailPrefetcher.FRESH_MS + 1;
+        prefetcher.load("aguaje", listener);
+        assertEquals(1, fruitRequests.size());
+        assertEquals(2, recipeCalls.size());
+        assertEquals(List.of("fruta aguaje"), events);
+
+        // Fruta vencida en el store: se descarga de nuevo
+        now += 10 * 60 * 1000;
+        prefetcher.load("aguaje", listener);
+        assertEquals(2, fruitRequests.size());
+        assertEquals(2, prefetcher.getStats().getRemote());
+    }
+
+    @Test
+    public void detailWithIncludedRecipes_takesASingleRoundTrip() {
+        prefetcher.load("aguaje", listener);
+        fruitCalls.get(0).respond(new FruitResponse(fruit(3, "aguaje").getFruit(),
+                recipes(2).getRecipes(), null));
+
+        assertTrue(recipeCalls.isEmpty());
+        assertEquals(List.of("fruta aguaje", "recetas 2"), events);
+    }
+
+    @Test
+    public void localCatalog_servesFruitAndRecipesWithoutNetwork() {
+        localCatalog.put("aguaje", fruit(3, "aguaje").getFruit());
+        localRecipes.put(3, recipes(1).getRecipes());
+        prefetcher.load("aguaje", listener);
+
+        assertTrue(fruitRequests.isEmpty());
+        assertTrue(recipeCalls.isEmpty());
+        assertEquals(List.of("fruta aguaje", "recetas 1"), events);
+    }
+
+    @Test
+    public void fruitInTheSharedStore_isNotDownloaded() {
+        store.put(fruit(3, "aguaje").getFruit());
+        prefetcher.load("aguaje", listener);
+
+        assertTrue(fruitRequests.isEmpty());
+        assertEquals(List.of("fruta aguaje"), events);
+        recipeCalls.get(0).respond(recipes(1));
+        assertEquals(List.of("fruta aguaje", "recetas 1"), events);
+    }
+
+    @Test
+    public void fruitInTheLocalCatalog_isNotDownloadedAndIsShared() {
+        localCatalog.put("aguaje", fruit(3, "aguaje").getFruit());
+        prefetcher.load("aguaje", listener);
+
+        assertTrue(fruitRequests.isEmpty());
+        assertEquals(1, prefetcher.getStats().getLocal());
+        assertSame(localCatalog.get("aguaje"), store.getById(3));
+    }
+
+    @Test
+    public void downloadedFruit_isWrittenToTheSharedStore() {
+        prefetcher.load("aguaje", listener);
+        fruitCalls.get(0).respond(fruit(3, "aguaje"));
+
+        assertEquals("aguaje", store.getById(3).getSlug());
+    }
+
+    @Test
+    public void fruitInvalidatedBySync_isLoadedAgain() {
+        prefetcher.load("aguaje", listener);
+        fruitCalls.get(0).respond(fruit(3, "aguaje"));
+        recipeCalls.get(0).respond(recipes(1));
+
+        store.remove(3);
+        prefetcher.load("aguaje", listener);
+        assertEquals(2, fruitRequests.size());
+    }
+
+    @Test
+    public void failedFruit_isReportedAndNotCached() {
+        prefetcher.load("aguaje", listener);
+        fruitCalls.get(0).fail();
+        assertEquals(List.of("error -1"), events);
+
+        prefetcher.load("aguaje", listener);
+        assertEquals(2, fruitRequests.size());
+    }
+
+    @Test
+    public void cancelledListener_isNotCalledButResultIsKept() {
+        prefetcher.load("aguaje", listener);
+        prefetcher.cancel(listener);
+        fruitCalls.get(0).respond(fruit(3, "aguaje"));
+        recipeCalls.get(0).respond(recipes(1));
+        assertTrue(events.isEmpty());
+
+        prefetcher.load("aguaje", listener);
+        assertEquals(1, fruitRequests.size());
+        assertEquals(List.of("fruta aguaje", "recetas 1"), events);
+    }
+}
@@ -0,0 +1,47 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.api.ModelTypeAdaptersTest.LegacyFruitList;
+import com.fruitexplorer.models.FruitListResponse;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Lectura de un listado de frutas como el de GET /fruits:
+ * - Antes: Gson por reflexión, con nutritional como JsonObject (ModelTypeAdaptersTest.LegacyFruit)
+ * - Después: el Gson de ApiClient con ModelTypeAdapters y NutritionalData
+ *
+ * Solo informa tiempos, con -Pbenchmarks (Microbenchmark); la equivalencia y las asignaciones se
+ * verifican en ModelTypeAdaptersTest.
+ */
+public class JsonParsingBenchmarkTest {
+
+    private static final int WARMUP_PARSES = 200;
+    private static final int MEASURED_PARSES = 1_000;
+
+    @Before
+    public void onlyWhenRequested() {
+        Microbenchmark.assumeEnabled();
+    }
+
+    @Test
+    public void fruitListParsing_reflectionVsStreaming() throws Exception {
+        String json = ModelTypeAdaptersTest.fruitListJson();
+        Gson reflective = new Gson();
+        Gson streaming = ModelTypeAdapters.register(new GsonBuilder()).create();
+
+        double before = Microbenchmark.microsPerOp(
+                () -> reflective.fromJson(json, LegacyFruitList.class).fruits.size(), WARMUP_PARSES, MEASURED_PARSES);
+        double after = Microbenchmark.microsPerOp(
+                () -> streaming.fromJson(json, FruitListResponse.class).getFruits().size(), WARMUP_PARSES,
+                MEASURED_PARSES);
+
+        double megabytes = json.length() / 1_000_000.0;
+        Microbenchmark.report("Listado de %d frutas (%.0f KB): reflexión %.0f µs/doc (%.1f MB/s), "
+                        + "streaming %.0f µs/doc (%.1f MB/s)",
+                ModelTypeAdaptersTest.LISTED_FRUITS, json.length() / 1_000.0,
+                before, megabytes / (before / 1_000_000.0), after, megabytes / (after / 1_000_000.0));
+    }
+}
@@ -0,0 +1,59 @@
+package com.fruitexplorer.api;
+
+import org.junit.Assume;
+
+import java.util.Locale;
+
+/**
+ * Plantilla común de los *BenchmarkTest:
+ * - Solo corren con ./gradlew test -Pbenchmarks (propiedad fruitexplorer.benchmarks); en la tarea test
+ *   normal se omiten, porque sus tiempos dependen de la máquina y no verifican nada
+ * - Calentamiento del JIT, medición y blackhole para que el trabajo medido no se descarte
+ *
+ * Las comparaciones que sí son estables (tamaños, asignaciones) viven en los tests normales.
+ */
+final class Microbenchmark {
+
+    static final String ENABLED_PROPERTY = "fruitexplorer.benchmarks";
+
+    // Evita que el JIT descarte el trabajo medido
+    private static volatile int blackhole;
+
+    interface Operation {
+        /**
+         * @return cualquier valor derivado del resultado, para el blackhole
+         */
+        int run() throws Exception;
+    }
+
+    private Microbenchmark() {
+    }
+
+    /**
+     * Omite el test salvo que se pidan las mediciones
+     */
+    static void assumeEnabled() {
+        Assume.assumeTrue("Mediciones desactivadas; usar -Pbenchmarks", Boolean.getBoolean(ENABLED_PROPERTY));
+    }
+
+    /**
+     * @return microsegundos por operación tras warmup repeticiones sin medir
+     */
+    static double microsPerOp(Operation operation, int warmup, int measured) throws Exception {
+        int sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < measured; i++) {
+            sink += operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        blackhole = sink;
+        return elapsed / 1_000.0 / measured;
+    }
+
+    static void report(String format, Object... args) {
+        System.out.println(String.format(Locale.US, format, args));
+    }
+}
@@ -0,0 +1,211 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.models.CatalogChanges;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.FruitListResponse;
+import com.fruitexplorer.models.FruitResponse;
+import com.fruitexplorer.models.NutritionalData;
+import com.fruitexplorer.models.RecipeDetailResponse;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.SerializedName;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Lectura en streaming de los modelos con el Gson de ApiClient
+ */
+public class ModelTypeAdaptersTest {
+
+    static final int LISTED_FRUITS = 300;
+    private static final int ALLOCATION_PARSES = 50;
+
+    private final Gson gson = ModelTypeAdapters.register(new GsonBuilder()).create();
+
+    /**
+     * Modelo anterior, leído por reflexión con nutritional como JsonObject
+     */
+    static class LegacyFruit {
+        @SerializedName("id") int id;
+        @SerializedName("common_name") String commonName;
+        @SerializedName("slug") String slug;
+        @SerializedName("scientific_name") String scientificName;
+        @SerializedName("description") String description;
+        @SerializedName("image_url") String imageUrl;
+        @SerializedName("nutritional") JsonObject nutritional;
+    }
+
+    static class LegacyFruitList {
+        @SerializedName("fruits") List<LegacyFruit> fruits;
+        @SerializedName("next_cursor") String nextCursor;
+    }
+
+    /**
+     * Listado de GET /fruits con filas con la forma de seed_data.sql (incluye columnas que la app no usa)
+     */
+    static String fruitListJson() {
+        StringBuilder json = new StringBuilder("{\"fruits\":[");
+        for (int i = 0; i < LISTED_FRUITS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i + 1)
+                    .append(",\"slug\":\"fruta-").append(i).append('"')
+                    .append(",\"common_name\":\"Fruta ").append(i).append('"')
+                    .append(",\"scientific_name\":\"Genus species").append(i).append('"')
+                    .append(",\"description\":\"Fruta amazónica de pulpa jugosa y sabor ácido, rica en vitamina C.\"")
+                    .append(",\"nutritional\":{\"calories\":").append(40 + i % 60)
+                    .append(",\"carbs\":\"15g\",\"fiber\":\"1.6g\",\"sugar\":\"13.7g\",\"protein\":\"0.8g\"")
+                    .append(",\"vitaminC\":\"36.4mg\",\"potassium\":\"358mg\"}")
+                    .append(",\"image_url\":\"https://images.example.com/fruta-").append(i).append(".jpg\"")
+                    .append(",\"source_api_url\":\"https://api.example.com/fruit/").append(i).append('"')
+                    .append(",\"last_synced_at\":\"2025-06-01T10:00:00.000Z\",\"synced_by\":1")
+                    .append(",\"created_at\":\"2025-06-01T10:00:00.000Z\"}");
+        }
+        return json.append("],\"next_cursor\":null}").toString();
+    }
+
+    @Test
+    public void fruitList_readsFieldsAndSkipsUnknown() {
+        String json = "{\"fruits\":[{\"id\":1,\"slug\":\"aguaje\",\"common_name\":\"Aguaje\","
+                + "\"scientific_name\":null,\"description\":\"Palmera amazónica\",\"image_url\":\"a.jpg\","
+                + "\"source_api_url\":\"https://x\",\"created_at\":\"2025-01-01\","
+                + "\"nutritional\":{\"calories\":283,\"carbs\":\"15g\",\"extra\":{\"a\":1}}}],"
+                + "\"total\":1,\"next_cursor\":\"abc\"}";
+
+        FruitListResponse response = gson.fromJson(json, FruitListResponse.class);
+
+        assertEquals("abc", response.getNextCursor());
+        Fruit fruit = response.getFruits().get(0);
+        assertEquals(1, fruit.getId());
+        assertEquals("Aguaje", fruit.getCommonName());
+        assertNull(fruit.getScientificName());
+        assertEquals("a.jpg", fruit.getImageUrl());
+        NutritionalData nutritional = fruit.getNutritionalData();
+        assertEquals(2, nutritional.size());
+        assertEquals("283", nutritional.get("calories"));
+        assertEquals("15g", nutritional.get("carbs"));
+    }
+
+    @Test
+    public void nutritional_sharesKnownKeysAndRoundTrips() {
+        NutritionalData first = gson.fromJson("{\"calories\":60,\"vitaminC\":\"36.4mg\"}", NutritionalData.class);
+        NutritionalData second = gson.fromJson("{\"calories\":89}", NutritionalData.class);
+
+        assertSame(first.getKey(0), second.getKey(0));
+
+        NutritionalData copy = gson.fromJson(gson.toJson(first), NutritionalData.class);
+        assertEquals("calories", copy.getKey(0));
+        assertEquals("60", copy.getValue(0));
+        assertEquals("36.4mg", copy.get("vitaminC"));
+    }
+
+    @Test
+    public void missingOrNullFields_keepDefaults() {
+        Fruit fruit = gson.fromJson("{\"id\":null,\"slug\":\"camu-camu\",\"nutritional\":null}", Fruit.class);
+        assertEquals(0, fruit.getId());
+        assertEquals("camu-camu", fruit.getSlug());
+        assertTrue(fruit.getNutritionalData().isEmpty());
+
+        RecipeDetailResponse detail = gson.fromJson("{\"recipe\":{\"id\":3,\"title\":\"Refresco\"}}",
+                RecipeDetailResponse.class);
+        assertEquals("Refresco", detail.getRecipe().getTitle());
+        assertNull(detail.getSteps());
+    }
+
+    @Test
+    public void fruitDetail_readsIncludedRelations() {
+        FruitResponse detail = gson.fromJson("{\"fruit\":{\"id\":3,\"slug\":\"aguaje\"},"
+                + "\"recipes\":[{\"id\":7,\"title\":\"Aguajina\"}],\"regions\":[{\"id\":1,\"name\":\"Loreto\"}]}",
+                FruitResponse.class);
+        assertEquals("aguaje", detail.getFruit().getSlug());
+        assertEquals("Aguajina", detail.getRecipes().get(0).getTitle());
+        assertEquals("Loreto", detail.getRegions().get(0).getName());
+
+        // Sin include solo llega la fruta
+        assertNull(gson.fromJson("{\"fruit\":{\"id\":3}}", FruitResponse.class).getRecipes());
+    }
+
+    @Test
+    public void catalogChanges_roundTrip() {
+        String json = "{\"server_time\":\"2025-06-01 10:00:00\",\"full\":true,"
+                + "\"fruits\":[{\"id\":2,\"slug\":\"cocona\",\"common_name\":\"Cocona\",\"nutritional\":{\"fiber\":\"2g\"}}],"
+                + "\"regions\":[{\"id\":5,\"name\":\"Loreto\"}],"
+                + "\"recipes\":[],\"recipe_steps\":[{\"recipe_id\":7,\"step_number\":1,\"description\":\"Pelar\"}],"
+                + "\"fruit_regions\":[{\"fruit_id\":2,\"region_id\":5}],\"fruit_recipes\":[],"
+                + "\"ids\":{\"fruits\":[2],\"regions\":[5],\"recipes\":[]}}";
+
+        CatalogChanges changes = gson.fromJson(gson.toJson(gson.fromJson(json, CatalogChanges.class)),
+                CatalogChanges.class);
+
+        assertEquals("2025-06-01 10:00:00", changes.getServerTime());
+        assertTrue(changes.isFull());
+        assertEquals("2g", changes.getFruits().get(0).getNutritionalData().get("fiber"));
+        assertEquals("Loreto", changes.getRegions().get(0).getName());
+        assertEquals(0, changes.getRecipes().size());
+        assertEquals("Pelar", changes.getRecipeSteps().get(0).getDescription());
+        assertEquals(5, changes.getFruitRegions().get(0).getRegionId());
+        assertEquals(Integer.valueOf(2), changes.getIds().getFruits().get(0));
+    }
+
+    @Test
+    public void fruitList_matchesTheReflectiveParse() {
+        String json = fruitListJson();
+
+        LegacyFruitList legacy = new Gson().fromJson(json, LegacyFruitList.class);
+        FruitListResponse current = gson.fromJson(json, FruitListResponse.class);
+
+        assertEquals(LISTED_FRUITS, current.getFruits().size());
+        for (int i = 0; i < LISTED_FRUITS; i++) {
+            LegacyFruit before = legacy.fruits.get(i);
+            Fruit after = current.getFruits().get(i);
+            assertEquals(before.id, after.getId());
+            assertEquals(before.commonName, after.getCommonName());
+            assertEquals(before.imageUrl, after.getImageUrl());
+            assertEquals(before.nutritional.get("calories").getAsString(), after.getNutritionalData().get("calories"));
+        }
+    }
+
+    @Test
+    public void fruitList_allocatesLessThanTheReflectiveParse() {
+        String json = fruitListJson();
+        Gson reflective = new Gson();
+
+        long before = allocatedPerParse(json, s -> reflective.fromJson(s, LegacyFruitList.class).fruits.size());
+        long after = allocatedPerParse(json, s -> gson.fromJson(s, FruitListResponse.class).getFruits().size());
+
+        // Las asignaciones por hilo solo existen en HotSpot; en otras JVM no hay con qué comparar
+        if (before >= 0) {
+            assertTrue("streaming " + after + " B, reflexión " + before + " B", after < before);
+        }
+    }
+
+    /**
+     * @return bytes asignados por lectura en el hilo actual, o -1 si la JVM no lo informa
+     */
+    private static long allocatedPerParse(String json, Function<String, Integer> parse) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long thread = Thread.currentThread().getId();
+        // Primera lectura fuera de la cuenta: carga de clases y adaptadores
+        int parsed = parse.apply(json);
+        long start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ALLOCATION_PARSES; i++) {
+            parsed += parse.apply(json);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - start;
+        assertEquals(LISTED_FRUITS * (ALLOCATION_PARSES + 1), parsed);
+        return allocated / ALLOCATION_PARSES;
+    }
+}
@@ -0,0 +1,201 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.utils.Scheduler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Debounce, cancelación y descarte de respuestas viejas, con un reloj manual y llamadas falsas
+ */
+public class SearchPipelineTest {
+
+    /** Ejecuta a mano las tareas programadas */
+    private static final class ManualScheduler implements Scheduler {
+        final Map<Runnable, Long> tasks = new LinkedHashMap<>();
+
+        @Override
+        public void postDelayed(Runnable task, long delayMillis) {
+            tasks.put(task, delayMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable task) {
+            tasks.remove(task);
+        }
+
+        void runAll() {
+            List<Runnable> due = new ArrayList<>(tasks.keySet());
+            tasks.clear();
+            for (Runnable task : due) {
+                task.run();
+            }
+        }
+    }
+
+    /** Llamada que guarda el callback para responder cuando el test lo decida */
+    private static final class FakeCall implements Call<String> {
+        Callback<String> callback;
+        boolean canceled;
+
+        @Override
+        public Response<String> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(Callback<String> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<String> clone() {
+            return new FakeCall();
+        }
+
+        @Override
+        public Request request() {
+            return null;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+
+        void respond(String body) {
+            callback.onResponse(this, Response.success(body));
+        }
+
+        void fail() {
+            callback.onFailure(this, new IOException("sin red"));
+        }
+    }
+
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final List<String> searched = new ArrayList<>();
+    private final List<FakeCall> calls = new ArrayList<>();
+    private final List<String> shown = new ArrayList<>();
+    private SearchPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        pipeline = new SearchPipeline(scheduler, 300, (query, ticket) -> {
+            searched.add(query);
+            FakeCall call = new FakeCall();
+            calls.add(call);
+            ticket.enqueue(call, new Callback<String>() {
+                @Override
+                public void onResponse(Call<String> c, Response<String> response) {
+                    shown.add(response.body());
+                }
+
+                @Override
+                public void onFailure(Call<String> c, Throwable t) {
+                    shown.add("error");
+                }
+            });
+        });
+    }
+
+    @Test
+    public void typing_runsOnlyTheLastQuery() {
+        pipeline.onQueryChanged("c");
+        pipeline.onQueryChanged("co");
+        pipeline.onQueryChanged(" coc ");
+        scheduler.runAll();
+
+        assertEquals(1, searched.size());
+        assertEquals("coc", searched.get(0));
+        assertEquals(2, pipeline.getStats().getDebounced());
+    }
+
+    @Test
+    public void newQuery_cancelsInFlightCallAndIgnoresItsResponse() {
+        pipeline.submit("aguaje");
+        pipeline.submit("cocona");
+
+        FakeCall old = calls.get(0);
+        assertTrue(old.isCanceled());
+        assertEquals(1, pipeline.getStats().getCancelledCalls());
+
+        calls.get(1).respond("cocona");
+        old.respond("aguaje");
+        old.fail();
+
+        assertEquals(1, shown.size());
+        assertEquals("cocona", shown.get(0));
+    }
+
+    @Test
+    public void oldTicket_isNoLongerCurrent() {
+        List<SearchPipeline.Ticket> tickets = new ArrayList<>();
+        SearchPipeline local = new SearchPipeline(scheduler, 300, (query, ticket) -> tickets.add(ticket));
+
+        local.submit("lucuma");
+        local.submit("camu");
+
+        assertFalse(tickets.get(0).isCurrent());
+        assertTrue(tickets.get(1).isCurrent());
+        assertTrue(tickets.get(0).getSequence() < tickets.get(1).getSequence());
+    }
+
+    @Test
+    public void sameQuery_isNotRequestedAgainUnlessItFailed() {
+        pipeline.submit("cocona");
+        calls.get(0).respond("cocona");
+        pipeline.submit("cocona ");
+        assertEquals(1, searched.size());
+        assertEquals(1, pipeline.getStats().getDuplicates());
+
+        pipeline.submit("aguaje");
+        calls.get(1).fail();
+        pipeline.submit("aguaje");
+        assertEquals(3, searched.size());
+
+        pipeline.refresh();
+        assertEquals(4, searched.size());
+    }
+
+    @Test
+    public void close_cancelsEverything() {
+        pipeline.submit("cocona");
+        pipeline.onQueryChanged("aguaje");
+        pipeline.close();
+        scheduler.runAll();
+
+        assertTrue(calls.get(0).isCanceled());
+        assertEquals(1, searched.size());
+        calls.get(0).respond("cocona");
+        assertTrue(shown.isEmpty());
+    }
+}
@@ -0,0 +1,157 @@
+package com.fruitexplorer.api;
+
+import com.fruitexplorer.models.CatalogChanges;
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.NutritionalData;
+import com.fruitexplorer.models.Recipe;
+import com.fruitexplorer.models.RecipeStep;
+import com.fruitexplorer.models.Region;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Catálogo completo de seed_data.sql del backend, como lo entregaría una sincronización completa.
+ * Solo existe si el backend está junto a la app; los tests que lo usan se omiten si no.
+ */
+final class SeedCatalog {
+
+    private static final String[] SEED_PATHS = {
+            "../../backend-FruitExplorer/seed_data.sql", "../backend-FruitExplorer/seed_data.sql",
+            "backend-FruitExplorer/seed_data.sql"
+    };
+    private static final Pattern INSERT = Pattern.compile("INSERT INTO (\\w+) \\(([^)]*)\\) VALUES");
+
+    private SeedCatalog() {
+    }
+
+    /**
+     * @return el catálogo de seed_data.sql, o null si el archivo no se encuentra
+     */
+    static CatalogChanges load(Gson gson) throws IOException {
+        for (String path : SEED_PATHS) {
+            File file = new File(path);
+            if (file.isFile()) {
+                return catalogFrom(readSeed(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)),
+                        gson);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Filas de cada INSERT INTO tabla (columnas) VALUES (...), (...); como mapas columna -> texto
+     * (NULL queda como null; NOW() y demás expresiones, como su texto)
+     */
+    private static Map<String, List<Map<String, String>>> readSeed(String sql) {
+        Map<String, List<Map<String, String>>> tables = new HashMap<>();
+        Matcher insert = INSERT.matcher(sql);
+        while (insert.find()) {
+            String[] columns = insert.group(2).split(",\\s*");
+            List<Map<String, String>> rows = tables.computeIfAbsent(insert.group(1), t -> new ArrayList<>());
+            List<String> values = new ArrayList<>();
+            StringBuilder bare = new StringBuilder();
+            int depth = 0;
+            int i = insert.end();
+            while (i < sql.length()) {
+                char c = sql.charAt(i);
+                if (c == '-' && sql.startsWith("--", i)) {
+                    i = sql.indexOf('\n', i);
+                } else if (c == '\'') {
+                    StringBuilder text = new StringBuilder();
+                    i++;
+                    while (sql.charAt(i) != '\'' || sql.startsWith("''", i)) {
+                        text.append(sql.charAt(i));
+                        i += sql.startsWith("''", i) ? 2 : 1;
+                    }
+                    values.add(text.toString());
+                    i++;
+                } else if (depth == 0) {
+                    if (c == ';') {
+                        break;
+                    }
+                    if (c == '(') {
+                        depth = 1;
+                        values = new ArrayList<>();
+                    }
+                    i++;
+                } else {
+                    if (c == '(') {
+                        depth++;
+                    } else if (c == ')') {
+                        depth--;
+                    }
+                    if (depth == 0 || (c == ',' && depth == 1)) {
+                        String token = bare.toString().trim();
+                        if (!token.isEmpty()) {
+                            values.add(token.equals("NULL") ? null : token);
+                        }
+                        bare.setLength(0);
+                        if (depth == 0) {
+                            Map<String, String> row = new HashMap<>();
+                            for (int column = 0; column < columns.length; column++) {
+                                row.put(columns[column], values.get(column));
+                            }
+                            rows.add(row);
+                        }
+                    } else {
+                        bare.append(c);
+                    }
+                    i++;
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static CatalogChanges catalogFrom(Map<String, List<Map<String, String>>> seed, Gson gson) {
+        List<Fruit> fruits = new ArrayList<>();
+        List<Integer> fruitIds = new ArrayList<>();
+        for (Map<String, String> row : seed.get("fruits")) {
+            fruits.add(new Fruit(Integer.parseInt(row.get("id")), row.get("slug"), row.get("common_name"),
+                    row.get("scientific_name"), row.get("description"), row.get("image_url"),
+                    gson.fromJson(row.get("nutritional"), NutritionalData.class)));
+            fruitIds.add(Integer.parseInt(row.get("id")));
+        }
+        List<Region> regions = new ArrayList<>();
+        List<Integer> regionIds = new ArrayList<>();
+        for (Map<String, String> row : seed.get("regions")) {
+            regions.add(new Region(Integer.parseInt(row.get("id")), row.get("name"), row.get("description"),
+                    row.get("image_url")));
+            regionIds.add(Integer.parseInt(row.get("id")));
+        }
+        List<Recipe> recipes = new ArrayList<>();
+        List<Integer> recipeIds = new ArrayList<>();
+        for (Map<String, String> row : seed.get("recipes")) {
+            recipes.add(new Recipe(Integer.parseInt(row.get("id")), row.get("title"), row.get("description"),
+                    row.get("image_url"), row.get("source")));
+            recipeIds.add(Integer.parseInt(row.get("id")));
+        }
+        List<RecipeStep> steps = new ArrayList<>();
+        for (Map<String, String> row : seed.get("recipe_steps")) {
+            steps.add(new RecipeStep(Integer.parseInt(row.get("recipe_id")), Integer.parseInt(row.get("step_number")),
+                    row.get("description")));
+        }
+        List<CatalogChanges.FruitRegion> fruitRegions = new ArrayList<>();
+        for (Map<String, String> row : seed.get("fruit_regions")) {
+            fruitRegions.add(new CatalogChanges.FruitRegion(Integer.parseInt(row.get("fruit_id")),
+                    Integer.parseInt(row.get("region_id"))));
+        }
+        List<CatalogChanges.FruitRecipe> fruitRecipes = new ArrayList<>();
+        for (Map<String, String> row : seed.get("fruit_recipes")) {
+            fruitRecipes.add(new CatalogChanges.FruitRecipe(Integer.parseInt(row.get("fruit_id")),
+                    Integer.parseInt(row.get("recipe_id"))));
+        }
+        return new CatalogChanges("2025-06-01T10:00:00.000Z", true, fruits, regions, recipes, steps,
+                fruitRegions, fruitRecipes, new CatalogChanges.CatalogIds(fruitIds, regionIds, recipeIds));
+    }
+}
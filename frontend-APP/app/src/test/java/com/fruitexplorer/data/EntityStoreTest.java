@@ -0,0 +1,82 @@
+package com.fruitexplorer.data;
+
+import com.fruitexplorer.models.Fruit;
+import com.fruitexplorer.models.NutritionalData;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Búsqueda por id y slug, vencimiento, LRU e invalidación, con un reloj manual
+ */
+public class EntityStoreTest {
+
+    private long now = 0;
+    private EntityStore<Fruit> store;
+
+    @Before
+    public void setUp() {
+        store = new EntityStore<>(3, 1_000, Fruit::getId, Fruit::getSlug, () -> now);
+    }
+
+    private static Fruit fruit(int id, String slug) {
+        return new Fruit(id, slug, slug, null, null, null, NutritionalData.EMPTY);
+    }
+
+    @Test
+    public void put_isFoundByIdAndSlug() {
+        Fruit aguaje = fruit(3, "aguaje");
+        store.put(aguaje);
+
+        assertSame(aguaje, store.getById(3));
+        assertSame(aguaje, store.getBySlug("aguaje"));
+        assertNull(store.getBySlug("camu-camu"));
+        assertEquals(2, store.getHits());
+        assertEquals(1, store.getMisses());
+    }
+
+    @Test
+    public void expiredEntry_isMissingAndReleased() {
+        store.put(fruit(3, "aguaje"));
+        now = 1_001;
+
+        assertNull(store.getBySlug("aguaje"));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void leastRecentlyUsed_isEvictedWithItsSlug() {
+        store.put(fruit(1, "a"));
+        store.put(fruit(2, "b"));
+        store.put(fruit(3, "c"));
+        store.getById(1);
+        store.put(fruit(4, "d"));
+
+        assertNotNull(store.getBySlug("a"));
+        assertNull(store.getBySlug("b"));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    public void slugMovedToAnotherEntity_pointsToTheNewOne() {
+        store.put(fruit(1, "aguaje"));
+        store.put(fruit(2, "aguaje"));
+
+        assertEquals(2, store.getBySlug("aguaje").getId());
+        assertNull(store.getById(1));
+    }
+
+    @Test
+    public void replace_onlyUpdatesStoredEntities() {
+        store.put(fruit(1, "aguaje"));
+
+        assertTrue(store.replace(fruit(1, "aguaje-fresco")));
+        assertFalse(store.replace(fruit(2, "camu-camu")));
+
+        assertNull(store.getBySlug("aguaje"));
+        assertEquals("aguaje-fresco", store.getById(1).getSlug());
+        assertNull(store.getById(2));
+    }
+}
@@ -0,0 +1,147 @@
+package com.fruitexplorer.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Paginación por cursor con una fuente síncrona en memoria
+ */
+public class PagedListTest {
+
+    /** Catálogo de "fruta-0".."fruta-(n-1)" con cursor = índice siguiente */
+    private static final class ListSource implements PagingSource<String> {
+        final int total;
+        int loads = 0;
+        boolean failNext = false;
+
+        ListSource(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public void load(String cursor, int limit, Callback<String> callback) {
+            loads++;
+            if (failNext) {
+                failNext = false;
+                callback.onError(new RuntimeException("sin red"));
+                return;
+            }
+            int from = cursor == null ? 0 : Integer.parseInt(cursor);
+            int to = Math.min(total, from + limit);
+            List<String> items = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                items.add("fruta-" + i);
+            }
+            callback.onPage(items, to < total ? String.valueOf(to) : null);
+        }
+    }
+
+    private final List<Integer> errors = new ArrayList<>();
+    private int inserted = 0;
+
+    private final PagedList.Listener listener = new PagedList.Listener() {
+        @Override
+        public void onPageLoaded(int start, int count, boolean isNew) {
+            if (isNew) {
+                inserted += count;
+            }
+        }
+
+        @Override
+        public void onPageError(int page, Throwable t) {
+            errors.add(page);
+        }
+    };
+
+    @Test
+    public void start_loadsOnlyTheFirstPage() {
+        ListSource source = new ListSource(1000);
+        PagedList<String> list = new PagedList<>(source, 20, 10, 5, listener);
+        list.start();
+
+        assertEquals(1, source.loads);
+        assertEquals(20, list.size());
+        assertEquals("fruta-19", list.get(19));
+    }
+
+    @Test
+    public void scrolling_prefetchesAheadUntilTheEnd() {
+        ListSource source = new ListSource(95);
+        PagedList<String> list = new PagedList<>(source, 20, 10, 10, listener);
+        list.start();
+
+        list.onVisibleRangeChanged(5, 9);
+        assertEquals(20, list.size());
+        list.onVisibleRangeChanged(8, 12);
+        assertEquals(40, list.size());
+
+        for (int first = 0; first < 95; first += 5) {
+            list.onVisibleRangeChanged(first, Math.min(94, first + 7));
+        }
+        assertEquals(95, list.size());
+        assertEquals(95, inserted);
+        assertTrue(list.isEndReached());
+        assertEquals("fruta-94", list.get(94));
+    }
+
+    @Test
+    public void memoryStaysBounded_andReleasedPagesReload() {
+        ListSource source = new ListSource(5000);
+        PagedList<String> list = new PagedList<>(source, 20, 10, 3, listener);
+        list.start();
+
+        for (int first = 0; first < 4990; first += 4) {
+            list.onVisibleRangeChanged(first, first + 7);
+            assertTrue(list.getPagesInMemory() <= 3);
+        }
+        assertEquals(5000, list.size());
+
+        list.onVisibleRangeChanged(0, 7);
+        assertEquals("fruta-3", list.get(3));
+        assertTrue(list.getPagesInMemory() <= 3);
+    }
+
+    @Test
+    public void failedPage_isRetriedOnNextScroll() {
+        ListSource source = new ListSource(100);
+        source.failNext = true;
+        PagedList<String> list = new PagedList<>(source, 20, 10, 5, listener);
+        list.start();
+
+        assertEquals(List.of(0), errors);
+        assertEquals(0, list.size());
+
+        list.onVisibleRangeChanged(0, 0);
+        assertEquals(20, list.size());
+    }
+
+    @Test
+    public void closedList_ignoresLatePages() {
+        List<PagingSource.Callback<String>> pending = new ArrayList<>();
+        PagedList<String> list = new PagedList<>((cursor, limit, callback) -> pending.add(callback),
+                20, 10, 5, listener);
+        list.start();
+        list.close();
+
+        pending.get(0).onPage(List.of("aguaje"), null);
+        assertEquals(0, list.size());
+        assertEquals(0, inserted);
+    }
+
+    @Test
+    public void fallbackSource_usedWhenLocalCatalogIsMissing() {
+        ListSource remote = new ListSource(30);
+        FallbackPagingSource<String> source = new FallbackPagingSource<>(
+                (cursor, limit, callback) -> callback.onPage(null, null), remote);
+        PagedList<String> list = new PagedList<>(source, 20, 10, 5, listener);
+        list.start();
+        list.onVisibleRangeChanged(15, 19);
+
+        assertEquals(30, list.size());
+        assertEquals(2, remote.loads);
+    }
+}
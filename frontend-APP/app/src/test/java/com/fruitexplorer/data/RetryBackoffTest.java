@@ -0,0 +1,53 @@
+package com.fruitexplorer.data;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Esperas de reintento de QueryEventQueue
+ */
+public class RetryBackoffTest {
+
+    @Test
+    public void delays_growExponentiallyWithinJitterAndStopAtMax() {
+        RetryBackoff backoff = new RetryBackoff(1_000, 60_000, new Random(7));
+        long ceiling = 1_000;
+        for (int attempt = 1; attempt <= 40; attempt++) {
+            long delay = backoff.nextDelayMs();
+            assertTrue("intento " + attempt + ": " + delay, delay >= ceiling / 2 && delay <= ceiling);
+            ceiling = Math.min(ceiling * 2, 60_000);
+        }
+        assertEquals(40, backoff.getFailures());
+    }
+
+    @Test
+    public void reset_startsAgainFromBase() {
+        RetryBackoff backoff = new RetryBackoff(1_000, 60_000, new Random(7));
+        for (int i = 0; i < 5; i++) {
+            backoff.nextDelayMs();
+        }
+        backoff.reset();
+        assertEquals(0, backoff.getFailures());
+        assertTrue(backoff.nextDelayMs() <= 1_000);
+    }
+
+    @Test
+    public void jitter_spreadsClientsThatFailedTogether() {
+        Random random = new Random(42);
+        Set<Long> delays = new HashSet<>();
+        for (int client = 0; client < 100; client++) {
+            delays.add(new RetryBackoff(1_000, 60_000, random).nextDelayMs());
+        }
+        assertTrue(delays.size() > 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsMaxBelowBase() {
+        new RetryBackoff(1_000, 500, new Random());
+    }
+}
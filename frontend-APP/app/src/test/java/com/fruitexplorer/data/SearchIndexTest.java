@@ -0,0 +1,95 @@
+package com.fruitexplorer.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Búsqueda local: tildes, prefijos, ranking por campo y actualización incremental
+ */
+public class SearchIndexTest {
+
+    private static final int[] FRUIT_WEIGHTS = {8, 4, 4, 1};
+
+    private SearchIndex<String> index;
+
+    private void putFruit(int id, String name, String scientificName, String slug, String description) {
+        index.put(id, slug, name, new String[]{name, scientificName, slug, description}, FRUIT_WEIGHTS);
+    }
+
+    @Before
+    public void setUp() {
+        index = new SearchIndex<>();
+        putFruit(1, "Lúcuma", "Pouteria lucuma", "lucuma", "Fruta de la sierra con pulpa harinosa");
+        putFruit(2, "Camu camu", "Myrciaria dubia", "camu-camu", "Rica en vitamina C, crece en la Amazonía");
+        putFruit(3, "Aguaje", "Mauritia flexuosa", "aguaje", "Palmera amazónica; se parece a la lúcuma en color");
+        putFruit(4, "Cocona", "Solanum sessiliflorum", "cocona", "Fruta ácida de la selva");
+    }
+
+    @Test
+    public void search_ignoresAccentsAndCase() {
+        assertEquals("lucuma", index.search("lucuma", 10).get(0));
+        assertEquals("lucuma", index.search("LÚCUMA", 10).get(0));
+        assertEquals(Arrays.asList("camu-camu"), index.search("amazonia", 10));
+        assertEquals(Arrays.asList("aguaje", "camu-camu"), index.search("Amazon", 10));
+    }
+
+    @Test
+    public void search_matchesPrefixes() {
+        assertEquals(Arrays.asList("cocona"), index.search("coc", 10));
+        assertEquals(Arrays.asList("aguaje"), index.search("mauri", 10));
+    }
+
+    @Test
+    public void search_ranksNameAboveDescription() {
+        // "lúcuma" está en el nombre de una fruta y solo en la descripción de otra
+        assertEquals(Arrays.asList("lucuma", "aguaje"), index.search("lúcuma", 10));
+    }
+
+    @Test
+    public void search_requiresEveryWord() {
+        assertEquals(Arrays.asList("cocona"), index.search("fruta acida", 10));
+        assertTrue(index.search("fruta amazonica", 10).isEmpty());
+    }
+
+    @Test
+    public void putAndRemove_updateIncrementally() {
+        putFruit(4, "Cocona", "Solanum sessiliflorum", "cocona", "Cocona para refresco");
+        assertTrue(index.search("acida", 10).isEmpty());
+        assertEquals(Arrays.asList("cocona"), index.search("refresco", 10));
+
+        index.remove(1);
+        assertEquals(Arrays.asList("aguaje"), index.search("lucuma", 10));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void search_onLargeCatalog_returnsOnlyMatchingFruits() {
+        String[] words = {"dulce", "ácida", "selva", "sierra", "costa", "pulpa", "semilla", "jugo", "cáscara", "aroma"};
+        for (int i = 0; i < 2_000; i++) {
+            putFruit(100 + i, "Fruta " + i, "Species " + i, "fruta-" + i,
+                    words[i % words.length] + " " + words[(i * 7) % words.length] + " amazónica número " + i);
+        }
+        assertEquals(2_004, index.size());
+
+        // "selva" está en las frutas con i % 10 == 2 (primera palabra) o == 6 (segunda, 6 * 7 = 42)
+        List<String> selva = index.search("fru selv", 20);
+        assertEquals(20, selva.size());
+        for (String slug : selva) {
+            int i = Integer.parseInt(slug.substring("fruta-".length()));
+            assertTrue(slug, i % 10 == 2 || i % 10 == 6);
+        }
+
+        // "jugo": i % 10 == 7 o == 1 (1 * 7 = 7); sin tildes ni mayúsculas en la consulta
+        List<String> jugo = index.search("AMAZON jug", 20);
+        assertEquals(20, jugo.size());
+        for (String slug : jugo) {
+            int i = Integer.parseInt(slug.substring("fruta-".length()));
+            assertTrue(slug, i % 10 == 7 || i % 10 == 1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.fruitexplorer.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Sesión en archivo propio: migración desde FruitExplorerPrefs, cambios antes de terminar la carga,
+ * escrituras agrupadas y archivo dañado, con un executor manual en lugar del hilo de disco
+ */
+public class SessionStoreTest {
+
+    private final Queue<Runnable> io = new ArrayDeque<>();
+    private final List<IOException> writeErrors = new ArrayList<>();
+    private File dir;
+    private File file;
+    private SessionData legacySession;
+    private int legacyClears;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("session").toFile();
+        file = new File(dir, "session.bin");
+    }
+
+    @After
+    public void tearDown() {
+        for (File child : dir.listFiles()) {
+            child.delete();
+        }
+        dir.delete();
+    }
+
+    private SessionStore newStore() {
+        return new SessionStore(() -> file, new SessionStore.Legacy() {
+            @Override
+            public SessionData read() {
+                return legacySession;
+            }
+
+            @Override
+            public void clear() {
+                legacyClears++;
+            }
+        }, io::add, writeErrors::add);
+    }
+
+    private int runIo() {
+        int tasks = 0;
+        while (!io.isEmpty()) {
+            io.poll().run();
+            tasks++;
+        }
+        return tasks;
+    }
+
+    @Test
+    public void nothingIsReadUntilTheExecutorRuns() {
+        SessionStore store = newStore();
+        store.load();
+        store.load();
+
+        assertNull(store.peek());
+        assertEquals(1, runIo());
+        assertFalse(store.peek().isLoggedIn());
+    }
+
+    @Test
+    public void legacyPreferences_areMigratedOnceAndCleared() {
+        legacySession = new SessionData("t1", "u1", "ana@correo.pe", "Ana", 1_000, true);
+        SessionStore store = newStore();
+        store.load();
+        runIo();
+
+        assertEquals("t1", store.peek().getToken());
+        assertTrue(file.isFile());
+        assertEquals(1, legacyClears);
+
+        // El próximo arranque lee el archivo nuevo y no vuelve a las preferencias
+        legacySession = null;
+        SessionStore reopened = newStore();
+        reopened.load();
+        runIo();
+        assertEquals("Ana", reopened.peek().getDisplayName());
+        assertTrue(reopened.peek().hasSeenWelcome());
+        assertEquals(1, legacyClears);
+    }
+
+    @Test
+    public void changesBeforeLoad_areAppliedOverTheStoredSession() {
+        legacySession = new SessionData(null, null, null, null, 0, true);
+        SessionStore store = newStore();
+        store.update(session -> session.signIn("t1", "u1", "ana@correo.pe", "Ana", 1_000));
+        List<SessionData> delivered = new ArrayList<>();
+        store.whenLoaded(delivered::add);
+        runIo();
+
+        assertEquals(1, delivered.size());
+        assertEquals("t1", delivered.get(0).getToken());
+        assertTrue(delivered.get(0).hasSeenWelcome());
+    }
+
+    @Test
+    public void consecutiveUpdates_areWrittenOnce() {
+        SessionStore store = newStore();
+        store.load();
+        runIo();
+
+        store.update(session -> session.signIn("t1", "u1", "ana@correo.pe", "Ana", 1_000));
+        store.update(SessionData::withWelcomeSeen);
+        store.update(session -> session.withToken("t2", 2_000));
+        assertEquals("t2", store.peek().getToken());
+        assertEquals(1, runIo());
+
+        SessionStore reopened = newStore();
+        reopened.load();
+        runIo();
+        assertEquals("t2", reopened.peek().getToken());
+        assertEquals(2_000, reopened.peek().getLoginTimestamp());
+        assertTrue(reopened.peek().hasSeenWelcome());
+        assertFalse(new File(dir, "session.bin.tmp").exists());
+        assertTrue(writeErrors.isEmpty());
+    }
+
+    @Test
+    public void damagedFile_startsSignedOut() throws IOException {
+        Files.write(file.toPath(), new byte[]{0, 0, 0, 1, 1});
+        legacySession = new SessionData("no se usa", null, null, null, 0, false);
+        SessionStore store = newStore();
+        store.load();
+        runIo();
+
+        assertFalse(store.peek().isLoggedIn());
+        assertEquals(0, legacyClears);
+    }
+}
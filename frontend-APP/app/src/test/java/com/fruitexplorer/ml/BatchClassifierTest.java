@@ -0,0 +1,183 @@
+package com.fruitexplorer.ml;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Clasificación por lotes con un intérprete falso: el "píxel" 0 de cada imagen
+ * decide la clase ganadora.
+ */
+public class BatchClassifierTest {
+
+    private static final String[] LABELS = {"aguaje", "lucuma", "camu_camu"};
+    private static final DelegateConfig CONFIG = new DelegateConfig(DelegateConfig.Type.XNNPACK, 1);
+    private static final int THREADS = 3;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final Set<Thread> interpreterThreads = ConcurrentHashMap.newKeySet();
+    private BatchClassifier<Integer> classifier;
+
+    @Before
+    public void setUp() {
+        classifier = new BatchClassifier<>(config -> {
+            created.incrementAndGet();
+            return new FakeBackend();
+        }, CONFIG, (source, input) -> {
+            if (source < 0) {
+                throw new IllegalArgumentException("Imagen corrupta");
+            }
+            input.put(0, (byte) (int) source);
+        }, index -> LABELS[index], 4, 2, THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        classifier.shutdown();
+    }
+
+    @Test
+    public void everyImageIsReportedWithItsRanking() throws Exception {
+        List<Integer> images = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            images.add(i % LABELS.length);
+        }
+        Collector collector = new Collector(images.size());
+
+        classifier.classifyAll(images, collector);
+
+        assertTrue(collector.await());
+        assertEquals(40, collector.classified.get());
+        assertEquals(0, collector.failed.get());
+        for (int i = 0; i < images.size(); i++) {
+            ClassificationResult result = collector.results[i];
+            assertEquals(2, result.size());
+            assertEquals(LABELS[images.get(i)], result.getLabel(0));
+            assertTrue(result.getScore(0) > result.getScore(1));
+        }
+    }
+
+    @Test
+    public void interpretersAreOnePerThreadAndReusedAcrossBatches() throws Exception {
+        List<Integer> images = Collections.nCopies(30, 1);
+
+        Collector first = new Collector(images.size());
+        classifier.classifyAll(images, first);
+        assertTrue(first.await());
+        Collector second = new Collector(images.size());
+        classifier.classifyAll(images, second);
+        assertTrue(second.await());
+
+        assertTrue(created.get() <= THREADS);
+        assertEquals(created.get(), classifier.getInterpreterCount());
+        assertEquals(created.get(), interpreterThreads.size());
+    }
+
+    @Test
+    public void failedImageDoesNotStopTheBatch() throws Exception {
+        List<Integer> images = new ArrayList<>(List.of(0, -1, 1, 2, -1));
+        Collector collector = new Collector(images.size());
+
+        classifier.classifyAll(images, collector);
+
+        assertTrue(collector.await());
+        assertEquals(3, collector.classified.get());
+        assertEquals(2, collector.failed.get());
+        assertNull(collector.results[1]);
+        assertEquals("camu_camu", collector.results[3].getLabel(0));
+    }
+
+    @Test
+    public void emptyBatchStillFinishes() throws Exception {
+        Collector collector = new Collector(0);
+
+        classifier.classifyAll(Collections.emptyList(), collector);
+
+        assertTrue(collector.await());
+        assertEquals(0, collector.classified.get());
+    }
+
+    @Test
+    public void cancelledBatchSkipsPendingImages() throws Exception {
+        List<Integer> images = Collections.nCopies(200, 0);
+        Collector collector = new Collector(images.size());
+
+        BatchClassifier.Batch batch = classifier.classifyAll(images, collector);
+        batch.cancel();
+
+        assertTrue(collector.await());
+        assertTrue(batch.isCancelled());
+        assertTrue(collector.classified.get() < images.size());
+    }
+
+    private final class FakeBackend implements InferenceBackend {
+        private Thread owner;
+
+        @Override
+        public int getClassCount() {
+            return LABELS.length;
+        }
+
+        @Override
+        public void run(ByteBuffer input, float[] scores) {
+            // El intérprete no es thread-safe: nunca debe usarse desde dos hilos
+            if (owner == null) {
+                owner = Thread.currentThread();
+                interpreterThreads.add(owner);
+            }
+            assertSame(owner, Thread.currentThread());
+            int winner = input.get(0);
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = i == winner ? 0.9f : 0.05f * (i + 1);
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class Collector implements BatchClassifier.Callback<Integer> {
+        final ClassificationResult[] results;
+        final AtomicInteger classified = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        Collector(int size) {
+            results = new ClassificationResult[size];
+        }
+
+        @Override
+        public void onImageClassified(int index, Integer source, ClassificationResult result) {
+            results[index] = result;
+            classified.incrementAndGet();
+        }
+
+        @Override
+        public void onImageFailed(int index, Integer source, Exception error) {
+            failed.incrementAndGet();
+        }
+
+        @Override
+        public void onBatchFinished(int classifiedCount, int failedCount) {
+            assertEquals(classified.get(), classifiedCount);
+            finished.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return finished.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.fruitexplorer.ml;
+
+import org.junit.Test;
+
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ranking top-k reutilizable: por frame (setTopK) y suavizado (DetectionConfirmer)
+ */
+public class ClassificationResultTest {
+
+    private static final String[] LABELS = {"aguaje", "lucuma", "camu_camu", "cocona"};
+    private static final IntFunction<String> NAMES = index -> LABELS[index];
+
+    @Test
+    public void setTopK_ranksByScoreAndStopsAtCapacity() {
+        ClassificationResult result = new ClassificationResult(3);
+
+        result.setTopK(new float[]{0.1f, 0.6f, 0.05f, 0.25f}, NAMES);
+
+        assertEquals(3, result.size());
+        assertEquals("lucuma", result.getLabel(0));
+        assertEquals("cocona", result.getLabel(1));
+        assertEquals("aguaje", result.getLabel(2));
+        assertEquals(0.6f, result.getScore(0), 1e-6f);
+    }
+
+    @Test
+    public void refill_reusesTheSameObject() {
+        ClassificationResult result = new ClassificationResult(2);
+        result.setTopK(new float[]{0.9f, 0.1f, 0f, 0f}, NAMES);
+        ClassificationResult snapshot = result.copy();
+
+        result.setTopK(new float[]{0f, 0f, 0.2f, 0.8f}, NAMES);
+
+        assertEquals("cocona", result.getLabel(0));
+        assertEquals("aguaje", snapshot.getLabel(0));
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void readingPastSize_throws() {
+        ClassificationResult result = new ClassificationResult(3);
+        result.add(0, "aguaje", 0.9f);
+
+        result.getLabel(1);
+    }
+
+    @Test
+    public void rankCandidates_putsTheCandidateFirst() {
+        DetectionConfirmer confirmer = new DetectionConfirmer(LABELS.length);
+        ClassificationResult ranking = new ClassificationResult(3);
+
+        confirmer.update(new int[]{1, 0}, new float[]{0.8f, 0.2f}, 2, 0);
+        confirmer.update(new int[]{1, 3}, new float[]{0.7f, 0.3f}, 2, 100);
+        confirmer.rankCandidates(ranking, NAMES);
+
+        assertEquals(confirmer.getCandidateLabel(), ranking.getLabelIndex(0));
+        assertEquals(confirmer.getCandidateScore(), ranking.getScore(0), 1e-6f);
+        assertEquals(3, ranking.size());
+        assertEquals("lucuma", ranking.getLabel(0));
+        assertEquals("cocona", ranking.getLabel(1));
+        assertEquals("aguaje", ranking.getLabel(2));
+    }
+
+    @Test
+    public void rankCandidates_isEmptyBeforeAnyFrame() {
+        ClassificationResult ranking = new ClassificationResult(3);
+
+        new DetectionConfirmer(LABELS.length).rankCandidates(ranking, NAMES);
+
+        assertTrue(ranking.isEmpty());
+    }
+}
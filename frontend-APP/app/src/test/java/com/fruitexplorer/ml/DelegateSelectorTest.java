@@ -0,0 +1,237 @@
+package com.fruitexplorer.ml;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Selección de delegados con un intérprete falso y un reloj simulado
+ */
+public class DelegateSelectorTest {
+
+    private static final String DEVICE = "Pixel 7";
+    private static final DelegateConfig CPU_1 = new DelegateConfig(DelegateConfig.Type.CPU, 1);
+    private static final DelegateConfig CPU_4 = new DelegateConfig(DelegateConfig.Type.CPU, 4);
+    private static final DelegateConfig XNNPACK_4 = new DelegateConfig(DelegateConfig.Type.XNNPACK, 4);
+    private static final DelegateConfig NNAPI = new DelegateConfig(DelegateConfig.Type.NNAPI, 1);
+    private static final List<DelegateConfig> CANDIDATES = Arrays.asList(CPU_1, CPU_4, XNNPACK_4, NNAPI);
+
+    private final ByteBuffer input = ByteBuffer.allocateDirect(16);
+
+    private long fakeNanos;
+    private FakeFactory factory;
+    private MemoryStore store;
+
+    @Before
+    public void setUp() {
+        fakeNanos = 0;
+        factory = new FakeFactory();
+        store = new MemoryStore();
+        factory.latencyNanos.put(CPU_1, 40_000_000L);
+        factory.latencyNanos.put(CPU_4, 18_000_000L);
+        factory.latencyNanos.put(XNNPACK_4, 9_000_000L);
+        factory.latencyNanos.put(NNAPI, 12_000_000L);
+    }
+
+    @Test
+    public void firstRun_calibratesAndKeepsFastest() {
+        DelegateSelector selector = newSelector();
+
+        InferenceBackend backend = selector.select(DEVICE, input);
+
+        assertEquals(XNNPACK_4, ((FakeBackend) backend).config);
+        assertEquals(XNNPACK_4, selector.getSelectedConfig());
+        assertEquals(XNNPACK_4, store.load(DEVICE));
+        assertEquals(4, selector.getCalibrationResults().size());
+        assertEquals(9_000_000L, (long) selector.getCalibrationResults().get(XNNPACK_4));
+        // Todos los intérpretes de la calibración se liberan
+        assertEquals(factory.created - 1, factory.closed);
+    }
+
+    @Test
+    public void savedConfig_skipsCalibration() {
+        store.save(DEVICE, NNAPI);
+        DelegateSelector selector = newSelector();
+
+        InferenceBackend backend = selector.select(DEVICE, input);
+
+        assertEquals(NNAPI, ((FakeBackend) backend).config);
+        assertEquals(1, factory.created);
+        assertTrue(selector.getCalibrationResults().isEmpty());
+    }
+
+    @Test
+    public void configIsKeptPerDeviceModel() {
+        store.save("Otro dispositivo", CPU_1);
+
+        newSelector().select(DEVICE, input);
+
+        assertEquals(CPU_1, store.load("Otro dispositivo"));
+        assertEquals(XNNPACK_4, store.load(DEVICE));
+    }
+
+    @Test
+    public void delegateFailingToInitialize_isSkipped() {
+        factory.failingOnCreate.add(XNNPACK_4);
+        DelegateSelector selector = newSelector();
+
+        InferenceBackend backend = selector.select(DEVICE, input);
+
+        assertEquals(NNAPI, ((FakeBackend) backend).config);
+        assertFalse(selector.getCalibrationResults().containsKey(XNNPACK_4));
+    }
+
+    @Test
+    public void nativeLibraryMissing_isTreatedAsFailure() {
+        factory.missingLibrary.add(NNAPI);
+        factory.failingOnCreate.add(XNNPACK_4);
+
+        InferenceBackend backend = newSelector().select(DEVICE, input);
+
+        assertEquals(CPU_4, ((FakeBackend) backend).config);
+    }
+
+    @Test
+    public void delegateFailingToRun_isSkipped() {
+        factory.failingOnRun.add(XNNPACK_4);
+
+        InferenceBackend backend = newSelector().select(DEVICE, input);
+
+        assertEquals(NNAPI, ((FakeBackend) backend).config);
+        assertEquals(factory.created - 1, factory.closed);
+    }
+
+    @Test
+    public void savedConfigThatNoLongerWorks_recalibrates() {
+        store.save(DEVICE, NNAPI);
+        factory.failingOnCreate.add(NNAPI);
+        DelegateSelector selector = newSelector();
+
+        InferenceBackend backend = selector.select(DEVICE, input);
+
+        assertEquals(XNNPACK_4, ((FakeBackend) backend).config);
+        assertEquals(XNNPACK_4, store.load(DEVICE));
+    }
+
+    @Test
+    public void everyAcceleratedOptionFails_fallsBackToSingleThreadCpu() {
+        factory.failingOnRun.addAll(CANDIDATES);
+
+        DelegateSelector selector = newSelector();
+        InferenceBackend backend = selector.select(DEVICE, input);
+
+        assertEquals(CPU_1, ((FakeBackend) backend).config);
+        // No se guarda para volver a calibrar en el próximo arranque
+        assertNull(store.load(DEVICE));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nothingInitializes_throws() {
+        factory.failingOnCreate.addAll(CANDIDATES);
+
+        newSelector().select(DEVICE, input);
+    }
+
+    @Test
+    public void config_roundTripsThroughItsStoredForm() {
+        for (DelegateConfig config : CANDIDATES) {
+            assertEquals(config, DelegateConfig.parse(config.toString()));
+        }
+        assertNull(DelegateConfig.parse("GPU:1"));
+        assertNull(DelegateConfig.parse("XNNPACK"));
+        assertNull(DelegateConfig.parse(null));
+    }
+
+    @Test
+    public void defaultCandidates_startWithSingleThreadCpu() {
+        List<DelegateConfig> candidates = DelegateConfig.defaultCandidates(8);
+
+        assertEquals(CPU_1, candidates.get(0));
+        assertTrue(candidates.contains(XNNPACK_4));
+        assertTrue(candidates.contains(NNAPI));
+        assertFalse(DelegateConfig.defaultCandidates(1).contains(CPU_4));
+    }
+
+    private DelegateSelector newSelector() {
+        return new DelegateSelector(factory, store, () -> fakeNanos, CANDIDATES);
+    }
+
+    private final class FakeFactory implements InferenceBackend.Factory {
+        final Map<DelegateConfig, Long> latencyNanos = new HashMap<>();
+        final Set<DelegateConfig> failingOnCreate = new HashSet<>();
+        final Set<DelegateConfig> failingOnRun = new HashSet<>();
+        final Set<DelegateConfig> missingLibrary = new HashSet<>();
+        int created;
+        int closed;
+
+        @Override
+        public InferenceBackend create(DelegateConfig config) {
+            if (missingLibrary.contains(config)) {
+                throw new UnsatisfiedLinkError("libneuralnetworks.so");
+            }
+            if (failingOnCreate.contains(config)) {
+                throw new IllegalArgumentException("Internal error: Failed to apply delegate");
+            }
+            created++;
+            return new FakeBackend(this, config);
+        }
+    }
+
+    private final class FakeBackend implements InferenceBackend {
+        final FakeFactory factory;
+        final DelegateConfig config;
+
+        FakeBackend(FakeFactory factory, DelegateConfig config) {
+            this.factory = factory;
+            this.config = config;
+        }
+
+        @Override
+        public int getClassCount() {
+            return 2;
+        }
+
+        @Override
+        public void run(ByteBuffer input, float[] scores) {
+            if (factory.failingOnRun.contains(config)) {
+                throw new IllegalStateException("Delegate execution failed");
+            }
+            fakeNanos += factory.latencyNanos.get(config);
+            scores[0] = 1f;
+            scores[1] = 0f;
+        }
+
+        @Override
+        public void close() {
+            factory.closed++;
+        }
+    }
+
+    private static final class MemoryStore implements DelegateSelector.ConfigStore {
+        private final Map<String, DelegateConfig> configs = new HashMap<>();
+
+        @Override
+        public DelegateConfig load(String deviceModel) {
+            return configs.get(deviceModel);
+        }
+
+        @Override
+        public void save(String deviceModel, DelegateConfig config) {
+            configs.put(deviceModel, config);
+        }
+
+        @Override
+        public void clear(String deviceModel) {
+            configs.remove(deviceModel);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.fruitexplorer.ml;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reproduce secuencias de puntajes grabadas (src/test/resources/replays) y mide
+ * la latencia de confirmación frente al temporizador fijo de 1.5 s anterior.
+ */
+public class DetectionConfirmerReplayTest {
+
+    private static final int LABEL_COUNT = 2;
+    private static final int AGUAJE = 0;
+    private static final int LUCUMA = 1;
+    private static final long MAX_STABLE_LATENCY_MS = 500;
+
+    // Comportamiento anterior de CameraActivity
+    private static final long LEGACY_CONFIRMATION_DELAY_MS = 1500;
+    private static final float LEGACY_SCORE_THRESHOLD = 0.7f;
+
+    @Test
+    public void stableScene_locksUnder500ms() throws IOException {
+        Replay replay = Replay.load("stable_aguaje.csv");
+
+        long lockedAt = replay.run(new DetectionConfirmer(LABEL_COUNT));
+
+        assertEquals(AGUAJE, replay.lockedLabel);
+        assertTrue("Latencia " + lockedAt + " ms", lockedAt - replay.firstTimestamp() < MAX_STABLE_LATENCY_MS);
+        assertTrue(lockedAt < replay.legacyConfirmationTime());
+    }
+
+    @Test
+    public void singleNoisyFrame_doesNotRestartConfirmation() throws IOException {
+        Replay replay = Replay.load("noisy_frame_aguaje.csv");
+
+        long lockedAt = replay.run(new DetectionConfirmer(LABEL_COUNT));
+
+        assertEquals(AGUAJE, replay.lockedLabel);
+        assertTrue("Latencia " + lockedAt + " ms", lockedAt - replay.firstTimestamp() < MAX_STABLE_LATENCY_MS);
+        // El temporizador anterior se reiniciaba dos veces (frames de 200 y 300 ms): 300 + 1500
+        assertEquals(1800, replay.legacyConfirmationTime());
+    }
+
+    @Test
+    public void fruitEnteringFrame_locksShortlyAfterItAppears() throws IOException {
+        Replay replay = Replay.load("pan_to_lucuma.csv");
+        long appearedAt = replay.firstTimestampWithTopScoreAbove(LEGACY_SCORE_THRESHOLD);
+
+        long lockedAt = replay.run(new DetectionConfirmer(LABEL_COUNT));
+
+        assertEquals(LUCUMA, replay.lockedLabel);
+        assertTrue("Latencia " + (lockedAt - appearedAt) + " ms", lockedAt - appearedAt < MAX_STABLE_LATENCY_MS);
+    }
+
+    @Test
+    public void ambiguousScene_neverLocks() throws IOException {
+        Replay replay = Replay.load("ambiguous.csv");
+
+        long lockedAt = replay.run(new DetectionConfirmer(LABEL_COUNT));
+
+        assertEquals(-1, lockedAt);
+        assertEquals(-1, replay.lockedLabel);
+    }
+
+    @Test
+    public void reset_allowsANewLock() throws IOException {
+        Replay replay = Replay.load("stable_aguaje.csv");
+        DetectionConfirmer confirmer = new DetectionConfirmer(LABEL_COUNT);
+        replay.run(confirmer);
+        assertTrue(confirmer.isLocked());
+
+        confirmer.reset();
+
+        assertFalse(confirmer.isLocked());
+        assertEquals(-1, confirmer.getCandidateLabel());
+        assertTrue(replay.run(confirmer) >= 0);
+    }
+
+    /**
+     * Secuencia grabada: una fila por frame con pares (etiqueta, puntaje) del top-k
+     */
+    private static final class Replay {
+        final List<Long> timestamps = new ArrayList<>();
+        final List<int[]> labels = new ArrayList<>();
+        final List<float[]> scores = new ArrayList<>();
+        int lockedLabel = -1;
+
+        static Replay load(String name) throws IOException {
+            Replay replay = new Replay();
+            InputStream stream = DetectionConfirmerReplayTest.class.getResourceAsStream("/replays/" + name);
+            assertNotNull("Falta la grabación " + name, stream);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    String[] parts = line.split(",");
+                    int k = (parts.length - 1) / 2;
+                    int[] frameLabels = new int[k];
+                    float[] frameScores = new float[k];
+                    for (int i = 0; i < k; i++) {
+                        frameLabels[i] = Integer.parseInt(parts[1 + 2 * i].trim());
+                        frameScores[i] = Float.parseFloat(parts[2 + 2 * i].trim());
+                    }
+                    replay.timestamps.add(Long.parseLong(parts[0].trim()));
+                    replay.labels.add(frameLabels);
+                    replay.scores.add(frameScores);
+                }
+            }
+            return replay;
+        }
+
+        /**
+         * @return marca de tiempo del frame que bloqueó, o -1
+         */
+        long run(DetectionConfirmer confirmer) {
+            lockedLabel = -1;
+            for (int i = 0; i < timestamps.size(); i++) {
+                long timestamp = timestamps.get(i);
+                int[] frameLabels = labels.get(i);
+                if (confirmer.update(frameLabels, scores.get(i), frameLabels.length, timestamp)) {
+                    lockedLabel = confirmer.getLockedLabel();
+                    return timestamp;
+                }
+            }
+            return -1;
+        }
+
+        long firstTimestamp() {
+            return timestamps.get(0);
+        }
+
+        long firstTimestampWithTopScoreAbove(float threshold) {
+            for (int i = 0; i < timestamps.size(); i++) {
+                if (scores.get(i)[0] >= threshold) {
+                    return timestamps.get(i);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Simula el Handler anterior: cada etiqueta nueva con puntaje >= 0.7 reinicia un
+         * temporizador de 1.5 s. Si la grabación termina antes, se extrapola.
+         */
+        long legacyConfirmationTime() {
+            int lastLabel = -1;
+            long timerStart = -1;
+            for (int i = 0; i < timestamps.size(); i++) {
+                long timestamp = timestamps.get(i);
+                if (timerStart >= 0 && timestamp >= timerStart + LEGACY_CONFIRMATION_DELAY_MS) {
+                    return timerStart + LEGACY_CONFIRMATION_DELAY_MS;
+                }
+                if (scores.get(i)[0] >= LEGACY_SCORE_THRESHOLD && labels.get(i)[0] != lastLabel) {
+                    lastLabel = labels.get(i)[0];
+                    timerStart = timestamp;
+                }
+            }
+            return timerStart < 0 ? Long.MAX_VALUE : timerStart + LEGACY_CONFIRMATION_DELAY_MS;
+        }
+    }
+}
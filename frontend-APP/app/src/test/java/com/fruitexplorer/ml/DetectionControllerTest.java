@@ -0,0 +1,124 @@
+package com.fruitexplorer.ml;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Transiciones del controlador de detección, con un executor de UI manual en lugar del hilo principal
+ */
+public class DetectionControllerTest {
+
+    private final Queue<Runnable> uiQueue = new ArrayDeque<>();
+    private final List<DetectionController.Snapshot> delivered = new ArrayList<>();
+    private DetectionController controller;
+
+    @Before
+    public void setUp() {
+        controller = new DetectionController(uiQueue::add, delivered::add, new PipelineMetrics(), System::nanoTime);
+    }
+
+    @After
+    public void tearDown() {
+        controller.shutdown();
+    }
+
+    private void drainUi() {
+        Runnable task;
+        while ((task = uiQueue.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static ClassificationResult ranking(String label, float score) {
+        ClassificationResult result = new ClassificationResult(3);
+        result.add(0, label, score);
+        return result;
+    }
+
+    @Test
+    public void startScan_enablesAnalyzerAndLockGatesIt() {
+        assertFalse(controller.isAnalyzing());
+
+        long scanId = controller.startScan();
+        assertTrue(controller.isAnalyzing());
+
+        assertTrue(controller.reportCandidate(scanId, ranking("cocona", 0.7f)));
+        assertTrue(controller.reportLock(scanId, "cocona", 0.9f, 4));
+
+        assertFalse(controller.isAnalyzing());
+        DetectionController.Snapshot snapshot = controller.getSnapshot();
+        assertEquals(DetectionController.State.LOCKED, snapshot.getState());
+        assertEquals("cocona", snapshot.getLockedLabel());
+        assertEquals(4, snapshot.getLockedModelId());
+    }
+
+    @Test
+    public void staleScanResults_areDiscarded() {
+        long oldScan = controller.startScan();
+        long newScan = controller.startScan();
+
+        assertFalse(controller.reportCandidate(oldScan, ranking("aguaje", 0.8f)));
+        assertFalse(controller.reportLock(oldScan, "aguaje", 0.9f, 1));
+        assertEquals(newScan, controller.getScanId());
+        assertEquals(DetectionController.State.SCANNING, controller.getSnapshot().getState());
+        assertFalse(controller.getSnapshot().hasCandidate());
+    }
+
+    @Test
+    public void pauseAndResume_keepScanAndCandidate() {
+        long scanId = controller.startScan();
+        controller.reportCandidate(scanId, ranking("lucuma", 0.6f));
+
+        controller.pause();
+        assertFalse(controller.isAnalyzing());
+        assertFalse(controller.reportLock(scanId, "lucuma", 0.9f, 1));
+
+        controller.resume();
+        assertTrue(controller.isAnalyzing());
+        assertEquals(scanId, controller.getScanId());
+        assertEquals("lucuma", controller.getSnapshot().getCandidateLabel());
+    }
+
+    @Test
+    public void resume_doesNotUnlock() {
+        long scanId = controller.startScan();
+        controller.reportLock(scanId, "camu camu", 0.95f, 1);
+
+        controller.resume();
+        controller.pause();
+
+        assertEquals(DetectionController.State.LOCKED, controller.getSnapshot().getState());
+    }
+
+    @Test
+    public void ui_receivesOnlyLatestState() {
+        long scanId = controller.startScan();
+        controller.reportCandidate(scanId, ranking("cocona", 0.6f));
+        controller.reportLock(scanId, "cocona", 0.9f, 1);
+
+        drainUi();
+
+        assertEquals(1, delivered.size());
+        assertEquals(DetectionController.State.LOCKED, delivered.get(0).getState());
+    }
+
+    @Test
+    public void reportCandidate_copiesReusedRanking() {
+        long scanId = controller.startScan();
+        ClassificationResult reused = ranking("cocona", 0.6f);
+        controller.reportCandidate(scanId, reused);
+
+        reused.clear();
+        reused.add(0, "aguaje", 0.1f);
+
+        assertEquals("cocona", controller.getSnapshot().getCandidateLabel());
+    }
+}
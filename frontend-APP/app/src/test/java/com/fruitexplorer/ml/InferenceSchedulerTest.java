@@ -0,0 +1,107 @@
+package com.fruitexplorer.ml;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Frames sintéticos de luminancia uniforme a 40 FPS: límite del FPS objetivo, paso al FPS de reposo
+ * con la escena quieta, vuelta inmediata ante movimiento y contadores
+ */
+public class InferenceSchedulerTest {
+
+    private static final int SIZE = 32;
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+
+    private final InferenceScheduler scheduler = new InferenceScheduler(10f, 2f, 6);
+    private long now = 0;
+
+    private static ByteBuffer luma(int value) {
+        ByteBuffer plane = ByteBuffer.allocate(SIZE * SIZE);
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            plane.put(i, (byte) value);
+        }
+        return plane;
+    }
+
+    private boolean frame(int value) {
+        boolean classified = scheduler.shouldClassify(luma(value), SIZE, SIZE, SIZE, now);
+        now += FRAME_NANOS;
+        return classified;
+    }
+
+    /**
+     * @return milisegundos de los frames clasificados, relativos al primero del tramo
+     */
+    private List<Long> staticFrames(int count, int value) {
+        long start = now;
+        List<Long> classified = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long at = now;
+            if (frame(value)) {
+                classified.add(TimeUnit.NANOSECONDS.toMillis(at - start));
+            }
+        }
+        return classified;
+    }
+
+    @Test
+    public void movingScene_isClassifiedAtTargetFps() {
+        // Cada frame cambia la luminancia: movimiento continuo durante un segundo
+        for (int i = 0; i < 40; i++) {
+            frame((i * 37) % 256);
+        }
+
+        assertEquals(10, scheduler.getClassifiedFrames());
+        assertEquals(30, scheduler.getSkippedFrames());
+        assertEquals(10f, scheduler.getCurrentInferenceFps(), 0.01f);
+    }
+
+    @Test
+    public void staticScene_dropsToIdleFps() {
+        List<Long> classified = staticFrames(120, 80);
+
+        // Las primeras inferencias van a FPS completo para que DetectionConfirmer reúna sus votos;
+        // después la espera se duplica hasta el FPS de reposo
+        assertEquals(List.of(0L, 100L, 200L, 300L, 500L, 900L, 1400L, 1900L, 2400L, 2900L), classified);
+        assertEquals(2f, scheduler.getCurrentInferenceFps(), 0.01f);
+        assertEquals(0, scheduler.getLastLumaDifference());
+        assertEquals(classified.size(), scheduler.getClassifiedFrames());
+        assertEquals(120 - classified.size(), scheduler.getSkippedFrames());
+    }
+
+    @Test
+    public void motionAfterIdle_rampsBackToTargetFps() {
+        staticFrames(120, 80);
+        assertEquals(2f, scheduler.getCurrentInferenceFps(), 0.01f);
+
+        // El primer frame movido todavía cae dentro de la espera, pero ya la acorta
+        frame(200);
+        assertEquals(10f, scheduler.getCurrentInferenceFps(), 0.01f);
+
+        List<Long> classified = staticFrames(8, 200);
+        assertFalse(classified.isEmpty());
+        assertTrue("clasificado a los " + classified.get(0) + " ms", classified.get(0) <= 100);
+    }
+
+    @Test
+    public void reset_classifiesTheNextFrameAndKeepsCounters() {
+        staticFrames(120, 80);
+        long classified = scheduler.getClassifiedFrames();
+
+        scheduler.reset();
+        assertTrue(frame(80));
+        assertEquals(classified + 1, scheduler.getClassifiedFrames());
+        assertEquals(10f, scheduler.getCurrentInferenceFps(), 0.01f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void idleFpsAboveTarget_isRejected() {
+        new InferenceScheduler(2f, 10f, 6);
+    }
+}
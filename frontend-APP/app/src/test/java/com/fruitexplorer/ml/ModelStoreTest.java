@@ -0,0 +1,87 @@
+package com.fruitexplorer.ml;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instalación de modelos descargados: checksum, publicación atómica y limpieza
+ */
+public class ModelStoreTest {
+
+    private static final byte[] MODEL_BYTES = "TFL3 modelo de prueba".getBytes(StandardCharsets.UTF_8);
+
+    private File directory;
+    private ModelStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new File(Files.createTempDirectory("models").toFile(), "models");
+        store = new ModelStore(directory);
+    }
+
+    @Test
+    public void matchingChecksum_installsAndMaps() throws Exception {
+        File installed = store.install(7, new ByteArrayInputStream(MODEL_BYTES), sha256(MODEL_BYTES));
+
+        assertEquals(store.fileFor(7), installed);
+        MappedByteBuffer mapped = ModelStore.map(installed);
+        assertEquals(MODEL_BYTES.length, mapped.capacity());
+        assertEquals(MODEL_BYTES[0], mapped.get(0));
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void checksumIsCaseInsensitive() throws Exception {
+        store.install(7, new ByteArrayInputStream(MODEL_BYTES), sha256(MODEL_BYTES).toUpperCase());
+
+        assertTrue(store.fileFor(7).exists());
+    }
+
+    @Test
+    public void corruptedDownload_leavesNothingOnDisk() throws Exception {
+        byte[] corrupted = MODEL_BYTES.clone();
+        corrupted[3] ^= 1;
+
+        try {
+            store.install(7, new ByteArrayInputStream(corrupted), sha256(MODEL_BYTES));
+            fail("Debió rechazar el modelo");
+        } catch (IOException expected) {
+            // esperado
+        }
+
+        assertFalse(store.fileFor(7).exists());
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test(expected = IOException.class)
+    public void missingChecksum_isRejected() throws Exception {
+        store.install(7, new ByteArrayInputStream(MODEL_BYTES), null);
+    }
+
+    @Test
+    public void deleteAllExcept_keepsOnlyTheActiveModel() throws Exception {
+        store.install(7, new ByteArrayInputStream(MODEL_BYTES), sha256(MODEL_BYTES));
+        store.install(8, new ByteArrayInputStream(MODEL_BYTES), sha256(MODEL_BYTES));
+        MappedByteBuffer active = ModelStore.map(store.fileFor(8));
+
+        store.deleteAllExcept(8);
+
+        assertFalse(store.fileFor(7).exists());
+        assertTrue(store.fileFor(8).exists());
+        assertEquals(MODEL_BYTES[0], active.get(0));
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return ModelStore.toHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,118 @@
+package com.fruitexplorer.ml;
+
+import com.google.gson.JsonObject;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Histogramas y contadores del pipeline, incluido el registro concurrente
+ */
+public class PipelineMetricsTest {
+
+    private static final long FRAME_NANOS = 33_000_000L;
+
+    @Test
+    public void histogram_percentilesFollowBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.recordMicros(900);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.recordMicros(30_000);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000, histogram.getPercentileMicros(0.5));
+        assertEquals(30_000, histogram.getPercentileMicros(0.95));
+        assertEquals(30_000, histogram.getMaxMicros());
+        assertEquals((90 * 900 + 10 * 30_000) / 100, histogram.getMeanMicros());
+    }
+
+    @Test
+    public void histogram_emptyReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getPercentileMicros(0.99));
+        assertEquals(0, histogram.getMeanMicros());
+    }
+
+    @Test
+    public void histogram_concurrentRecordsAreNotLost() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.recordNanos(2_000_000L);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        long total = 0;
+        for (long count : histogram.getBucketCounts()) {
+            total += count;
+        }
+        assertEquals(40_000, total);
+    }
+
+    @Test
+    public void timestampGaps_countCameraDrops() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        long timestamp = 0;
+        for (int i = 0; i < 10; i++) {
+            metrics.onFrameReceived(timestamp);
+            timestamp += FRAME_NANOS;
+        }
+        // Dos frames perdidos por backpressure
+        timestamp += 2 * FRAME_NANOS;
+        metrics.onFrameReceived(timestamp);
+
+        assertEquals(11, metrics.getFramesReceived());
+        assertEquals(2, metrics.getFramesDroppedByCamera());
+    }
+
+    @Test
+    public void cameraRestart_isNotCountedAsDrops() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.onFrameReceived(0);
+        metrics.onFrameReceived(FRAME_NANOS);
+        metrics.onFrameReceived(FRAME_NANOS + 5_000_000_000L);
+
+        assertEquals(0, metrics.getFramesDroppedByCamera());
+    }
+
+    @Test
+    public void jsonSnapshot_containsEveryStageAndCounter() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.recordConversion(1_500_000L);
+        metrics.recordInference(12_000_000L);
+        metrics.onFrameClassified();
+        metrics.recordDispatch(4_000_000L);
+        metrics.recordTimeToLock(420_000_000L);
+        metrics.onFrameSkipped();
+
+        JsonObject json = metrics.toJson();
+
+        JsonObject stages = json.getAsJsonObject("stages");
+        assertEquals(1, stages.getAsJsonObject("conversion").get("count").getAsLong());
+        assertEquals(12_000, stages.getAsJsonObject("inference").get("max_us").getAsLong());
+        assertEquals(4_000, stages.getAsJsonObject("dispatch").get("p50_us").getAsLong());
+        assertEquals(420_000, stages.getAsJsonObject("time_to_lock").get("p99_us").getAsLong());
+        JsonObject frames = json.getAsJsonObject("frames");
+        assertEquals(1, frames.get("classified").getAsLong());
+        assertEquals(1, frames.get("skipped_by_scheduler").getAsLong());
+        assertEquals(LatencyHistogram.getBucketLimitsMicros().length + 1,
+                stages.getAsJsonObject("inference").getAsJsonArray("bucket_counts").size());
+    }
+}
@@ -0,0 +1,179 @@
+package com.fruitexplorer.ml;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Recortes de la retícula y mosaicos sobre un frame sintético: el clasificador falso
+ * puntúa la clase 0 según la fracción de píxeles claros (la "fruta") en su entrada.
+ */
+public class RoiClassifierTest {
+
+    private static final int WIDTH = 320;
+    private static final int HEIGHT = 240;
+    private static final int INPUT_SIZE = 32;
+    private static final long CROP_NANOS = 20_000_000L;
+    private static final float BACKGROUND_SCORE = 0.05f;
+
+    private long fakeNanos;
+    private int classifyCalls;
+
+    @Test
+    public void smallCentredFruit_scoresHigherInTheReticle() {
+        Frame frame = Frame.withBrightSquare(140, 100, 40);
+        RoiClassifier roi = newRoi(false, Long.MAX_VALUE);
+        int[] labels = new int[2];
+        float[] scores = new float[2];
+
+        int count = roi.classify(frame.y, WIDTH, frame.u, frame.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, labels, scores);
+
+        assertEquals(2, count);
+        assertEquals(1, roi.getCropCount());
+        assertEquals(0, labels[0]);
+        float reticleScore = scores[0];
+
+        RoiClassifier fullFrame = newRoi(true, Long.MAX_VALUE);
+        fullFrame.classify(frame.y, WIDTH, frame.u, frame.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, labels, scores);
+        assertEquals(0, fullFrame.getLastBestCrop());
+        assertTrue(reticleScore > brightFraction(40 * 40, WIDTH * HEIGHT) * 2);
+    }
+
+    @Test
+    public void fruitInACorner_isFoundByATile() {
+        Frame frame = Frame.withBrightSquare(10, 10, 40);
+        RoiClassifier roi = newRoi(true, Long.MAX_VALUE);
+        int[] labels = new int[2];
+        float[] scores = new float[2];
+
+        roi.classify(frame.y, WIDTH, frame.u, frame.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, labels, scores);
+
+        assertEquals(6, roi.getCropCount());
+        assertEquals(6, roi.getLastCropsEvaluated());
+        // Mosaico superior izquierdo: retícula, frame completo, luego los 4 mosaicos
+        assertEquals(2, roi.getLastBestCrop());
+        assertEquals(0, labels[0]);
+    }
+
+    @Test
+    public void frameBudget_stopsBeforeExceedingIt() {
+        Frame frame = Frame.withBrightSquare(10, 10, 40);
+        RoiClassifier roi = newRoi(true, 3 * CROP_NANOS);
+
+        roi.classify(frame.y, WIDTH, frame.u, frame.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, new int[2], new float[2]);
+
+        assertEquals(3, roi.getLastCropsEvaluated());
+        assertEquals(3, classifyCalls);
+    }
+
+    @Test
+    public void reticleIsAlwaysEvaluated() {
+        Frame frame = Frame.withBrightSquare(140, 100, 40);
+        RoiClassifier roi = newRoi(true, 1);
+        float[] scores = new float[2];
+
+        int count = roi.classify(frame.y, WIDTH, frame.u, frame.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, new int[2], scores);
+
+        assertEquals(2, count);
+        assertEquals(1, roi.getLastCropsEvaluated());
+        assertEquals(0, roi.getLastBestCrop());
+    }
+
+    @Test
+    public void defaultConfiguration_runsOneInferencePerFrame() {
+        Frame frame = Frame.withBrightSquare(10, 10, 40);
+        RoiClassifier roi = new RoiClassifier(this::fakeClassify, new PipelineMetrics(), () -> fakeNanos,
+                INPUT_SIZE, 2);
+
+        roi.classify(frame.y, WIDTH, frame.u, frame.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, new int[2], new float[2]);
+
+        assertEquals(1, roi.getCropCount());
+        assertEquals(1, classifyCalls);
+    }
+
+    @Test
+    public void otherScales_onlyWhenTheReticleIsInconclusive() {
+        // Con el umbral de CameraActivity: una fruta grande en la retícula ya bloquearía y no se evalúa nada más
+        RoiClassifier roi = newRoi(DetectionConfirmer.DEFAULT_LOCK_THRESHOLD, Long.MAX_VALUE);
+        Frame centred = Frame.withBrightSquare(90, 50, 140);
+        roi.classify(centred.y, WIDTH, centred.u, centred.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, new int[2], new float[2]);
+        assertEquals(1, roi.getLastCropsEvaluated());
+
+        // Fruta en una esquina: la retícula no la ve y se recurre a los mosaicos
+        Frame corner = Frame.withBrightSquare(10, 10, 40);
+        int[] labels = new int[2];
+        roi.classify(corner.y, WIDTH, corner.u, corner.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0, labels, new float[2]);
+        assertEquals(6, roi.getLastCropsEvaluated());
+        assertEquals(2, roi.getLastBestCrop());
+        assertEquals(0, labels[0]);
+    }
+
+    @Test
+    public void classifierNotReady_returnsZero() {
+        Frame frame = Frame.withBrightSquare(140, 100, 40);
+        RoiClassifier roi = new RoiClassifier((input, labels, scores) -> 0, new PipelineMetrics(),
+                () -> fakeNanos, INPUT_SIZE, 2);
+
+        assertEquals(0, roi.classify(frame.y, WIDTH, frame.u, frame.v, WIDTH / 2, 1, WIDTH, HEIGHT, 0,
+                new int[2], new float[2]));
+    }
+
+    private RoiClassifier newRoi(boolean multiScale, long budgetNanos) {
+        return newRoi(multiScale ? RoiClassifier.ALWAYS_MULTI_SCALE : RoiClassifier.RETICLE_ONLY, budgetNanos);
+    }
+
+    private RoiClassifier newRoi(float multiScaleBelowScore, long budgetNanos) {
+        return new RoiClassifier(this::fakeClassify, new PipelineMetrics(), () -> fakeNanos,
+                INPUT_SIZE, 2, RoiClassifier.DEFAULT_RETICLE_FRACTION, multiScaleBelowScore, budgetNanos);
+    }
+
+    private int fakeClassify(ByteBuffer input, int[] labels, float[] scores) {
+        classifyCalls++;
+        fakeNanos += CROP_NANOS;
+        int bright = 0;
+        int pixels = INPUT_SIZE * INPUT_SIZE;
+        for (int i = 0; i < pixels; i++) {
+            if ((input.get(i * 3) & 0xFF) > 128) {
+                bright++;
+            }
+        }
+        // Clase 0 = fruta (fracción de píxeles claros); clase 1 = fondo con puntaje bajo fijo
+        float fruit = (float) bright / pixels;
+        boolean fruitWins = fruit >= BACKGROUND_SCORE;
+        labels[0] = fruitWins ? 0 : 1;
+        scores[0] = fruitWins ? fruit : BACKGROUND_SCORE;
+        labels[1] = fruitWins ? 1 : 0;
+        scores[1] = fruitWins ? BACKGROUND_SCORE : fruit;
+        return 2;
+    }
+
+    private static float brightFraction(int bright, int total) {
+        return (float) bright / total;
+    }
+
+    /**
+     * Frame YUV 4:2:0 planar gris con un cuadrado blanco
+     */
+    private static final class Frame {
+        final ByteBuffer y = ByteBuffer.allocateDirect(WIDTH * HEIGHT);
+        final ByteBuffer u = ByteBuffer.allocateDirect(WIDTH * HEIGHT / 4);
+        final ByteBuffer v = ByteBuffer.allocateDirect(WIDTH * HEIGHT / 4);
+
+        static Frame withBrightSquare(int left, int top, int side) {
+            Frame frame = new Frame();
+            for (int row = 0; row < HEIGHT; row++) {
+                for (int column = 0; column < WIDTH; column++) {
+                    boolean inside = column >= left && column < left + side && row >= top && row < top + side;
+                    frame.y.put(row * WIDTH + column, (byte) (inside ? 235 : 40));
+                }
+            }
+            for (int i = 0; i < WIDTH * HEIGHT / 4; i++) {
+                frame.u.put(i, (byte) 128);
+                frame.v.put(i, (byte) 128);
+            }
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.fruitexplorer.ml;
+
+import com.fruitexplorer.utils.Scheduler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Precarga de la ficha con la candidata estable: los Snapshots pasan por DetectionController como en
+ * CameraActivity, con la UI en el mismo hilo y un reloj manual en lugar del Handler. Los casos de
+ * puntajes entran como en FruitAnalyzer, por CandidateReporter y DetectionConfirmer.
+ */
+public class StableCandidateTriggerTest {
+
+    private static final long STABLE_MS = 300;
+    private static final long FRAME_MS = 100;
+    private static final int AGUAJE = 0;
+    private static final int LUCUMA = 1;
+    private static final String[] LABELS = {"aguaje", "lucuma"};
+
+    private final List<String> events = new ArrayList<>();
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final StableCandidateTrigger trigger =
+            new StableCandidateTrigger(scheduler, STABLE_MS, label -> events.add("precarga " + label));
+    private DetectionController controller;
+    private CandidateReporter reporter;
+    private long frameMillis;
+
+    @Before
+    public void setUp() {
+        // Lo mismo que CameraActivity.onDetectionStateChanged: el trigger primero y el bloqueo después
+        controller = new DetectionController(Runnable::run, snapshot -> {
+            trigger.onSnapshot(snapshot);
+            if (snapshot.getState() == DetectionController.State.LOCKED) {
+                events.add("bloqueo " + snapshot.getLockedLabel());
+            }
+        }, new PipelineMetrics(), System::nanoTime);
+        reporter = new CandidateReporter(controller, new DetectionConfirmer(LABELS.length), i -> LABELS[i],
+                () -> 1, 3);
+    }
+
+    private void startScan() {
+        reporter.startScanIfNew(controller.startScan());
+    }
+
+    /**
+     * Un frame clasificado con una sola etiqueta en el top-k (label < 0: nada reconocible);
+     * entre frames pasa FRAME_MS también para el Handler
+     */
+    private void frame(int label, float score) {
+        int count = label >= 0 ? 1 : 0;
+        reporter.onClassified(new int[]{label}, new float[]{score}, count, frameMillis);
+        frameMillis += FRAME_MS;
+        scheduler.advance(FRAME_MS);
+    }
+
+    @After
+    public void tearDown() {
+        controller.shutdown();
+    }
+
+    private static ClassificationResult ranking(String label, float score) {
+        ClassificationResult result = new ClassificationResult(3);
+        result.add(0, label, score);
+        return result;
+    }
+
+    @Test
+    public void stableCandidate_isPrefetchedBeforeTheLock() {
+        startScan();
+        // Puntaje medio: la lúcuma es candidata (EMA >= 0.3) pero no llega a bloquear (0.7)
+        for (int i = 0; i < 4; i++) {
+            frame(LUCUMA, 0.6f);
+        }
+        assertEquals(List.of("precarga lucuma"), events);
+
+        // Se acerca la cámara y se confirma
+        while (!controller.getSnapshot().getState().equals(DetectionController.State.LOCKED)) {
+            frame(LUCUMA, 0.95f);
+        }
+        assertEquals(List.of("precarga lucuma", "bloqueo lucuma"), events);
+    }
+
+    @Test
+    public void changingCandidate_restartsTheWait() {
+        long scanId = controller.startScan();
+        controller.reportCandidate(scanId, ranking("aguaje", 0.5f));
+        scheduler.advance(STABLE_MS - 1);
+        controller.reportCandidate(scanId, ranking("camu-camu", 0.5f));
+        scheduler.advance(STABLE_MS - 1);
+        assertTrue(events.isEmpty());
+
+        scheduler.advance(1);
+        assertEquals(List.of("precarga camu-camu"), events);
+
+        // Una sola precarga por candidata aunque siga llegando
+        controller.reportCandidate(scanId, ranking("camu-camu", 0.8f));
+        scheduler.advance(STABLE_MS * 2);
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void panningAway_clearsTheCandidateAndCancelsThePrefetch() {
+        startScan();
+        frame(AGUAJE, 0.8f);
+        assertEquals("aguaje", controller.getSnapshot().getCandidateLabel());
+
+        // La cámara se aparta: la EMA cae bajo 0.3 y el controlador vuelve a "sin candidata"
+        frame(-1, 0f);
+        assertFalse(controller.getSnapshot().hasCandidate());
+        assertEquals(0, scheduler.pending());
+        frame(-1, 0f);
+        scheduler.advance(STABLE_MS);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void earlyLock_cancelsThePrefetch() {
+        startScan();
+        frame(LUCUMA, 0.9f);
+        frame(LUCUMA, 0.9f);
+        frame(LUCUMA, 0.9f);
+        assertEquals(DetectionController.State.LOCKED, controller.getSnapshot().getState());
+
+        scheduler.advance(STABLE_MS);
+        assertEquals(List.of("bloqueo lucuma"), events);
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    public void pause_restartsTheWaitOnResume() {
+        long scanId = controller.startScan();
+        controller.reportCandidate(scanId, ranking("pitahaya", 0.5f));
+        scheduler.advance(200);
+        controller.pause();
+        scheduler.advance(STABLE_MS);
+        assertTrue(events.isEmpty());
+
+        controller.resume();
+        scheduler.advance(STABLE_MS);
+        assertEquals(List.of("precarga pitahaya"), events);
+    }
+
+    /**
+     * postDelayed/removeCallbacks de Handler con un reloj que avanza a mano
+     */
+    private static final class ManualScheduler implements Scheduler {
+        private final Map<Runnable, Long> tasks = new LinkedHashMap<>();
+        private long now = 0;
+
+        @Override
+        public void postDelayed(Runnable task, long delayMillis) {
+            tasks.put(task, now + delayMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable task) {
+            tasks.remove(task);
+        }
+
+        void advance(long millis) {
+            now += millis;
+            List<Runnable> due = new ArrayList<>();
+            tasks.forEach((task, at) -> {
+                if (at <= now) {
+                    due.add(task);
+                }
+            });
+            for (Runnable task : due) {
+                tasks.remove(task);
+                task.run();
+            }
+        }
+
+        int pending() {
+            return tasks.size();
+        }
+    }
+}
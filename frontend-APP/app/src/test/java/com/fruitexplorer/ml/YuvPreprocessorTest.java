@@ -0,0 +1,229 @@
+package com.fruitexplorer.ml;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compara YuvPreprocessor con el camino anterior: ImageProxy.toBitmap()
+ * (YUV -> ARGB a resolución completa) seguido del redimensionado bilineal
+ * que hacía TensorImage/ImageClassifier.
+ */
+public class YuvPreprocessorTest {
+
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 48;
+    private static final int OUTPUT = 24;
+    private static final int MAX_CHANNEL_DIFF = 3;
+
+    @Test
+    public void fullFrame_matchesBitmapPath() {
+        Frame frame = Frame.gradient(WIDTH, HEIGHT, 2, 8);
+        YuvPreprocessor preprocessor = new YuvPreprocessor(OUTPUT);
+
+        ByteBuffer out = frame.process(preprocessor, 0);
+
+        int[] expected = resizeBilinear(frame.toArgb(), WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, OUTPUT);
+        assertMatches(expected, out);
+    }
+
+    @Test
+    public void planarChroma_matchesBitmapPath() {
+        Frame frame = Frame.gradient(WIDTH, HEIGHT, 1, 0);
+        YuvPreprocessor preprocessor = new YuvPreprocessor(OUTPUT);
+
+        ByteBuffer out = frame.process(preprocessor, 0);
+
+        int[] expected = resizeBilinear(frame.toArgb(), WIDTH, HEIGHT, 0, 0, WIDTH, HEIGHT, OUTPUT);
+        assertMatches(expected, out);
+    }
+
+    @Test
+    public void rotation_matchesRotatedBitmap() {
+        Frame frame = Frame.gradient(WIDTH, HEIGHT, 2, 0);
+        YuvPreprocessor preprocessor = new YuvPreprocessor(OUTPUT);
+
+        for (int rotation : new int[]{90, 180, 270}) {
+            ByteBuffer out = frame.process(preprocessor, rotation);
+
+            int[] rotated = rotate(frame.toArgb(), WIDTH, HEIGHT, rotation);
+            boolean swap = rotation % 180 != 0;
+            int w = swap ? HEIGHT : WIDTH;
+            int h = swap ? WIDTH : HEIGHT;
+            int[] expected = resizeBilinear(rotated, w, h, 0, 0, w, h, OUTPUT);
+            assertMatches(expected, out);
+        }
+    }
+
+    @Test
+    public void cropRegion_matchesCroppedBitmap() {
+        Frame frame = Frame.gradient(WIDTH, HEIGHT, 2, 4);
+        YuvPreprocessor preprocessor = new YuvPreprocessor(OUTPUT);
+        preprocessor.setCropRegion(0.25f, 0.25f, 0.75f, 0.75f);
+
+        ByteBuffer out = frame.process(preprocessor, 0);
+
+        int[] expected = resizeBilinear(frame.toArgb(), WIDTH, HEIGHT,
+                WIDTH / 4, HEIGHT / 4, WIDTH / 2, HEIGHT / 2, OUTPUT);
+        assertMatches(expected, out);
+    }
+
+    @Test
+    public void outputBuffer_isReusedAcrossFrames() {
+        Frame frame = Frame.gradient(WIDTH, HEIGHT, 2, 0);
+        YuvPreprocessor preprocessor = new YuvPreprocessor(OUTPUT);
+
+        ByteBuffer first = frame.process(preprocessor, 0);
+        ByteBuffer second = frame.process(preprocessor, 90);
+
+        assertSame(first, second);
+        assertSame(preprocessor.getOutputBuffer(), second);
+        assertTrue(second.isDirect());
+        assertEquals(OUTPUT * OUTPUT * 3, second.capacity());
+        assertEquals(0, second.position());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCropRegion_isRejected() {
+        new YuvPreprocessor(OUTPUT).setCropRegion(0.5f, 0f, 0.5f, 1f);
+    }
+
+    private static void assertMatches(int[] expectedArgb, ByteBuffer actual) {
+        for (int i = 0; i < expectedArgb.length; i++) {
+            int argb = expectedArgb[i];
+            assertChannel((argb >> 16) & 0xFF, actual.get(i * 3) & 0xFF, i);
+            assertChannel((argb >> 8) & 0xFF, actual.get(i * 3 + 1) & 0xFF, i);
+            assertChannel(argb & 0xFF, actual.get(i * 3 + 2) & 0xFF, i);
+        }
+    }
+
+    private static void assertChannel(int expected, int actual, int pixel) {
+        assertTrue("Píxel " + pixel + ": esperado " + expected + ", obtenido " + actual,
+                Math.abs(expected - actual) <= MAX_CHANNEL_DIFF);
+    }
+
+    /**
+     * Redimensionado bilineal con centros de píxel, como Bitmap.createScaledBitmap(filter = true)
+     */
+    private static int[] resizeBilinear(int[] argb, int width, int height,
+                                        int cropX, int cropY, int cropW, int cropH, int size) {
+        int[] out = new int[size * size];
+        for (int oy = 0; oy < size; oy++) {
+            for (int ox = 0; ox < size; ox++) {
+                double sx = Math.max(0, cropX + (ox + 0.5) * cropW / size - 0.5);
+                double sy = Math.max(0, cropY + (oy + 0.5) * cropH / size - 0.5);
+                int x0 = Math.min((int) sx, width - 1);
+                int y0 = Math.min((int) sy, height - 1);
+                int x1 = Math.min(x0 + 1, width - 1);
+                int y1 = Math.min(y0 + 1, height - 1);
+                double fx = sx - x0;
+                double fy = sy - y0;
+                int pixel = 0xFF000000;
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    double top = channel(argb[y0 * width + x0], shift) * (1 - fx) + channel(argb[y0 * width + x1], shift) * fx;
+                    double bottom = channel(argb[y1 * width + x0], shift) * (1 - fx) + channel(argb[y1 * width + x1], shift) * fx;
+                    pixel |= ((int) Math.round(top * (1 - fy) + bottom * fy)) << shift;
+                }
+                out[oy * size + ox] = pixel;
+            }
+        }
+        return out;
+    }
+
+    private static int[] rotate(int[] argb, int width, int height, int rotation) {
+        int[] out = new int[argb.length];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int pixel = argb[y * width + x];
+                switch (rotation) {
+                    case 90:
+                        out[x * height + (height - 1 - y)] = pixel;
+                        break;
+                    case 180:
+                        out[(height - 1 - y) * width + (width - 1 - x)] = pixel;
+                        break;
+                    default:
+                        out[(width - 1 - x) * height + y] = pixel;
+                        break;
+                }
+            }
+        }
+        return out;
+    }
+
+    private static int channel(int argb, int shift) {
+        return (argb >> shift) & 0xFF;
+    }
+
+    /**
+     * Frame YUV_420_888 sintético con rowStride con relleno y pixelStride configurable
+     */
+    private static final class Frame {
+        final int width;
+        final int height;
+        final int yRowStride;
+        final int uvRowStride;
+        final int uvPixelStride;
+        final ByteBuffer y;
+        final ByteBuffer u;
+        final ByteBuffer v;
+
+        private Frame(int width, int height, int uvPixelStride, int padding) {
+            this.width = width;
+            this.height = height;
+            this.uvPixelStride = uvPixelStride;
+            this.yRowStride = width + padding;
+            this.uvRowStride = (width / 2) * uvPixelStride + padding;
+            this.y = ByteBuffer.allocateDirect(yRowStride * height);
+            this.u = ByteBuffer.allocateDirect(uvRowStride * (height / 2));
+            this.v = ByteBuffer.allocateDirect(uvRowStride * (height / 2));
+        }
+
+        static Frame gradient(int width, int height, int uvPixelStride, int padding) {
+            Frame frame = new Frame(width, height, uvPixelStride, padding);
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    frame.y.put(row * frame.yRowStride + col, (byte) (20 + (col * 200) / width + (row * 20) / height));
+                }
+            }
+            for (int row = 0; row < height / 2; row++) {
+                for (int col = 0; col < width / 2; col++) {
+                    int index = row * frame.uvRowStride + col * uvPixelStride;
+                    frame.u.put(index, (byte) (90 + (row * 80) / (height / 2)));
+                    frame.v.put(index, (byte) (170 - (col * 80) / (width / 2)));
+                }
+            }
+            return frame;
+        }
+
+        ByteBuffer process(YuvPreprocessor preprocessor, int rotation) {
+            return preprocessor.process(y, yRowStride, u, v, uvRowStride, uvPixelStride, width, height, rotation);
+        }
+
+        /**
+         * Equivalente a ImageProxy.toBitmap(): BT.601 de rango limitado en coma flotante
+         */
+        int[] toArgb() {
+            int[] argb = new int[width * height];
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    int uvIndex = (row / 2) * uvRowStride + (col / 2) * uvPixelStride;
+                    double yy = 1.164 * ((y.get(row * yRowStride + col) & 0xFF) - 16);
+                    double uu = (u.get(uvIndex) & 0xFF) - 128;
+                    double vv = (v.get(uvIndex) & 0xFF) - 128;
+                    int r = clamp(yy + 1.596 * vv);
+                    int g = clamp(yy - 0.813 * vv - 0.391 * uu);
+                    int b = clamp(yy + 2.018 * uu);
+                    argb[row * width + col] = 0xFF000000 | (r << 16) | (g << 8) | b;
+                }
+            }
+            return argb;
+        }
+
+        private static int clamp(double value) {
+            return (int) Math.max(0, Math.min(255, Math.round(value)));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.fruitexplorer.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Estado de autenticación en memoria: una sola lectura de disco, una sola renovación del token
+ * para varias peticiones rechazadas a la vez y un solo aviso de sesión vencida
+ */
+public class AuthStateTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<String> writes = new ArrayList<>();
+    private final AtomicInteger expiredEvents = new AtomicInteger();
+    private AuthState.Session stored;
+    private AuthState authState;
+
+    @Before
+    public void setUp() {
+        stored = new AuthState.Session("u1", "t1", 1_000);
+        authState = new AuthState(new AuthState.Storage() {
+            @Override
+            public AuthState.Session load() {
+                loads.incrementAndGet();
+                return stored;
+            }
+
+            @Override
+            public synchronized void saveToken(String token, long loginTimestamp) {
+                writes.add("guardar " + token);
+            }
+
+            @Override
+            public synchronized void clear() {
+                writes.add("limpiar");
+            }
+        });
+        authState.setListener(expiredEvents::incrementAndGet);
+    }
+
+    @Test
+    public void session_isReadFromStorageOnce() {
+        assertEquals("t1", authState.current().getToken());
+        assertEquals("t1", authState.current().getToken());
+        assertEquals(1, loads.get());
+
+        authState.signOut();
+        assertFalse(authState.isSignedIn());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void concurrentRefreshes_callTheServerOnce() throws Exception {
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AuthState.Refresher refresher = token -> {
+            refreshes.incrementAndGet();
+            inFlight.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return "t2";
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(pool.submit(() -> authState.refresh("t1", refresher)));
+        assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            results.add(pool.submit(() -> authState.refresh("t1", refresher)));
+        }
+        release.countDown();
+        for (Future<String> result : results) {
+            assertEquals("t2", result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(1, refreshes.get());
+        assertEquals(List.of("guardar t2"), writes);
+        assertEquals("t2", authState.current().getToken());
+        assertEquals("u1", authState.current().getUserId());
+        // La renovación no alarga la sesión: el límite de 30 días cuenta desde el login
+        assertEquals(1_000, authState.current().getLoginTimestamp());
+    }
+
+    @Test
+    public void rejectedRefresh_expiresTheSessionOnce() throws IOException {
+        assertNull(authState.refresh("t1", token -> null));
+        assertNull(authState.refresh("t1", token -> "no se pide"));
+        authState.expire(stored);
+
+        assertFalse(authState.isSignedIn());
+        assertEquals(1, expiredEvents.get());
+        assertEquals(List.of("limpiar"), writes);
+    }
+
+    @Test
+    public void failedRefresh_keepsTheSession() {
+        try {
+            authState.refresh("t1", token -> {
+                throw new IOException("sin red");
+            });
+            fail("Se esperaba IOException");
+        } catch (IOException expected) {
+            assertTrue(authState.isSignedIn());
+            assertEquals(0, expiredEvents.get());
+        }
+    }
+
+    @Test
+    public void expiringAnOldSession_doesNotCloseANewLogin() {
+        AuthState.Session old = authState.current();
+        authState.signIn("u9", "t9", 5_000);
+        authState.expire(old);
+
+        assertEquals("t9", authState.current().getToken());
+        assertEquals("u9", authState.current().getUserId());
+        assertEquals(0, expiredEvents.get());
+    }
+}
@@ -56,7 +56,8 @@ CREATE TABLE `fruits` (
   `source_api_url` text DEFAULT NULL,
   `last_synced_at` datetime DEFAULT NULL,
   `synced_by` char(36) DEFAULT NULL,
-  `created_at` timestamp NOT NULL DEFAULT current_timestamp()
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp()
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- --------------------------------------------------------
@@ -93,6 +94,8 @@ CREATE TABLE `ml_models` (
   `version` varchar(50) NOT NULL,
   `status` varchar(20) DEFAULT 'active',
   `tflite_url` text NOT NULL,
+  `checksum_sha256` char(64) DEFAULT NULL,
+  `quantization` varchar(20) DEFAULT 'float32',
   `trained_by` char(36) DEFAULT NULL,
   `training_source` varchar(100) DEFAULT NULL,
   `training_dataset_url` text DEFAULT NULL,
@@ -107,6 +110,7 @@ CREATE TABLE `ml_models` (
 
 CREATE TABLE `queries` (
   `id` bigint(20) NOT NULL,
+  `client_id` char(36) DEFAULT NULL,
   `user_id` char(36) DEFAULT NULL,
   `fruit_id` int(11) DEFAULT NULL,
   `model_id` int(11) DEFAULT NULL,
@@ -131,7 +135,8 @@ CREATE TABLE `recipes` (
   `title` varchar(200) NOT NULL,
   `description` text DEFAULT NULL,
   `source` text DEFAULT NULL,
-  `image_url` text DEFAULT NULL
+  `image_url` text DEFAULT NULL,
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp()
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- --------------------------------------------------------
@@ -158,7 +163,8 @@ CREATE TABLE `regions` (
   `name` varchar(150) NOT NULL,
   `description` text DEFAULT NULL,
   `image_url` text DEFAULT NULL,
-  `geo_polygon` text DEFAULT NULL
+  `geo_polygon` text DEFAULT NULL,
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp()
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- --------------------------------------------------------
@@ -257,7 +263,8 @@ ALTER TABLE `fruits`
   ADD PRIMARY KEY (`id`),
   ADD UNIQUE KEY `slug` (`slug`),
   ADD KEY `synced_by` (`synced_by`),
-  ADD KEY `idx_fruits_name` (`common_name`);
+  ADD KEY `idx_fruits_name` (`common_name`),
+  ADD KEY `idx_fruits_updated_at` (`updated_at`);
 
 --
 -- Indices de la tabla `fruit_recipes`
@@ -290,13 +297,15 @@ ALTER TABLE `queries`
   ADD KEY `model_id` (`model_id`),
   ADD KEY `idx_queries_user` (`user_id`),
   ADD KEY `idx_queries_fruit` (`fruit_id`),
-  ADD KEY `idx_queries_date` (`detected_at`);
+  ADD KEY `idx_queries_date` (`detected_at`),
+  ADD UNIQUE KEY `uq_queries_client_id` (`client_id`);
 
 --
 -- Indices de la tabla `recipes`
 --
 ALTER TABLE `recipes`
-  ADD PRIMARY KEY (`id`);
+  ADD PRIMARY KEY (`id`),
+  ADD KEY `idx_recipes_updated_at` (`updated_at`);
 
 --
 -- Indices de la tabla `recipe_steps`
@@ -310,7 +319,8 @@ ALTER TABLE `recipe_steps`
 --
 ALTER TABLE `regions`
   ADD PRIMARY KEY (`id`),
-  ADD UNIQUE KEY `name` (`name`);
+  ADD UNIQUE KEY `name` (`name`),
+  ADD KEY `idx_regions_updated_at` (`updated_at`);
 
 --
 -- Indices de la tabla `roles`